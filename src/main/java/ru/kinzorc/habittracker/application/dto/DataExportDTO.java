@@ -0,0 +1,82 @@
+package ru.kinzorc.habittracker.application.dto;
+
+import java.nio.file.Path;
+
+/**
+ * Класс Data Transfer Object (DTO) для передачи результата выгрузки данных в архив.
+ */
+public class DataExportDTO {
+
+    /**
+     * Путь к созданному архиву.
+     */
+    private final Path archive;
+
+    /**
+     * Количество выгруженных строк во всех таблицах.
+     */
+    private final long rows;
+
+    /**
+     * Объем выгруженных данных до сжатия в байтах.
+     */
+    private final long uncompressedBytes;
+
+    /**
+     * Размер архива в байтах.
+     */
+    private final long archiveBytes;
+
+    /**
+     * Длительность выгрузки в миллисекундах.
+     */
+    private final long elapsedMillis;
+
+    /**
+     * Конструктор для создания результата выгрузки.
+     *
+     * @param archive           путь к созданному архиву
+     * @param rows              количество выгруженных строк
+     * @param uncompressedBytes объем данных до сжатия в байтах
+     * @param archiveBytes      размер архива в байтах
+     * @param elapsedMillis     длительность выгрузки в миллисекундах
+     */
+    public DataExportDTO(Path archive, long rows, long uncompressedBytes, long archiveBytes, long elapsedMillis) {
+        this.archive = archive;
+        this.rows = rows;
+        this.uncompressedBytes = uncompressedBytes;
+        this.archiveBytes = archiveBytes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Геттеры
+
+    public Path getArchive() {
+        return archive;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getUncompressedBytes() {
+        return uncompressedBytes;
+    }
+
+    public long getArchiveBytes() {
+        return archiveBytes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Возвращает скорость выгрузки в мегабайтах несжатых данных в секунду.
+     *
+     * @return скорость выгрузки в МБ/с
+     */
+    public double getMegabytesPerSecond() {
+        return (uncompressedBytes / (1024.0 * 1024.0)) / (Math.max(elapsedMillis, 1) / 1000.0);
+    }
+}
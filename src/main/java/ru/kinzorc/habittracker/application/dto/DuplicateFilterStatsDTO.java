@@ -0,0 +1,104 @@
+package ru.kinzorc.habittracker.application.dto;
+
+/**
+ * Класс Data Transfer Object (DTO) для передачи показателей фильтра предварительной проверки дубликатов.
+ */
+public class DuplicateFilterStatsDTO {
+
+    /**
+     * Имя фильтра.
+     */
+    private final String name;
+
+    /**
+     * Количество значений, добавленных в фильтр.
+     */
+    private final long entries;
+
+    /**
+     * Объем памяти, занимаемый фильтром, в байтах.
+     */
+    private final long memoryBytes;
+
+    /**
+     * Расчетная вероятность ложного срабатывания при текущем заполнении фильтра.
+     */
+    private final double expectedFalsePositiveRate;
+
+    /**
+     * Количество проверок, для которых фильтр дал точный отрицательный ответ и запрос к базе данных не выполнялся.
+     */
+    private final long skippedChecks;
+
+    /**
+     * Количество проверок, выполненных в базе данных.
+     */
+    private final long databaseChecks;
+
+    /**
+     * Количество проверок, в которых фильтр ответил «возможно занято», а база данных — «свободно».
+     */
+    private final long falsePositives;
+
+    /**
+     * Конструктор для создания снимка показателей фильтра.
+     *
+     * @param name                      имя фильтра
+     * @param entries                   количество значений в фильтре
+     * @param memoryBytes               объем памяти фильтра в байтах
+     * @param expectedFalsePositiveRate расчетная вероятность ложного срабатывания
+     * @param skippedChecks             количество проверок без запроса к базе данных
+     * @param databaseChecks            количество проверок в базе данных
+     * @param falsePositives            количество ложных срабатываний
+     */
+    public DuplicateFilterStatsDTO(String name, long entries, long memoryBytes, double expectedFalsePositiveRate,
+                                   long skippedChecks, long databaseChecks, long falsePositives) {
+        this.name = name;
+        this.entries = entries;
+        this.memoryBytes = memoryBytes;
+        this.expectedFalsePositiveRate = expectedFalsePositiveRate;
+        this.skippedChecks = skippedChecks;
+        this.databaseChecks = databaseChecks;
+        this.falsePositives = falsePositives;
+    }
+
+    // Геттеры
+
+    public String getName() {
+        return name;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public double getExpectedFalsePositiveRate() {
+        return expectedFalsePositiveRate;
+    }
+
+    public long getSkippedChecks() {
+        return skippedChecks;
+    }
+
+    public long getDatabaseChecks() {
+        return databaseChecks;
+    }
+
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+
+    /**
+     * Возвращает наблюдаемую долю ложных срабатываний среди проверок свободных значений.
+     *
+     * @return доля ложных срабатываний, от 0 до 1
+     */
+    public double getObservedFalsePositiveRate() {
+        long negatives = skippedChecks + falsePositives;
+        return negatives == 0 ? 0 : (double) falsePositives / negatives;
+    }
+}
@@ -0,0 +1,90 @@
+package ru.kinzorc.habittracker.application.dto;
+
+/**
+ * Класс Data Transfer Object (DTO) для передачи электронного письма.
+ * <p>
+ * Используется для постановки писем в очередь исходящих сообщений (outbox) и для их последующей отправки.
+ * </p>
+ */
+public class EmailMessageDTO {
+
+    /**
+     * Уникальный идентификатор письма в очереди исходящих сообщений.
+     */
+    private long id;
+
+    /**
+     * Адрес электронной почты получателя.
+     */
+    private String recipient;
+
+    /**
+     * Тема письма.
+     */
+    private String subject;
+
+    /**
+     * Текст письма.
+     */
+    private String text;
+
+    /**
+     * Количество уже выполненных попыток отправки.
+     */
+    private int attempts;
+
+    /**
+     * Конструктор для создания нового письма.
+     *
+     * @param recipient адрес электронной почты получателя
+     * @param subject   тема письма
+     * @param text      текст письма
+     */
+    public EmailMessageDTO(String recipient, String subject, String text) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.text = text;
+    }
+
+    // Геттеры и сеттеры
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+}
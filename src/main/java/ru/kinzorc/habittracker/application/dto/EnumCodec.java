@@ -0,0 +1,77 @@
+package ru.kinzorc.habittracker.application.dto;
+
+import java.util.Arrays;
+
+/**
+ * Таблица кодирования значений перечисления в компактные коды {@code smallint} для хранения в базе данных.
+ * <p>
+ * Код значения — его позиция в таблице, переданной при создании, поэтому соответствие кодов не зависит от порядка
+ * объявления констант в перечислении. Обе таблицы (код → значение и значение → код) вычисляются один раз,
+ * так что кодирование и декодирование не создают объектов и не выполняют поиск по строкам.
+ * </p>
+ *
+ * @param <E> тип перечисления
+ */
+public final class EnumCodec<E extends Enum<E>> {
+
+    private final Class<E> type;
+    private final E[] values;
+    private final short[] codes;
+
+    private EnumCodec(Class<E> type, E[] values) {
+        E[] constants = type.getEnumConstants();
+        if (values.length != constants.length || Arrays.stream(values).distinct().count() != constants.length) {
+            throw new IllegalArgumentException("Таблица кодов должна содержать все значения " + type.getSimpleName() + " по одному разу.");
+        }
+
+        this.type = type;
+        this.values = values;
+        this.codes = new short[constants.length];
+        for (short code = 0; code < values.length; code++) {
+            codes[values[code].ordinal()] = code;
+        }
+    }
+
+    /**
+     * Создает таблицу кодирования, в которой код значения равен его позиции в {@code values}.
+     *
+     * @param type   класс перечисления
+     * @param values все значения перечисления в порядке кодов
+     * @param <E>    тип перечисления
+     * @return таблица кодирования
+     */
+    @SafeVarargs
+    public static <E extends Enum<E>> EnumCodec<E> of(Class<E> type, E... values) {
+        // Поэлементная копия в массив, созданный по классу перечисления: массив аргументов не покидает метод
+        E[] table = Arrays.copyOf(type.getEnumConstants(), values.length);
+        for (int i = 0; i < values.length; i++) {
+            table[i] = values[i];
+        }
+        return new EnumCodec<>(type, table);
+    }
+
+    /**
+     * Возвращает код значения перечисления.
+     *
+     * @param value значение перечисления
+     * @return код значения
+     */
+    public short encode(E value) {
+        return codes[value.ordinal()];
+    }
+
+    /**
+     * Возвращает значение перечисления по коду.
+     *
+     * @param code код значения
+     * @return значение перечисления
+     * @throws IllegalArgumentException если код не соответствует ни одному значению
+     */
+    public E decode(int code) {
+        if (code < 0 || code >= values.length) {
+            throw new IllegalArgumentException("Неизвестный код " + code + " для " + type.getSimpleName() + ".");
+        }
+
+        return values[code];
+    }
+}
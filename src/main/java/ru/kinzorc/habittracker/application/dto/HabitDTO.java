@@ -21,6 +21,30 @@ import java.time.LocalTime;
  */
 public class HabitDTO {
 
+    /**
+     * Коды частоты выполнения в столбце {@code habits.frequency}.
+     */
+    public static final EnumCodec<HabitFrequency> FREQUENCY_CODEC =
+            EnumCodec.of(HabitFrequency.class, HabitFrequency.DAILY, HabitFrequency.WEEKLY);
+
+    /**
+     * Коды периода выполнения в столбце {@code habits.execution_period}.
+     */
+    public static final EnumCodec<HabitExecutionPeriod> EXECUTION_PERIOD_CODEC =
+            EnumCodec.of(HabitExecutionPeriod.class, HabitExecutionPeriod.MONTH, HabitExecutionPeriod.YEAR);
+
+    /**
+     * Коды статуса в столбце {@code habits.status}.
+     */
+    public static final EnumCodec<HabitStatus> STATUS_CODEC =
+            EnumCodec.of(HabitStatus.class, HabitStatus.ACTIVE, HabitStatus.FINISHED);
+
+    /**
+     * Список столбцов таблицы {@code habits} в порядке, в котором их читает {@link #HabitDTO(ResultSet)}.
+     */
+    public static final String COLUMNS = "id, user_id, habit_name, description, frequency, created_date, start_date, end_date, " +
+            "execution_period, status, streak, execution_percentage";
+
     /**
      * Уникальный идентификатор привычки.
      */
@@ -111,23 +135,26 @@ public class HabitDTO {
 
     /**
      * Конструктор для создания объекта DTO на основе данных из {@link ResultSet}.
+     * <p>
+     * Столбцы читаются по номеру, поэтому запрос должен выбирать их в порядке {@link #COLUMNS}.
+     * </p>
      *
      * @param resultSet объект {@link ResultSet}, содержащий данные из базы данных
      * @throws SQLException если возникает ошибка при извлечении данных из {@link ResultSet}
      */
     public HabitDTO(ResultSet resultSet) throws SQLException {
-        this.id = resultSet.getLong("id");
-        this.userId = resultSet.getLong("user_id");
-        this.name = resultSet.getString("habit_name");
-        this.description = resultSet.getString("description");
-        this.frequency = HabitFrequency.valueOf(resultSet.getString("frequency").toUpperCase());
-        this.createdDate = resultSet.getTimestamp("created_date").toLocalDateTime().toLocalDate();
-        this.startDate = resultSet.getTimestamp("start_date").toLocalDateTime().toLocalDate();
-        this.endDate = resultSet.getTimestamp("end_date").toLocalDateTime().toLocalDate();
-        this.executionPeriod = HabitExecutionPeriod.valueOf(resultSet.getString("execution_period").toUpperCase());
-        this.status = HabitStatus.valueOf(resultSet.getString("status").toUpperCase());
-        this.streak = resultSet.getInt("streak");
-        this.executionPercentage = resultSet.getInt("execution_percentage");
+        this.id = resultSet.getLong(1);
+        this.userId = resultSet.getLong(2);
+        this.name = resultSet.getString(3);
+        this.description = resultSet.getString(4);
+        this.frequency = FREQUENCY_CODEC.decode(resultSet.getShort(5));
+        this.createdDate = resultSet.getObject(6, LocalDate.class);
+        this.startDate = resultSet.getObject(7, LocalDate.class);
+        this.endDate = resultSet.getObject(8, LocalDate.class);
+        this.executionPeriod = EXECUTION_PERIOD_CODEC.decode(resultSet.getShort(9));
+        this.status = STATUS_CODEC.decode(resultSet.getShort(10));
+        this.streak = resultSet.getInt(11);
+        this.executionPercentage = resultSet.getInt(12);
     }
 
     // for tests
@@ -251,8 +278,8 @@ public class HabitDTO {
      * @return массив объектов для использования в SQL-запросах
      */
     public Object[] toSqlParams() {
-        return new Object[]{userId, name, description, frequency.toString().toLowerCase(), LocalDateTime.of(createdDate, LocalTime.MIDNIGHT),
+        return new Object[]{userId, name, description, FREQUENCY_CODEC.encode(frequency), LocalDateTime.of(createdDate, LocalTime.MIDNIGHT),
                 LocalDateTime.of(startDate, LocalTime.MIDNIGHT), LocalDateTime.of(endDate, LocalTime.MAX),
-                executionPeriod.toString().toLowerCase(), status.toString().toLowerCase(), streak, executionPercentage};
+                EXECUTION_PERIOD_CODEC.encode(executionPeriod), STATUS_CODEC.encode(status), streak, executionPercentage};
     }
 }
@@ -0,0 +1,62 @@
+package ru.kinzorc.habittracker.application.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс Data Transfer Object (DTO) для передачи сохраненной позиции фоновой задачи.
+ */
+public class JobCheckpointDTO {
+
+    /**
+     * Имя задачи.
+     */
+    private final String jobName;
+
+    /**
+     * Позиция, с которой задача продолжит работу.
+     */
+    private final long position;
+
+    /**
+     * Количество строк, обработанных задачей до этой позиции.
+     */
+    private final long processedRows;
+
+    /**
+     * Время сохранения позиции.
+     */
+    private final LocalDateTime updatedAt;
+
+    /**
+     * Конструктор для создания сохраненной позиции задачи.
+     *
+     * @param jobName       имя задачи
+     * @param position      позиция, с которой задача продолжит работу
+     * @param processedRows количество обработанных строк
+     * @param updatedAt     время сохранения позиции
+     */
+    public JobCheckpointDTO(String jobName, long position, long processedRows, LocalDateTime updatedAt) {
+        this.jobName = jobName;
+        this.position = position;
+        this.processedRows = processedRows;
+        this.updatedAt = updatedAt;
+    }
+
+    // Геттеры
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getProcessedRows() {
+        return processedRows;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
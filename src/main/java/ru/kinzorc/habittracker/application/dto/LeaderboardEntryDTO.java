@@ -0,0 +1,97 @@
+package ru.kinzorc.habittracker.application.dto;
+
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+import ru.kinzorc.habittracker.core.enums.Habit.LeaderboardMetric;
+
+/**
+ * Класс Data Transfer Object (DTO) для передачи позиции привычки в рейтинге.
+ * <p>
+ * Хранит снимок показателей привычки на момент последнего обновления рейтинга, чтобы чтение рейтинга
+ * не требовало обращения к таблице привычек.
+ * </p>
+ */
+public class LeaderboardEntryDTO {
+
+    /**
+     * Уникальный идентификатор привычки.
+     */
+    private final long habitId;
+
+    /**
+     * Идентификатор пользователя, к которому принадлежит привычка.
+     */
+    private final long userId;
+
+    /**
+     * Имя привычки.
+     */
+    private final String habitName;
+
+    /**
+     * Частота выполнения привычки.
+     */
+    private final HabitFrequency frequency;
+
+    /**
+     * Текущий стрик привычки.
+     */
+    private final int streak;
+
+    /**
+     * Процент выполнения привычки.
+     */
+    private final int executionPercentage;
+
+    /**
+     * Конструктор для создания позиции рейтинга на основе {@link HabitDTO}.
+     *
+     * @param habit объект {@link HabitDTO} с актуальными показателями привычки
+     */
+    public LeaderboardEntryDTO(HabitDTO habit) {
+        this.habitId = habit.getId();
+        this.userId = habit.getUserId();
+        this.habitName = habit.getName();
+        this.frequency = habit.getFrequency();
+        this.streak = habit.getStreak();
+        this.executionPercentage = habit.getExecutionPercentage();
+    }
+
+    // Геттеры
+
+    public long getHabitId() {
+        return habitId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getHabitName() {
+        return habitName;
+    }
+
+    public HabitFrequency getFrequency() {
+        return frequency;
+    }
+
+    public int getStreak() {
+        return streak;
+    }
+
+    public int getExecutionPercentage() {
+        return executionPercentage;
+    }
+
+    /**
+     * Возвращает значение показателя, по которому строится рейтинг.
+     *
+     * @param metric показатель рейтинга
+     * @return значение показателя для данной привычки
+     */
+    public int getScore(LeaderboardMetric metric) {
+        return switch (metric) {
+            case STREAK -> streak;
+            case EXECUTION_PERCENTAGE -> executionPercentage;
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package ru.kinzorc.habittracker.application.dto;
+
+/**
+ * Класс Data Transfer Object (DTO) для передачи прогресса очистки устаревших данных.
+ */
+public class PurgeProgressDTO {
+
+    /**
+     * Имя текущего (или последнего выполненного) этапа очистки.
+     */
+    private final String jobName;
+
+    /**
+     * Текущая позиция этапа (страница таблицы или идентификатор строки).
+     */
+    private final long position;
+
+    /**
+     * Позиция, на которой этап завершится.
+     */
+    private final long end;
+
+    /**
+     * Количество удаленных строк за текущий запуск.
+     */
+    private final long deletedRows;
+
+    /**
+     * Длительность текущего запуска в миллисекундах.
+     */
+    private final long elapsedMillis;
+
+    /**
+     * Признак того, что очистка выполняется в данный момент.
+     */
+    private final boolean running;
+
+    /**
+     * Конструктор для создания снимка прогресса очистки.
+     *
+     * @param jobName       имя этапа очистки
+     * @param position      текущая позиция этапа
+     * @param end           позиция завершения этапа
+     * @param deletedRows   количество удаленных строк
+     * @param elapsedMillis длительность запуска в миллисекундах
+     * @param running       признак выполнения очистки
+     */
+    public PurgeProgressDTO(String jobName, long position, long end, long deletedRows, long elapsedMillis, boolean running) {
+        this.jobName = jobName;
+        this.position = position;
+        this.end = end;
+        this.deletedRows = deletedRows;
+        this.elapsedMillis = elapsedMillis;
+        this.running = running;
+    }
+
+    // Геттеры
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long getDeletedRows() {
+        return deletedRows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Возвращает долю пройденного этапа в процентах.
+     *
+     * @return процент выполнения этапа
+     */
+    public int getPercent() {
+        return end <= 0 ? 100 : (int) Math.min(100, position * 100 / end);
+    }
+
+    /**
+     * Возвращает среднюю скорость удаления за текущий запуск.
+     *
+     * @return количество удаленных строк в секунду
+     */
+    public double getRowsPerSecond() {
+        return deletedRows / (Math.max(elapsedMillis, 1) / 1000.0);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.kinzorc.habittracker.application.dto;
+
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+
+import java.time.LocalTime;
+
+/**
+ * Класс Data Transfer Object (DTO) для передачи напоминания о выполнении привычки.
+ * <p>
+ * Содержит данные привычки и пользователя, необходимые для проверки выполнения и отправки напоминания,
+ * чтобы при срабатывании напоминания не требовались дополнительные запросы к базе данных.
+ * </p>
+ */
+public class ReminderDTO {
+
+    /**
+     * Уникальный идентификатор привычки.
+     */
+    private final long habitId;
+
+    /**
+     * Имя привычки.
+     */
+    private final String habitName;
+
+    /**
+     * Частота выполнения привычки.
+     */
+    private final HabitFrequency frequency;
+
+    /**
+     * Имя пользователя.
+     */
+    private final String userName;
+
+    /**
+     * Электронная почта пользователя.
+     */
+    private final String email;
+
+    /**
+     * Время напоминания.
+     */
+    private final LocalTime remindTime;
+
+    /**
+     * Конструктор для создания напоминания.
+     *
+     * @param habitId    уникальный идентификатор привычки
+     * @param habitName  имя привычки
+     * @param frequency  частота выполнения привычки
+     * @param userName   имя пользователя
+     * @param email      электронная почта пользователя
+     * @param remindTime время напоминания
+     */
+    public ReminderDTO(long habitId, String habitName, HabitFrequency frequency, String userName, String email, LocalTime remindTime) {
+        this.habitId = habitId;
+        this.habitName = habitName;
+        this.frequency = frequency;
+        this.userName = userName;
+        this.email = email;
+        this.remindTime = remindTime;
+    }
+
+    // Геттеры
+
+    public long getHabitId() {
+        return habitId;
+    }
+
+    public String getHabitName() {
+        return habitName;
+    }
+
+    public HabitFrequency getFrequency() {
+        return frequency;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public LocalTime getRemindTime() {
+        return remindTime;
+    }
+}
@@ -0,0 +1,109 @@
+package ru.kinzorc.habittracker.application.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс Data Transfer Object (DTO) для передачи сессии пользователя.
+ * <p>
+ * Экземпляр неизменяемый: продление сессии создает новый объект через {@link #touch(LocalDateTime, LocalDateTime)}.
+ * </p>
+ */
+public class SessionDTO {
+
+    /**
+     * Уникальный идентификатор сессии.
+     */
+    private final long id;
+
+    /**
+     * Идентификатор пользователя.
+     */
+    private final long userId;
+
+    /**
+     * Идентификатор узла приложения, открывшего сессию.
+     */
+    private final String nodeId;
+
+    /**
+     * Время входа пользователя.
+     */
+    private final LocalDateTime loginTime;
+
+    /**
+     * Время последней активности пользователя.
+     */
+    private final LocalDateTime lastActivity;
+
+    /**
+     * Время, после которого неактивная сессия считается истекшей.
+     */
+    private final LocalDateTime expiresAt;
+
+    /**
+     * Конструктор для создания сессии пользователя.
+     *
+     * @param id           идентификатор сессии
+     * @param userId       идентификатор пользователя
+     * @param nodeId       идентификатор узла приложения
+     * @param loginTime    время входа
+     * @param lastActivity время последней активности
+     * @param expiresAt    время истечения сессии
+     */
+    public SessionDTO(long id, long userId, String nodeId, LocalDateTime loginTime, LocalDateTime lastActivity,
+                      LocalDateTime expiresAt) {
+        this.id = id;
+        this.userId = userId;
+        this.nodeId = nodeId;
+        this.loginTime = loginTime;
+        this.lastActivity = lastActivity;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Возвращает копию сессии с новым временем активности и истечения.
+     *
+     * @param lastActivity время последней активности
+     * @param expiresAt    новое время истечения
+     * @return продленная сессия
+     */
+    public SessionDTO touch(LocalDateTime lastActivity, LocalDateTime expiresAt) {
+        return new SessionDTO(id, userId, nodeId, loginTime, lastActivity, expiresAt);
+    }
+
+    /**
+     * Проверяет, истекла ли сессия к указанному моменту.
+     *
+     * @param now текущее время
+     * @return {@code true}, если время истечения наступило
+     */
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    // Геттеры
+
+    public long getId() {
+        return id;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public LocalDateTime getLoginTime() {
+        return loginTime;
+    }
+
+    public LocalDateTime getLastActivity() {
+        return lastActivity;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,75 @@
+package ru.kinzorc.habittracker.application.dto;
+
+import ru.kinzorc.habittracker.core.enums.User.UserRole;
+
+import java.time.Instant;
+
+/**
+ * Класс Data Transfer Object (DTO) для передачи содержимого подписанного токена сессии.
+ */
+public class SessionTokenDTO {
+
+    /**
+     * Идентификатор токена, по которому токен отзывается. Сохраняется при продлении токена.
+     */
+    private final long tokenId;
+
+    /**
+     * Идентификатор пользователя.
+     */
+    private final long userId;
+
+    /**
+     * Роль пользователя на момент выдачи токена.
+     */
+    private final UserRole userRole;
+
+    /**
+     * Время первой выдачи токена.
+     */
+    private final Instant issuedAt;
+
+    /**
+     * Время истечения токена.
+     */
+    private final Instant expiresAt;
+
+    /**
+     * Конструктор для создания содержимого токена сессии.
+     *
+     * @param tokenId   идентификатор токена
+     * @param userId    идентификатор пользователя
+     * @param userRole  роль пользователя
+     * @param issuedAt  время первой выдачи токена
+     * @param expiresAt время истечения токена
+     */
+    public SessionTokenDTO(long tokenId, long userId, UserRole userRole, Instant issuedAt, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.userRole = userRole;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Геттеры
+
+    public long getTokenId() {
+        return tokenId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public UserRole getUserRole() {
+        return userRole;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
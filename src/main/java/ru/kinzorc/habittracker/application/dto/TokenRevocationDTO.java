@@ -0,0 +1,66 @@
+package ru.kinzorc.habittracker.application.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс Data Transfer Object (DTO) для передачи записи об отзыве токенов сессий.
+ * <p>
+ * Запись отзывает либо один токен ({@code tokenId} задан), либо все токены пользователя,
+ * выданные не позднее {@code revokedAt} ({@code tokenId} равен {@code null}).
+ * </p>
+ */
+public class TokenRevocationDTO {
+
+    /**
+     * Идентификатор отозванного токена или {@code null}, если отозваны все токены пользователя.
+     */
+    private final Long tokenId;
+
+    /**
+     * Идентификатор пользователя.
+     */
+    private final long userId;
+
+    /**
+     * Время отзыва.
+     */
+    private final LocalDateTime revokedAt;
+
+    /**
+     * Время, после которого все отозванные токены истекли и запись больше не нужна.
+     */
+    private final LocalDateTime expiresAt;
+
+    /**
+     * Конструктор для создания записи об отзыве токенов.
+     *
+     * @param tokenId   идентификатор токена или {@code null} для всех токенов пользователя
+     * @param userId    идентификатор пользователя
+     * @param revokedAt время отзыва
+     * @param expiresAt время, после которого запись больше не нужна
+     */
+    public TokenRevocationDTO(Long tokenId, long userId, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Геттеры
+
+    public Long getTokenId() {
+        return tokenId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
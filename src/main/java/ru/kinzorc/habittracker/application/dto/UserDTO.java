@@ -17,6 +17,22 @@ import java.sql.SQLException;
  */
 public class UserDTO {
 
+    /**
+     * Коды ролей в столбце {@code users.role} (справочник {@code user_roles}).
+     */
+    public static final EnumCodec<UserRole> ROLE_CODEC = EnumCodec.of(UserRole.class, UserRole.USER, UserRole.ADMIN);
+
+    /**
+     * Коды статусов учетной записи в столбце {@code users.status} (справочник {@code user_status}).
+     */
+    public static final EnumCodec<UserStatusAccount> STATUS_CODEC =
+            EnumCodec.of(UserStatusAccount.class, UserStatusAccount.ACTIVE, UserStatusAccount.BLOCKED);
+
+    /**
+     * Список столбцов таблицы {@code users} в порядке, в котором их читает {@link #UserDTO(ResultSet)}.
+     */
+    public static final String COLUMNS = "id, username, email, password, role, status";
+
     /**
      * Уникальный идентификатор пользователя.
      */
@@ -69,17 +85,20 @@ public class UserDTO {
 
     /**
      * Конструктор для создания объекта DTO на основе данных из {@link ResultSet}.
+     * <p>
+     * Столбцы читаются по номеру, поэтому запрос должен выбирать их в порядке {@link #COLUMNS}.
+     * </p>
      *
      * @param resultSet объект {@link ResultSet}, содержащий данные из базы данных
      * @throws SQLException если возникает ошибка при извлечении данных из {@link ResultSet}
      */
     public UserDTO(ResultSet resultSet) throws SQLException {
-        this.id = resultSet.getLong("id");
-        this.username = resultSet.getString("username");
-        this.email = resultSet.getString("email");
-        this.password = resultSet.getString("password");
-        this.userRole = UserRole.valueOf(resultSet.getString("role").toUpperCase());
-        this.userStatusAccount = UserStatusAccount.valueOf(resultSet.getString("status").toUpperCase());
+        this.id = resultSet.getLong(1);
+        this.username = resultSet.getString(2);
+        this.email = resultSet.getString(3);
+        this.password = resultSet.getString(4);
+        this.userRole = ROLE_CODEC.decode(resultSet.getShort(5));
+        this.userStatusAccount = STATUS_CODEC.decode(resultSet.getShort(6));
     }
 
     // Геттеры и сеттеры
@@ -150,6 +169,6 @@ public class UserDTO {
      * @return массив объектов для использования в SQL-запросах
      */
     public Object[] toSqlParams() {
-        return new Object[]{username, password, email, userRole.toString().toLowerCase(), userStatusAccount.toString().toLowerCase(), id};
+        return new Object[]{username, password, email, ROLE_CODEC.encode(userRole), STATUS_CODEC.encode(userStatusAccount), id};
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package ru.kinzorc.habittracker.application.dto;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Класс Data Transfer Object (DTO) для передачи данных личного кабинета пользователя: привычек и сводной статистики.
+ */
+public class UserDashboardDTO {
+
+    /**
+     * Привычки пользователя.
+     */
+    private final List<HabitDTO> habits;
+
+    /**
+     * Сводная статистика пользователя или {@code null}, если ее еще нет.
+     */
+    private final UserStatsDTO stats;
+
+    /**
+     * Конструктор для создания данных личного кабинета.
+     *
+     * @param habits привычки пользователя
+     * @param stats  сводная статистика пользователя или {@code null}
+     */
+    public UserDashboardDTO(List<HabitDTO> habits, UserStatsDTO stats) {
+        this.habits = habits;
+        this.stats = stats;
+    }
+
+    // Геттеры
+
+    public List<HabitDTO> getHabits() {
+        return habits;
+    }
+
+    public Optional<UserStatsDTO> getStats() {
+        return Optional.ofNullable(stats);
+    }
+}
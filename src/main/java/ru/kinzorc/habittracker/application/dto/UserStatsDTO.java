@@ -0,0 +1,149 @@
+package ru.kinzorc.habittracker.application.dto;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Класс Data Transfer Object (DTO) для передачи сводной статистики пользователя.
+ * <p>
+ * Данные берутся из таблицы {@code app_schema.user_stats}, которая инкрементально поддерживается
+ * при изменении привычек и отметках о выполнении, поэтому для получения сводки не требуется
+ * агрегировать все привычки и выполнения пользователя.
+ * </p>
+ */
+public class UserStatsDTO {
+
+    /**
+     * Уникальный идентификатор пользователя.
+     */
+    private long userId;
+
+    /**
+     * Имя пользователя.
+     */
+    private String userName;
+
+    /**
+     * Электронная почта пользователя.
+     */
+    private String email;
+
+    /**
+     * Количество активных привычек.
+     */
+    private int activeHabits;
+
+    /**
+     * Количество завершенных привычек.
+     */
+    private int finishedHabits;
+
+    /**
+     * Общее количество отметок о выполнении по всем привычкам.
+     */
+    private long totalExecutions;
+
+    /**
+     * Средний процент выполнения по всем привычкам пользователя.
+     */
+    private int averageCompletion;
+
+    /**
+     * Дата и время последней активности пользователя (последняя отметка о выполнении или изменение привычек).
+     */
+    private LocalDateTime lastActivity;
+
+    /**
+     * Конструктор для создания объекта DTO на основе данных из {@link ResultSet}.
+     *
+     * @param resultSet объект {@link ResultSet}, содержащий данные из базы данных
+     * @throws SQLException если возникает ошибка при извлечении данных из {@link ResultSet}
+     */
+    public UserStatsDTO(ResultSet resultSet) throws SQLException {
+        this.userId = resultSet.getLong("user_id");
+        this.userName = resultSet.getString("username");
+        this.email = resultSet.getString("email");
+        this.activeHabits = resultSet.getInt("active_habits");
+        this.finishedHabits = resultSet.getInt("finished_habits");
+        this.totalExecutions = resultSet.getLong("total_executions");
+
+        int habitsCount = activeHabits + finishedHabits;
+        this.averageCompletion = habitsCount > 0 ? (int) (resultSet.getLong("completion_sum") / habitsCount) : 0;
+
+        Timestamp lastActivityTimestamp = resultSet.getTimestamp("last_activity");
+        this.lastActivity = lastActivityTimestamp != null ? lastActivityTimestamp.toLocalDateTime() : null;
+    }
+
+    // for tests
+    public UserStatsDTO() {
+
+    }
+
+    // Геттеры и сеттеры
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public int getActiveHabits() {
+        return activeHabits;
+    }
+
+    public void setActiveHabits(int activeHabits) {
+        this.activeHabits = activeHabits;
+    }
+
+    public int getFinishedHabits() {
+        return finishedHabits;
+    }
+
+    public void setFinishedHabits(int finishedHabits) {
+        this.finishedHabits = finishedHabits;
+    }
+
+    public long getTotalExecutions() {
+        return totalExecutions;
+    }
+
+    public void setTotalExecutions(long totalExecutions) {
+        this.totalExecutions = totalExecutions;
+    }
+
+    public int getAverageCompletion() {
+        return averageCompletion;
+    }
+
+    public void setAverageCompletion(int averageCompletion) {
+        this.averageCompletion = averageCompletion;
+    }
+
+    public LocalDateTime getLastActivity() {
+        return lastActivity;
+    }
+
+    public void setLastActivity(LocalDateTime lastActivity) {
+        this.lastActivity = lastActivity;
+    }
+}
@@ -0,0 +1,147 @@
+package ru.kinzorc.habittracker.application.dto;
+
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс Data Transfer Object (DTO) для передачи еженедельной сводки пользователя.
+ * <p>
+ * Содержит данные пользователя и показатели каждой его активной привычки за неделю.
+ * </p>
+ */
+public class WeeklyDigestDTO {
+
+    /**
+     * Уникальный идентификатор пользователя.
+     */
+    private final long userId;
+
+    /**
+     * Имя пользователя.
+     */
+    private final String userName;
+
+    /**
+     * Электронная почта пользователя.
+     */
+    private final String email;
+
+    /**
+     * Первый день недели, за которую составлена сводка.
+     */
+    private final LocalDate weekStart;
+
+    /**
+     * Показатели привычек пользователя за неделю.
+     */
+    private final List<HabitSummary> habits = new ArrayList<>();
+
+    /**
+     * Конструктор для создания сводки пользователя.
+     *
+     * @param userId    уникальный идентификатор пользователя
+     * @param userName  имя пользователя
+     * @param email     электронная почта пользователя
+     * @param weekStart первый день недели
+     */
+    public WeeklyDigestDTO(long userId, String userName, String email, LocalDate weekStart) {
+        this.userId = userId;
+        this.userName = userName;
+        this.email = email;
+        this.weekStart = weekStart;
+    }
+
+    // Геттеры
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public LocalDate getWeekStart() {
+        return weekStart;
+    }
+
+    public LocalDate getWeekEnd() {
+        return weekStart.plusDays(6);
+    }
+
+    public List<HabitSummary> getHabits() {
+        return habits;
+    }
+
+    /**
+     * Показатели одной привычки за неделю.
+     */
+    public static class HabitSummary {
+
+        private final String habitName;
+        private final HabitFrequency frequency;
+        private final int streak;
+        private final int executionPercentage;
+        private final int executedDays;
+        private final int missed;
+
+        /**
+         * Конструктор для создания показателей привычки.
+         *
+         * @param habitName           имя привычки
+         * @param frequency           частота выполнения привычки
+         * @param streak              текущий стрик привычки
+         * @param executionPercentage процент выполнения привычки
+         * @param executedDays        количество дней недели с отметкой о выполнении
+         * @param periodDays          количество дней недели, входящих в период выполнения привычки
+         */
+        public HabitSummary(String habitName, HabitFrequency frequency, int streak, int executionPercentage,
+                            int executedDays, int periodDays) {
+            this.habitName = habitName;
+            this.frequency = frequency;
+            this.streak = streak;
+            this.executionPercentage = executionPercentage;
+            this.executedDays = executedDays;
+
+            // Ежедневная привычка пропущена в каждый день без отметки, еженедельная — если за неделю нет ни одной отметки
+            if (frequency == HabitFrequency.DAILY) {
+                this.missed = Math.max(periodDays - executedDays, 0);
+            } else {
+                this.missed = periodDays > 0 && executedDays == 0 ? 1 : 0;
+            }
+        }
+
+        // Геттеры
+
+        public String getHabitName() {
+            return habitName;
+        }
+
+        public HabitFrequency getFrequency() {
+            return frequency;
+        }
+
+        public int getStreak() {
+            return streak;
+        }
+
+        public int getExecutionPercentage() {
+            return executionPercentage;
+        }
+
+        public int getExecutedDays() {
+            return executedDays;
+        }
+
+        public int getMissed() {
+            return missed;
+        }
+    }
+}
@@ -1,20 +1,34 @@
 package ru.kinzorc.habittracker.application.service;
 
+import ru.kinzorc.habittracker.application.dto.DataExportDTO;
+import ru.kinzorc.habittracker.application.dto.DuplicateFilterStatsDTO;
 import ru.kinzorc.habittracker.application.dto.HabitDTO;
+import ru.kinzorc.habittracker.application.dto.LeaderboardEntryDTO;
+import ru.kinzorc.habittracker.application.dto.SessionTokenDTO;
 import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.application.dto.UserDashboardDTO;
+import ru.kinzorc.habittracker.application.dto.UserStatsDTO;
 import ru.kinzorc.habittracker.core.entities.Habit;
 import ru.kinzorc.habittracker.core.entities.User;
 import ru.kinzorc.habittracker.core.enums.Habit.HabitExecutionPeriod;
 import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+import ru.kinzorc.habittracker.core.enums.Habit.LeaderboardMetric;
 import ru.kinzorc.habittracker.core.enums.User.UserData;
 import ru.kinzorc.habittracker.core.enums.User.UserRole;
+import ru.kinzorc.habittracker.core.exceptions.AccessDeniedException;
 import ru.kinzorc.habittracker.core.exceptions.HabitAlreadyExistsException;
 import ru.kinzorc.habittracker.core.exceptions.HabitNotFoundException;
 import ru.kinzorc.habittracker.core.exceptions.UserAlreadyExistsException;
 import ru.kinzorc.habittracker.core.exceptions.UserNotFoundException;
+import ru.kinzorc.habittracker.core.repository.AsyncHabitRepository;
+import ru.kinzorc.habittracker.core.repository.AsyncUserRepository;
 import ru.kinzorc.habittracker.core.repository.HabitRepository;
+import ru.kinzorc.habittracker.core.repository.UnitOfWork;
 import ru.kinzorc.habittracker.core.repository.UserRepository;
 
+import javax.mail.MessagingException;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -23,17 +37,54 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class ApplicationService {
 
     private final UserRepository userRepository;
     private final HabitRepository habitRepository;
+    private final AsyncUserRepository asyncUserRepository;
+    private final AsyncHabitRepository asyncHabitRepository;
+    private final LeaderboardService leaderboardService;
+    private final EmailService emailService;
+    private final ReminderService reminderService;
+    private final DataExportService dataExportService;
+    private final SessionService sessionService;
+    private final SessionTokenService sessionTokenService;
+    private final UnitOfWork unitOfWork;
+    private final DuplicateCheckService duplicateCheckService;
 
     private User currentUser;
+    private long currentSessionId;
+    private String currentToken;
+
+    private ApplicationService(Builder builder) {
+        this.userRepository = builder.userRepository;
+        this.habitRepository = builder.habitRepository;
+        this.asyncUserRepository = builder.asyncUserRepository;
+        this.asyncHabitRepository = builder.asyncHabitRepository;
+        this.leaderboardService = builder.leaderboardService != null
+                ? builder.leaderboardService
+                : new LeaderboardService(habitRepository);
+        this.emailService = builder.emailService;
+        this.reminderService = builder.reminderService;
+        this.dataExportService = builder.dataExportService;
+        this.sessionService = builder.sessionService;
+        this.sessionTokenService = builder.sessionTokenService;
+        this.unitOfWork = builder.unitOfWork;
+        this.duplicateCheckService = builder.duplicateCheckService;
+    }
 
-    public ApplicationService(UserRepository userRepository, HabitRepository habitRepository) {
-        this.userRepository = userRepository;
-        this.habitRepository = habitRepository;
+    /**
+     * Создает построитель сервиса приложения.
+     *
+     * @param userRepository  репозиторий пользователей
+     * @param habitRepository репозиторий привычек
+     * @return построитель сервиса
+     */
+    public static Builder builder(UserRepository userRepository, HabitRepository habitRepository) {
+        return new Builder(userRepository, habitRepository);
     }
 
     public void createUser(String name, String password, String email) {
@@ -41,6 +92,7 @@ public class ApplicationService {
             try {
                 User user = new User(name, password, email, UserRole.USER);
                 userRepository.createUser(new UserDTO(user));
+                duplicateCheckService.recordEmail(email);
                 System.out.println("Вы успешно зарегистрировались!");
             } catch (UserAlreadyExistsException e) {
                 System.out.println("Пользователь с таким email уже зарегистрирован!");
@@ -59,8 +111,9 @@ public class ApplicationService {
                 User user = userDTO.get().toUser();
 
                 if (user.getPassword().equals(password)) {
+                    currentSessionId = sessionService.openSession(userDTO.get().getId()).getId();
+                    currentToken = sessionTokenService.issueToken(userDTO.get().getId(), user.getUserRole());
                     currentUser = user;
-                    userRepository.addSession(userDTO.get().getId());
 
                     System.out.println("Вы успешно авторизовались!");
 
@@ -82,7 +135,9 @@ public class ApplicationService {
     public boolean logoutUser(User user) {
         try {
             currentUser = null;
-            userRepository.removeSession(user.getId());
+            sessionService.closeSession(currentSessionId);
+            sessionTokenService.revokeToken(currentToken);
+            currentToken = null;
             System.out.println("Выход из аккаунта: " + user.getUserName());
             return true;
         } catch (SQLException e) {
@@ -100,6 +155,7 @@ public class ApplicationService {
 
         try {
             userRepository.updateUser(new UserDTO(user));
+            duplicateCheckService.recordEmail(user.getEmail());
         } catch (SQLException e) {
             System.err.println("Ошибка обновления данных пользователя.");
         } catch (UserNotFoundException e) {
@@ -132,16 +188,9 @@ public class ApplicationService {
         }
 
         try {
-            userRepository.removeSession(user.getId());
-
-            try {
-                habitRepository.deleteAllHabitsForUser(new UserDTO(user));
-                habitRepository.resetAllExecutionsForUser(new UserDTO(user));
-            } catch (HabitNotFoundException e) {
-                System.err.println("Привычки и их выполнения не найдены для пользователя, удаление продолжается...");
-            }
-
+            // Сессии, привычки и выполнения пользователя удаляются каскадно в той же транзакции
             userRepository.deleteUser(user.getId());
+            leaderboardService.removeUser(user.getId());
             currentUser = null;
             System.out.println("Пользователь успешно удален.");
         } catch (SQLException e) {
@@ -159,8 +208,13 @@ public class ApplicationService {
         }
 
         try {
-            userRepository.removeSession(user.getId());
-            userRepository.updateUser(new UserDTO(user));
+            // Сессии удаляются только вместе с изменением статуса пользователя
+            inTransaction(() -> {
+                userRepository.removeSession(user.getId());
+                userRepository.updateUser(new UserDTO(user));
+                return null;
+            });
+            sessionTokenService.revokeUserTokens(user.getId());
             System.out.println("Пользователь успешно заблокирован.");
         } catch (SQLException e) {
             System.err.println("Ошибка при блокировке пользователя: " + e.getMessage());
@@ -204,6 +258,38 @@ public class ApplicationService {
         return users;
     }
 
+    /**
+     * Возвращает сводную статистику по всем пользователям для панели администратора.
+     *
+     * @return список сводной статистики пользователей
+     */
+    public List<UserStatsDTO> getAllUsersStats() {
+        try {
+            return userRepository.findAllUserStats();
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Загружает данные личного кабинета пользователя. Привычки и сводная статистика загружаются параллельно.
+     *
+     * @param user пользователь
+     * @return данные личного кабинета или пустой {@link Optional}, если загрузить их не удалось
+     */
+    public Optional<UserDashboardDTO> getDashboard(User user) {
+        CompletableFuture<List<HabitDTO>> habits = asyncHabitRepository.findHabitByUser(new UserDTO(user));
+        CompletableFuture<Optional<UserStatsDTO>> stats = asyncUserRepository.findUserStats(user.getId());
+
+        try {
+            return Optional.of(new UserDashboardDTO(habits.join(), stats.join().orElse(null)));
+        } catch (CompletionException e) {
+            System.err.println("Ошибка при загрузке личного кабинета: " + e.getCause().getMessage());
+            return Optional.empty();
+        }
+    }
+
     public User getCurrentUser() {
         if (currentUser == null) {
             System.err.println("Вы не авторизованы в данной сессии!");
@@ -235,6 +321,7 @@ public class ApplicationService {
             Habit habit = new Habit(habitName, description, frequency, startDate, executionPeriod);
 
             habitRepository.addHabit(new UserDTO(user), new HabitDTO(habit));
+            duplicateCheckService.recordHabitName(user.getId(), habitName);
             System.out.println("Привычка добавлена успешно!");
         } catch (HabitAlreadyExistsException e) {
             System.err.println("Привычка с таким именем уже существует.");
@@ -250,8 +337,8 @@ public class ApplicationService {
      */
     public void deleteHabit(long habitId) {
         try {
-            habitRepository.resetExecutions(habitId);
             habitRepository.deleteHabit(habitId);
+            leaderboardService.remove(habitId);
 
             System.out.println("Привычка удалена успешно.");
         } catch (HabitNotFoundException e) {
@@ -269,9 +356,14 @@ public class ApplicationService {
     public void editHabit(Habit habit) {
         try {
             habitRepository.updateHabit(new HabitDTO(habit));
+            refreshLeaderboard(habit.getId());
+            if (currentUser != null)
+                duplicateCheckService.recordHabitName(currentUser.getId(), habit.getName());
             System.out.println("Привычка успешно обновлена.");
         } catch (HabitNotFoundException e) {
             System.err.println("Привычка не найдена!");
+        } catch (HabitAlreadyExistsException e) {
+            System.err.println(e.getMessage());
         } catch (SQLException e) {
             System.err.println("Ошибка при обновлении привычки.");
         }
@@ -285,18 +377,28 @@ public class ApplicationService {
      */
     public void markExecution(long habitId, LocalDateTime executionDate) {
         try {
+            // Поиск и отметка выполняются на одном соединении, отметка видит ту же привычку, что была найдена
+            Optional<HabitDTO> marked = inTransaction(() -> {
+                Optional<HabitDTO> found = habitRepository.findHabitByID(habitId);
+                if (found.isEmpty()) {
+                    System.err.println("Привычка с ID " + habitId + " не найдена!");
+                    return Optional.empty();
+                }
 
-            if (habitRepository.findHabitByID(habitId).isEmpty()) {
-                System.err.println("Привычка с ID " + habitId + " не найдена!");
-                return;
-            }
+                if (!habitRepository.markExecution(found.get(), executionDate)) {
+                    System.out.println("Привычка уже отмечена как выполненная за текущий период.");
+                    return Optional.empty();
+                }
+                return found;
+            });
 
-            HabitDTO habit = habitRepository.findHabitByID(habitId).get();
+            if (marked.isEmpty())
+                return;
 
-            habitRepository.markExecution(habit, executionDate);
+            leaderboardService.update(marked.get());
             System.out.println("Отметка о выполнении привычки добавлена.");
         } catch (HabitNotFoundException e) {
-            System.err.println("Привычка не найдена.");
+            System.err.println("Привычка не найдена или уже завершена.");
         } catch (SQLException e) {
             System.err.println("Ошибка при добавлении отметки о выполнении.");
         }
@@ -312,6 +414,7 @@ public class ApplicationService {
     public void resetStatistics(long habitId, boolean resetExecutions, boolean resetStreaks) {
         try {
             habitRepository.resetStatistics(habitId, resetExecutions, resetStreaks);
+            refreshLeaderboard(habitId);
             System.out.println("Статистика привычки успешно сброшена.");
         } catch (HabitNotFoundException e) {
             System.err.println("Привычка не найдена!");
@@ -321,19 +424,75 @@ public class ApplicationService {
     }
 
     /**
-     * Возвращает список всех привычек.
+     * Удаляет выполнения всех привычек и сбрасывает их стрики и проценты выполнения. Доступно только администратору.
+     */
+    public void resetAllExecutions() {
+        if (currentUser == null || !currentUser.getUserRole().equals(UserRole.ADMIN)) {
+            System.err.println("У вас недостаточно прав для сброса выполнений всех привычек.");
+            return;
+        }
+
+        try {
+            habitRepository.resetExecutionsAllHabits(new UserDTO(currentUser));
+            // Стрики и проценты всех привычек обнулены, рейтинги перезагрузятся при следующем чтении
+            leaderboardService.invalidate();
+            System.out.println("Выполнения всех привычек сброшены.");
+        } catch (AccessDeniedException e) {
+            System.err.println(e.getMessage());
+        } catch (SQLException e) {
+            System.err.println("Ошибка при сбросе выполнений всех привычек: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Возвращает список всех привычек для отображения в виде списка.
      *
+     * @param descriptionLength максимальная длина описания привычки
      * @return список всех привычек
      */
-    public List<HabitDTO> getAllHabits() {
+    public List<HabitDTO> getAllHabits(int descriptionLength) {
         try {
-            return habitRepository.findAllHabits();
+            return habitRepository.findAllHabits(descriptionLength);
         } catch (SQLException e) {
             System.err.println(e.getMessage());
             return List.of();
         }
     }
 
+    /**
+     * Возвращает рейтинг лучших привычек.
+     *
+     * @param metric    показатель рейтинга
+     * @param frequency частота выполнения привычек или {@code null} для общего рейтинга
+     * @param limit     количество позиций в рейтинге
+     * @return список позиций рейтинга
+     */
+    public List<LeaderboardEntryDTO> getTopHabits(LeaderboardMetric metric, HabitFrequency frequency, int limit) {
+        try {
+            return leaderboardService.getTopHabits(metric, frequency, limit);
+        } catch (SQLException e) {
+            System.err.println("Ошибка при получении рейтинга привычек: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Возвращает рейтинг лучших пользователей (по лучшей привычке каждого пользователя).
+     *
+     * @param metric    показатель рейтинга
+     * @param frequency частота выполнения привычек или {@code null} для общего рейтинга
+     * @param limit     количество позиций в рейтинге
+     * @return список позиций рейтинга, по одной на пользователя
+     */
+    public List<LeaderboardEntryDTO> getTopUsers(LeaderboardMetric metric, HabitFrequency frequency, int limit) {
+        try {
+            return leaderboardService.getTopUsers(metric, frequency, limit);
+        } catch (SQLException e) {
+            System.err.println("Ошибка при получении рейтинга пользователей: " + e.getMessage());
+            return List.of();
+        }
+    }
+
     /**
      * Возвращает привычку по её имени.
      *
@@ -406,14 +565,306 @@ public class ApplicationService {
 
 
     /**
-     * Удаляет все сессии пользователей
+     * Продлевает сессию и токен текущего пользователя при его активности.
+     * Если сессия истекла или токен отозван (например, при блокировке на другом узле), пользователь выходит из аккаунта.
      *
+     * @return {@code true}, если пользователь авторизован и сессия активна
+     */
+    public boolean touchSession() {
+        if (currentUser == null)
+            return false;
+
+        if (!sessionService.touchSession(currentSessionId)) {
+            currentUser = null;
+            currentToken = null;
+            System.out.println("\nСессия истекла из-за отсутствия активности. Войдите в аккаунт снова.");
+            return false;
+        }
+
+        Optional<SessionTokenDTO> token = sessionTokenService.validateToken(currentToken);
+        if (token.isEmpty()) {
+            currentUser = null;
+            currentToken = null;
+            System.out.println("\nСессия завершена. Войдите в аккаунт снова.");
+            return false;
+        }
+
+        currentToken = sessionTokenService.renewToken(token.get());
+
+        return true;
+    }
+
+    /**
+     * Возвращает подписанный токен сессии текущего пользователя.
+     *
+     * @return токен сессии или {@code null}, если пользователь не авторизован
+     */
+    public String getCurrentToken() {
+        return currentToken;
+    }
+
+    /**
+     * Удаляет сессии пользователей при завершении работы приложения.
+     * Удаляются только сессии этого узла приложения: сессии других узлов продолжают действовать.
      */
     public void removeAllSessions() {
         try {
-            userRepository.removeAllSessions();
+            sessionService.removeNodeSessions();
         } catch (SQLException e) {
             System.err.println(e.getMessage());
         }
     }
+
+    /**
+     * Отправляет электронное письмо через настроенный сервис отправки писем.
+     *
+     * @param recipient адрес электронной почты получателя
+     * @param subject   тема письма
+     * @param text      текст письма
+     * @return {@code true}, если письмо принято к отправке, иначе {@code false}
+     */
+    public boolean sendEmail(String recipient, String subject, String text) {
+        try {
+            emailService.sendEmail(recipient, subject, text);
+            return true;
+        } catch (MessagingException e) {
+            System.err.println("Ошибка отправки письма: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Устанавливает время ежедневного напоминания о выполнении привычки.
+     *
+     * @param habitId    ID привычки
+     * @param remindTime время напоминания
+     */
+    public void setReminder(long habitId, LocalTime remindTime) {
+        try {
+            reminderService.setReminder(habitId, remindTime);
+            System.out.println("Напоминание установлено на " + remindTime + ".");
+        } catch (HabitNotFoundException e) {
+            System.err.println("Привычка не найдена!");
+        } catch (SQLException e) {
+            System.err.println("Ошибка установки напоминания: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Удаляет напоминание о выполнении привычки.
+     *
+     * @param habitId ID привычки
+     */
+    public void removeReminder(long habitId) {
+        try {
+            reminderService.removeReminder(habitId);
+            System.out.println("Напоминание удалено.");
+        } catch (SQLException e) {
+            System.err.println("Ошибка удаления напоминания: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Выгружает данные текущего пользователя (учетную запись, привычки и выполнения) в архив {@code tar.gz}.
+     *
+     * @param archive путь к создаваемому архиву
+     */
+    public void exportCurrentUserData(Path archive) {
+        if (currentUser == null) {
+            System.err.println("Вы не авторизованы.");
+            return;
+        }
+
+        export(archive, currentUser.getId());
+    }
+
+    /**
+     * Выгружает данные всех пользователей в архив {@code tar.gz}. Доступно только администратору.
+     *
+     * @param archive путь к создаваемому архиву
+     */
+    public void exportAllData(Path archive) {
+        if (currentUser == null || !currentUser.getUserRole().equals(UserRole.ADMIN)) {
+            System.err.println("У вас недостаточно прав для выгрузки всех данных.");
+            return;
+        }
+
+        export(archive, null);
+    }
+
+    private void export(Path archive, Long userId) {
+        try {
+            DataExportDTO result = userId != null
+                    ? dataExportService.exportUser(userId, archive)
+                    : dataExportService.exportAll(archive);
+
+            System.out.printf("Данные выгружены в %s: строк %d, %.2f МБ (архив %.2f МБ) за %.1f с, %.2f МБ/с%n",
+                    result.getArchive().toAbsolutePath(), result.getRows(),
+                    result.getUncompressedBytes() / (1024.0 * 1024.0), result.getArchiveBytes() / (1024.0 * 1024.0),
+                    result.getElapsedMillis() / 1000.0, result.getMegabytesPerSecond());
+        } catch (SQLException | IOException e) {
+            System.err.println("Ошибка выгрузки данных: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Проверяет, зарегистрирован ли пользователь с указанным email (без учета регистра).
+     * Свободный email обычно определяется без запроса к базе данных.
+     *
+     * @param email email пользователя
+     * @return {@code true}, если email занят или проверить его не удалось
+     */
+    public boolean isEmailRegistered(String email) {
+        try {
+            return duplicateCheckService.isEmailTaken(email);
+        } catch (SQLException e) {
+            // Окончательная проверка выполняется при регистрации
+            System.err.println("Ошибка проверки email: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Проверяет, есть ли у текущего пользователя привычка с указанным именем (без учета регистра).
+     *
+     * @param habitName имя привычки
+     * @return {@code true}, если имя привычки занято
+     */
+    public boolean isHabitNameTaken(String habitName) {
+        if (currentUser == null) {
+            System.err.println("Вы не авторизованы!");
+            return false;
+        }
+
+        try {
+            return duplicateCheckService.isHabitNameTaken(currentUser.getId(), habitName);
+        } catch (SQLException e) {
+            // Окончательная проверка выполняется при добавлении привычки
+            System.err.println("Ошибка проверки имени привычки: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Возвращает показатели фильтров предварительной проверки дубликатов.
+     *
+     * @return показатели фильтров
+     */
+    public List<DuplicateFilterStatsDTO> getDuplicateFilterStats() {
+        return duplicateCheckService.getStats();
+    }
+
+    // Перечитывает показатели привычки из базы данных и обновляет её позицию в рейтингах
+    private void refreshLeaderboard(long habitId) throws HabitNotFoundException, SQLException {
+        Optional<HabitDTO> habit = habitRepository.findHabitByID(habitId);
+
+        if (habit.isPresent())
+            leaderboardService.update(habit.get());
+        else
+            leaderboardService.remove(habitId);
+    }
+
+    // Несколько операций репозиториев в одной транзакции
+    private <T, E extends Exception> T inTransaction(UnitOfWork.Work<T, E> work) throws E, SQLException {
+        return unitOfWork.execute(work);
+    }
+
+    /**
+     * Построитель сервиса приложения. Все зависимости, кроме сервиса рейтингов, обязательны;
+     * сервис рейтингов по умолчанию создается поверх репозитория привычек.
+     */
+    public static final class Builder {
+
+        private final UserRepository userRepository;
+        private final HabitRepository habitRepository;
+        private AsyncUserRepository asyncUserRepository;
+        private AsyncHabitRepository asyncHabitRepository;
+        private LeaderboardService leaderboardService;
+        private EmailService emailService;
+        private ReminderService reminderService;
+        private DataExportService dataExportService;
+        private SessionService sessionService;
+        private SessionTokenService sessionTokenService;
+        private UnitOfWork unitOfWork;
+        private DuplicateCheckService duplicateCheckService;
+
+        private Builder(UserRepository userRepository, HabitRepository habitRepository) {
+            this.userRepository = userRepository;
+            this.habitRepository = habitRepository;
+        }
+
+        public Builder asyncRepositories(AsyncUserRepository asyncUserRepository, AsyncHabitRepository asyncHabitRepository) {
+            this.asyncUserRepository = asyncUserRepository;
+            this.asyncHabitRepository = asyncHabitRepository;
+            return this;
+        }
+
+        public Builder leaderboardService(LeaderboardService leaderboardService) {
+            this.leaderboardService = leaderboardService;
+            return this;
+        }
+
+        public Builder emailService(EmailService emailService) {
+            this.emailService = emailService;
+            return this;
+        }
+
+        public Builder reminderService(ReminderService reminderService) {
+            this.reminderService = reminderService;
+            return this;
+        }
+
+        public Builder dataExportService(DataExportService dataExportService) {
+            this.dataExportService = dataExportService;
+            return this;
+        }
+
+        public Builder sessionService(SessionService sessionService) {
+            this.sessionService = sessionService;
+            return this;
+        }
+
+        public Builder sessionTokenService(SessionTokenService sessionTokenService) {
+            this.sessionTokenService = sessionTokenService;
+            return this;
+        }
+
+        public Builder unitOfWork(UnitOfWork unitOfWork) {
+            this.unitOfWork = unitOfWork;
+            return this;
+        }
+
+        public Builder duplicateCheckService(DuplicateCheckService duplicateCheckService) {
+            this.duplicateCheckService = duplicateCheckService;
+            return this;
+        }
+
+        /**
+         * Создает сервис приложения.
+         *
+         * @return сервис приложения
+         * @throws IllegalStateException если не задана одна из обязательных зависимостей
+         */
+        public ApplicationService build() {
+            require(userRepository, "репозиторий пользователей");
+            require(habitRepository, "репозиторий привычек");
+            require(asyncUserRepository, "асинхронный репозиторий пользователей");
+            require(asyncHabitRepository, "асинхронный репозиторий привычек");
+            require(emailService, "сервис отправки писем");
+            require(reminderService, "сервис напоминаний");
+            require(dataExportService, "сервис выгрузки данных");
+            require(sessionService, "сервис сессий");
+            require(sessionTokenService, "сервис токенов сессий");
+            require(unitOfWork, "единица работы");
+            require(duplicateCheckService, "сервис проверки дубликатов");
+
+            return new ApplicationService(this);
+        }
+
+        private static void require(Object dependency, String name) {
+            if (dependency == null) {
+                throw new IllegalStateException("Не задана зависимость сервиса приложения: " + name + ".");
+            }
+        }
+    }
 }
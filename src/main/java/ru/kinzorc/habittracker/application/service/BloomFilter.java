@@ -0,0 +1,147 @@
+package ru.kinzorc.habittracker.application.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума для проверки принадлежности строки множеству без хранения самих строк.
+ * <p>
+ * Ответ {@code false} метода {@link #mightContain(String)} точный: строка не добавлялась в фильтр. Ответ {@code true}
+ * означает, что строка, вероятно, добавлялась, и с вероятностью ложного срабатывания может оказаться ошибочным.
+ * Размер битового массива и количество хеш-функций выбираются по ожидаемому количеству строк и допустимой
+ * вероятности ложного срабатывания; при переполнении фильтра вероятность растет, ее текущая оценка доступна через
+ * {@link #getExpectedFalsePositiveRate()}.
+ * </p>
+ * <p>
+ * Добавление и проверка выполняются из любого потока без блокировок: биты устанавливаются атомарно в
+ * {@link AtomicLongArray}, удаление строк не поддерживается.
+ * </p>
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final AtomicLong setBits = new AtomicLong();
+    private final AtomicLong insertions = new AtomicLong();
+
+    /**
+     * Конструктор для создания фильтра.
+     *
+     * @param expectedEntries    ожидаемое количество строк
+     * @param falsePositiveRate  допустимая вероятность ложного срабатывания, от 0 до 1
+     */
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Ожидаемое количество строк должно быть больше нуля, а вероятность — от 0 до 1.");
+        }
+
+        // m = -n * ln(p) / ln(2)^2, k = m / n * ln(2); размер округляется до целого числа 64-битных слов
+        long bits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedEntries * Math.log(2)));
+    }
+
+    /**
+     * Добавляет строку в фильтр.
+     *
+     * @param value строка
+     */
+    public void add(String value) {
+        long hash = hash(value);
+        long h1 = fmix64(hash);
+        long h2 = fmix64(hash ^ 0x9E3779B97F4A7C15L) | 1;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            long mask = 1L << bit;
+            long previous = words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+
+            if ((previous & mask) == 0)
+                setBits.incrementAndGet();
+        }
+
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * Проверяет, могла ли строка быть добавлена в фильтр.
+     *
+     * @param value строка
+     * @return {@code false}, если строка точно не добавлялась; {@code true}, если строка, вероятно, добавлялась
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = fmix64(hash);
+        long h2 = fmix64(hash ^ 0x9E3779B97F4A7C15L) | 1;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Возвращает оценку вероятности ложного срабатывания по доле установленных битов.
+     *
+     * @return вероятность ложного срабатывания, от 0 до 1
+     */
+    public double getExpectedFalsePositiveRate() {
+        return Math.pow((double) setBits.get() / bitCount, hashFunctions);
+    }
+
+    /**
+     * Возвращает количество добавлений строк (повторные добавления учитываются).
+     *
+     * @return количество добавлений
+     */
+    public long getInsertions() {
+        return insertions.get();
+    }
+
+    /**
+     * Возвращает объем памяти, занимаемый битовым массивом.
+     *
+     * @return размер в байтах
+     */
+    public long getMemoryBytes() {
+        return bitCount / 8;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    // 64-битный FNV-1a по символам строки
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+
+        return hash;
+    }
+
+    // Финальное перемешивание MurmurHash3, чтобы биты хеша зависели от всех символов строки
+    private static long fmix64(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,113 @@
+package ru.kinzorc.habittracker.application.service;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import ru.kinzorc.habittracker.application.dto.DataExportDTO;
+import ru.kinzorc.habittracker.core.repository.DataExportRepository;
+import ru.kinzorc.habittracker.core.repository.UnitOfWork;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+/**
+ * Сервис выгрузки данных пользователей в архив {@code tar.gz}.
+ * <p>
+ * Каждая таблица выгружается из базы данных потоково в CSV. Заголовок записи tar должен содержать размер файла,
+ * поэтому CSV сначала записывается во временный файл и затем копируется в архив. В памяти одновременно находятся
+ * только буферы ввода-вывода, так что потребление памяти не зависит от объема данных.
+ * </p>
+ * <p>
+ * Все таблицы читаются в одной транзакции только для чтения ({@link UnitOfWork#executeReadOnly(UnitOfWork.Work)}),
+ * поэтому архив согласован: изменения, сделанные во время выгрузки, не попадают в одни таблицы без других.
+ * </p>
+ */
+public class DataExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataExportRepository exportRepository;
+    private final UnitOfWork unitOfWork;
+
+    /**
+     * Конструктор для создания сервиса выгрузки данных.
+     *
+     * @param exportRepository репозиторий потоковой выгрузки таблиц
+     * @param unitOfWork       единица работы, в транзакции которой читаются все таблицы
+     */
+    public DataExportService(DataExportRepository exportRepository, UnitOfWork unitOfWork) {
+        this.exportRepository = exportRepository;
+        this.unitOfWork = unitOfWork;
+    }
+
+    /**
+     * Выгружает данные одного пользователя: учетную запись, привычки (включая архивные) и их выполнения.
+     *
+     * @param userId  идентификатор пользователя
+     * @param archive путь к создаваемому архиву
+     * @return результат выгрузки
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     * @throws IOException  в случае ошибок записи архива
+     */
+    public DataExportDTO exportUser(long userId, Path archive) throws SQLException, IOException {
+        return export(userId, archive);
+    }
+
+    /**
+     * Выгружает данные всех пользователей.
+     *
+     * @param archive путь к создаваемому архиву
+     * @return результат выгрузки
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     * @throws IOException  в случае ошибок записи архива
+     */
+    public DataExportDTO exportAll(Path archive) throws SQLException, IOException {
+        return export(null, archive);
+    }
+
+    private DataExportDTO export(Long userId, Path archive) throws SQLException, IOException {
+        return unitOfWork.executeReadOnly(() -> writeArchive(userId, archive));
+    }
+
+    private DataExportDTO writeArchive(Long userId, Path archive) throws SQLException, IOException {
+        long started = System.nanoTime();
+        long rows = 0;
+        long uncompressedBytes = 0;
+
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(archive), BUFFER_SIZE)))) {
+
+            tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+
+            for (DataExportRepository.Table table : DataExportRepository.Table.values()) {
+                Path spool = Files.createTempFile("habit-tracker-export-", ".csv");
+
+                try {
+                    try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(spool),
+                            StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                        rows += exportRepository.exportTable(table, userId, writer);
+                    }
+
+                    TarArchiveEntry entry = new TarArchiveEntry(table.getFileName());
+                    entry.setSize(Files.size(spool));
+                    tar.putArchiveEntry(entry);
+                    Files.copy(spool, tar);
+                    tar.closeArchiveEntry();
+
+                    uncompressedBytes += entry.getSize();
+                } finally {
+                    Files.deleteIfExists(spool);
+                }
+            }
+        } catch (SQLException | IOException e) {
+            Files.deleteIfExists(archive);
+            throw e;
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return new DataExportDTO(archive, rows, uncompressedBytes, Files.size(archive), elapsedMillis);
+    }
+}
@@ -0,0 +1,228 @@
+package ru.kinzorc.habittracker.application.service;
+
+import ru.kinzorc.habittracker.application.dto.DuplicateFilterStatsDTO;
+import ru.kinzorc.habittracker.core.repository.UniqueKeyRepository;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сервис предварительной проверки занятости email и имен привычек с помощью фильтров Блума.
+ * <p>
+ * Фильтры заполняются полным просмотром таблиц в {@link #warmUp()} и дополняются при каждой успешной записи.
+ * Если фильтр отвечает, что значения в нем нет, значение точно свободно, и запрос к базе данных не выполняется.
+ * Иначе занятость проверяется в базе данных. Окончательно уникальность обеспечивается уникальными индексами
+ * при вставке, поэтому устаревший фильтр приводит только к сообщению о конфликте при сохранении.
+ * </p>
+ * <p>
+ * Фильтр знает только значения, записанные этим узлом, и значения из последнего перестроения. Поэтому фильтры
+ * используются только для предварительной проверки дубликатов и не отсекают чтения: поиск пользователя или привычки,
+ * записанных другим узлом, всегда выполняется в базе данных.
+ * </p>
+ * <p>
+ * Удаленные и переименованные значения из фильтра не удаляются; они лишь повышают долю ложных срабатываний
+ * до следующего перестроения. Перестроение собирает новые фильтры рядом с текущими: записи, сделанные во время
+ * просмотра, попадают в оба фильтра, после чего новые фильтры заменяют текущие. Пока фильтры не заполнены
+ * первый раз, все проверки выполняются в базе данных.
+ * </p>
+ */
+public class DuplicateCheckService {
+
+    private final UniqueKeyRepository uniqueKeyRepository;
+    private final long expectedEmails;
+    private final long expectedHabitNames;
+    private final double falsePositiveRate;
+
+    private final Counters emailCounters = new Counters();
+    private final Counters habitNameCounters = new Counters();
+
+    private volatile Filters current;
+    private volatile Filters building;
+
+    /**
+     * Конструктор для создания сервиса проверки дубликатов.
+     *
+     * @param uniqueKeyRepository репозиторий уникальных значений
+     * @param expectedEmails      ожидаемое количество пользователей
+     * @param expectedHabitNames  ожидаемое количество привычек
+     * @param falsePositiveRate   допустимая вероятность ложного срабатывания фильтров, от 0 до 1
+     */
+    public DuplicateCheckService(UniqueKeyRepository uniqueKeyRepository, long expectedEmails, long expectedHabitNames,
+                                 double falsePositiveRate) {
+        this.uniqueKeyRepository = uniqueKeyRepository;
+        this.expectedEmails = expectedEmails;
+        this.expectedHabitNames = expectedHabitNames;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = newFilters();
+    }
+
+    /**
+     * Перестраивает фильтры.
+     * Используется для запуска по расписанию; ошибки выводятся в консоль.
+     */
+    public void rebuildFilters() {
+        try {
+            warmUp();
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Заполняет новые фильтры полным просмотром таблиц и заменяет ими текущие.
+     * При ошибке текущие фильтры остаются без изменений.
+     *
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public synchronized void warmUp() throws SQLException {
+        Filters filters = newFilters();
+        building = filters;
+
+        try {
+            uniqueKeyRepository.scanUserEmails(email -> filters.emails.add(emailKey(email)));
+            uniqueKeyRepository.scanHabitNames((userId, habitName) -> filters.habitNames.add(habitNameKey(userId, habitName)));
+
+            filters.ready = true;
+            current = filters;
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Проверяет, зарегистрирован ли пользователь с указанным email.
+     *
+     * @param email email пользователя
+     * @return {@code true}, если email занят
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public boolean isEmailTaken(String email) throws SQLException {
+        String key = emailKey(email);
+        Filters filters = current;
+
+        if (filters.ready && !filters.emails.mightContain(key)) {
+            emailCounters.skippedChecks.incrementAndGet();
+            return false;
+        }
+
+        boolean taken = uniqueKeyRepository.existsUserEmail(email);
+        emailCounters.count(filters.ready, taken);
+
+        if (taken)
+            recordEmail(email);
+
+        return taken;
+    }
+
+    /**
+     * Проверяет, есть ли у пользователя привычка с указанным именем.
+     *
+     * @param userId    идентификатор пользователя
+     * @param habitName имя привычки
+     * @return {@code true}, если имя привычки занято
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public boolean isHabitNameTaken(long userId, String habitName) throws SQLException {
+        String key = habitNameKey(userId, habitName);
+        Filters filters = current;
+
+        if (filters.ready && !filters.habitNames.mightContain(key)) {
+            habitNameCounters.skippedChecks.incrementAndGet();
+            return false;
+        }
+
+        boolean taken = uniqueKeyRepository.existsHabitName(userId, habitName);
+        habitNameCounters.count(filters.ready, taken);
+
+        if (taken)
+            recordHabitName(userId, habitName);
+
+        return taken;
+    }
+
+    /**
+     * Добавляет email в фильтры после успешной записи пользователя.
+     *
+     * @param email email пользователя
+     */
+    public void recordEmail(String email) {
+        String key = emailKey(email);
+        current.emails.add(key);
+
+        Filters next = building;
+        if (next != null)
+            next.emails.add(key);
+    }
+
+    /**
+     * Добавляет имя привычки в фильтры после успешной записи привычки.
+     *
+     * @param userId    идентификатор пользователя
+     * @param habitName имя привычки
+     */
+    public void recordHabitName(long userId, String habitName) {
+        String key = habitNameKey(userId, habitName);
+        current.habitNames.add(key);
+
+        Filters next = building;
+        if (next != null)
+            next.habitNames.add(key);
+    }
+
+    /**
+     * Возвращает показатели фильтров email и имен привычек.
+     *
+     * @return показатели фильтров
+     */
+    public List<DuplicateFilterStatsDTO> getStats() {
+        Filters filters = current;
+
+        return List.of(emailCounters.toStats("email", filters.emails),
+                habitNameCounters.toStats("Имена привычек", filters.habitNames));
+    }
+
+    private Filters newFilters() {
+        return new Filters(new BloomFilter(expectedEmails, falsePositiveRate),
+                new BloomFilter(expectedHabitNames, falsePositiveRate));
+    }
+
+    // Ключи приводятся к нижнему регистру так же, как в уникальных индексах по lower(...)
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static String habitNameKey(long userId, String habitName) {
+        return userId + ":" + habitName.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Filters {
+        private final BloomFilter emails;
+        private final BloomFilter habitNames;
+        private volatile boolean ready;
+
+        private Filters(BloomFilter emails, BloomFilter habitNames) {
+            this.emails = emails;
+            this.habitNames = habitNames;
+        }
+    }
+
+    private static final class Counters {
+        private final AtomicLong skippedChecks = new AtomicLong();
+        private final AtomicLong databaseChecks = new AtomicLong();
+        private final AtomicLong falsePositives = new AtomicLong();
+
+        // Ложное срабатывание учитывается, только если проверка в базе данных была вызвана ответом фильтра
+        private void count(boolean filtered, boolean taken) {
+            databaseChecks.incrementAndGet();
+            if (filtered && !taken)
+                falsePositives.incrementAndGet();
+        }
+
+        private DuplicateFilterStatsDTO toStats(String name, BloomFilter filter) {
+            return new DuplicateFilterStatsDTO(name, filter.getInsertions(), filter.getMemoryBytes(),
+                    filter.getExpectedFalsePositiveRate(), skippedChecks.get(), databaseChecks.get(), falsePositives.get());
+        }
+    }
+}
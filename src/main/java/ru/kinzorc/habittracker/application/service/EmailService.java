@@ -1,6 +1,11 @@
 package ru.kinzorc.habittracker.application.service;
 
+import ru.kinzorc.habittracker.application.dto.EmailMessageDTO;
+
 import javax.mail.MessagingException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Интерфейс для отправки электронных писем.
@@ -25,4 +30,29 @@ public interface EmailService {
      * @throws MessagingException если возникает ошибка при отправке сообщения
      */
     void sendEmail(String recipient, String subject, String text) throws MessagingException;
+
+    /**
+     * Отправка нескольких электронных писем.
+     * <p>
+     * Ошибка отправки одного письма не прерывает отправку остальных. Реализация по умолчанию отправляет письма
+     * по одному через {@link #sendEmail(String, String, String)}; реализации могут отправлять пакет эффективнее,
+     * например, через одно соединение с почтовым сервером.
+     * </p>
+     *
+     * @param messages письма для отправки
+     * @return письма, которые не удалось отправить, с соответствующими ошибками (пустая карта, если отправлены все)
+     */
+    default Map<EmailMessageDTO, MessagingException> sendEmails(List<EmailMessageDTO> messages) {
+        Map<EmailMessageDTO, MessagingException> failures = new LinkedHashMap<>();
+
+        for (EmailMessageDTO message : messages) {
+            try {
+                sendEmail(message.getRecipient(), message.getSubject(), message.getText());
+            } catch (MessagingException e) {
+                failures.put(message, e);
+            }
+        }
+
+        return failures;
+    }
 }
@@ -0,0 +1,89 @@
+package ru.kinzorc.habittracker.application.service;
+
+import ru.kinzorc.habittracker.core.repository.HabitArchiveRepository;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Сервис архивации завершенных привычек.
+ * <p>
+ * Завершенные привычки, срок выполнения которых закончился больше {@code retention} назад, переносятся
+ * в архив ({@link HabitArchiveRepository}) порциями по {@code batchSize}. Каждая порция переносится в отдельной
+ * короткой транзакции, поэтому задача не держит блокировки на основных таблицах во время всего запуска.
+ * После каждой порции рейтинги ({@link LeaderboardService}) сбрасываются: перенесенные привычки удаляются
+ * из основных таблиц в обход них.
+ * </p>
+ */
+public class HabitArchiveService {
+
+    private final HabitArchiveRepository archiveRepository;
+    private final LeaderboardService leaderboardService;
+    private final Duration retention;
+    private final int batchSize;
+    private final Clock clock;
+
+    /**
+     * Конструктор для создания сервиса архивации.
+     *
+     * @param archiveRepository  репозиторий архива привычек
+     * @param leaderboardService сервис рейтингов, сбрасываемых после переноса привычек
+     * @param retention          время, в течение которого завершенная привычка остается в основных таблицах
+     * @param batchSize          количество привычек, переносимых в одной транзакции
+     */
+    public HabitArchiveService(HabitArchiveRepository archiveRepository, LeaderboardService leaderboardService,
+                               Duration retention, int batchSize) {
+        this(archiveRepository, leaderboardService, retention, batchSize, Clock.systemDefaultZone());
+    }
+
+    // for tests
+    HabitArchiveService(HabitArchiveRepository archiveRepository, LeaderboardService leaderboardService,
+                        Duration retention, int batchSize, Clock clock) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Размер порции должен быть больше нуля.");
+        }
+
+        this.archiveRepository = archiveRepository;
+        this.leaderboardService = leaderboardService;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Переносит в архив все подходящие привычки.
+     * Используется для запуска по расписанию; ошибки выводятся в консоль.
+     */
+    public void archiveExpiredHabits() {
+        try {
+            int archived = archiveFinishedHabits();
+            if (archived > 0)
+                System.out.println("Перенесено в архив привычек: " + archived);
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Переносит в архив все подходящие привычки порциями, пока не будет перенесена неполная порция.
+     *
+     * @return количество перенесенных привычек
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public int archiveFinishedHabits() throws SQLException {
+        LocalDateTime endedBefore = LocalDateTime.now(clock).minus(retention);
+        int total = 0;
+        int archived;
+
+        do {
+            archived = archiveRepository.archiveFinishedHabits(endedBefore, batchSize);
+            if (archived > 0)
+                leaderboardService.invalidate();
+            total += archived;
+        } while (archived == batchSize && !Thread.currentThread().isInterrupted());
+
+        return total;
+    }
+}
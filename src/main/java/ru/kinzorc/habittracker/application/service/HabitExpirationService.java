@@ -0,0 +1,83 @@
+package ru.kinzorc.habittracker.application.service;
+
+import ru.kinzorc.habittracker.core.repository.HabitRepository;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Сервис завершения привычек с истекшим сроком выполнения.
+ * <p>
+ * Активные привычки, дата окончания которых прошла, переводятся в статус завершенных порциями по {@code batchSize}
+ * ({@link HabitRepository#finishExpiredHabits(LocalDateTime, int)}): каждая порция обновляется одним запросом
+ * по индексу {@code (status, end_date)} в отдельной короткой транзакции, итоговые стрик и процент выполнения
+ * фиксируются в момент завершения. После каждой порции рейтинги ({@link LeaderboardService}) сбрасываются,
+ * так как запрос меняет показатели привычек в обход них.
+ * </p>
+ */
+public class HabitExpirationService {
+
+    private final HabitRepository habitRepository;
+    private final LeaderboardService leaderboardService;
+    private final int batchSize;
+    private final Clock clock;
+
+    /**
+     * Конструктор для создания сервиса завершения привычек.
+     *
+     * @param habitRepository    репозиторий привычек
+     * @param leaderboardService сервис рейтингов, сбрасываемых после завершения привычек
+     * @param batchSize          количество привычек, завершаемых одним запросом
+     */
+    public HabitExpirationService(HabitRepository habitRepository, LeaderboardService leaderboardService, int batchSize) {
+        this(habitRepository, leaderboardService, batchSize, Clock.systemDefaultZone());
+    }
+
+    // for tests
+    HabitExpirationService(HabitRepository habitRepository, LeaderboardService leaderboardService, int batchSize, Clock clock) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Размер порции должен быть больше нуля.");
+        }
+
+        this.habitRepository = habitRepository;
+        this.leaderboardService = leaderboardService;
+        this.batchSize = batchSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Завершает все привычки с истекшим сроком.
+     * Используется для запуска по расписанию; ошибки выводятся в консоль.
+     */
+    public void finishExpiredHabits() {
+        try {
+            int finished = finishExpired();
+            if (finished > 0)
+                System.out.println("Завершено привычек с истекшим сроком: " + finished);
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Завершает привычки с истекшим сроком порциями, пока не будет обработана неполная порция.
+     *
+     * @return количество завершенных привычек
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public int finishExpired() throws SQLException {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int total = 0;
+        int finished;
+
+        do {
+            finished = habitRepository.finishExpiredHabits(now, batchSize);
+            if (finished > 0)
+                leaderboardService.invalidate();
+            total += finished;
+        } while (finished == batchSize && !Thread.currentThread().isInterrupted());
+
+        return total;
+    }
+}
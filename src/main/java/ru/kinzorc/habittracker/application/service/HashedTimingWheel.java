@@ -0,0 +1,185 @@
+package ru.kinzorc.habittracker.application.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Хешированное колесо таймеров для большого количества отложенных событий.
+ * <p>
+ * Время делится на такты длительностью {@code tick}. Колесо состоит из {@code wheelSize} ячеек, событие попадает
+ * в ячейку по номеру такта своего срока, а для сроков дальше одного оборота колеса хранится количество оставшихся
+ * оборотов. Добавление и отмена события выполняются за O(1), а на каждом такте просматривается только одна ячейка,
+ * поэтому стоимость не зависит от общего количества событий (в отличие от отдельной задачи
+ * {@link java.util.concurrent.ScheduledExecutorService} на каждое событие).
+ * </p>
+ * <p>
+ * Добавлять и отменять события можно из любого потока. Новые события складываются в потокобезопасную очередь
+ * и переносятся в ячейки при следующем вызове {@link #advance(long, Consumer)}, который должен вызываться
+ * из одного потока.
+ * </p>
+ *
+ * @param <T> тип события
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final long startMillis;
+    private final Bucket<T>[] wheel;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+
+    // Номер следующего необработанного такта
+    private long currentTick;
+    private int size;
+
+    /**
+     * Конструктор для создания колеса таймеров.
+     *
+     * @param tick        длительность одного такта (точность срабатывания)
+     * @param wheelSize   количество ячеек колеса, округляется вверх до степени двойки
+     * @param startMillis момент времени (в миллисекундах), с которого отсчитываются такты
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HashedTimingWheel(Duration tick, int wheelSize, long startMillis) {
+        if (tick.toMillis() <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Длительность такта и размер колеса должны быть больше нуля.");
+        }
+
+        int normalizedSize = 1;
+        while (normalizedSize < wheelSize) {
+            normalizedSize <<= 1;
+        }
+
+        this.tickMillis = tick.toMillis();
+        this.mask = normalizedSize - 1;
+        this.startMillis = startMillis;
+        this.wheel = new Bucket[normalizedSize];
+        for (int i = 0; i < normalizedSize; i++) {
+            wheel[i] = new Bucket<>();
+        }
+    }
+
+    /**
+     * Добавляет событие со сроком срабатывания {@code deadlineMillis}.
+     * Событие со сроком в прошлом сработает на ближайшем такте.
+     *
+     * @param item           событие
+     * @param deadlineMillis срок срабатывания в миллисекундах
+     * @return дескриптор события, через который его можно отменить
+     */
+    public Timeout<T> schedule(T item, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(item, deadlineMillis);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Обрабатывает все такты, закончившиеся к моменту {@code nowMillis}, и передает сработавшие события обработчику.
+     *
+     * @param nowMillis текущее время в миллисекундах
+     * @param expired   обработчик сработавших событий
+     * @return количество сработавших событий
+     */
+    public int advance(long nowMillis, Consumer<T> expired) {
+        int expiredCount = 0;
+
+        transferPending();
+
+        while (tickEnd(currentTick) <= nowMillis) {
+            Iterator<Timeout<T>> iterator = wheel[(int) (currentTick & mask)].timeouts.iterator();
+
+            while (iterator.hasNext()) {
+                Timeout<T> timeout = iterator.next();
+
+                if (timeout.cancelled) {
+                    iterator.remove();
+                    size--;
+                } else if (timeout.remainingRounds <= 0) {
+                    iterator.remove();
+                    size--;
+                    expired.accept(timeout.item);
+                    expiredCount++;
+                } else {
+                    timeout.remainingRounds--;
+                }
+            }
+
+            currentTick++;
+        }
+
+        return expiredCount;
+    }
+
+    /**
+     * Возвращает количество событий в колесе, включая еще не перенесенные в ячейки.
+     *
+     * @return количество событий
+     */
+    public int size() {
+        return size + pending.size();
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled)
+                continue;
+
+            // Такт, в конце которого наступает срок события; просроченные события попадают в текущий такт
+            long tick = Math.max((timeout.deadlineMillis - startMillis - 1) / tickMillis, currentTick);
+            timeout.remainingRounds = (tick - currentTick) / wheel.length;
+            wheel[(int) (tick & mask)].timeouts.add(timeout);
+            size++;
+        }
+    }
+
+    private long tickEnd(long tick) {
+        return startMillis + (tick + 1) * tickMillis;
+    }
+
+    /**
+     * Дескриптор запланированного события.
+     *
+     * @param <T> тип события
+     */
+    public static final class Timeout<T> {
+
+        private final T item;
+        private final long deadlineMillis;
+        private volatile boolean cancelled;
+        private long remainingRounds;
+
+        private Timeout(T item, long deadlineMillis) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        /**
+         * Отменяет событие. Отмененное событие удаляется из колеса при обработке его ячейки.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static final class Bucket<T> {
+        private final LinkedList<Timeout<T>> timeouts = new LinkedList<>();
+    }
+}
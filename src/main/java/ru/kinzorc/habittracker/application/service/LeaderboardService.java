@@ -0,0 +1,279 @@
+package ru.kinzorc.habittracker.application.service;
+
+import ru.kinzorc.habittracker.application.dto.HabitDTO;
+import ru.kinzorc.habittracker.application.dto.LeaderboardEntryDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+import ru.kinzorc.habittracker.core.enums.Habit.LeaderboardMetric;
+import ru.kinzorc.habittracker.core.repository.HabitRepository;
+
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Сервис рейтингов привычек и пользователей по стрику и проценту выполнения.
+ * <p>
+ * Для каждого показателя ({@link LeaderboardMetric}) хранится общий рейтинг и рейтинги по каждой частоте выполнения.
+ * Каждый рейтинг — это ограниченный набор лучших привычек в памяти, который обновляется при каждой отметке о выполнении.
+ * Чтение рейтинга не обращается к базе данных, пока набора достаточно для ответа. Если после вытеснения привычек
+ * в наборе осталось меньше запрошенного количества, он перезагружается запросом {@code ORDER BY ... LIMIT}
+ * по индексу, без сканирования таблицы привычек.
+ * </p>
+ * <p>
+ * Рейтинги в памяти обновляются только отметками, сделанными на этом узле приложения. Чтобы отметки с других узлов
+ * тоже попадали в рейтинг, загруженные рейтинги периодически перезагружаются из базы данных ({@link #refresh()}).
+ * </p>
+ */
+public class LeaderboardService {
+
+    /**
+     * Максимальное количество позиций, которое можно запросить из рейтинга.
+     */
+    public static final int MAX_TOP_SIZE = 100;
+
+    /**
+     * Во сколько раз набор кандидатов в памяти больше максимального размера рейтинга.
+     * Запас позволяет переживать вытеснение привычек без перезагрузки из базы данных.
+     */
+    private static final int CANDIDATES_FACTOR = 4;
+
+    private final HabitRepository habitRepository;
+    private final Map<LeaderboardMetric, Map<Optional<HabitFrequency>, Ranking>> rankings = new EnumMap<>(LeaderboardMetric.class);
+
+    /**
+     * Конструктор для создания сервиса рейтингов.
+     *
+     * @param habitRepository репозиторий привычек, используемый для первоначальной загрузки и перезагрузки рейтингов
+     */
+    public LeaderboardService(HabitRepository habitRepository) {
+        this.habitRepository = habitRepository;
+
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            Map<Optional<HabitFrequency>, Ranking> byFrequency = new HashMap<>();
+            byFrequency.put(Optional.empty(), new Ranking(metric, null));
+            for (HabitFrequency frequency : HabitFrequency.values()) {
+                byFrequency.put(Optional.of(frequency), new Ranking(metric, frequency));
+            }
+            rankings.put(metric, byFrequency);
+        }
+    }
+
+    /**
+     * Обновляет позицию привычки во всех рейтингах после изменения её стрика, процента выполнения или частоты.
+     * Значения должны быть прочитаны из базы данных: привычка, показатель которой не изменился, остается на своем месте.
+     *
+     * @param habit привычка с актуальными значениями стрика, процента выполнения и частоты
+     */
+    public void update(HabitDTO habit) {
+        LeaderboardEntryDTO entry = new LeaderboardEntryDTO(habit);
+
+        for (Map<Optional<HabitFrequency>, Ranking> byFrequency : rankings.values()) {
+            byFrequency.forEach((frequency, ranking) -> {
+                // При изменении частоты привычка переходит в рейтинг новой частоты
+                if (frequency.isEmpty() || frequency.get() == entry.getFrequency())
+                    ranking.update(entry);
+                else
+                    ranking.remove(entry.getHabitId());
+            });
+        }
+    }
+
+    /**
+     * Удаляет из всех рейтингов удаленную привычку.
+     *
+     * @param habitId уникальный идентификатор привычки
+     */
+    public void remove(long habitId) {
+        rankings.values().forEach(byFrequency -> byFrequency.values().forEach(ranking -> ranking.remove(habitId)));
+    }
+
+    /**
+     * Удаляет из всех рейтингов привычки удаленного пользователя.
+     *
+     * @param userId уникальный идентификатор пользователя
+     */
+    public void removeUser(long userId) {
+        rankings.values().forEach(byFrequency -> byFrequency.values().forEach(ranking -> ranking.removeUser(userId)));
+    }
+
+    /**
+     * Сбрасывает все рейтинги после массового изменения привычек в базе данных (завершения или архивации порции привычек).
+     * Рейтинги перезагружаются из базы данных при следующем чтении.
+     */
+    public void invalidate() {
+        rankings.values().forEach(byFrequency -> byFrequency.values().forEach(Ranking::invalidate));
+    }
+
+    /**
+     * Перезагружает из базы данных рейтинги, которые уже были загружены.
+     * Используется для запуска по расписанию; ошибки выводятся в консоль.
+     */
+    public void refresh() {
+        for (Map<Optional<HabitFrequency>, Ranking> byFrequency : rankings.values()) {
+            for (Ranking ranking : byFrequency.values()) {
+                try {
+                    ranking.refresh();
+                } catch (SQLException e) {
+                    System.err.println("Ошибка при обновлении рейтинга: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает лучшие привычки по выбранному показателю.
+     *
+     * @param metric    показатель рейтинга
+     * @param frequency частота выполнения привычек или {@code null} для общего рейтинга
+     * @param limit     количество позиций (не больше {@link #MAX_TOP_SIZE})
+     * @return список позиций рейтинга, упорядоченный по убыванию показателя
+     * @throws SQLException в случае возникновения ошибок при перезагрузке рейтинга из базы данных
+     */
+    public List<LeaderboardEntryDTO> getTopHabits(LeaderboardMetric metric, HabitFrequency frequency, int limit) throws SQLException {
+        return rankings.get(metric).get(Optional.ofNullable(frequency)).top(Math.min(limit, MAX_TOP_SIZE), false);
+    }
+
+    /**
+     * Возвращает лучших пользователей по выбранному показателю.
+     * <p>
+     * Пользователь оценивается по своей лучшей привычке. Пользователи выбираются из набора лучших привычек в памяти,
+     * поэтому, если несколько пользователей занимают большую часть рейтинга привычек, пользователей может вернуться меньше,
+     * чем запрошено.
+     * </p>
+     *
+     * @param metric    показатель рейтинга
+     * @param frequency частота выполнения привычек или {@code null} для общего рейтинга
+     * @param limit     количество пользователей (не больше {@link #MAX_TOP_SIZE})
+     * @return список лучших привычек, по одной на каждого пользователя, упорядоченный по убыванию показателя
+     * @throws SQLException в случае возникновения ошибок при перезагрузке рейтинга из базы данных
+     */
+    public List<LeaderboardEntryDTO> getTopUsers(LeaderboardMetric metric, HabitFrequency frequency, int limit) throws SQLException {
+        Ranking ranking = rankings.get(metric).get(Optional.ofNullable(frequency));
+        Set<Long> users = new HashSet<>();
+        List<LeaderboardEntryDTO> result = new ArrayList<>();
+
+        int size = Math.min(limit, MAX_TOP_SIZE);
+
+        for (LeaderboardEntryDTO entry : ranking.top(size, true)) {
+            if (users.add(entry.getUserId())) {
+                result.add(entry);
+                if (result.size() == size)
+                    break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Рейтинг привычек по одному показателю и одной частоте выполнения.
+     * <p>
+     * Хранит не более {@code capacity} лучших привычек. Поддерживается инвариант: любая привычка вне набора имеет
+     * показатель не выше минимального показателя в наборе, поэтому первые {@code k} элементов набора всегда являются
+     * точным top-k. Если показатель привычки падает ниже минимума остальных, она вытесняется из набора.
+     * Поэтому без перезагрузки из набора удаляются только привычки, которых больше нет в базе данных:
+     * привычка, оставшаяся в базе, всегда обновляется по своему актуальному показателю.
+     * </p>
+     */
+    private class Ranking {
+
+        private final LeaderboardMetric metric;
+        private final HabitFrequency frequency;
+        private final int capacity = MAX_TOP_SIZE * CANDIDATES_FACTOR;
+
+        private final TreeSet<LeaderboardEntryDTO> entries;
+        private final Map<Long, LeaderboardEntryDTO> entriesById = new HashMap<>();
+
+        // Набор был загружен из базы данных
+        private boolean loaded;
+        // Набор содержит все привычки: при последней загрузке база вернула меньше capacity строк
+        private boolean complete;
+
+        Ranking(LeaderboardMetric metric, HabitFrequency frequency) {
+            this.metric = metric;
+            this.frequency = frequency;
+            this.entries = new TreeSet<>(Comparator.comparingInt((LeaderboardEntryDTO entry) -> entry.getScore(metric)).reversed()
+                    .thenComparingLong(LeaderboardEntryDTO::getHabitId));
+        }
+
+        synchronized void update(LeaderboardEntryDTO entry) {
+            // До первой загрузки обновления не нужны: загрузка прочитает актуальные значения из базы данных
+            if (!loaded)
+                return;
+
+            removeEntry(entry.getHabitId());
+
+            if (complete || (!entries.isEmpty() && entry.getScore(metric) >= entries.last().getScore(metric))) {
+                addEntry(entry);
+            }
+
+            if (entries.size() > capacity) {
+                removeEntry(entries.last().getHabitId());
+                complete = false;
+            }
+        }
+
+        synchronized void remove(long habitId) {
+            removeEntry(habitId);
+        }
+
+        synchronized void removeUser(long userId) {
+            List<Long> habitIds = entries.stream()
+                    .filter(entry -> entry.getUserId() == userId)
+                    .map(LeaderboardEntryDTO::getHabitId)
+                    .toList();
+
+            habitIds.forEach(this::removeEntry);
+        }
+
+        synchronized void invalidate() {
+            entries.clear();
+            entriesById.clear();
+            loaded = false;
+            complete = false;
+        }
+
+        // Незагруженный рейтинг не перезагружается: он загрузится при первом чтении
+        synchronized void refresh() throws SQLException {
+            if (loaded)
+                reload();
+        }
+
+        // Возвращает первые limit позиций или, если allCandidates = true, весь набор кандидатов
+        synchronized List<LeaderboardEntryDTO> top(int limit, boolean allCandidates) throws SQLException {
+            if (!loaded || (!complete && entries.size() < limit)) {
+                reload();
+            }
+
+            List<LeaderboardEntryDTO> result = new ArrayList<>(allCandidates ? entries.size() : Math.min(limit, entries.size()));
+            for (LeaderboardEntryDTO entry : entries) {
+                if (!allCandidates && result.size() == limit)
+                    break;
+                result.add(entry);
+            }
+
+            return result;
+        }
+
+        private void reload() throws SQLException {
+            List<HabitDTO> habits = habitRepository.findTopHabits(metric, frequency, capacity);
+
+            entries.clear();
+            entriesById.clear();
+            habits.forEach(habit -> addEntry(new LeaderboardEntryDTO(habit)));
+
+            loaded = true;
+            complete = habits.size() < capacity;
+        }
+
+        private void addEntry(LeaderboardEntryDTO entry) {
+            entries.add(entry);
+            entriesById.put(entry.getHabitId(), entry);
+        }
+
+        private void removeEntry(long habitId) {
+            LeaderboardEntryDTO previous = entriesById.remove(habitId);
+            if (previous != null)
+                entries.remove(previous);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ru.kinzorc.habittracker.application.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Предварительно разобранный шаблон текстового сообщения с параметрами вида {@code {name}}.
+ * <p>
+ * Шаблон разбирается один раз при создании: текст делится на неизменяемые фрагменты и ссылки на параметры
+ * по их номеру. При подстановке значений не выполняется поиск по строке и не создаются промежуточные строки —
+ * фрагменты и значения дописываются в переданный {@link StringBuilder}.
+ * </p>
+ */
+public class MessageTemplate {
+
+    // Фрагменты текста: literals[i] выводится перед значением параметра parameterIndexes[i]
+    private final String[] literals;
+    private final int[] parameterIndexes;
+    private final String tail;
+    private final int parametersCount;
+
+    private MessageTemplate(String[] literals, int[] parameterIndexes, String tail, int parametersCount) {
+        this.literals = literals;
+        this.parameterIndexes = parameterIndexes;
+        this.tail = tail;
+        this.parametersCount = parametersCount;
+    }
+
+    /**
+     * Разбирает шаблон.
+     *
+     * @param template   текст шаблона с параметрами вида {@code {name}}
+     * @param parameters имена параметров в порядке, в котором их значения передаются в {@link #render}
+     * @return разобранный шаблон
+     * @throws IllegalArgumentException если шаблон содержит неизвестный параметр или незакрытую скобку
+     */
+    public static MessageTemplate compile(String template, String... parameters) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<String> names = Arrays.asList(parameters);
+
+        int position = 0;
+        int open;
+        while ((open = template.indexOf('{', position)) >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0)
+                throw new IllegalArgumentException("Незакрытый параметр в шаблоне: " + template.substring(open));
+
+            int index = names.indexOf(template.substring(open + 1, close));
+            if (index < 0)
+                throw new IllegalArgumentException("Неизвестный параметр шаблона: " + template.substring(open, close + 1));
+
+            literals.add(template.substring(position, open));
+            indexes.add(index);
+            position = close + 1;
+        }
+
+        return new MessageTemplate(literals.toArray(new String[0]), indexes.stream().mapToInt(Integer::intValue).toArray(),
+                template.substring(position), parameters.length);
+    }
+
+    /**
+     * Дописывает текст шаблона с подставленными значениями параметров.
+     *
+     * @param out    буфер, в который выводится текст
+     * @param values значения параметров в порядке, заданном при разборе шаблона
+     * @return переданный буфер
+     */
+    public StringBuilder render(StringBuilder out, Object... values) {
+        if (values.length != parametersCount)
+            throw new IllegalArgumentException("Ожидается параметров: " + parametersCount + ", передано: " + values.length);
+
+        for (int i = 0; i < literals.length; i++) {
+            out.append(literals[i]).append(values[parameterIndexes[i]]);
+        }
+
+        return out.append(tail);
+    }
+
+    /**
+     * Возвращает текст шаблона с подставленными значениями параметров.
+     *
+     * @param values значения параметров в порядке, заданном при разборе шаблона
+     * @return текст сообщения
+     */
+    public String render(Object... values) {
+        return render(new StringBuilder(), values).toString();
+    }
+}
@@ -0,0 +1,252 @@
+package ru.kinzorc.habittracker.application.service;
+
+import ru.kinzorc.habittracker.application.dto.EmailMessageDTO;
+import ru.kinzorc.habittracker.application.dto.ReminderDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+import ru.kinzorc.habittracker.core.exceptions.HabitNotFoundException;
+import ru.kinzorc.habittracker.core.repository.HabitReminderRepository;
+import ru.kinzorc.habittracker.core.repository.UnitOfWork;
+
+import java.sql.SQLException;
+import java.time.*;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис напоминаний о выполнении привычек.
+ * <p>
+ * Напоминание срабатывает ежедневно в заданное время, если привычка еще не отмечена как выполненная
+ * (для ежедневных привычек — сегодня, для еженедельных — на текущей неделе).
+ * </p>
+ * <p>
+ * В памяти хранятся только напоминания ближайшего окна времени ({@code window}): они подгружаются из базы данных
+ * по мере продвижения времени и размещаются в {@link HashedTimingWheel}. Поток-таймер на каждом такте забирает
+ * сработавшие напоминания, одним запросом проверяет их выполнение и передает письма в {@link EmailService} пакетом.
+ * Письма и отметка о напоминании записываются в одной транзакции ({@link UnitOfWork}): если письма ставятся
+ * в очередь исходящих писем в базе данных, напоминание не может быть отмечено без писем или отправлено повторно.
+ * Отметка выполняется условно и возвращает только еще не отмеченные напоминания, поэтому при запуске сервиса
+ * на нескольких узлах каждое напоминание отправляет только узел, который отметил его первым.
+ * </p>
+ */
+public class ReminderService {
+
+    private static final MessageTemplate SUBJECT = MessageTemplate.compile("Напоминание: {habitName}", "habitName");
+    private static final MessageTemplate TEXT = MessageTemplate.compile(
+            "Здравствуйте, {userName}!\n\nНапоминаем, что привычка «{habitName}» {period} еще не отмечена как выполненная.\n\nHabit Tracker",
+            "userName", "habitName", "period");
+
+    private static final int WHEEL_SIZE = 4096;
+
+    private final HabitReminderRepository reminderRepository;
+    private final EmailService emailService;
+    private final UnitOfWork unitOfWork;
+    private final Duration tick;
+    private final Duration window;
+    private final Clock clock;
+
+    private final HashedTimingWheel<ReminderDTO> wheel;
+    private final Map<Long, HashedTimingWheel.Timeout<ReminderDTO>> scheduled = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+
+    // Момент, до которого напоминания уже загружены в колесо
+    private volatile LocalDateTime loadedUntil;
+
+    /**
+     * Конструктор для создания сервиса напоминаний.
+     *
+     * @param reminderRepository репозиторий напоминаний
+     * @param emailService       сервис отправки писем
+     * @param unitOfWork         единица работы, в которой письма записываются вместе с отметкой о напоминании
+     * @param tick               длительность такта (точность срабатывания напоминаний)
+     * @param window             размер окна, на которое напоминания загружаются в память заранее
+     */
+    public ReminderService(HabitReminderRepository reminderRepository, EmailService emailService, UnitOfWork unitOfWork,
+                           Duration tick, Duration window) {
+        this(reminderRepository, emailService, unitOfWork, tick, window, Clock.systemDefaultZone());
+    }
+
+    // for tests
+    ReminderService(HabitReminderRepository reminderRepository, EmailService emailService, UnitOfWork unitOfWork,
+                    Duration tick, Duration window, Clock clock) {
+        this.reminderRepository = reminderRepository;
+        this.emailService = emailService;
+        this.unitOfWork = unitOfWork;
+        this.tick = tick;
+        this.window = window;
+        this.clock = clock;
+        this.wheel = new HashedTimingWheel<>(tick, WHEEL_SIZE, clock.millis());
+        this.loadedUntil = LocalDateTime.now(clock);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "habit-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Запускает поток-таймер напоминаний.
+     */
+    public void start() {
+        timer.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка обработки напоминаний: " + e.getMessage());
+            }
+        }, 0, tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Останавливает поток-таймер напоминаний.
+     */
+    public void stop() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Устанавливает время ежедневного напоминания для привычки.
+     *
+     * @param habitId    уникальный идентификатор привычки
+     * @param remindTime время напоминания
+     * @throws HabitNotFoundException если привычка не найдена
+     * @throws SQLException           в случае возникновения ошибок при работе с базой данных
+     */
+    public void setReminder(long habitId, LocalTime remindTime) throws HabitNotFoundException, SQLException {
+        reminderRepository.setReminder(habitId, remindTime);
+        cancel(habitId);
+
+        // Если напоминание попадает в уже загруженное окно, добавляем его в колесо сразу
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime remindAt = now.toLocalDate().atTime(remindTime);
+        if (!remindAt.isBefore(now) && remindAt.isBefore(loadedUntil)) {
+            reminderRepository.findReminder(habitId).ifPresent(reminder -> schedule(reminder, remindAt));
+        }
+    }
+
+    /**
+     * Удаляет напоминание для привычки.
+     *
+     * @param habitId уникальный идентификатор привычки
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public void removeReminder(long habitId) throws SQLException {
+        reminderRepository.removeReminder(habitId);
+        cancel(habitId);
+    }
+
+    /**
+     * Выполняет один такт: подгружает следующее окно напоминаний и обрабатывает сработавшие напоминания.
+     */
+    void tick() {
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        try {
+            loadWindow(now.plus(window));
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+
+        List<ReminderDTO> due = new ArrayList<>();
+        wheel.advance(clock.millis(), reminder -> {
+            // Удаляем дескриптор, только если напоминание не было переустановлено
+            scheduled.computeIfPresent(reminder.getHabitId(), (habitId, timeout) -> timeout.getItem() == reminder ? null : timeout);
+            due.add(reminder);
+        });
+
+        if (!due.isEmpty()) {
+            try {
+                notifyDue(due, now.toLocalDate());
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество напоминаний, загруженных в память.
+     *
+     * @return количество напоминаний
+     */
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+
+    // Загружает напоминания от loadedUntil до until отдельными запросами для каждого дня
+    private void loadWindow(LocalDateTime until) throws SQLException {
+        while (loadedUntil.isBefore(until)) {
+            LocalDate date = loadedUntil.toLocalDate();
+            LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
+            LocalDateTime to = until.isBefore(dayEnd) ? until : dayEnd;
+
+            List<ReminderDTO> reminders = reminderRepository.findRemindersBetween(date, loadedUntil.toLocalTime(),
+                    to.equals(dayEnd) ? LocalTime.MAX : to.toLocalTime());
+
+            for (ReminderDTO reminder : reminders) {
+                schedule(reminder, date.atTime(reminder.getRemindTime()));
+            }
+
+            loadedUntil = to;
+        }
+    }
+
+    private void notifyDue(List<ReminderDTO> due, LocalDate today) throws SQLException {
+        List<Long> dueIds = new ArrayList<>(due.size());
+        for (ReminderDTO reminder : due) {
+            dueIds.add(reminder.getHabitId());
+        }
+
+        LocalDate weekStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+        unitOfWork.execute(() -> {
+            // Напоминания, уже отмеченные другим узлом, не возвращаются и не отправляются повторно
+            Set<Long> claimed = reminderRepository.markReminded(dueIds, today);
+
+            List<Long> daily = new ArrayList<>();
+            List<Long> weekly = new ArrayList<>();
+            for (ReminderDTO reminder : due) {
+                if (claimed.contains(reminder.getHabitId()))
+                    (reminder.getFrequency() == HabitFrequency.DAILY ? daily : weekly).add(reminder.getHabitId());
+            }
+
+            Set<Long> executed = new HashSet<>(reminderRepository.findExecutedHabits(daily,
+                    today.atStartOfDay(), today.plusDays(1).atStartOfDay()));
+            executed.addAll(reminderRepository.findExecutedHabits(weekly,
+                    weekStart.atStartOfDay(), weekStart.plusWeeks(1).atStartOfDay()));
+
+            List<EmailMessageDTO> messages = new ArrayList<>();
+            for (ReminderDTO reminder : due) {
+                if (claimed.contains(reminder.getHabitId()) && !executed.contains(reminder.getHabitId())) {
+                    String period = reminder.getFrequency() == HabitFrequency.DAILY ? "сегодня" : "на этой неделе";
+                    messages.add(new EmailMessageDTO(reminder.getEmail(), SUBJECT.render(reminder.getHabitName()),
+                            TEXT.render(reminder.getUserName(), reminder.getHabitName(), period)));
+                }
+            }
+
+            if (!messages.isEmpty()) {
+                int failures = emailService.sendEmails(messages).size();
+                if (failures > 0)
+                    System.err.println("Не удалось отправить напоминаний: " + failures);
+            }
+            return null;
+        });
+    }
+
+    private void schedule(ReminderDTO reminder, LocalDateTime remindAt) {
+        long deadline = remindAt.atZone(clock.getZone()).toInstant().toEpochMilli();
+        HashedTimingWheel.Timeout<ReminderDTO> previous = scheduled.put(reminder.getHabitId(), wheel.schedule(reminder, deadline));
+
+        if (previous != null)
+            previous.cancel();
+    }
+
+    private void cancel(long habitId) {
+        HashedTimingWheel.Timeout<ReminderDTO> timeout = scheduled.remove(habitId);
+
+        if (timeout != null)
+            timeout.cancel();
+    }
+}
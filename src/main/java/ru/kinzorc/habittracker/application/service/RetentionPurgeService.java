@@ -0,0 +1,179 @@
+package ru.kinzorc.habittracker.application.service;
+
+import ru.kinzorc.habittracker.application.dto.JobCheckpointDTO;
+import ru.kinzorc.habittracker.application.dto.PurgeProgressDTO;
+import ru.kinzorc.habittracker.core.repository.JobCheckpointRepository;
+import ru.kinzorc.habittracker.core.repository.RetentionPurgeRepository;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Сервис очистки устаревших данных: выполнений завершенных привычек старше {@code executionRetention}
+ * и сессий пользователей, неактивных дольше {@code sessionRetention}.
+ * <p>
+ * Таблица проходится ограниченными порциями (диапазонами страниц или идентификаторов), каждая порция удаляется
+ * отдельной короткой транзакцией. После каждой порции позиция сохраняется в {@link JobCheckpointRepository},
+ * поэтому прерванная очистка продолжается с места остановки. Скорость удаления ограничивается значением
+ * {@code targetRowsPerSecond}: после порции сервис делает паузу, чтобы средняя скорость не превышала заданную.
+ * Прогресс текущего запуска доступен через {@link #getProgress()}.
+ * </p>
+ */
+public class RetentionPurgeService {
+
+    static final String EXECUTIONS_JOB = "purge-habit-executions";
+    static final String SESSIONS_JOB = "purge-users-sessions";
+
+    private final RetentionPurgeRepository purgeRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final Duration executionRetention;
+    private final Duration sessionRetention;
+    private final int pagesPerChunk;
+    private final int sessionsPerChunk;
+    private final int targetRowsPerSecond;
+    private final Clock clock;
+    private final Sleeper sleeper;
+
+    private volatile PurgeProgressDTO progress = new PurgeProgressDTO(EXECUTIONS_JOB, 0, 0, 0, 0, false);
+
+    /**
+     * Конструктор для создания сервиса очистки.
+     *
+     * @param purgeRepository      репозиторий удаления устаревших данных
+     * @param checkpointRepository репозиторий позиций задач
+     * @param executionRetention   срок хранения выполнений привычек
+     * @param sessionRetention     срок хранения сессий пользователей
+     * @param pagesPerChunk        количество страниц таблицы выполнений в одной порции
+     * @param sessionsPerChunk     количество идентификаторов сессий в одной порции
+     * @param targetRowsPerSecond  предельная скорость удаления (строк в секунду), {@code 0} — без ограничения
+     */
+    public RetentionPurgeService(RetentionPurgeRepository purgeRepository, JobCheckpointRepository checkpointRepository,
+                                 Duration executionRetention, Duration sessionRetention,
+                                 int pagesPerChunk, int sessionsPerChunk, int targetRowsPerSecond) {
+        this(purgeRepository, checkpointRepository, executionRetention, sessionRetention, pagesPerChunk, sessionsPerChunk,
+                targetRowsPerSecond, Clock.systemDefaultZone(), Thread::sleep);
+    }
+
+    // for tests
+    RetentionPurgeService(RetentionPurgeRepository purgeRepository, JobCheckpointRepository checkpointRepository,
+                          Duration executionRetention, Duration sessionRetention, int pagesPerChunk, int sessionsPerChunk,
+                          int targetRowsPerSecond, Clock clock, Sleeper sleeper) {
+        if (pagesPerChunk <= 0 || sessionsPerChunk <= 0 || targetRowsPerSecond < 0) {
+            throw new IllegalArgumentException("Размер порции должен быть больше нуля, а скорость удаления — не меньше нуля.");
+        }
+
+        this.purgeRepository = purgeRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.executionRetention = executionRetention;
+        this.sessionRetention = sessionRetention;
+        this.pagesPerChunk = pagesPerChunk;
+        this.sessionsPerChunk = sessionsPerChunk;
+        this.targetRowsPerSecond = targetRowsPerSecond;
+        this.clock = clock;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Выполняет очистку устаревших данных.
+     * Используется для запуска по расписанию; ошибки выводятся в консоль.
+     */
+    public void purgeExpiredData() {
+        try {
+            long deleted = purge();
+            if (deleted > 0)
+                System.out.println("Удалено устаревших записей: " + deleted);
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Удаляет устаревшие выполнения привычек, затем устаревшие сессии пользователей.
+     *
+     * @return количество удаленных строк за этот запуск
+     * @throws SQLException         в случае возникновения ошибок при работе с базой данных
+     * @throws InterruptedException если поток был прерван; позиция сохраняется, и следующий запуск продолжит с нее
+     */
+    public long purge() throws SQLException, InterruptedException {
+        long startedMillis = clock.millis();
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        LocalDateTime executedBefore = now.minus(executionRetention);
+        long deleted = purgeChunks(EXECUTIONS_JOB, purgeRepository.getExecutionsPageCount(), pagesPerChunk, 0, startedMillis,
+                (from, to) -> purgeRepository.purgeExecutions(from, to, executedBefore));
+
+        // Верхняя граница диапазона не включается, поэтому проход идет до наибольшего идентификатора + 1
+        LocalDateTime activeBefore = now.minus(sessionRetention);
+        long maxSessionId = purgeRepository.getMaxSessionId();
+        deleted = purgeChunks(SESSIONS_JOB, maxSessionId > 0 ? maxSessionId + 1 : 0, sessionsPerChunk, deleted, startedMillis,
+                (from, to) -> purgeRepository.purgeSessions(from, to, activeBefore));
+
+        PurgeProgressDTO last = progress;
+        progress = new PurgeProgressDTO(last.getJobName(), last.getPosition(), last.getEnd(), deleted,
+                clock.millis() - startedMillis, false);
+
+        return deleted;
+    }
+
+    /**
+     * Возвращает снимок прогресса текущего или последнего запуска очистки.
+     *
+     * @return прогресс очистки
+     */
+    public PurgeProgressDTO getProgress() {
+        return progress;
+    }
+
+    // Проходит диапазон [сохраненная позиция, end) порциями по chunkSize, возвращает общее количество удаленных строк
+    private long purgeChunks(String jobName, long end, long chunkSize, long deleted, long startedMillis, ChunkPurger purger)
+            throws SQLException, InterruptedException {
+        Optional<JobCheckpointDTO> checkpoint = checkpointRepository.findCheckpoint(jobName);
+        long position = checkpoint.map(JobCheckpointDTO::getPosition).orElse(0L);
+        long processedRows = checkpoint.map(JobCheckpointDTO::getProcessedRows).orElse(0L);
+
+        while (position < end) {
+            if (Thread.currentThread().isInterrupted())
+                throw new InterruptedException("Очистка прервана на позиции " + position + " задачи " + jobName);
+
+            long chunkStarted = clock.millis();
+            long next = Math.min(position + chunkSize, end);
+            int chunkDeleted = purger.purge(position, next);
+
+            position = next;
+            processedRows += chunkDeleted;
+            deleted += chunkDeleted;
+            checkpointRepository.saveCheckpoint(jobName, position, processedRows);
+            progress = new PurgeProgressDTO(jobName, position, end, deleted, clock.millis() - startedMillis, true);
+
+            throttle(chunkDeleted, clock.millis() - chunkStarted);
+        }
+
+        checkpointRepository.removeCheckpoint(jobName);
+        return deleted;
+    }
+
+    // Пауза, при которой удаление порции занимает не меньше chunkDeleted / targetRowsPerSecond секунд
+    private void throttle(int chunkDeleted, long chunkMillis) throws InterruptedException {
+        if (targetRowsPerSecond == 0 || chunkDeleted == 0)
+            return;
+
+        long pauseMillis = chunkDeleted * 1000L / targetRowsPerSecond - chunkMillis;
+        if (pauseMillis > 0)
+            sleeper.sleep(pauseMillis);
+    }
+
+    @FunctionalInterface
+    private interface ChunkPurger {
+        int purge(long from, long to) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+}
@@ -0,0 +1,249 @@
+package ru.kinzorc.habittracker.application.service;
+
+import ru.kinzorc.habittracker.application.dto.SessionDTO;
+import ru.kinzorc.habittracker.core.repository.SessionRepository;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис сессий пользователей со сроком действия, продлеваемым при активности.
+ * <p>
+ * Сессии узла хранятся в памяти ({@link ConcurrentHashMap}), поэтому продление сессии при каждом действии
+ * пользователя не обращается к базе данных: сессия только помечается измененной. Измененные сессии
+ * записываются в базу данных отложенно одним пакетом ({@link #flush()}); повторные продления одной сессии
+ * между записями объединяются в одно обновление. Интервал записи должен быть заметно меньше срока бездействия,
+ * иначе сессия может быть удалена по устаревшему времени истечения.
+ * </p>
+ * <p>
+ * {@link #sweep()} удаляет истекшие сессии из памяти, а затем порциями по {@code batchSize} — из базы данных,
+ * включая сессии других узлов, завершившихся аварийно. При завершении работы узел удаляет только свои сессии
+ * ({@link #removeNodeSessions()}), не затрагивая сессии других запущенных узлов.
+ * </p>
+ */
+public class SessionService {
+
+    private final SessionRepository sessionRepository;
+    private final String nodeId;
+    private final Duration idleTimeout;
+    private final int batchSize;
+    private final Clock clock;
+
+    private final Map<Long, SessionDTO> sessions = new ConcurrentHashMap<>();
+    private final Set<Long> dirtySessions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Конструктор для создания сервиса сессий.
+     *
+     * @param sessionRepository репозиторий сессий
+     * @param nodeId            идентификатор узла приложения
+     * @param idleTimeout       срок бездействия, после которого сессия истекает
+     * @param batchSize         количество истекших сессий, удаляемых одним запросом
+     */
+    public SessionService(SessionRepository sessionRepository, String nodeId, Duration idleTimeout, int batchSize) {
+        this(sessionRepository, nodeId, idleTimeout, batchSize, Clock.systemDefaultZone());
+    }
+
+    // for tests
+    SessionService(SessionRepository sessionRepository, String nodeId, Duration idleTimeout, int batchSize, Clock clock) {
+        if (idleTimeout.isNegative() || idleTimeout.isZero() || batchSize <= 0) {
+            throw new IllegalArgumentException("Срок бездействия и размер порции должны быть больше нуля.");
+        }
+
+        this.sessionRepository = sessionRepository;
+        this.nodeId = nodeId;
+        this.idleTimeout = idleTimeout;
+        this.batchSize = batchSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Возвращает идентификатор узла по умолчанию в виде {@code имя_хоста:pid}.
+     *
+     * @return идентификатор узла приложения
+     */
+    public static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+
+        return host + ":" + ProcessHandle.current().pid();
+    }
+
+    /**
+     * Открывает сессию пользователя на этом узле.
+     *
+     * @param userId идентификатор пользователя
+     * @return открытая сессия
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public SessionDTO openSession(long userId) throws SQLException {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime expiresAt = now.plus(idleTimeout);
+
+        long sessionId = sessionRepository.createSession(userId, nodeId, now, expiresAt);
+        SessionDTO session = new SessionDTO(sessionId, userId, nodeId, now, now, expiresAt);
+        sessions.put(sessionId, session);
+
+        return session;
+    }
+
+    /**
+     * Продлевает сессию при активности пользователя. Изменение записывается в базу данных при следующем {@link #flush()}.
+     *
+     * @param sessionId идентификатор сессии
+     * @return {@code true}, если сессия активна и продлена; {@code false}, если сессия истекла или закрыта
+     */
+    public boolean touchSession(long sessionId) {
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        SessionDTO touched = sessions.computeIfPresent(sessionId,
+                (id, session) -> session.isExpired(now) ? null : session.touch(now, now.plus(idleTimeout)));
+
+        if (touched == null) {
+            dirtySessions.remove(sessionId);
+            return false;
+        }
+
+        dirtySessions.add(sessionId);
+        return true;
+    }
+
+    /**
+     * Закрывает сессию (выход пользователя).
+     *
+     * @param sessionId идентификатор сессии
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public void closeSession(long sessionId) throws SQLException {
+        sessions.remove(sessionId);
+        dirtySessions.remove(sessionId);
+        sessionRepository.removeSession(sessionId);
+    }
+
+    /**
+     * Записывает в базу данных время активности сессий, продленных после предыдущей записи.
+     * Сессии, которых уже нет в базе данных (удалены другим узлом или при блокировке пользователя), закрываются.
+     *
+     * @return количество записанных сессий
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных; сессии будут записаны повторно
+     */
+    public int flush() throws SQLException {
+        List<SessionDTO> batch = new ArrayList<>();
+
+        for (Long sessionId : dirtySessions) {
+            // Отметка снимается до чтения сессии: продление после этого момента попадет в следующую запись
+            dirtySessions.remove(sessionId);
+
+            SessionDTO session = sessions.get(sessionId);
+            if (session != null)
+                batch.add(session);
+        }
+
+        if (batch.isEmpty())
+            return 0;
+
+        try {
+            for (long missingId : sessionRepository.updateActivity(batch)) {
+                sessions.remove(missingId);
+                dirtySessions.remove(missingId);
+            }
+        } catch (SQLException e) {
+            batch.forEach(session -> dirtySessions.add(session.getId()));
+            throw e;
+        }
+
+        return batch.size();
+    }
+
+    /**
+     * Удаляет истекшие сессии: сначала из памяти, затем порциями из базы данных.
+     * Перед удалением из базы данных записывается активность сессий этого узла, чтобы не удалить продленные сессии.
+     *
+     * @return количество сессий, удаленных из базы данных
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public int sweep() throws SQLException {
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        sessions.values().removeIf(session -> {
+            if (!session.isExpired(now))
+                return false;
+
+            dirtySessions.remove(session.getId());
+            return true;
+        });
+
+        flush();
+
+        int total = 0;
+        int removed;
+
+        do {
+            removed = sessionRepository.removeExpiredSessions(now, batchSize);
+            total += removed;
+        } while (removed == batchSize && !Thread.currentThread().isInterrupted());
+
+        return total;
+    }
+
+    /**
+     * Удаляет все сессии этого узла, не затрагивая сессии других узлов. Вызывается при завершении работы приложения.
+     *
+     * @return количество удаленных сессий
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public int removeNodeSessions() throws SQLException {
+        sessions.clear();
+        dirtySessions.clear();
+
+        return sessionRepository.removeNodeSessions(nodeId);
+    }
+
+    /**
+     * Записывает активность сессий в базу данных.
+     * Используется для запуска по расписанию; ошибки выводятся в консоль.
+     */
+    public void flushActivity() {
+        try {
+            flush();
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Удаляет истекшие сессии.
+     * Используется для запуска по расписанию; ошибки выводятся в консоль.
+     */
+    public void expireSessions() {
+        try {
+            int removed = sweep();
+            if (removed > 0)
+                System.out.println("Удалено истекших сессий: " + removed);
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Возвращает идентификатор этого узла приложения.
+     *
+     * @return идентификатор узла
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,311 @@
+package ru.kinzorc.habittracker.application.service;
+
+import ru.kinzorc.habittracker.application.dto.SessionTokenDTO;
+import ru.kinzorc.habittracker.application.dto.TokenRevocationDTO;
+import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.core.enums.User.UserRole;
+import ru.kinzorc.habittracker.core.repository.TokenRevocationRepository;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис подписанных токенов сессий.
+ * <p>
+ * Токен содержит идентификатор токена, идентификатор и роль пользователя, время выдачи и истечения и подписан
+ * HMAC-SHA256 общим для всех узлов секретом. Проверка токена выполняется любым узлом без обращения к базе данных:
+ * проверяются подпись, срок действия и список отзывов в памяти. Токен короткоживущий и продлевается
+ * ({@link #renewToken(SessionTokenDTO)}) с сохранением идентификатора, поэтому отзыв действует и на продленный токен.
+ * Продление ограничено максимальным временем жизни токена ({@code maxLifetime}) от первой выдачи: после него
+ * пользователь должен войти заново.
+ * </p>
+ * <p>
+ * Отзывы ({@link #revokeToken(String)} при выходе, {@link #revokeUserTokens(long)} при блокировке) сохраняются
+ * в базе данных и сразу применяются на этом узле. Остальные узлы получают их при периодическом обновлении списка
+ * ({@link #refreshRevocations()}). Запись об отзыве хранится до окончания максимального времени жизни отозванных
+ * токенов: узел, еще не получивший отзыв, может продлить токен, но не дальше этого момента. Поэтому список
+ * остается компактным.
+ * </p>
+ */
+public class SessionTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    // Версия, идентификатор токена, идентификатор пользователя, роль, время выдачи и истечения в миллисекундах
+    private static final int PAYLOAD_LENGTH = 1 + Long.BYTES + Long.BYTES + Short.BYTES + Long.BYTES + Long.BYTES;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final TokenRevocationRepository revocationRepository;
+    private final Duration tokenTtl;
+    private final Duration maxLifetime;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Mac> mac;
+
+    // Отзывы из базы данных, заменяются целиком при обновлении
+    private volatile Revocations revocations = new Revocations(Map.of(), Map.of());
+    // Отзывы этого узла: действуют сразу, не дожидаясь обновления списка
+    private final Map<Long, Instant> localTokenRevocations = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> localUserRevocations = new ConcurrentHashMap<>();
+
+    /**
+     * Конструктор для создания сервиса токенов.
+     *
+     * @param revocationRepository репозиторий отозванных токенов
+     * @param secret               секрет подписи, одинаковый на всех узлах приложения
+     * @param tokenTtl             срок действия токена
+     * @param maxLifetime          максимальное время жизни токена с учетом продлений, не меньше срока действия
+     */
+    public SessionTokenService(TokenRevocationRepository revocationRepository, byte[] secret, Duration tokenTtl, Duration maxLifetime) {
+        this(revocationRepository, secret, tokenTtl, maxLifetime, Clock.systemDefaultZone());
+    }
+
+    // for tests
+    SessionTokenService(TokenRevocationRepository revocationRepository, byte[] secret, Duration tokenTtl, Duration maxLifetime,
+                        Clock clock) {
+        if (secret.length < 32 || tokenTtl.isNegative() || tokenTtl.isZero()) {
+            throw new IllegalArgumentException("Секрет подписи должен содержать не менее 32 байт, а срок действия токена — быть больше нуля.");
+        }
+        if (maxLifetime.compareTo(tokenTtl) < 0) {
+            throw new IllegalArgumentException("Максимальное время жизни токена не может быть меньше срока его действия.");
+        }
+
+        SecretKeySpec key = new SecretKeySpec(secret.clone(), ALGORITHM);
+        this.revocationRepository = revocationRepository;
+        this.tokenTtl = tokenTtl;
+        this.maxLifetime = maxLifetime;
+        this.clock = clock;
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Алгоритм подписи " + ALGORITHM + " недоступен.", e);
+            }
+        });
+    }
+
+    /**
+     * Создает случайный секрет подписи. Токены, подписанные таким секретом, действительны только на этом узле.
+     *
+     * @return секрет подписи длиной 32 байта
+     */
+    public static byte[] generateSecret() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+
+    /**
+     * Выдает новый токен сессии.
+     *
+     * @param userId   идентификатор пользователя
+     * @param userRole роль пользователя
+     * @return подписанный токен
+     */
+    public String issueToken(long userId, UserRole userRole) {
+        Instant now = clock.instant();
+        return sign(new SessionTokenDTO(random.nextLong(), userId, userRole, now, now.plus(tokenTtl)));
+    }
+
+    /**
+     * Продлевает действительный токен: новый токен сохраняет идентификатор и время первой выдачи.
+     * Срок действия не продлевается дальше максимального времени жизни токена от первой выдачи.
+     *
+     * @param token содержимое действительного токена
+     * @return подписанный токен с новым сроком действия
+     */
+    public String renewToken(SessionTokenDTO token) {
+        Instant expiresAt = clock.instant().plus(tokenTtl);
+        Instant lifetimeEnd = lifetimeEnd(token);
+
+        return sign(new SessionTokenDTO(token.getTokenId(), token.getUserId(), token.getUserRole(), token.getIssuedAt(),
+                expiresAt.isAfter(lifetimeEnd) ? lifetimeEnd : expiresAt));
+    }
+
+    /**
+     * Проверяет токен без обращения к базе данных: подпись, срок действия и отсутствие в списке отзывов.
+     *
+     * @param token подписанный токен
+     * @return {@link Optional} с содержимым токена или пустой {@link Optional}, если токен недействителен
+     */
+    public Optional<SessionTokenDTO> validateToken(String token) {
+        Optional<SessionTokenDTO> decoded = decode(token);
+        if (decoded.isEmpty())
+            return decoded;
+
+        SessionTokenDTO sessionToken = decoded.get();
+        Instant now = clock.instant();
+        if (!sessionToken.getExpiresAt().isAfter(now) || !lifetimeEnd(sessionToken).isAfter(now) || isRevoked(sessionToken))
+            return Optional.empty();
+
+        return decoded;
+    }
+
+    /**
+     * Отзывает токен (выход пользователя). Токен с неверной подписью игнорируется.
+     *
+     * @param token подписанный токен
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public void revokeToken(String token) throws SQLException {
+        Optional<SessionTokenDTO> decoded = decode(token);
+        if (decoded.isEmpty())
+            return;
+
+        SessionTokenDTO sessionToken = decoded.get();
+        // Отзыв хранится до конца времени жизни токена, а не до его текущего срока: узел, еще не получивший отзыв,
+        // может продлить токен, но не дальше этого момента
+        Instant lifetimeEnd = lifetimeEnd(sessionToken);
+        revocationRepository.addRevocation(new TokenRevocationDTO(sessionToken.getTokenId(), sessionToken.getUserId(),
+                LocalDateTime.now(clock), toLocalDateTime(lifetimeEnd)));
+        localTokenRevocations.put(sessionToken.getTokenId(), lifetimeEnd);
+    }
+
+    /**
+     * Отзывает все токены пользователя, выданные до текущего момента (блокировка пользователя).
+     *
+     * @param userId идентификатор пользователя
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public void revokeUserTokens(long userId) throws SQLException {
+        Instant now = clock.instant();
+
+        // Любой токен, выданный до отзыва, даже продленный на другом узле, истекает не позднее чем через maxLifetime
+        revocationRepository.addRevocation(new TokenRevocationDTO(null, userId, toLocalDateTime(now),
+                toLocalDateTime(now.plus(maxLifetime))));
+        localUserRevocations.merge(userId, now, (current, revokedAt) -> current.isAfter(revokedAt) ? current : revokedAt);
+    }
+
+    /**
+     * Загружает действующие отзывы из базы данных и удаляет из памяти отзывы истекших токенов.
+     *
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public void refreshRevocations() throws SQLException {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<Long, Instant> tokenRevocations = new HashMap<>();
+        Map<Long, Instant> userRevocations = new HashMap<>();
+
+        for (TokenRevocationDTO revocation : revocationRepository.findActiveRevocations(now)) {
+            if (revocation.getTokenId() != null) {
+                tokenRevocations.put(revocation.getTokenId(), toInstant(revocation.getExpiresAt()));
+            } else {
+                userRevocations.merge(revocation.getUserId(), toInstant(revocation.getRevokedAt()),
+                        (current, revokedAt) -> current.isAfter(revokedAt) ? current : revokedAt);
+            }
+        }
+
+        revocations = new Revocations(tokenRevocations, userRevocations);
+
+        Instant instant = clock.instant();
+        localTokenRevocations.values().removeIf(expiresAt -> !expiresAt.isAfter(instant));
+        localUserRevocations.values().removeIf(revokedAt -> !revokedAt.plus(maxLifetime).isAfter(instant));
+    }
+
+    /**
+     * Обновляет список отзывов и удаляет из базы данных записи об истекших токенах.
+     * Используется для запуска по расписанию; ошибки выводятся в консоль.
+     */
+    public void refreshRevocationList() {
+        try {
+            refreshRevocations();
+            revocationRepository.removeExpiredRevocations(LocalDateTime.now(clock));
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    // Момент, после которого токен не продлевается и недействителен
+    private Instant lifetimeEnd(SessionTokenDTO token) {
+        return token.getIssuedAt().plus(maxLifetime);
+    }
+
+    private boolean isRevoked(SessionTokenDTO token) {
+        Revocations current = revocations;
+
+        if (current.tokens.containsKey(token.getTokenId()) || localTokenRevocations.containsKey(token.getTokenId()))
+            return true;
+
+        return isRevokedBy(current.users.get(token.getUserId()), token)
+                || isRevokedBy(localUserRevocations.get(token.getUserId()), token);
+    }
+
+    private static boolean isRevokedBy(Instant revokedAt, SessionTokenDTO token) {
+        return revokedAt != null && !token.getIssuedAt().isAfter(revokedAt);
+    }
+
+    private String sign(SessionTokenDTO token) {
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_LENGTH)
+                .put(VERSION)
+                .putLong(token.getTokenId())
+                .putLong(token.getUserId())
+                .putShort(UserDTO.ROLE_CODEC.encode(token.getUserRole()))
+                .putLong(token.getIssuedAt().toEpochMilli())
+                .putLong(token.getExpiresAt().toEpochMilli());
+
+        byte[] bytes = payload.array();
+        return ENCODER.encodeToString(bytes) + "." + ENCODER.encodeToString(mac.get().doFinal(bytes));
+    }
+
+    // Проверяет подпись и разбирает содержимое токена без проверки срока действия и отзыва
+    private Optional<SessionTokenDTO> decode(String token) {
+        if (token == null)
+            return Optional.empty();
+
+        int dot = token.indexOf('.');
+        if (dot < 0)
+            return Optional.empty();
+
+        try {
+            byte[] payload = DECODER.decode(token.substring(0, dot).getBytes(StandardCharsets.US_ASCII));
+            byte[] signature = DECODER.decode(token.substring(dot + 1).getBytes(StandardCharsets.US_ASCII));
+
+            if (payload.length != PAYLOAD_LENGTH || payload[0] != VERSION
+                    || !MessageDigest.isEqual(signature, mac.get().doFinal(payload)))
+                return Optional.empty();
+
+            ByteBuffer buffer = ByteBuffer.wrap(payload, 1, PAYLOAD_LENGTH - 1);
+            return Optional.of(new SessionTokenDTO(buffer.getLong(), buffer.getLong(),
+                    UserDTO.ROLE_CODEC.decode(buffer.getShort()),
+                    Instant.ofEpochMilli(buffer.getLong()), Instant.ofEpochMilli(buffer.getLong())));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, clock.getZone());
+    }
+
+    private Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toInstant();
+    }
+
+    private static final class Revocations {
+        private final Map<Long, Instant> tokens;
+        private final Map<Long, Instant> users;
+
+        private Revocations(Map<Long, Instant> tokens, Map<Long, Instant> users) {
+            this.tokens = tokens;
+            this.users = users;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package ru.kinzorc.habittracker.application.service;
+
+import ru.kinzorc.habittracker.application.dto.EmailMessageDTO;
+import ru.kinzorc.habittracker.application.dto.WeeklyDigestDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+import ru.kinzorc.habittracker.core.repository.WeeklyDigestRepository;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сервис формирования и рассылки еженедельных сводок пользователям.
+ * <p>
+ * Сводки всех пользователей читаются одним потоковым запросом ({@link WeeklyDigestRepository}), оформляются
+ * по заранее разобранным шаблонам ({@link MessageTemplate}) и передаются в {@link EmailService#sendEmails(List)}
+ * пакетами по {@code batchSize} писем. Пакеты отправляются параллельно, но одновременно обрабатывается
+ * не больше {@code concurrency} пакетов: если все отправители заняты, чтение следующих сводок приостанавливается,
+ * поэтому в памяти не накапливаются готовые письма.
+ * </p>
+ */
+public class WeeklyDigestService {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private static final MessageTemplate SUBJECT = MessageTemplate.compile(
+            "Ваши привычки за неделю {weekStart} — {weekEnd}", "weekStart", "weekEnd");
+    private static final MessageTemplate HEADER = MessageTemplate.compile(
+            "Здравствуйте, {userName}!\n\nВаши привычки за неделю с {weekStart} по {weekEnd}:\n\n",
+            "userName", "weekStart", "weekEnd");
+    private static final MessageTemplate HABIT_LINE = MessageTemplate.compile(
+            "- {habitName} ({frequency}): стрик {streak}, выполнение {percentage}%, отмечено дней: {executed}, пропущено: {missed}\n",
+            "habitName", "frequency", "streak", "percentage", "executed", "missed");
+    private static final MessageTemplate FOOTER = MessageTemplate.compile(
+            "\nВсего пропусков за неделю: {missed}.\nХорошей недели!\nHabit Tracker", "missed");
+
+    private final WeeklyDigestRepository digestRepository;
+    private final EmailService emailService;
+    private final int batchSize;
+    private final int concurrency;
+
+    /**
+     * Конструктор для создания сервиса еженедельных сводок.
+     *
+     * @param digestRepository репозиторий данных для сводок
+     * @param emailService     сервис отправки писем
+     * @param batchSize        количество писем в одном пакете
+     * @param concurrency      максимальное количество одновременно отправляемых пакетов
+     */
+    public WeeklyDigestService(WeeklyDigestRepository digestRepository, EmailService emailService, int batchSize, int concurrency) {
+        if (batchSize <= 0 || concurrency <= 0) {
+            throw new IllegalArgumentException("Размер пакета и количество потоков должны быть больше нуля.");
+        }
+
+        this.digestRepository = digestRepository;
+        this.emailService = emailService;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Формирует и отправляет сводки за прошедшую неделю (с понедельника по воскресенье).
+     * Используется для запуска по расписанию; ошибки выводятся в консоль.
+     */
+    public void sendPreviousWeekDigests() {
+        LocalDate weekStart = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(1);
+
+        try {
+            sendWeeklyDigests(weekStart);
+        } catch (SQLException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Формирует и отправляет сводки всех активных пользователей за неделю.
+     *
+     * @param weekStart первый день недели
+     * @return количество сводок, успешно переданных сервису отправки писем
+     * @throws SQLException в случае возникновения ошибок при чтении данных сводок
+     */
+    public int sendWeeklyDigests(LocalDate weekStart) throws SQLException {
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore freeSenders = new Semaphore(concurrency);
+        ExecutorService senders = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "weekly-digest-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<EmailMessageDTO> batch = new ArrayList<>(batchSize);
+
+        try {
+            digestRepository.streamWeeklyDigests(weekStart, digest -> {
+                batch.add(render(digest));
+
+                if (batch.size() == batchSize) {
+                    submit(new ArrayList<>(batch), senders, freeSenders, sent, failed);
+                    batch.clear();
+                }
+            });
+
+            if (!batch.isEmpty())
+                submit(new ArrayList<>(batch), senders, freeSenders, sent, failed);
+
+            // Ожидаем завершения всех отправляемых пакетов
+            freeSenders.acquire(concurrency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Рассылка еженедельных сводок прервана.");
+        } finally {
+            // Уже переданные пакеты дорабатывают даже при ошибке чтения сводок
+            senders.shutdown();
+        }
+
+        System.out.println("Еженедельные сводки за неделю с " + DATE_FORMAT.format(weekStart) + ": отправлено " +
+                sent.get() + ", ошибок " + failed.get() + ".");
+
+        return sent.get();
+    }
+
+    /**
+     * Оформляет письмо со сводкой пользователя.
+     *
+     * @param digest сводка пользователя
+     * @return письмо для отправки
+     */
+    EmailMessageDTO render(WeeklyDigestDTO digest) {
+        String weekStart = DATE_FORMAT.format(digest.getWeekStart());
+        String weekEnd = DATE_FORMAT.format(digest.getWeekEnd());
+
+        StringBuilder text = new StringBuilder(128 + digest.getHabits().size() * 96);
+        HEADER.render(text, digest.getUserName(), weekStart, weekEnd);
+
+        int missed = 0;
+        for (WeeklyDigestDTO.HabitSummary habit : digest.getHabits()) {
+            HABIT_LINE.render(text, habit.getHabitName(), frequencyName(habit.getFrequency()), habit.getStreak(),
+                    habit.getExecutionPercentage(), habit.getExecutedDays(), habit.getMissed());
+            missed += habit.getMissed();
+        }
+
+        FOOTER.render(text, missed);
+
+        return new EmailMessageDTO(digest.getEmail(), SUBJECT.render(weekStart, weekEnd), text.toString());
+    }
+
+    // Вызывается из потока чтения сводок; блокирует чтение, пока все отправители заняты
+    private void submit(List<EmailMessageDTO> messages, ExecutorService senders, Semaphore freeSenders,
+                        AtomicInteger sent, AtomicInteger failed) {
+        try {
+            freeSenders.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Рассылка еженедельных сводок прервана.", e);
+        }
+
+        senders.execute(() -> {
+            try {
+                int failures = emailService.sendEmails(messages).size();
+                sent.addAndGet(messages.size() - failures);
+                failed.addAndGet(failures);
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка отправки еженедельных сводок: " + e.getMessage());
+                failed.addAndGet(messages.size());
+            } finally {
+                freeSenders.release();
+            }
+        });
+    }
+
+    private static String frequencyName(HabitFrequency frequency) {
+        return frequency == HabitFrequency.DAILY ? "ежедневно" : "еженедельно";
+    }
+}
@@ -0,0 +1,23 @@
+package ru.kinzorc.habittracker.core.enums.Habit;
+
+/**
+ * Перечисление, представляющее показатель, по которому строится рейтинг привычек.
+ * <p>
+ * Возможные значения:
+ * </p>
+ * <ul>
+ *     <li>{@link #STREAK} — рейтинг по текущему стрику привычки</li>
+ *     <li>{@link #EXECUTION_PERCENTAGE} — рейтинг по проценту выполнения привычки</li>
+ * </ul>
+ */
+public enum LeaderboardMetric {
+    /**
+     * Рейтинг по текущему стрику (серии выполнений) привычки.
+     */
+    STREAK,
+
+    /**
+     * Рейтинг по проценту выполнения привычки.
+     */
+    EXECUTION_PERCENTAGE
+}
@@ -0,0 +1,14 @@
+package ru.kinzorc.habittracker.core.exceptions;
+
+/**
+ * Исключение, выбрасываемое в случае, если у пользователя недостаточно прав для выполнения операции.
+ * <p>
+ * Это проверяемое исключение (наследник {@link Exception}), которое может быть выброшено,
+ * когда операция доступна только администратору.
+ * </p>
+ */
+public class AccessDeniedException extends Exception {
+    public AccessDeniedException(String message) {
+        super(message);
+    }
+}
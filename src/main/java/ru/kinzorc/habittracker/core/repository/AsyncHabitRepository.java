@@ -0,0 +1,204 @@
+package ru.kinzorc.habittracker.core.repository;
+
+import ru.kinzorc.habittracker.application.dto.HabitDTO;
+import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+import ru.kinzorc.habittracker.core.enums.Habit.LeaderboardMetric;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Асинхронный вариант интерфейса {@link HabitRepository} для работы с репозиторием привычек.
+ * <p>
+ * Методы не блокируют вызывающий поток и возвращают {@link CompletableFuture}, поэтому независимые операции
+ * (например, загрузку привычек, сессий и статистики для одного экрана) можно выполнять параллельно.
+ * Исключения синхронного репозитория завершают future исключением {@link java.util.concurrent.CompletionException},
+ * причиной которого является исходное исключение.
+ * </p>
+ */
+public interface AsyncHabitRepository {
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#addHabit(UserDTO, HabitDTO)}.
+     *
+     * @param user см. {@link HabitRepository#addHabit(UserDTO, HabitDTO)}
+     * @param habit см. {@link HabitRepository#addHabit(UserDTO, HabitDTO)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> addHabit(UserDTO user, HabitDTO habit);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#deleteHabit(long)}.
+     *
+     * @param habitId см. {@link HabitRepository#deleteHabit(long)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> deleteHabit(long habitId);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#deleteAllHabitsForUser(UserDTO)}.
+     *
+     * @param user см. {@link HabitRepository#deleteAllHabitsForUser(UserDTO)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> deleteAllHabitsForUser(UserDTO user);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#deleteAllHabit(UserDTO)}.
+     *
+     * @param user см. {@link HabitRepository#deleteAllHabit(UserDTO)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> deleteAllHabit(UserDTO user);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#updateHabit(HabitDTO)}.
+     *
+     * @param habit см. {@link HabitRepository#updateHabit(HabitDTO)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> updateHabit(HabitDTO habit);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#markExecution(HabitDTO, LocalDateTime)}.
+     *
+     * @param habit см. {@link HabitRepository#markExecution(HabitDTO, LocalDateTime)}
+     * @param executionDate см. {@link HabitRepository#markExecution(HabitDTO, LocalDateTime)}
+     * @return {@link CompletableFuture} с признаком добавления новой отметки
+     */
+    CompletableFuture<Boolean> markExecution(HabitDTO habit, LocalDateTime executionDate);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#getExecutions(long)}.
+     *
+     * @param id см. {@link HabitRepository#getExecutions(long)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<List<LocalDate>> getExecutions(long id);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#resetExecutions(long)}.
+     *
+     * @param id см. {@link HabitRepository#resetExecutions(long)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> resetExecutions(long id);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#resetAllExecutionsForUser(UserDTO)}.
+     *
+     * @param user см. {@link HabitRepository#resetAllExecutionsForUser(UserDTO)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> resetAllExecutionsForUser(UserDTO user);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#resetExecutionsAllHabits(UserDTO)}.
+     *
+     * @param admin см. {@link HabitRepository#resetExecutionsAllHabits(UserDTO)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> resetExecutionsAllHabits(UserDTO admin);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#getStatisticByPeriod(HabitDTO, LocalDateTime, LocalDateTime)}.
+     *
+     * @param habit см. {@link HabitRepository#getStatisticByPeriod(HabitDTO, LocalDateTime, LocalDateTime)}
+     * @param startPeriodDate см. {@link HabitRepository#getStatisticByPeriod(HabitDTO, LocalDateTime, LocalDateTime)}
+     * @param endPeriodDate см. {@link HabitRepository#getStatisticByPeriod(HabitDTO, LocalDateTime, LocalDateTime)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Map<LocalDate, Integer>> getStatisticByPeriod(HabitDTO habit, LocalDateTime startPeriodDate, LocalDateTime endPeriodDate);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#resetStatistics(long, boolean, boolean)}.
+     *
+     * @param id см. {@link HabitRepository#resetStatistics(long, boolean, boolean)}
+     * @param resetExecutions см. {@link HabitRepository#resetStatistics(long, boolean, boolean)}
+     * @param resetStreaks см. {@link HabitRepository#resetStatistics(long, boolean, boolean)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> resetStatistics(long id, boolean resetExecutions, boolean resetStreaks);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#calculateExecutionPercentage(HabitDTO, LocalDateTime, LocalDateTime)}.
+     *
+     * @param habit см. {@link HabitRepository#calculateExecutionPercentage(HabitDTO, LocalDateTime, LocalDateTime)}
+     * @param startPeriodDate см. {@link HabitRepository#calculateExecutionPercentage(HabitDTO, LocalDateTime, LocalDateTime)}
+     * @param endPeriodDate см. {@link HabitRepository#calculateExecutionPercentage(HabitDTO, LocalDateTime, LocalDateTime)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Integer> calculateExecutionPercentage(HabitDTO habit, LocalDateTime startPeriodDate, LocalDateTime endPeriodDate);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#calculateStreak(HabitDTO, LocalDateTime)}.
+     *
+     * @param habit см. {@link HabitRepository#calculateStreak(HabitDTO, LocalDateTime)}
+     * @param newExecutionDate см. {@link HabitRepository#calculateStreak(HabitDTO, LocalDateTime)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Integer> calculateStreak(HabitDTO habit, LocalDateTime newExecutionDate);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#findAllHabits()}.
+     *
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<List<HabitDTO>> findAllHabits();
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#findAllHabits(int)}.
+     *
+     * @param descriptionLength см. {@link HabitRepository#findAllHabits(int)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<List<HabitDTO>> findAllHabits(int descriptionLength);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#findHabitByID(long)}.
+     *
+     * @param habitId см. {@link HabitRepository#findHabitByID(long)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Optional<HabitDTO>> findHabitByID(long habitId);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#findHabitByName(String)}.
+     *
+     * @param habitName см. {@link HabitRepository#findHabitByName(String)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Optional<HabitDTO>> findHabitByName(String habitName);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#findHabitByUser(UserDTO)}.
+     *
+     * @param user см. {@link HabitRepository#findHabitByUser(UserDTO)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<List<HabitDTO>> findHabitByUser(UserDTO user);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#findTopHabits(LeaderboardMetric, HabitFrequency, int)}.
+     *
+     * @param metric см. {@link HabitRepository#findTopHabits(LeaderboardMetric, HabitFrequency, int)}
+     * @param frequency см. {@link HabitRepository#findTopHabits(LeaderboardMetric, HabitFrequency, int)}
+     * @param limit см. {@link HabitRepository#findTopHabits(LeaderboardMetric, HabitFrequency, int)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<List<HabitDTO>> findTopHabits(LeaderboardMetric metric, HabitFrequency frequency, int limit);
+
+    /**
+     * Асинхронный вариант {@link HabitRepository#finishExpiredHabits(LocalDateTime, int)}.
+     *
+     * @param endedBefore см. {@link HabitRepository#finishExpiredHabits(LocalDateTime, int)}
+     * @param batchSize   см. {@link HabitRepository#finishExpiredHabits(LocalDateTime, int)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Integer> finishExpiredHabits(LocalDateTime endedBefore, int batchSize);
+}
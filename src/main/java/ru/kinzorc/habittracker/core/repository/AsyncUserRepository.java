@@ -0,0 +1,113 @@
+package ru.kinzorc.habittracker.core.repository;
+
+import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.application.dto.UserStatsDTO;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Асинхронный вариант интерфейса {@link UserRepository} для работы с репозиторием пользователей.
+ * <p>
+ * Методы не блокируют вызывающий поток и возвращают {@link CompletableFuture}, поэтому независимые операции
+ * (например, загрузку привычек, сессий и статистики для одного экрана) можно выполнять параллельно.
+ * Исключения синхронного репозитория завершают future исключением {@link java.util.concurrent.CompletionException},
+ * причиной которого является исходное исключение.
+ * </p>
+ */
+public interface AsyncUserRepository {
+
+    /**
+     * Асинхронный вариант {@link UserRepository#createUser(UserDTO)}.
+     *
+     * @param user см. {@link UserRepository#createUser(UserDTO)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> createUser(UserDTO user);
+
+    /**
+     * Асинхронный вариант {@link UserRepository#updateUser(UserDTO)}.
+     *
+     * @param user см. {@link UserRepository#updateUser(UserDTO)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> updateUser(UserDTO user);
+
+    /**
+     * Асинхронный вариант {@link UserRepository#deleteUser(long)}.
+     *
+     * @param userId см. {@link UserRepository#deleteUser(long)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> deleteUser(long userId);
+
+    /**
+     * Асинхронный вариант {@link UserRepository#findAllUsers()}.
+     *
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<List<UserDTO>> findAllUsers();
+
+    /**
+     * Асинхронный вариант {@link UserRepository#findUserById(long)}.
+     *
+     * @param userId см. {@link UserRepository#findUserById(long)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Optional<UserDTO>> findUserById(long userId);
+
+    /**
+     * Асинхронный вариант {@link UserRepository#findUserByUserName(String)}.
+     *
+     * @param userName см. {@link UserRepository#findUserByUserName(String)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Optional<UserDTO>> findUserByUserName(String userName);
+
+    /**
+     * Асинхронный вариант {@link UserRepository#findUserByEmail(String)}.
+     *
+     * @param userEmail см. {@link UserRepository#findUserByEmail(String)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Optional<UserDTO>> findUserByEmail(String userEmail);
+
+    /**
+     * Асинхронный вариант {@link UserRepository#addSession(long)}.
+     *
+     * @param userId см. {@link UserRepository#addSession(long)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> addSession(long userId);
+
+    /**
+     * Асинхронный вариант {@link UserRepository#removeSession(long)}.
+     *
+     * @param userId см. {@link UserRepository#removeSession(long)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> removeSession(long userId);
+
+    /**
+     * Асинхронный вариант {@link UserRepository#removeAllSessions()}.
+     *
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Void> removeAllSessions();
+
+    /**
+     * Асинхронный вариант {@link UserRepository#findAllUserStats()}.
+     *
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<List<UserStatsDTO>> findAllUserStats();
+
+    /**
+     * Асинхронный вариант {@link UserRepository#findUserStats(long)}.
+     *
+     * @param userId см. {@link UserRepository#findUserStats(long)}
+     * @return {@link CompletableFuture} с результатом операции
+     */
+    CompletableFuture<Optional<UserStatsDTO>> findUserStats(long userId);
+}
@@ -0,0 +1,48 @@
+package ru.kinzorc.habittracker.core.repository;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.SQLException;
+
+/**
+ * Интерфейс для потоковой выгрузки данных пользователей.
+ */
+public interface DataExportRepository {
+
+    /**
+     * Выгружаемые таблицы и имена файлов, под которыми они сохраняются в архиве.
+     */
+    enum Table {
+        USERS("users.csv"),
+        HABITS("habits.csv"),
+        HABIT_EXECUTIONS("habit_executions.csv"),
+        HABIT_ARCHIVE("habit_archive.csv");
+
+        private final String fileName;
+
+        Table(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+    }
+
+    /**
+     * Записывает строки таблицы в формате CSV (с заголовком) по мере чтения из базы данных.
+     * <p>
+     * Строки не накапливаются в памяти, поэтому объем выгрузки не ограничен доступной памятью.
+     * Пароли пользователей не выгружаются. Чтобы несколько таблиц были выгружены из одного снимка данных,
+     * вызовы выполняются внутри {@link UnitOfWork#executeReadOnly(UnitOfWork.Work)}.
+     * </p>
+     *
+     * @param table  выгружаемая таблица
+     * @param userId идентификатор пользователя, данные которого выгружаются, или {@code null} для выгрузки всех данных
+     * @param out    получатель CSV
+     * @return количество выгруженных строк
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     * @throws IOException  в случае ошибок записи
+     */
+    long exportTable(Table table, Long userId, Writer out) throws SQLException, IOException;
+}
@@ -0,0 +1,84 @@
+package ru.kinzorc.habittracker.core.repository;
+
+import ru.kinzorc.habittracker.application.dto.EmailMessageDTO;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Интерфейс для работы с очередью исходящих писем (outbox).
+ * <p>
+ * Письма сначала сохраняются в очередь, а затем отправляются фоновыми обработчиками. Это избавляет вызывающий поток
+ * от ожидания подключения к SMTP-серверу и позволяет повторять отправку при ошибках.
+ * </p>
+ */
+public interface EmailOutboxRepository {
+
+    /**
+     * Добавляет письмо в очередь исходящих писем.
+     *
+     * @param message письмо для отправки
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void enqueue(EmailMessageDTO message) throws SQLException;
+
+    /**
+     * Добавляет несколько писем в очередь исходящих писем одним пакетом.
+     *
+     * @param messages письма для отправки
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void enqueueAll(List<EmailMessageDTO> messages) throws SQLException;
+
+    /**
+     * Забирает из очереди письма, готовые к отправке.
+     * <p>
+     * Забранные письма блокируются на время {@code leaseUntil}: до этого момента они не будут выданы другим обработчикам.
+     * Если обработчик не успеет отметить результат отправки, письмо снова станет доступным после окончания блокировки.
+     * </p>
+     *
+     * @param limit      максимальное количество писем
+     * @param leaseUntil момент, до которого письма закрепляются за обработчиком
+     * @return список писем для отправки
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    List<EmailMessageDTO> claimBatch(int limit, LocalDateTime leaseUntil) throws SQLException;
+
+    /**
+     * Отмечает письмо как успешно отправленное.
+     *
+     * @param messageId уникальный идентификатор письма
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void markSent(long messageId) throws SQLException;
+
+    /**
+     * Отмечает несколько писем как успешно отправленные одним запросом.
+     *
+     * @param messageIds уникальные идентификаторы писем
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void markSent(List<Long> messageIds) throws SQLException;
+
+    /**
+     * Откладывает повторную отправку письма после неудачной попытки.
+     *
+     * @param messageId     уникальный идентификатор письма
+     * @param attempts      количество выполненных попыток отправки
+     * @param nextAttemptAt момент следующей попытки отправки
+     * @param error         описание ошибки отправки
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void reschedule(long messageId, int attempts, LocalDateTime nextAttemptAt, String error) throws SQLException;
+
+    /**
+     * Отмечает письмо как окончательно не отправленное после исчерпания попыток.
+     *
+     * @param messageId уникальный идентификатор письма
+     * @param attempts  количество выполненных попыток отправки
+     * @param error     описание последней ошибки отправки
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void markFailed(long messageId, int attempts, String error) throws SQLException;
+}
@@ -0,0 +1,26 @@
+package ru.kinzorc.habittracker.core.repository;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Интерфейс для переноса завершенных привычек в архив.
+ * <p>
+ * Архивная привычка сохраняет свои данные, итоговые стрик и процент выполнения, а история выполнений хранится
+ * одним сжатым блоком. Поиск привычки по ID и получение её выполнений прозрачно обращаются к архиву
+ * (см. {@link HabitRepository#findHabitByID(long)}).
+ * </p>
+ */
+public interface HabitArchiveRepository {
+
+    /**
+     * Переносит в архив одну порцию завершенных привычек, срок выполнения которых закончился до {@code endedBefore}.
+     * Порция переносится в одной транзакции: привычки и их выполнения удаляются из основных таблиц.
+     *
+     * @param endedBefore момент, до которого должен закончиться срок выполнения привычки
+     * @param batchSize   максимальное количество привычек в порции
+     * @return количество перенесенных привычек
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    int archiveFinishedHabits(LocalDateTime endedBefore, int batchSize) throws SQLException;
+}
@@ -0,0 +1,83 @@
+package ru.kinzorc.habittracker.core.repository;
+
+import ru.kinzorc.habittracker.application.dto.ReminderDTO;
+import ru.kinzorc.habittracker.core.exceptions.HabitNotFoundException;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Интерфейс для работы с напоминаниями о выполнении привычек.
+ */
+public interface HabitReminderRepository {
+
+    /**
+     * Устанавливает или изменяет время ежедневного напоминания для привычки.
+     *
+     * @param habitId    уникальный идентификатор привычки
+     * @param remindTime время напоминания
+     * @throws HabitNotFoundException если привычка не найдена
+     * @throws SQLException           в случае возникновения ошибок при работе с базой данных
+     */
+    void setReminder(long habitId, LocalTime remindTime) throws HabitNotFoundException, SQLException;
+
+    /**
+     * Удаляет напоминание для привычки.
+     *
+     * @param habitId уникальный идентификатор привычки
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void removeReminder(long habitId) throws SQLException;
+
+    /**
+     * Ищет напоминание для активной привычки.
+     *
+     * @param habitId уникальный идентификатор привычки
+     * @return {@link Optional} с напоминанием или пустой {@link Optional}, если напоминание не установлено
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    Optional<ReminderDTO> findReminder(long habitId) throws SQLException;
+
+    /**
+     * Возвращает напоминания активных привычек со временем в интервале {@code [from, to)}, которые еще не были
+     * отправлены в указанный день и период выполнения привычки включает этот день.
+     *
+     * @param date день, за который выбираются напоминания
+     * @param from начало интервала времени (включительно)
+     * @param to   конец интервала времени (не включительно)
+     * @return список напоминаний
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    List<ReminderDTO> findRemindersBetween(LocalDate date, LocalTime from, LocalTime to) throws SQLException;
+
+    /**
+     * Возвращает идентификаторы привычек из списка, для которых есть отметка о выполнении в указанном интервале.
+     *
+     * @param habitIds список идентификаторов привычек
+     * @param from     начало интервала (включительно)
+     * @param to       конец интервала (не включительно)
+     * @return идентификаторы выполненных привычек
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    Set<Long> findExecutedHabits(List<Long> habitIds, LocalDateTime from, LocalDateTime to) throws SQLException;
+
+    /**
+     * Закрепляет обработку напоминаний для привычек за указанный день.
+     * <p>
+     * Отмечаются только напоминания, которые еще не были отмечены в этот день, в том числе другим узлом приложения.
+     * Напоминания нужно отправлять только для возвращенных привычек и в той же транзакции, что и отметку: тогда
+     * параллельная отметка на другом узле дождется ее завершения и не вернет эти привычки.
+     * </p>
+     *
+     * @param habitIds список идентификаторов привычек
+     * @param date     день отправки напоминаний
+     * @return идентификаторы привычек, напоминания которых отмечены этим вызовом
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    Set<Long> markReminded(List<Long> habitIds, LocalDate date) throws SQLException;
+}
@@ -3,6 +3,9 @@ package ru.kinzorc.habittracker.core.repository;
 import ru.kinzorc.habittracker.application.dto.HabitDTO;
 import ru.kinzorc.habittracker.application.dto.UserDTO;
 import ru.kinzorc.habittracker.core.entities.Habit;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+import ru.kinzorc.habittracker.core.enums.Habit.LeaderboardMetric;
+import ru.kinzorc.habittracker.core.exceptions.AccessDeniedException;
 import ru.kinzorc.habittracker.core.exceptions.HabitAlreadyExistsException;
 import ru.kinzorc.habittracker.core.exceptions.HabitNotFoundException;
 import ru.kinzorc.habittracker.core.exceptions.UserNotFoundException;
@@ -24,16 +27,17 @@ public interface HabitRepository {
 
     /**
      * Добавляет новую привычку для пользователя.
+     * После добавления в {@code habit} заполняются идентификатор, пользователь и дата создания привычки.
      *
      * @param user  объект {@link UserDTO}, к которому добавляется привычка
      * @param habit объект {@link HabitDTO}, представляющий новую привычку
-     * @throws HabitAlreadyExistsException если привычка с таким именем уже существует у пользователя
+     * @throws HabitAlreadyExistsException если привычка с таким именем (без учета регистра) уже существует у пользователя
      * @throws SQLException в случае возникновения ошибок при работе с базой данных
      */
     void addHabit(UserDTO user, HabitDTO habit) throws HabitAlreadyExistsException, SQLException;
 
     /**
-     * Удаляет привычку по её уникальному идентификатору.
+     * Удаляет привычку (в том числе архивную) по её уникальному идентификатору вместе с её выполнениями.
      *
      * @param habitId уникальный идентификатор привычки
      * @throws HabitNotFoundException если привычка с данным ID не найдена
@@ -42,7 +46,7 @@ public interface HabitRepository {
     void deleteHabit(long habitId) throws HabitNotFoundException, SQLException;
 
     /**
-     * Удаляет все привычки добавленные пользователем.
+     * Удаляет все привычки добавленные пользователем вместе с их выполнениями.
      *
      * @param user объект пользователя
      * @throws HabitNotFoundException если привычка с данным ID не найдена
@@ -51,7 +55,8 @@ public interface HabitRepository {
     void deleteAllHabitsForUser(UserDTO user) throws HabitNotFoundException, SQLException;
 
     /**
-     * Удаляет все привычки, связанные с пользователем.
+     * Удаляет все привычки, связанные с пользователем, и их выполнения.
+     * Привычки и выполнения других пользователей не затрагиваются.
      *
      * @param user объект {@link UserDTO}, для которого удаляются все привычки
      * @throws UserNotFoundException  если пользователь не найден
@@ -62,25 +67,38 @@ public interface HabitRepository {
 
     /**
      * Обновляет данные о существующей привычке.
+     * <p>
+     * При смене частоты выполнения периоды отметок пересчитываются по новой частоте: при переходе на еженедельную
+     * частоту в каждой неделе остается самая ранняя отметка. Стрик и процент выполнения пересчитываются.
+     * </p>
      *
      * @param habit объект {@link HabitDTO} с обновлёнными данными
-     * @throws HabitNotFoundException если привычка с данным ID не найдена
-     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     * @throws HabitNotFoundException      если привычка с данным ID не найдена
+     * @throws HabitAlreadyExistsException если у пользователя уже есть другая привычка с таким именем (без учета регистра)
+     * @throws SQLException                в случае возникновения ошибок при работе с базой данных
      */
-    void updateHabit(HabitDTO habit) throws HabitNotFoundException, SQLException;
+    void updateHabit(HabitDTO habit) throws HabitNotFoundException, HabitAlreadyExistsException, SQLException;
 
     /**
      * Добавляет отметку о выполнении привычки на указанную дату.
+     * <p>
+     * После выполнения метода в переданном объекте привычки обновляются значения стрика и процента выполнения.
+     * Привычка отмечается не более одного раза за период (день для ежедневных и неделю для еженедельных привычек):
+     * повторная отметка игнорируется, а стрик и процент выполнения не пересчитываются.
+     * Отметить можно только активную привычку и только датой не позже даты ее окончания.
+     * </p>
      *
      * @param habit           уникальный идентификатор привычки
      * @param executionDate дата выполнения привычки
-     * @throws HabitNotFoundException если привычка с данным ID не найдена
+     * @return {@code true}, если отметка добавлена, и {@code false}, если привычка уже отмечена за этот период
+     * @throws HabitNotFoundException если активная привычка с данным ID не найдена или дата выполнения позже даты окончания
      * @throws SQLException в случае возникновения ошибок при работе с базой данных
      */
-    void markExecution(HabitDTO habit, LocalDateTime executionDate) throws HabitNotFoundException, SQLException;
+    boolean markExecution(HabitDTO habit, LocalDateTime executionDate) throws HabitNotFoundException, SQLException;
 
     /**
      * Возвращает список выполнений привычки по уникальному идентификатору.
+     * Для архивной привычки выполнения восстанавливаются из сохраненной истории.
      *
      * @param id уникальный идентификатор привычки
      * @return список дат выполнений привычки
@@ -108,11 +126,18 @@ public interface HabitRepository {
     void resetAllExecutionsForUser(UserDTO user) throws HabitNotFoundException, SQLException;
 
     /**
-     * Сбрасывает все выполнения для всех привычек.
+     * Сбрасывает все выполнения для всех привычек всех пользователей.
+     * <p>
+     * Стрики и проценты выполнения привычек обнуляются в той же транзакции.
+     * Операция блокирует таблицу выполнений целиком и доступна только администратору.
+     * Для сброса выполнений одного пользователя используется {@link #resetAllExecutionsForUser(UserDTO)}.
+     * </p>
      *
+     * @param admin пользователь, выполняющий сброс
+     * @throws AccessDeniedException если пользователь не является администратором
      * @throws SQLException в случае возникновения ошибок при работе с базой данных
      */
-    void resetExecutionsAllHabits() throws SQLException;
+    void resetExecutionsAllHabits(UserDTO admin) throws AccessDeniedException, SQLException;
 
     /**
      * Возвращает статистику выполнения привычки за указанный период.
@@ -152,24 +177,38 @@ public interface HabitRepository {
     int calculateExecutionPercentage(HabitDTO habit, LocalDateTime startPeriodDate, LocalDateTime endPeriodDate) throws SQLException;
 
     /**
-     * Рассчитывает текущий стрик (серии выполнений) привычки.
+     * Рассчитывает и сохраняет текущий стрик (серии выполнений) привычки по сохраненным выполнениям.
      *
      * @param habit объект привычки
+     * @param newExecutionDate дата нового выполнения, которое уже должно быть сохранено
      * @return количество дней в текущем стрике
      * @throws SQLException в случае возникновения ошибок при работе с базой данных
      */
     int calculateStreak(HabitDTO habit, LocalDateTime newExecutionDate) throws SQLException;
 
     /**
-     * Возвращает список всех привычек в системе.
+     * Возвращает список всех привычек в системе, включая архивные.
      *
      * @return список всех объектов {@link Habit}
      * @throws SQLException в случае возникновения ошибок при работе с базой данных
      */
     List<HabitDTO> findAllHabits() throws SQLException;
 
+    /**
+     * Возвращает список всех привычек в системе, включая архивные, для отображения в виде списка.
+     * <p>
+     * Описание привычки возвращается сокращенным до {@code descriptionLength} символов.
+     * </p>
+     *
+     * @param descriptionLength максимальная длина описания
+     * @return список всех привычек, упорядоченный по идентификатору
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    List<HabitDTO> findAllHabits(int descriptionLength) throws SQLException;
+
     /**
      * Поиск привычки по её уникальному идентификатору.
+     * Если привычки нет в основной таблице, она ищется среди архивных завершенных привычек.
      *
      * @param habitId уникальный идентификатор привычки
      * @return объект {@link Optional} с привычкой, если найдена, иначе пустой {@code Optional}
@@ -180,6 +219,7 @@ public interface HabitRepository {
 
     /**
      * Поиск привычки по её имени.
+     * Если привычки нет в основной таблице, она ищется среди архивных завершенных привычек.
      *
      * @param habitName имя привычки
      * @return объект {@link Optional} с привычкой, если найдена, иначе пустой {@code Optional}
@@ -189,7 +229,7 @@ public interface HabitRepository {
     Optional<HabitDTO> findHabitByName(String habitName) throws HabitNotFoundException, SQLException;
 
     /**
-     * Возвращает список привычек, связанных с указанным пользователем.
+     * Возвращает список привычек, связанных с указанным пользователем, включая архивные.
      *
      * @param user объект {@link UserDTO}, для которого нужно найти все привычки
      * @return список привычек, связанных с пользователем
@@ -197,4 +237,34 @@ public interface HabitRepository {
      * @throws SQLException          если возникает ошибка при работе с базой данных
      */
     List<HabitDTO> findHabitByUser(UserDTO user) throws UserNotFoundException, SQLException;
+
+    /**
+     * Возвращает лучшие привычки по выбранному показателю.
+     * <p>
+     * Запрос выполняется по индексу на соответствующем показателе и не сканирует всю таблицу привычек.
+     * </p>
+     *
+     * @param metric    показатель, по которому упорядочиваются привычки
+     * @param frequency частота выполнения привычек или {@code null}, чтобы учитывать привычки с любой частотой
+     * @param limit     максимальное количество привычек
+     * @return список привычек, упорядоченный по убыванию показателя
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    List<HabitDTO> findTopHabits(LeaderboardMetric metric, HabitFrequency frequency, int limit) throws SQLException;
+
+    /**
+     * Завершает одну порцию активных привычек, срок выполнения которых закончился до {@code endedBefore}.
+     * <p>
+     * Для каждой привычки фиксируются итоговые значения: процент выполнения пересчитывается за весь период,
+     * а стрик сохраняется, только если привычка была выполнена в последний период (день или неделю)
+     * перед окончанием срока, иначе обнуляется. Счетчики сводной статистики пользователей обновляются
+     * в том же запросе.
+     * </p>
+     *
+     * @param endedBefore момент, до которого должен закончиться срок выполнения привычки
+     * @param batchSize   максимальное количество привычек в порции
+     * @return количество завершенных привычек
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    int finishExpiredHabits(LocalDateTime endedBefore, int batchSize) throws SQLException;
 }
\ No newline at end of file
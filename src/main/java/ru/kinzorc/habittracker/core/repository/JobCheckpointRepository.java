@@ -0,0 +1,43 @@
+package ru.kinzorc.habittracker.core.repository;
+
+import ru.kinzorc.habittracker.application.dto.JobCheckpointDTO;
+
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Интерфейс для хранения позиций фоновых задач, обрабатывающих данные порциями.
+ * <p>
+ * Задача сохраняет позицию после каждой порции и удаляет её после завершения, поэтому прерванная задача
+ * при следующем запуске продолжает работу с сохраненной позиции.
+ * </p>
+ */
+public interface JobCheckpointRepository {
+
+    /**
+     * Возвращает сохраненную позицию задачи.
+     *
+     * @param jobName имя задачи
+     * @return {@link Optional} с позицией или пустой {@link Optional}, если задача не была прервана
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    Optional<JobCheckpointDTO> findCheckpoint(String jobName) throws SQLException;
+
+    /**
+     * Сохраняет или обновляет позицию задачи.
+     *
+     * @param jobName       имя задачи
+     * @param position      позиция, с которой задача продолжит работу
+     * @param processedRows количество строк, обработанных задачей до этой позиции
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void saveCheckpoint(String jobName, long position, long processedRows) throws SQLException;
+
+    /**
+     * Удаляет позицию завершенной задачи.
+     *
+     * @param jobName имя задачи
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void removeCheckpoint(String jobName) throws SQLException;
+}
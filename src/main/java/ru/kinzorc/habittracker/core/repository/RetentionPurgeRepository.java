@@ -0,0 +1,58 @@
+package ru.kinzorc.habittracker.core.repository;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Интерфейс для удаления устаревших данных ограниченными порциями.
+ * <p>
+ * Каждый метод удаления обрабатывает только заданный диапазон физических страниц или идентификаторов,
+ * поэтому один запрос выполняется быстро и не держит блокировки долго независимо от размера таблицы.
+ * </p>
+ */
+public interface RetentionPurgeRepository {
+
+    /**
+     * Возвращает количество страниц, занимаемых таблицей выполнений привычек.
+     *
+     * @return количество страниц таблицы
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    long getExecutionsPageCount() throws SQLException;
+
+    /**
+     * Удаляет выполнения завершенных привычек старше {@code executedBefore}, расположенные на страницах
+     * {@code [fromPage, toPage)}, и уменьшает общее количество выполнений в сводной статистике пользователей.
+     * <p>
+     * Выполнения активных привычек не удаляются: по ним пересчитываются стрик и процент выполнения,
+     * и удаление старых выполнений уменьшило бы процент при следующей отметке.
+     * </p>
+     *
+     * @param fromPage       первая страница диапазона (включительно)
+     * @param toPage         последняя страница диапазона (не включительно)
+     * @param executedBefore момент, до которого выполнения считаются устаревшими
+     * @return количество удаленных выполнений
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    int purgeExecutions(long fromPage, long toPage, LocalDateTime executedBefore) throws SQLException;
+
+    /**
+     * Возвращает наибольший идентификатор сессии пользователя.
+     *
+     * @return наибольший идентификатор сессии или {@code 0}, если сессий нет
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    long getMaxSessionId() throws SQLException;
+
+    /**
+     * Удаляет сессии пользователей с идентификаторами {@code [fromId, toId)}, неактивные с момента {@code activeBefore}.
+     * Такие сессии остаются после аварийного завершения приложения, если их не удалил обработчик истекших сессий.
+     *
+     * @param fromId       первый идентификатор диапазона (включительно)
+     * @param toId         последний идентификатор диапазона (не включительно)
+     * @param activeBefore момент, до которого сессии считаются устаревшими
+     * @return количество удаленных сессий
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    int purgeSessions(long fromId, long toId, LocalDateTime activeBefore) throws SQLException;
+}
@@ -0,0 +1,66 @@
+package ru.kinzorc.habittracker.core.repository;
+
+import ru.kinzorc.habittracker.application.dto.SessionDTO;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Интерфейс для хранения сессий пользователей со сроком действия.
+ * <p>
+ * Каждая сессия привязана к узлу приложения, который её открыл, поэтому узел при завершении работы
+ * удаляет только свои сессии. Сессии узлов, завершившихся аварийно, удаляются по истечении срока действия.
+ * </p>
+ */
+public interface SessionRepository {
+
+    /**
+     * Сохраняет новую сессию.
+     *
+     * @param userId    идентификатор пользователя
+     * @param nodeId    идентификатор узла приложения
+     * @param loginTime время входа
+     * @param expiresAt время истечения сессии
+     * @return идентификатор созданной сессии
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    long createSession(long userId, String nodeId, LocalDateTime loginTime, LocalDateTime expiresAt) throws SQLException;
+
+    /**
+     * Сохраняет время последней активности и истечения сессий одним пакетом.
+     *
+     * @param sessions сессии с актуальным временем активности
+     * @return идентификаторы сессий, которых уже нет в хранилище (например, удаленных другим узлом)
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    List<Long> updateActivity(Collection<SessionDTO> sessions) throws SQLException;
+
+    /**
+     * Удаляет сессию.
+     *
+     * @param sessionId идентификатор сессии
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void removeSession(long sessionId) throws SQLException;
+
+    /**
+     * Удаляет не более {@code batchSize} сессий, срок действия которых истек к моменту {@code now}.
+     *
+     * @param now       текущее время
+     * @param batchSize максимальное количество удаляемых сессий
+     * @return количество удаленных сессий
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    int removeExpiredSessions(LocalDateTime now, int batchSize) throws SQLException;
+
+    /**
+     * Удаляет все сессии узла приложения.
+     *
+     * @param nodeId идентификатор узла приложения
+     * @return количество удаленных сессий
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    int removeNodeSessions(String nodeId) throws SQLException;
+}
@@ -0,0 +1,43 @@
+package ru.kinzorc.habittracker.core.repository;
+
+import ru.kinzorc.habittracker.application.dto.TokenRevocationDTO;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Интерфейс для хранения отозванных токенов сессий.
+ * <p>
+ * Запись хранится, пока не истекли отозванные ею токены, поэтому список действующих отзывов остается небольшим
+ * и может целиком храниться в памяти каждого узла приложения.
+ * </p>
+ */
+public interface TokenRevocationRepository {
+
+    /**
+     * Сохраняет запись об отзыве.
+     *
+     * @param revocation запись об отзыве одного токена или всех токенов пользователя
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void addRevocation(TokenRevocationDTO revocation) throws SQLException;
+
+    /**
+     * Возвращает записи об отзыве, отозванные токены которых еще не истекли к моменту {@code now}.
+     *
+     * @param now текущее время
+     * @return действующие записи об отзыве
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    List<TokenRevocationDTO> findActiveRevocations(LocalDateTime now) throws SQLException;
+
+    /**
+     * Удаляет записи об отзыве, отозванные токены которых истекли к моменту {@code now}.
+     *
+     * @param now текущее время
+     * @return количество удаленных записей
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    int removeExpiredRevocations(LocalDateTime now) throws SQLException;
+}
@@ -0,0 +1,54 @@
+package ru.kinzorc.habittracker.core.repository;
+
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Интерфейс для проверки занятости уникальных значений: email пользователей и имен привычек пользователя.
+ * Значения сравниваются без учета регистра, как в уникальных индексах базы данных.
+ */
+public interface UniqueKeyRepository {
+
+    /**
+     * Передает email всех пользователей по мере чтения из базы данных, не загружая их в память.
+     *
+     * @param consumer получатель email
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void scanUserEmails(Consumer<String> consumer) throws SQLException;
+
+    /**
+     * Передает имена всех привычек вместе с идентификаторами пользователей по мере чтения из базы данных.
+     *
+     * @param consumer получатель имен привычек
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void scanHabitNames(HabitNameConsumer consumer) throws SQLException;
+
+    /**
+     * Проверяет, зарегистрирован ли пользователь с указанным email.
+     *
+     * @param email email пользователя
+     * @return {@code true}, если email занят
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    boolean existsUserEmail(String email) throws SQLException;
+
+    /**
+     * Проверяет, есть ли у пользователя привычка с указанным именем.
+     *
+     * @param userId    идентификатор пользователя
+     * @param habitName имя привычки
+     * @return {@code true}, если имя привычки занято
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    boolean existsHabitName(long userId, String habitName) throws SQLException;
+
+    /**
+     * Получатель имен привычек.
+     */
+    @FunctionalInterface
+    interface HabitNameConsumer {
+        void accept(long userId, String habitName);
+    }
+}
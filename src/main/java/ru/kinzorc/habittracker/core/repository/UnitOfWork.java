@@ -0,0 +1,61 @@
+package ru.kinzorc.habittracker.core.repository;
+
+import java.sql.SQLException;
+
+/**
+ * Интерфейс единицы работы: несколько операций репозиториев выполняются в одной транзакции.
+ * <p>
+ * Операции репозиториев, вызванные внутри {@link #execute(Work)} в том же потоке, используют одно соединение
+ * с базой данных. Транзакция фиксируется после успешного завершения операций и откатывается при исключении.
+ * Вложенный вызов {@code execute} присоединяется к уже начатой единице работы.
+ * </p>
+ */
+public interface UnitOfWork {
+
+    /**
+     * Выполняет операции в одной транзакции.
+     *
+     * @param work операции с репозиториями
+     * @param <T>  тип результата
+     * @param <E>  тип исключения, выбрасываемого операциями
+     * @return результат операций
+     * @throws E            исключение, выброшенное операциями (транзакция откатывается)
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    <T, E extends Exception> T execute(Work<T, E> work) throws E, SQLException;
+
+    /**
+     * Выполняет операции чтения в одной транзакции только для чтения с уровнем изоляции {@code REPEATABLE READ}.
+     * <p>
+     * Все запросы видят один согласованный снимок данных, даже если данные параллельно изменяются.
+     * Транзакция по завершении откатывается. Вложенный вызов присоединяется к уже начатой единице работы.
+     * </p>
+     *
+     * @param work операции чтения
+     * @param <T>  тип результата
+     * @param <E>  тип исключения, выбрасываемого операциями
+     * @return результат операций
+     * @throws E            исключение, выброшенное операциями
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    <T, E extends Exception> T executeReadOnly(Work<T, E> work) throws E, SQLException;
+
+    /**
+     * Операции, выполняемые в единице работы.
+     *
+     * @param <T> тип результата
+     * @param <E> тип исключения, выбрасываемого операциями
+     */
+    @FunctionalInterface
+    interface Work<T, E extends Exception> {
+
+        /**
+         * Выполняет операции.
+         *
+         * @return результат операций
+         * @throws E            исключение, выброшенное операциями
+         * @throws SQLException в случае возникновения ошибок при работе с базой данных
+         */
+        T run() throws E, SQLException;
+    }
+}
@@ -1,6 +1,7 @@
 package ru.kinzorc.habittracker.core.repository;
 
 import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.application.dto.UserStatsDTO;
 import ru.kinzorc.habittracker.core.exceptions.UserAlreadyExistsException;
 import ru.kinzorc.habittracker.core.exceptions.UserNotFoundException;
 
@@ -20,12 +21,12 @@ public interface UserRepository {
     /**
      * Добавление нового пользователя в систему.
      * <p>
-     * Метод добавляет объект {@link UserDTO} в репозиторий. Если пользователь с таким уникальным идентификатором уже существует,
-     * выбрасывается исключение {@link UserAlreadyExistsException}.
+     * Метод добавляет объект {@link UserDTO} в репозиторий и заполняет его идентификатор. Если пользователь с таким
+     * email (без учета регистра) уже существует, выбрасывается исключение {@link UserAlreadyExistsException}.
      * </p>
      *
      * @param user объект {@link UserDTO} для добавления
-     * @throws UserAlreadyExistsException если пользователь с таким ID уже существует
+     * @throws UserAlreadyExistsException если пользователь с таким email уже существует
      * @throws SQLException в случае возникновения ошибок при работе с базой данных
      */
     void createUser(UserDTO user) throws UserAlreadyExistsException, SQLException;
@@ -47,6 +48,7 @@ public interface UserRepository {
      * Удаление пользователя по его идентификатору (ID).
      * <p>
      * Если пользователь с переданным идентификатором не найден, выбрасывается исключение {@link UserNotFoundException}.
+     * Сессии, привычки и выполнения привычек пользователя удаляются вместе с ним.
      * </p>
      *
      * @param userId уникальный идентификатор пользователя
@@ -139,4 +141,25 @@ public interface UserRepository {
      * @throws SQLException в случае возникновения ошибок при работе с базой данных
      */
     void removeAllSessions() throws SQLException;
+
+    /**
+     * Получение сводной статистики по всем пользователям.
+     * <p>
+     * Статистика читается из таблицы {@code app_schema.user_stats}, которая поддерживается при изменении привычек
+     * и отметках о выполнении. Пользователи без привычек возвращаются с нулевыми значениями.
+     * </p>
+     *
+     * @return список сводной статистики пользователей
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    List<UserStatsDTO> findAllUserStats() throws SQLException;
+
+    /**
+     * Получение сводной статистики пользователя по его идентификатору.
+     *
+     * @param userId уникальный идентификатор пользователя
+     * @return {@code Optional} с объектом {@link UserStatsDTO}, если пользователь найден, иначе пустой {@code Optional}
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    Optional<UserStatsDTO> findUserStats(long userId) throws SQLException;
 }
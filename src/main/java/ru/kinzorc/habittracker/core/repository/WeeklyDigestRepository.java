@@ -0,0 +1,31 @@
+package ru.kinzorc.habittracker.core.repository;
+
+import ru.kinzorc.habittracker.application.dto.WeeklyDigestDTO;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Интерфейс для получения данных еженедельных сводок пользователей.
+ */
+public interface WeeklyDigestRepository {
+
+    /**
+     * Последовательно передает сводки всех активных пользователей за неделю.
+     * <p>
+     * Данные всех пользователей выбираются одним запросом и читаются потоково, поэтому в памяти одновременно
+     * находится только сводка текущего пользователя. В сводку входят привычки, период которых пересекается с неделей,
+     * в том числе завершенные в течение недели; пользователи без таких привычек пропускаются.
+     * </p>
+     * <p>
+     * Сводка пользователя за неделю передается не более одного раза: пользователи, которым сводка за эту неделю
+     * уже передана (в том числе другим узлом приложения), пропускаются.
+     * </p>
+     *
+     * @param weekStart первый день недели
+     * @param consumer  обработчик сводки пользователя
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    void streamWeeklyDigests(LocalDate weekStart, Consumer<WeeklyDigestDTO> consumer) throws SQLException;
+}
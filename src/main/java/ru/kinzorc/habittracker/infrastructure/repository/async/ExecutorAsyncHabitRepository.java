@@ -0,0 +1,254 @@
+package ru.kinzorc.habittracker.infrastructure.repository.async;
+
+import ru.kinzorc.habittracker.application.dto.HabitDTO;
+import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+import ru.kinzorc.habittracker.core.enums.Habit.LeaderboardMetric;
+import ru.kinzorc.habittracker.core.repository.AsyncHabitRepository;
+import ru.kinzorc.habittracker.core.repository.HabitRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Реализация интерфейса {@link AsyncHabitRepository}, выполняющая вызовы синхронного {@link HabitRepository}
+ * в переданном пуле потоков.
+ * <p>
+ * Размер пула ограничивает количество одновременно выполняемых запросов к базе данных, поэтому его следует
+ * согласовывать с количеством доступных соединений.
+ * </p>
+ */
+public class ExecutorAsyncHabitRepository implements AsyncHabitRepository {
+
+    private final HabitRepository repository;
+    private final Executor executor;
+
+    /**
+     * Конструктор для создания асинхронного репозитория.
+     *
+     * @param repository синхронный репозиторий, вызовы которого выполняются асинхронно
+     * @param executor   пул потоков, в котором выполняются вызовы репозитория
+     */
+    public ExecutorAsyncHabitRepository(HabitRepository repository, Executor executor) {
+        this.repository = repository;
+        this.executor = executor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> addHabit(UserDTO user, HabitDTO habit) {
+        return supplyAsync(() -> {
+            repository.addHabit(user, habit);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> deleteHabit(long habitId) {
+        return supplyAsync(() -> {
+            repository.deleteHabit(habitId);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> deleteAllHabitsForUser(UserDTO user) {
+        return supplyAsync(() -> {
+            repository.deleteAllHabitsForUser(user);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> deleteAllHabit(UserDTO user) {
+        return supplyAsync(() -> {
+            repository.deleteAllHabit(user);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> updateHabit(HabitDTO habit) {
+        return supplyAsync(() -> {
+            repository.updateHabit(habit);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Boolean> markExecution(HabitDTO habit, LocalDateTime executionDate) {
+        return supplyAsync(() -> repository.markExecution(habit, executionDate));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<List<LocalDate>> getExecutions(long id) {
+        return supplyAsync(() -> repository.getExecutions(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> resetExecutions(long id) {
+        return supplyAsync(() -> {
+            repository.resetExecutions(id);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> resetAllExecutionsForUser(UserDTO user) {
+        return supplyAsync(() -> {
+            repository.resetAllExecutionsForUser(user);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> resetExecutionsAllHabits(UserDTO admin) {
+        return supplyAsync(() -> {
+            repository.resetExecutionsAllHabits(admin);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Map<LocalDate, Integer>> getStatisticByPeriod(HabitDTO habit, LocalDateTime startPeriodDate, LocalDateTime endPeriodDate) {
+        return supplyAsync(() -> repository.getStatisticByPeriod(habit, startPeriodDate, endPeriodDate));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> resetStatistics(long id, boolean resetExecutions, boolean resetStreaks) {
+        return supplyAsync(() -> {
+            repository.resetStatistics(id, resetExecutions, resetStreaks);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Integer> calculateExecutionPercentage(HabitDTO habit, LocalDateTime startPeriodDate, LocalDateTime endPeriodDate) {
+        return supplyAsync(() -> repository.calculateExecutionPercentage(habit, startPeriodDate, endPeriodDate));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Integer> calculateStreak(HabitDTO habit, LocalDateTime newExecutionDate) {
+        return supplyAsync(() -> repository.calculateStreak(habit, newExecutionDate));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<List<HabitDTO>> findAllHabits() {
+        return supplyAsync(() -> repository.findAllHabits());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<List<HabitDTO>> findAllHabits(int descriptionLength) {
+        return supplyAsync(() -> repository.findAllHabits(descriptionLength));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Optional<HabitDTO>> findHabitByID(long habitId) {
+        return supplyAsync(() -> repository.findHabitByID(habitId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Optional<HabitDTO>> findHabitByName(String habitName) {
+        return supplyAsync(() -> repository.findHabitByName(habitName));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<List<HabitDTO>> findHabitByUser(UserDTO user) {
+        return supplyAsync(() -> repository.findHabitByUser(user));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<List<HabitDTO>> findTopHabits(LeaderboardMetric metric, HabitFrequency frequency, int limit) {
+        return supplyAsync(() -> repository.findTopHabits(metric, frequency, limit));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Integer> finishExpiredHabits(LocalDateTime endedBefore, int batchSize) {
+        return supplyAsync(() -> repository.finishExpiredHabits(endedBefore, batchSize));
+    }
+
+    // Выполнение вызова репозитория в пуле потоков с передачей проверяемых исключений через CompletionException
+    private <T> CompletableFuture<T> supplyAsync(RepositoryCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    // Вызов синхронного репозитория, который может выбросить проверяемое исключение
+    @FunctionalInterface
+    private interface RepositoryCall<T> {
+        T call() throws Exception;
+    }
+}
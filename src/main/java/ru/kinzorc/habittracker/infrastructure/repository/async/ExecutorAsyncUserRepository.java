@@ -0,0 +1,168 @@
+package ru.kinzorc.habittracker.infrastructure.repository.async;
+
+import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.application.dto.UserStatsDTO;
+import ru.kinzorc.habittracker.core.repository.AsyncUserRepository;
+import ru.kinzorc.habittracker.core.repository.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Реализация интерфейса {@link AsyncUserRepository}, выполняющая вызовы синхронного {@link UserRepository}
+ * в переданном пуле потоков.
+ * <p>
+ * Размер пула ограничивает количество одновременно выполняемых запросов к базе данных, поэтому его следует
+ * согласовывать с количеством доступных соединений.
+ * </p>
+ */
+public class ExecutorAsyncUserRepository implements AsyncUserRepository {
+
+    private final UserRepository repository;
+    private final Executor executor;
+
+    /**
+     * Конструктор для создания асинхронного репозитория.
+     *
+     * @param repository синхронный репозиторий, вызовы которого выполняются асинхронно
+     * @param executor   пул потоков, в котором выполняются вызовы репозитория
+     */
+    public ExecutorAsyncUserRepository(UserRepository repository, Executor executor) {
+        this.repository = repository;
+        this.executor = executor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> createUser(UserDTO user) {
+        return supplyAsync(() -> {
+            repository.createUser(user);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> updateUser(UserDTO user) {
+        return supplyAsync(() -> {
+            repository.updateUser(user);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> deleteUser(long userId) {
+        return supplyAsync(() -> {
+            repository.deleteUser(userId);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<List<UserDTO>> findAllUsers() {
+        return supplyAsync(() -> repository.findAllUsers());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Optional<UserDTO>> findUserById(long userId) {
+        return supplyAsync(() -> repository.findUserById(userId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Optional<UserDTO>> findUserByUserName(String userName) {
+        return supplyAsync(() -> repository.findUserByUserName(userName));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Optional<UserDTO>> findUserByEmail(String userEmail) {
+        return supplyAsync(() -> repository.findUserByEmail(userEmail));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> addSession(long userId) {
+        return supplyAsync(() -> {
+            repository.addSession(userId);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> removeSession(long userId) {
+        return supplyAsync(() -> {
+            repository.removeSession(userId);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> removeAllSessions() {
+        return supplyAsync(() -> {
+            repository.removeAllSessions();
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<List<UserStatsDTO>> findAllUserStats() {
+        return supplyAsync(() -> repository.findAllUserStats());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Optional<UserStatsDTO>> findUserStats(long userId) {
+        return supplyAsync(() -> repository.findUserStats(userId));
+    }
+
+    // Выполнение вызова репозитория в пуле потоков с передачей проверяемых исключений через CompletionException
+    private <T> CompletableFuture<T> supplyAsync(RepositoryCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    // Вызов синхронного репозитория, который может выбросить проверяемое исключение
+    @FunctionalInterface
+    private interface RepositoryCall<T> {
+        T call() throws Exception;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.kinzorc.habittracker.infrastructure.repository.async;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Утилитный класс для создания пулов потоков асинхронных репозиториев.
+ */
+public class RepositoryExecutors {
+
+    private RepositoryExecutors() {
+    }
+
+    /**
+     * Создает пул потоков для асинхронных репозиториев.
+     * <p>
+     * Количество потоков ограничено {@code poolSize}, чтобы одновременно выполнялось не больше запросов, чем есть
+     * соединений с базой данных. Остальные вызовы ожидают в очереди. Потоки пула являются демонами
+     * и не препятствуют завершению приложения.
+     * </p>
+     *
+     * @param poolSize максимальное количество одновременно выполняемых вызовов репозитория
+     * @return пул потоков для асинхронных репозиториев
+     */
+    public static ExecutorService newBoundedExecutor(int poolSize) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("Размер пула должен быть больше нуля: " + poolSize);
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "repository-async-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+}
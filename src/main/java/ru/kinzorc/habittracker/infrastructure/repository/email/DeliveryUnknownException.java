@@ -0,0 +1,17 @@
+package ru.kinzorc.habittracker.infrastructure.repository.email;
+
+import javax.mail.MessagingException;
+
+/**
+ * Исключение, выбрасываемое, если соединение с почтовым сервером оборвалось после того, как сервер начал принимать
+ * текст письма (ответил на команду DATA).
+ * <p>
+ * В этом случае неизвестно, принял ли сервер письмо: он мог сохранить его до разрыва соединения. Повторная отправка
+ * такого письма может привести к двойной доставке, поэтому оно не должно отправляться повторно автоматически.
+ * </p>
+ */
+public class DeliveryUnknownException extends MessagingException {
+    public DeliveryUnknownException(String message, Exception cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,277 @@
+package ru.kinzorc.habittracker.infrastructure.repository.email;
+
+import com.sun.mail.smtp.SMTPSendFailedException;
+import ru.kinzorc.habittracker.application.dto.EmailMessageDTO;
+import ru.kinzorc.habittracker.application.service.EmailService;
+import ru.kinzorc.habittracker.core.repository.EmailOutboxRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.ApplicationProperties;
+
+import javax.mail.Address;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.internet.AddressException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Фоновый обработчик очереди исходящих писем.
+ * <p>
+ * Поток-опросчик периодически забирает из очереди письма, готовые к отправке, и передает их пулу отправителей
+ * пакетами по {@code batchSize} писем. Каждый отправитель отправляет свой пакет через одно долгоживущее соединение
+ * с почтовым сервером ({@link EmailService#sendEmails(List)}) и отмечает отправленные письма одним запросом.
+ * Опросчик забирает из очереди не больше писем, чем могут принять свободные отправители, поэтому письма
+ * не скапливаются в памяти.
+ * </p>
+ * <p>
+ * При временной ошибке отправки письмо возвращается в очередь с экспоненциально растущей задержкой
+ * ({@code initialBackoff * 2^(attempts - 1)}, но не больше {@code maxBackoff}). После {@code maxAttempts}
+ * неудачных попыток письмо отмечается как не отправленное.
+ * </p>
+ * <p>
+ * Сразу, без повторных попыток, как не отправленные отмечаются письма, которые повторять бессмысленно или опасно:
+ * окончательно отклоненные сервером (ответ 5xx, некорректный адрес) и письма, соединение для которых оборвалось
+ * после передачи текста ({@link DeliveryUnknownException}): сервер мог уже принять такое письмо, и повтор привел бы
+ * к двойной доставке.
+ * </p>
+ */
+public class EmailOutboxWorker {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailService emailSender;
+
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+
+    private final Semaphore freeSenders;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService poller;
+
+    /**
+     * Конструктор для создания обработчика очереди.
+     *
+     * @param outboxRepository репозиторий очереди исходящих писем
+     * @param emailSender      сервис, выполняющий фактическую отправку писем (например, {@link MailSender})
+     * @param workers          количество потоков-отправителей
+     * @param batchSize        количество писем в пакете одного отправителя
+     * @param pollInterval     интервал опроса очереди
+     * @param lease            время, на которое письмо закрепляется за обработчиком
+     * @param initialBackoff   задержка перед первой повторной попыткой
+     * @param maxBackoff       максимальная задержка между попытками
+     * @param maxAttempts      максимальное количество попыток отправки
+     */
+    public EmailOutboxWorker(EmailOutboxRepository outboxRepository, EmailService emailSender, int workers, int batchSize,
+                             Duration pollInterval, Duration lease, Duration initialBackoff, Duration maxBackoff, int maxAttempts) {
+        if (workers <= 0 || batchSize <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("Количество потоков, размер пакета и количество попыток должны быть больше нуля.");
+        }
+
+        this.outboxRepository = outboxRepository;
+        this.emailSender = emailSender;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+
+        this.freeSenders = new Semaphore(workers);
+        this.senders = Executors.newFixedThreadPool(workers, daemonThreadFactory("email-outbox-sender-"));
+        this.poller = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("email-outbox-poller-"));
+    }
+
+    /**
+     * Создает обработчик очереди с параметрами из конфигурационного файла.
+     * <p>
+     * Используются параметры {@code email.outbox.*}, для отсутствующих параметров применяются значения по умолчанию.
+     * </p>
+     *
+     * @param outboxRepository репозиторий очереди исходящих писем
+     * @param emailSender      сервис, выполняющий фактическую отправку писем
+     * @param properties       параметры приложения
+     * @return обработчик очереди исходящих писем
+     */
+    public static EmailOutboxWorker fromProperties(EmailOutboxRepository outboxRepository, EmailService emailSender,
+                                                   ApplicationProperties properties) {
+        return new EmailOutboxWorker(outboxRepository, emailSender,
+                properties.getInt("email.outbox.workers", 4),
+                properties.getInt("email.outbox.batch-size", 20),
+                Duration.ofMillis(properties.getLong("email.outbox.poll-interval-ms", 1000)),
+                Duration.ofMillis(properties.getLong("email.outbox.lease-ms", 300_000)),
+                Duration.ofMillis(properties.getLong("email.outbox.initial-backoff-ms", 5_000)),
+                Duration.ofMillis(properties.getLong("email.outbox.max-backoff-ms", 600_000)),
+                properties.getInt("email.outbox.max-attempts", 8));
+    }
+
+    /**
+     * Запускает периодический опрос очереди.
+     */
+    public void start() {
+        poller.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Останавливает опрос очереди и ожидает завершения отправки уже забранных писем.
+     * <p>
+     * Письма, которые не успели отправиться за время ожидания, останутся в очереди и будут повторно выданы
+     * обработчику после окончания блокировки.
+     * </p>
+     *
+     * @param timeout максимальное время ожидания
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    public void stop(Duration timeout) throws InterruptedException {
+        poller.shutdownNow();
+        senders.shutdown();
+
+        if (!senders.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            senders.shutdownNow();
+        }
+    }
+
+    /**
+     * Выполняет один опрос очереди: забирает письма по количеству свободных отправителей и передает их пулу пакетами.
+     */
+    void poll() {
+        int permits = freeSenders.availablePermits();
+        if (permits == 0 || !freeSenders.tryAcquire(permits))
+            return;
+
+        int submitted = 0;
+        try {
+            List<EmailMessageDTO> messages = outboxRepository.claimBatch(permits * batchSize, LocalDateTime.now().plus(lease));
+
+            for (int from = 0; from < messages.size(); from += batchSize) {
+                List<EmailMessageDTO> batch = messages.subList(from, Math.min(from + batchSize, messages.size()));
+                senders.execute(() -> {
+                    try {
+                        deliver(batch);
+                    } finally {
+                        freeSenders.release();
+                    }
+                });
+                submitted++;
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка при выборке писем из очереди: " + e.getMessage());
+        } catch (RejectedExecutionException e) {
+            // Обработчик остановлен, письма будут повторно выданы после окончания блокировки
+        } finally {
+            freeSenders.release(permits - submitted);
+        }
+    }
+
+    /**
+     * Отправляет пакет писем и сохраняет результаты отправки в очереди.
+     *
+     * @param batch письма для отправки
+     */
+    void deliver(List<EmailMessageDTO> batch) {
+        Map<EmailMessageDTO, MessagingException> failures;
+
+        try {
+            failures = emailSender.sendEmails(batch);
+        } catch (RuntimeException e) {
+            // Ошибка конфигурации отправителя: считаем неудачной отправку всего пакета
+            batch.forEach(message -> handleFailure(message, e));
+            return;
+        }
+
+        List<Long> sent = new ArrayList<>(batch.size());
+        for (EmailMessageDTO message : batch) {
+            MessagingException error = failures.get(message);
+            if (error == null) {
+                sent.add(message.getId());
+            } else {
+                handleFailure(message, error);
+            }
+        }
+
+        try {
+            outboxRepository.markSent(sent);
+        } catch (SQLException e) {
+            System.err.println("Ошибка при обновлении статуса писем: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Вычисляет задержку перед следующей попыткой отправки.
+     *
+     * @param attempts количество выполненных попыток отправки
+     * @return задержка перед следующей попыткой
+     */
+    Duration backoff(int attempts) {
+        // Ограничиваем показатель степени, чтобы исключить переполнение
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = initialBackoff.multipliedBy(1L << exponent);
+
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void handleFailure(EmailMessageDTO message, Exception error) {
+        int attempts = message.getAttempts() + 1;
+
+        try {
+            if (error instanceof DeliveryUnknownException) {
+                System.err.println("Доставка письма с ID " + message.getId() + " не подтверждена, повторная отправка не выполняется: "
+                        + error.getMessage());
+                outboxRepository.markFailed(message.getId(), attempts, error.getMessage());
+            } else if (isPermanent(error)) {
+                System.err.println("Письмо с ID " + message.getId() + " отклонено сервером: " + error.getMessage());
+                outboxRepository.markFailed(message.getId(), attempts, error.getMessage());
+            } else if (attempts >= maxAttempts) {
+                System.err.println("Письмо с ID " + message.getId() + " не отправлено после " + attempts + " попыток: " + error.getMessage());
+                outboxRepository.markFailed(message.getId(), attempts, error.getMessage());
+            } else {
+                outboxRepository.reschedule(message.getId(), attempts, LocalDateTime.now().plus(backoff(attempts)), error.getMessage());
+            }
+        } catch (SQLException e) {
+            System.err.println("Ошибка при обновлении статуса письма: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Определяет, является ли ошибка отправки окончательной, то есть не исчезнет при повторной попытке.
+     * <p>
+     * Окончательными считаются ответы сервера с кодом 5xx, некорректный адрес получателя и отказ сервера принять
+     * письмо ни для одного из получателей. Ответы 4xx, разрывы соединения и ошибки конфигурации считаются временными.
+     * </p>
+     *
+     * @param error ошибка отправки
+     * @return {@code true}, если письмо не нужно отправлять повторно
+     */
+    static boolean isPermanent(Exception error) {
+        if (error instanceof AddressException) {
+            return true;
+        }
+        if (error instanceof SMTPSendFailedException smtpError) {
+            return smtpError.getReturnCode() >= 500;
+        }
+        if (error instanceof SendFailedException sendError) {
+            // Отказ по адресам: окончательный, если не осталось получателей, которым письмо можно отправить повторно
+            Address[] validUnsent = sendError.getValidUnsentAddresses();
+            Address[] invalid = sendError.getInvalidAddresses();
+            return (validUnsent == null || validUnsent.length == 0) && invalid != null && invalid.length > 0;
+        }
+        return false;
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
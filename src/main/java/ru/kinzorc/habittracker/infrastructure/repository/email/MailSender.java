@@ -1,5 +1,8 @@
 package ru.kinzorc.habittracker.infrastructure.repository.email;
 
+import com.sun.mail.smtp.SMTPSendFailedException;
+import com.sun.mail.smtp.SMTPTransport;
+import ru.kinzorc.habittracker.application.dto.EmailMessageDTO;
 import ru.kinzorc.habittracker.application.service.EmailService;
 
 import javax.mail.*;
@@ -7,20 +10,54 @@ import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Класс предоставляет функционал для отправки электронных писем с использованием протоколов SMTP.
  * <p>
  * Реализует интерфейс {@link EmailService} и использует конфигурации, загружаемые из файла свойств.
  * </p>
+ * <p>
+ * Почтовая сессия ({@link Session}) создается один раз. Каждый поток, отправляющий письма, держит собственное
+ * долгоживущее SMTP-соединение ({@link Transport}) и отправляет через него все свои письма, поэтому подключение,
+ * TLS-рукопожатие и аутентификация выполняются один раз на поток, а не на каждое письмо. Перед отправкой соединение
+ * проверяется, и разорванное сервером соединение переустанавливается. Если же соединение оборвалось во время отправки,
+ * письмо повторно не отправляется, а соединение переустанавливается при следующей отправке. Если разрыв произошел
+ * после того, как сервер начал принимать текст письма (ответил на DATA), сервер мог уже принять письмо, и ошибка
+ * возвращается как {@link DeliveryUnknownException}: такое письмо нельзя повторять без риска двойной доставки.
+ * </p>
  */
-public class MailSender implements EmailService {
+public class MailSender implements EmailService, AutoCloseable {
+
+    /**
+     * Код ответа SMTP-сервера на команду DATA: сервер готов принимать текст письма.
+     */
+    private static final int DATA_STARTED = 354;
 
     /**
      * Свойства для конфигурации почтового сервиса, загружаемые из файла {@code application.properties}.
      */
-    private static final Properties MAIL_PROPERTIES = new Properties();
+    private final Properties MAIL_PROPERTIES = new Properties();
+
+    /**
+     * SMTP-соединение текущего потока.
+     */
+    private final ThreadLocal<Transport> threadTransport = new ThreadLocal<>();
+
+    /**
+     * Все открытые соединения, для закрытия в {@link #close()}.
+     */
+    private final Set<Transport> transports = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Почтовая сессия, создается при первой отправке.
+     */
+    private volatile Session session;
 
     /**
      * Конструктор по умолчанию, который загружает свойства для работы с почтовым сервером.
@@ -29,6 +66,16 @@ public class MailSender implements EmailService {
         loadProperties();
     }
 
+    /**
+     * Конструктор для создания отправителя с заданными свойствами почтового сервера
+     * (например, для подключения к локальному SMTP-серверу в тестах).
+     *
+     * @param properties свойства почтового сервиса ({@code email.username}, {@code email.password}, {@code mail.smtp.*})
+     */
+    public MailSender(Properties properties) {
+        MAIL_PROPERTIES.putAll(properties);
+    }
+
     /**
      * Метод отправки электронного письма.
      * <p>
@@ -43,6 +90,132 @@ public class MailSender implements EmailService {
      */
     @Override
     public void sendEmail(String recipient, String subject, String text) throws MessagingException {
+        try {
+            send(createMessage(recipient, subject, text));
+        } catch (MessagingException e) {
+            System.err.println("Ошибка отправки email: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Отправляет несколько писем через одно SMTP-соединение текущего потока.
+     *
+     * @param messages письма для отправки
+     * @return письма, которые не удалось отправить, с соответствующими ошибками
+     */
+    @Override
+    public Map<EmailMessageDTO, MessagingException> sendEmails(List<EmailMessageDTO> messages) {
+        Map<EmailMessageDTO, MessagingException> failures = new LinkedHashMap<>();
+
+        for (EmailMessageDTO message : messages) {
+            try {
+                send(createMessage(message.getRecipient(), message.getSubject(), message.getText()));
+            } catch (MessagingException e) {
+                failures.put(message, e);
+            }
+        }
+
+        return failures;
+    }
+
+    /**
+     * Закрывает все SMTP-соединения, открытые отправителем.
+     */
+    @Override
+    public void close() {
+        for (Transport transport : transports) {
+            closeQuietly(transport);
+        }
+        transports.clear();
+    }
+
+    private Message createMessage(String recipient, String subject, String text) throws MessagingException {
+        Message message = new MimeMessage(getSession());
+        message.setFrom(new InternetAddress(MAIL_PROPERTIES.getProperty("email.username")));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(recipient));
+        message.setSubject(subject);
+        message.setText(text);
+
+        return message;
+    }
+
+    // Отправка через соединение текущего потока; разорванное соединение переустанавливается в getTransport()
+    private void send(Message message) throws MessagingException {
+        message.saveChanges();
+        Transport transport = getTransport();
+
+        try {
+            transport.sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException e) {
+            if (isLostAfterData(transport, e)) {
+                // Сервер мог уже принять письмо: не повторяем его, а только сбрасываем соединение для следующих писем
+                resetTransport();
+                throw new DeliveryUnknownException("Соединение оборвалось после передачи письма, доставка не подтверждена: "
+                        + e.getMessage(), e);
+            }
+            if (!(e instanceof SendFailedException)) {
+                // Соединение оборвалось до передачи текста письма: сбрасываем его для следующих писем
+                resetTransport();
+            }
+            // Сервер отклонил письмо или адрес, соединение при этом остается рабочим
+            throw e;
+        }
+    }
+
+    // Соединение оборвалось после того, как сервер начал принимать текст письма
+    private static boolean isLostAfterData(Transport transport, MessagingException e) {
+        // Нет ответа на завершающую точку: текст письма передан полностью
+        if (e instanceof SMTPSendFailedException sendError) {
+            return ".".equals(sendError.getCommand()) && sendError.getReturnCode() < 0;
+        }
+        // Ошибка ввода-вывода во время передачи текста: последний ответ сервера - 354 на команду DATA
+        return !(e instanceof SendFailedException) && transport instanceof SMTPTransport smtpTransport
+                && smtpTransport.getLastReturnCode() == DATA_STARTED;
+    }
+
+    private Transport getTransport() throws MessagingException {
+        Transport transport = threadTransport.get();
+
+        if (transport == null) {
+            transport = getSession().getTransport("smtp");
+            threadTransport.set(transport);
+            transports.add(transport);
+        }
+
+        if (!transport.isConnected()) {
+            transport.connect();
+        }
+
+        return transport;
+    }
+
+    private void resetTransport() {
+        Transport transport = threadTransport.get();
+
+        if (transport != null) {
+            threadTransport.remove();
+            transports.remove(transport);
+            closeQuietly(transport);
+        }
+    }
+
+    private Session getSession() {
+        Session current = session;
+
+        if (current == null) {
+            synchronized (this) {
+                if (session == null) {
+                    session = createSession();
+                }
+                current = session;
+            }
+        }
+
+        return current;
+    }
+
+    private Session createSession() {
         final String username = MAIL_PROPERTIES.getProperty("email.username");
         final String password = MAIL_PROPERTIES.getProperty("email.password");
 
@@ -51,24 +224,19 @@ public class MailSender implements EmailService {
             throw new IllegalArgumentException("Отсутствуют параметры для email аутентификации.");
         }
 
-        Session session = Session.getInstance(MAIL_PROPERTIES, new Authenticator() {
+        return Session.getInstance(MAIL_PROPERTIES, new Authenticator() {
             @Override
             protected PasswordAuthentication getPasswordAuthentication() {
                 return new PasswordAuthentication(username, password);
             }
         });
+    }
 
+    private static void closeQuietly(Transport transport) {
         try {
-            Message message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(username));
-            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(recipient));
-            message.setSubject(subject);
-            message.setText(text);
-
-            Transport.send(message);
+            transport.close();
         } catch (MessagingException e) {
-            System.err.println("Ошибка отправки email: " + e.getMessage());
-            throw e;
+            // Соединение уже закрыто или разорвано
         }
     }
 
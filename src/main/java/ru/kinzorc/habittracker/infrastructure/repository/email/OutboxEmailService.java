@@ -0,0 +1,69 @@
+package ru.kinzorc.habittracker.infrastructure.repository.email;
+
+import ru.kinzorc.habittracker.application.dto.EmailMessageDTO;
+import ru.kinzorc.habittracker.application.service.EmailService;
+import ru.kinzorc.habittracker.core.repository.EmailOutboxRepository;
+
+import javax.mail.MessagingException;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Реализация интерфейса {@link EmailService}, которая не отправляет письмо сразу, а ставит его в очередь исходящих писем.
+ * <p>
+ * Вызов завершается после записи письма в базу данных и не ждет подключения к SMTP-серверу.
+ * Фактическую отправку с повторными попытками выполняет {@link EmailOutboxWorker}.
+ * </p>
+ */
+public class OutboxEmailService implements EmailService {
+
+    private final EmailOutboxRepository outboxRepository;
+
+    /**
+     * Конструктор для создания сервиса на основе очереди исходящих писем.
+     *
+     * @param outboxRepository репозиторий очереди исходящих писем
+     */
+    public OutboxEmailService(EmailOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    /**
+     * Ставит письмо в очередь исходящих писем.
+     *
+     * @param recipient адрес электронной почты получателя
+     * @param subject   тема письма
+     * @param text      текст письма
+     * @throws MessagingException если письмо не удалось сохранить в очередь
+     */
+    @Override
+    public void sendEmail(String recipient, String subject, String text) throws MessagingException {
+        try {
+            outboxRepository.enqueue(new EmailMessageDTO(recipient, subject, text));
+        } catch (SQLException e) {
+            throw new MessagingException("Не удалось поставить письмо в очередь: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ставит несколько писем в очередь исходящих писем одним пакетным запросом.
+     *
+     * @param messages письма для отправки
+     * @return письма, которые не удалось поставить в очередь (при ошибке базы данных — все письма пакета)
+     */
+    @Override
+    public Map<EmailMessageDTO, MessagingException> sendEmails(List<EmailMessageDTO> messages) {
+        Map<EmailMessageDTO, MessagingException> failures = new LinkedHashMap<>();
+
+        try {
+            outboxRepository.enqueueAll(messages);
+        } catch (SQLException e) {
+            MessagingException error = new MessagingException("Не удалось поставить письма в очередь: " + e.getMessage(), e);
+            messages.forEach(message -> failures.put(message, error));
+        }
+
+        return failures;
+    }
+}
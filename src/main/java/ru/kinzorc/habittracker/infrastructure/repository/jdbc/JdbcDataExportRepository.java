@@ -0,0 +1,194 @@
+package ru.kinzorc.habittracker.infrastructure.repository.jdbc;
+
+import ru.kinzorc.habittracker.application.dto.EnumCodec;
+import ru.kinzorc.habittracker.application.dto.HabitDTO;
+import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.core.repository.DataExportRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.ExecutionHistoryCodec;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация интерфейса {@link DataExportRepository} с использованием JDBC.
+ * <p>
+ * Строки читаются курсором порциями по {@code fetchSize} (курсор PostgreSQL работает только при отключенном
+ * автокоммите) и сразу записываются в CSV. Столбцы с кодами перечислений выгружаются в виде названий значений,
+ * а сжатая история выполнений архивных привычек — в виде списка моментов выполнения через {@code ';'}.
+ * </p>
+ * <p>
+ * Внутри {@link ru.kinzorc.habittracker.core.repository.UnitOfWork#executeReadOnly} все таблицы читаются
+ * через соединение единицы работы, то есть из одного снимка данных.
+ * </p>
+ */
+public class JdbcDataExportRepository implements DataExportRepository {
+
+    private static final Map<Table, TableQuery> QUERIES = Map.of(
+            Table.USERS, new TableQuery(
+                    "SELECT id, username, email, role, status FROM app_schema.users",
+                    "WHERE id = ?", "id",
+                    Map.of(4, enumColumn(UserDTO.ROLE_CODEC), 5, enumColumn(UserDTO.STATUS_CODEC))),
+            Table.HABITS, new TableQuery(
+                    "SELECT " + HabitDTO.COLUMNS + " FROM app_schema.habits",
+                    "WHERE user_id = ?", "id",
+                    habitColumns()),
+            Table.HABIT_EXECUTIONS, new TableQuery(
+                    "SELECT habit_id, user_id, date, period_start FROM app_schema.habit_executions",
+                    "WHERE user_id = ?", "habit_id, period_start",
+                    Map.of()),
+            Table.HABIT_ARCHIVE, new TableQuery(
+                    "SELECT " + HabitDTO.COLUMNS + ", executions_count, executions, archived_at FROM app_schema.habit_archive",
+                    "WHERE user_id = ?", "id",
+                    archiveColumns()));
+
+    private final JdbcConnector jdbcConnector;
+    private final int fetchSize;
+
+    /**
+     * Конструктор для создания экземпляра репозитория с JDBC.
+     *
+     * @param jdbcConnector экземпляр класса {@link JdbcConnector} для управления соединениями с базой данных
+     * @param fetchSize     количество строк, получаемых из базы данных за одно обращение
+     */
+    public JdbcDataExportRepository(JdbcConnector jdbcConnector, int fetchSize) {
+        this.jdbcConnector = jdbcConnector;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long exportTable(Table table, Long userId, Writer out) throws SQLException, IOException {
+        return exportTable(table, userId, out, true);
+    }
+
+    /**
+     * Записывает строки таблицы в формате CSV по мере чтения из базы данных.
+     * Без заголовка строки можно дописать к выгрузке той же таблицы из другой базы данных.
+     *
+     * @param table  выгружаемая таблица
+     * @param userId идентификатор пользователя, данные которого выгружаются, или {@code null} для выгрузки всех данных
+     * @param out    получатель CSV
+     * @param header {@code true}, если нужно записать строку заголовка
+     * @return количество выгруженных строк
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     * @throws IOException  в случае ошибок записи
+     */
+    public long exportTable(Table table, Long userId, Writer out, boolean header) throws SQLException, IOException {
+        TableQuery tableQuery = QUERIES.get(table);
+        String query = tableQuery.select + (userId != null ? " " + tableQuery.userFilter : "") + " ORDER BY " + tableQuery.orderBy;
+        long rows = 0;
+
+        try (Connection connection = jdbcConnector.getReadConnection()) {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+
+            try (PreparedStatement statement = connection.prepareStatement(query,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                statement.setFetchSize(fetchSize);
+                if (userId != null)
+                    statement.setLong(1, userId);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    int columnCount = resultSet.getMetaData().getColumnCount();
+
+                    if (header) {
+                        for (int column = 1; column <= columnCount; column++) {
+                            writeField(out, column, resultSet.getMetaData().getColumnLabel(column));
+                        }
+                        out.write('\n');
+                    }
+
+                    while (resultSet.next()) {
+                        for (int column = 1; column <= columnCount; column++) {
+                            ColumnDecoder decoder = tableQuery.decoders.get(column);
+                            String value = decoder != null ? decoder.decode(resultSet, column) : resultSet.getString(column);
+                            writeField(out, column, value);
+                        }
+                        out.write('\n');
+                        rows++;
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при выгрузке таблицы " + table.getFileName() + ": " + e.getMessage(), e);
+        }
+
+        return rows;
+    }
+
+    // Столбцы привычки с кодами перечислений (по номеру столбца в HabitDTO.COLUMNS)
+    private static Map<Integer, ColumnDecoder> habitColumns() {
+        return Map.of(5, enumColumn(HabitDTO.FREQUENCY_CODEC), 9, enumColumn(HabitDTO.EXECUTION_PERIOD_CODEC),
+                10, enumColumn(HabitDTO.STATUS_CODEC));
+    }
+
+    // Столбцы архивной привычки: столбцы привычки и сжатая история выполнений (14-й столбец)
+    private static Map<Integer, ColumnDecoder> archiveColumns() {
+        Map<Integer, ColumnDecoder> decoders = new HashMap<>(habitColumns());
+        decoders.put(14, (resultSet, column) -> {
+            byte[] block = resultSet.getBytes(column);
+            return block == null ? null : ExecutionHistoryCodec.decode(block).stream()
+                    .map(LocalDateTime::toString)
+                    .collect(Collectors.joining(";"));
+        });
+        return decoders;
+    }
+
+    private static ColumnDecoder enumColumn(EnumCodec<?> codec) {
+        return (resultSet, column) -> codec.decode(resultSet.getShort(column)).name().toLowerCase();
+    }
+
+    // Запись поля CSV: значения с разделителями, кавычками и переводами строк заключаются в кавычки
+    private static void writeField(Writer out, int column, String value) throws IOException {
+        if (column > 1)
+            out.write(',');
+
+        if (value == null)
+            return;
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    // Преобразование значения столбца в текст CSV
+    @FunctionalInterface
+    private interface ColumnDecoder {
+        String decode(ResultSet resultSet, int column) throws SQLException, IOException;
+    }
+
+    // Запрос выгрузки таблицы: список столбцов, условие для выгрузки одного пользователя, порядок строк
+    // и преобразования столбцов с закодированными значениями (по номеру столбца)
+    private static final class TableQuery {
+        private final String select;
+        private final String userFilter;
+        private final String orderBy;
+        private final Map<Integer, ColumnDecoder> decoders;
+
+        private TableQuery(String select, String userFilter, String orderBy, Map<Integer, ColumnDecoder> decoders) {
+            this.select = select;
+            this.userFilter = userFilter;
+            this.orderBy = orderBy;
+            this.decoders = decoders;
+        }
+    }
+}
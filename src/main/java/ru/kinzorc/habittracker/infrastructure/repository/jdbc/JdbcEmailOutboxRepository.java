@@ -0,0 +1,228 @@
+package ru.kinzorc.habittracker.infrastructure.repository.jdbc;
+
+import ru.kinzorc.habittracker.application.dto.EmailMessageDTO;
+import ru.kinzorc.habittracker.core.repository.EmailOutboxRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реализация интерфейса {@link EmailOutboxRepository} с использованием JDBC.
+ * <p>
+ * Очередь хранится в таблице {@code service_schema.email_outbox}. Выборка писем для отправки использует
+ * {@code FOR UPDATE SKIP LOCKED}, поэтому несколько обработчиков (в том числе в разных экземплярах приложения)
+ * не получают одно и то же письмо и не ждут друг друга.
+ * </p>
+ * <p>
+ * Письма, поставленные в очередь внутри единицы работы ({@link ru.kinzorc.habittracker.core.repository.UnitOfWork}),
+ * записываются в транзакции вызывающего кода и будут отправлены, только если она зафиксирована.
+ * </p>
+ */
+public class JdbcEmailOutboxRepository implements EmailOutboxRepository {
+
+    private static final String STATUS_PENDING = "pending";
+    private static final String STATUS_SENT = "sent";
+    private static final String STATUS_FAILED = "failed";
+
+    private static final String ENQUEUE_QUERY = "INSERT INTO service_schema.email_outbox " +
+            "(recipient, subject, body, status, attempts, created_at, next_attempt_at) VALUES (?, ?, ?, ?, 0, ?, ?)";
+
+    // Максимальная длина описания ошибки, хранимого в таблице
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcConnector jdbcConnector;
+
+    /**
+     * Конструктор для создания экземпляра репозитория с JDBC.
+     *
+     * @param jdbcConnector экземпляр класса {@link JdbcConnector} для управления соединениями с базой данных
+     */
+    public JdbcEmailOutboxRepository(JdbcConnector jdbcConnector) {
+        this.jdbcConnector = jdbcConnector;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void enqueue(EmailMessageDTO message) throws SQLException {
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(ENQUEUE_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+
+            setEnqueueParameters(statement, message, Timestamp.valueOf(LocalDateTime.now()));
+
+            statement.executeUpdate();
+
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (generatedKeys.next())
+                    message.setId(generatedKeys.getLong(1));
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при добавлении письма в очередь: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void enqueueAll(List<EmailMessageDTO> messages) throws SQLException {
+        if (messages.isEmpty())
+            return;
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(ENQUEUE_QUERY)) {
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+            for (EmailMessageDTO message : messages) {
+                setEnqueueParameters(statement, message, now);
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при добавлении писем в очередь: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<EmailMessageDTO> claimBatch(int limit, LocalDateTime leaseUntil) throws SQLException {
+        String query = "UPDATE service_schema.email_outbox SET next_attempt_at = ? WHERE id IN (" +
+                "SELECT id FROM service_schema.email_outbox WHERE status = ? AND next_attempt_at <= ? " +
+                "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                "RETURNING id, recipient, subject, body, attempts";
+
+        List<EmailMessageDTO> messages = new ArrayList<>();
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setTimestamp(1, Timestamp.valueOf(leaseUntil));
+            statement.setString(2, STATUS_PENDING);
+            statement.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            statement.setInt(4, limit);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    EmailMessageDTO message = new EmailMessageDTO(resultSet.getString("recipient"),
+                            resultSet.getString("subject"), resultSet.getString("body"));
+                    message.setId(resultSet.getLong("id"));
+                    message.setAttempts(resultSet.getInt("attempts"));
+                    messages.add(message);
+                }
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при выборке писем из очереди: " + e.getMessage(), e);
+        }
+
+        return messages;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void markSent(long messageId) throws SQLException {
+        String query = "UPDATE service_schema.email_outbox SET status = ?, attempts = attempts + 1, sent_at = ?, last_error = NULL WHERE id = ?";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setString(1, STATUS_SENT);
+            statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            statement.setLong(3, messageId);
+
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при обновлении статуса письма с ID " + messageId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void markSent(List<Long> messageIds) throws SQLException {
+        if (messageIds.isEmpty())
+            return;
+
+        String query = "UPDATE service_schema.email_outbox SET status = ?, attempts = attempts + 1, sent_at = ?, last_error = NULL WHERE id = ANY(?)";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setString(1, STATUS_SENT);
+            statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            statement.setArray(3, connection.createArrayOf("bigint", messageIds.toArray()));
+
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при обновлении статуса писем: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reschedule(long messageId, int attempts, LocalDateTime nextAttemptAt, String error) throws SQLException {
+        String query = "UPDATE service_schema.email_outbox SET attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setInt(1, attempts);
+            statement.setTimestamp(2, Timestamp.valueOf(nextAttemptAt));
+            statement.setString(3, truncate(error));
+            statement.setLong(4, messageId);
+
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при переносе отправки письма с ID " + messageId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void markFailed(long messageId, int attempts, String error) throws SQLException {
+        String query = "UPDATE service_schema.email_outbox SET status = ?, attempts = ?, last_error = ? WHERE id = ?";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setString(1, STATUS_FAILED);
+            statement.setInt(2, attempts);
+            statement.setString(3, truncate(error));
+            statement.setLong(4, messageId);
+
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при обновлении статуса письма с ID " + messageId + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void setEnqueueParameters(PreparedStatement statement, EmailMessageDTO message, Timestamp now) throws SQLException {
+        statement.setString(1, message.getRecipient());
+        statement.setString(2, message.getSubject());
+        statement.setString(3, message.getText());
+        statement.setString(4, STATUS_PENDING);
+        statement.setTimestamp(5, now);
+        statement.setTimestamp(6, now);
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH)
+            return error;
+
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,126 @@
+package ru.kinzorc.habittracker.infrastructure.repository.jdbc;
+
+import ru.kinzorc.habittracker.application.dto.HabitDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitStatus;
+import ru.kinzorc.habittracker.core.repository.HabitArchiveRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.ExecutionHistoryCodec;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Реализация интерфейса {@link HabitArchiveRepository} с использованием JDBC.
+ * <p>
+ * Архив хранится в таблице {@code app_schema.habit_archive}, история выполнений — в столбце {@code executions}
+ * в формате {@link ExecutionHistoryCodec}. Кандидаты на архивацию выбираются по индексу {@code (status, end_date)}
+ * с блокировкой {@code FOR UPDATE SKIP LOCKED}, поэтому архивация не ждет привычки, изменяемые в этот момент.
+ * Сводная статистика пользователя не меняется: архивная привычка продолжает учитываться в ней.
+ * </p>
+ */
+public class JdbcHabitArchiveRepository implements HabitArchiveRepository {
+
+    private static final String SELECT_CANDIDATES = "SELECT id FROM app_schema.habits " +
+            "WHERE status = " + HabitDTO.STATUS_CODEC.encode(HabitStatus.FINISHED) + " AND end_date < ? " +
+            "LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String SELECT_EXECUTIONS = "SELECT habit_id, date FROM app_schema.habit_executions WHERE habit_id = ANY(?)";
+    private static final String INSERT_ARCHIVE = "INSERT INTO app_schema.habit_archive (" + HabitDTO.COLUMNS + ", executions_count, executions) " +
+            "SELECT " + HabitDTO.COLUMNS + ", ?, ? FROM app_schema.habits WHERE id = ?";
+    // Выполнения и напоминания удаляются каскадно
+    private static final String DELETE_HABITS = "DELETE FROM app_schema.habits WHERE id = ANY(?)";
+
+    private final JdbcConnector jdbcConnector;
+
+    /**
+     * Конструктор для создания экземпляра репозитория с JDBC.
+     *
+     * @param jdbcConnector экземпляр класса {@link JdbcConnector} для управления соединениями с базой данных
+     */
+    public JdbcHabitArchiveRepository(JdbcConnector jdbcConnector) {
+        this.jdbcConnector = jdbcConnector;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int archiveFinishedHabits(LocalDateTime endedBefore, int batchSize) throws SQLException {
+        try (Connection connection = jdbcConnector.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try {
+                List<Long> habitIds = selectCandidates(connection, endedBefore, batchSize);
+                if (habitIds.isEmpty()) {
+                    connection.rollback();
+                    return 0;
+                }
+
+                Array idArray = connection.createArrayOf("bigint", habitIds.toArray());
+                Map<Long, List<LocalDateTime>> executions = selectExecutions(connection, idArray);
+
+                try (PreparedStatement insert = connection.prepareStatement(INSERT_ARCHIVE);
+                     PreparedStatement delete = connection.prepareStatement(DELETE_HABITS)) {
+
+                    for (long habitId : habitIds) {
+                        List<LocalDateTime> history = executions.getOrDefault(habitId, List.of());
+
+                        insert.setInt(1, history.size());
+                        insert.setBytes(2, ExecutionHistoryCodec.encode(history));
+                        insert.setLong(3, habitId);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+
+                    delete.setArray(1, idArray);
+                    delete.executeUpdate();
+                }
+
+                connection.commit();
+                return habitIds.size();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при архивации привычек: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Long> selectCandidates(Connection connection, LocalDateTime endedBefore, int batchSize) throws SQLException {
+        List<Long> habitIds = new ArrayList<>(batchSize);
+
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_CANDIDATES)) {
+            statement.setTimestamp(1, Timestamp.valueOf(endedBefore));
+            statement.setInt(2, batchSize);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    habitIds.add(resultSet.getLong(1));
+                }
+            }
+        }
+
+        return habitIds;
+    }
+
+    private static Map<Long, List<LocalDateTime>> selectExecutions(Connection connection, Array habitIds) throws SQLException {
+        Map<Long, List<LocalDateTime>> executions = new HashMap<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_EXECUTIONS)) {
+            statement.setArray(1, habitIds);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    executions.computeIfAbsent(resultSet.getLong(1), id -> new ArrayList<>())
+                            .add(resultSet.getTimestamp(2).toLocalDateTime());
+                }
+            }
+        }
+
+        return executions;
+    }
+}
@@ -0,0 +1,208 @@
+package ru.kinzorc.habittracker.infrastructure.repository.jdbc;
+
+import ru.kinzorc.habittracker.application.dto.HabitDTO;
+import ru.kinzorc.habittracker.application.dto.ReminderDTO;
+import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitStatus;
+import ru.kinzorc.habittracker.core.enums.User.UserStatusAccount;
+import ru.kinzorc.habittracker.core.exceptions.HabitNotFoundException;
+import ru.kinzorc.habittracker.core.repository.HabitReminderRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Реализация интерфейса {@link HabitReminderRepository} с использованием JDBC.
+ * <p>
+ * Напоминания хранятся в таблице {@code app_schema.habit_reminders}. Выборка напоминаний по интервалу времени
+ * использует индекс по {@code remind_time}, а проверка выполнения выполняется одним запросом для всего пакета привычек.
+ * </p>
+ */
+public class JdbcHabitReminderRepository implements HabitReminderRepository {
+
+    private static final String REMINDER_QUERY = "SELECT r.habit_id, h.habit_name, h.frequency, u.username, u.email, r.remind_time " +
+            "FROM app_schema.habit_reminders r " +
+            "JOIN app_schema.habits h ON h.id = r.habit_id " +
+            "JOIN app_schema.users u ON u.id = h.user_id " +
+            "WHERE h.status = " + HabitDTO.STATUS_CODEC.encode(HabitStatus.ACTIVE) +
+            " AND u.status = " + UserDTO.STATUS_CODEC.encode(UserStatusAccount.ACTIVE);
+
+    private final JdbcConnector jdbcConnector;
+
+    /**
+     * Конструктор для создания экземпляра репозитория с JDBC.
+     *
+     * @param jdbcConnector экземпляр класса {@link JdbcConnector} для управления соединениями с базой данных
+     */
+    public JdbcHabitReminderRepository(JdbcConnector jdbcConnector) {
+        this.jdbcConnector = jdbcConnector;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setReminder(long habitId, LocalTime remindTime) throws HabitNotFoundException, SQLException {
+        String query = "INSERT INTO app_schema.habit_reminders (habit_id, remind_time) " +
+                "SELECT id, ? FROM app_schema.habits WHERE id = ? " +
+                "ON CONFLICT (habit_id) DO UPDATE SET remind_time = EXCLUDED.remind_time";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setTime(1, Time.valueOf(remindTime));
+            statement.setLong(2, habitId);
+
+            if (statement.executeUpdate() == 0) {
+                throw new HabitNotFoundException("Привычка с ID " + habitId + " не найдена.");
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при установке напоминания для привычки с ID " + habitId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeReminder(long habitId) throws SQLException {
+        String query = "DELETE FROM app_schema.habit_reminders WHERE habit_id = ?";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setLong(1, habitId);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при удалении напоминания для привычки с ID " + habitId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<ReminderDTO> findReminder(long habitId) throws SQLException {
+        String query = REMINDER_QUERY + " AND r.habit_id = ?";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setLong(1, habitId);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? Optional.of(mapReminder(resultSet)) : Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ReminderDTO> findRemindersBetween(LocalDate date, LocalTime from, LocalTime to) throws SQLException {
+        String query = REMINDER_QUERY + " AND r.remind_time >= ? AND r.remind_time < ? " +
+                "AND (r.last_sent_date IS NULL OR r.last_sent_date < ?) AND h.start_date < ? AND h.end_date >= ?";
+
+        List<ReminderDTO> reminders = new ArrayList<>();
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setTime(1, Time.valueOf(from));
+            statement.setTime(2, Time.valueOf(to));
+            statement.setDate(3, java.sql.Date.valueOf(date));
+            statement.setTimestamp(4, Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+            statement.setTimestamp(5, Timestamp.valueOf(date.atStartOfDay()));
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    reminders.add(mapReminder(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при загрузке напоминаний: " + e.getMessage(), e);
+        }
+
+        return reminders;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> findExecutedHabits(List<Long> habitIds, LocalDateTime from, LocalDateTime to) throws SQLException {
+        Set<Long> executed = new HashSet<>();
+
+        if (habitIds.isEmpty())
+            return executed;
+
+        String query = "SELECT DISTINCT habit_id FROM app_schema.habit_executions WHERE habit_id = ANY(?) AND date >= ? AND date < ?";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setArray(1, connection.createArrayOf("bigint", habitIds.toArray()));
+            statement.setTimestamp(2, Timestamp.valueOf(from));
+            statement.setTimestamp(3, Timestamp.valueOf(to));
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    executed.add(resultSet.getLong("habit_id"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при проверке выполнения привычек: " + e.getMessage(), e);
+        }
+
+        return executed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> markReminded(List<Long> habitIds, LocalDate date) throws SQLException {
+        Set<Long> claimed = new HashSet<>();
+
+        if (habitIds.isEmpty())
+            return claimed;
+
+        // Условие повторно проверяется после снятия блокировки строки, поэтому напоминание, отмеченное
+        // параллельной транзакцией, не возвращается
+        String query = "UPDATE app_schema.habit_reminders SET last_sent_date = ? " +
+                "WHERE habit_id = ANY(?) AND (last_sent_date IS NULL OR last_sent_date < ?) RETURNING habit_id";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setDate(1, java.sql.Date.valueOf(date));
+            statement.setArray(2, connection.createArrayOf("bigint", habitIds.toArray()));
+            statement.setDate(3, java.sql.Date.valueOf(date));
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    claimed.add(resultSet.getLong("habit_id"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при обновлении напоминаний: " + e.getMessage(), e);
+        }
+
+        return claimed;
+    }
+
+    private static ReminderDTO mapReminder(ResultSet resultSet) throws SQLException {
+        return new ReminderDTO(
+                resultSet.getLong("habit_id"),
+                resultSet.getString("habit_name"),
+                HabitDTO.FREQUENCY_CODEC.decode(resultSet.getShort("frequency")),
+                resultSet.getString("username"),
+                resultSet.getString("email"),
+                resultSet.getTime("remind_time").toLocalTime());
+    }
+}
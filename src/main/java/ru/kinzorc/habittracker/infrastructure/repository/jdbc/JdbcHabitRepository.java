@@ -2,17 +2,28 @@ package ru.kinzorc.habittracker.infrastructure.repository.jdbc;
 
 import ru.kinzorc.habittracker.application.dto.HabitDTO;
 import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitStatus;
+import ru.kinzorc.habittracker.core.enums.Habit.LeaderboardMetric;
+import ru.kinzorc.habittracker.core.enums.User.UserRole;
+import ru.kinzorc.habittracker.core.exceptions.AccessDeniedException;
 import ru.kinzorc.habittracker.core.exceptions.HabitAlreadyExistsException;
 import ru.kinzorc.habittracker.core.exceptions.HabitNotFoundException;
 import ru.kinzorc.habittracker.core.exceptions.UserNotFoundException;
 import ru.kinzorc.habittracker.core.repository.HabitRepository;
+import ru.kinzorc.habittracker.core.repository.UnitOfWork;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.ExecutionHistoryCodec;
 import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcUnitOfWork;
 
+import java.io.IOException;
 import java.sql.*;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.*;
 
 /**
@@ -24,7 +35,23 @@ import java.util.*;
  */
 public class JdbcHabitRepository implements HabitRepository {
 
+    // Количество подряд идущих периодов, заканчивающихся последним выполненным периодом: для периодов серии
+    // значение period_start + номер * длина периода одинаково. Параметр — код еженедельной частоты
+    private static final String STREAK_QUERY = "(SELECT COUNT(*) FROM (SELECT period_start + " +
+            "(ROW_NUMBER() OVER (ORDER BY period_start DESC))::int * step AS run, MAX(period_start) OVER () + step AS latest " +
+            "FROM app_schema.habit_executions, (SELECT CASE WHEN h.frequency = ? THEN 7 ELSE 1 END AS step) s " +
+            "WHERE habit_id = h.id) r WHERE run = latest)";
+    // Процент выполнения за весь срок привычки, как в calculateExecutionPercentage. Параметр — код еженедельной частоты
+    private static final String PERCENTAGE_QUERY = "COALESCE((SELECT COUNT(*) FROM app_schema.habit_executions WHERE habit_id = h.id) * 100 / " +
+            "NULLIF(GREATEST(CASE WHEN h.frequency = ? THEN (h.end_date::date - h.start_date::date) / 7 " +
+            "ELSE h.end_date::date - h.start_date::date END, 0), 0), 0)";
+
+    // Код ошибки PostgreSQL при нарушении уникальности и индекс уникальности имени привычки пользователя
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String HABIT_NAME_INDEX = "uq_habits_user_id_lower_habit_name";
+
     private final JdbcConnector jdbcConnector;
+    private final UnitOfWork unitOfWork;
 
     /**
      * Конструктор для создания экземпляра {@code JdbcHabitRepository} с заданным объектом {@link JdbcConnector}.
@@ -33,6 +60,7 @@ public class JdbcHabitRepository implements HabitRepository {
      */
     public JdbcHabitRepository(JdbcConnector jdbcConnector) {
         this.jdbcConnector = jdbcConnector;
+        this.unitOfWork = new JdbcUnitOfWork(jdbcConnector);
     }
 
     /**
@@ -40,13 +68,12 @@ public class JdbcHabitRepository implements HabitRepository {
      */
     @Override
     public void addHabit(UserDTO user, HabitDTO habit) throws HabitAlreadyExistsException, SQLException {
+        // Идентификатор, выделенный заранее (например, при распределении привычек по шардам), сохраняется явно
         String query = "INSERT INTO app_schema.habits (user_id, habit_name, description, frequency, created_date, start_date, end_date, " +
-                "execution_period, status, streak, execution_percentage) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-        // Проверка на существование привычки у пользователя
-        if (isHabitExistForUser(user.getId(), habit.getName())) {
-            throw new HabitAlreadyExistsException("Привычка с таким именем уже существует.");
-        }
+                "execution_period, status, streak, execution_percentage" + (habit.getId() > 0 ? ", id" : "") +
+                ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?" + (habit.getId() > 0 ? ", ?" : "") + ") " +
+                // Привычка с тем же именем у пользователя (без учета регистра) не вставляется уникальным индексом
+                "ON CONFLICT (user_id, lower(habit_name)) DO NOTHING RETURNING id, created_date";
 
         try (Connection connection = jdbcConnector.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
@@ -54,16 +81,35 @@ public class JdbcHabitRepository implements HabitRepository {
             statement.setLong(1, user.getId());
             statement.setString(2, habit.getName());
             statement.setString(3, habit.getDescription());
-            statement.setString(4, habit.getFrequency().toString().toLowerCase());
+            statement.setShort(4, HabitDTO.FREQUENCY_CODEC.encode(habit.getFrequency()));
             statement.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
             statement.setTimestamp(6, Timestamp.valueOf(LocalDateTime.of(habit.getStartDate(), LocalTime.MIDNIGHT)));
             statement.setTimestamp(7, Timestamp.valueOf(LocalDateTime.of(habit.getEndDate(), LocalTime.MAX)));
-            statement.setString(8, habit.getExecutionPeriod().toString().toLowerCase());
-            statement.setString(9, habit.getStatus().toString().toLowerCase());
+            statement.setShort(8, HabitDTO.EXECUTION_PERIOD_CODEC.encode(habit.getExecutionPeriod()));
+            statement.setShort(9, HabitDTO.STATUS_CODEC.encode(habit.getStatus()));
             statement.setInt(10, 0);
             statement.setInt(11, 0);
+            if (habit.getId() > 0)
+                statement.setLong(12, habit.getId());
 
-            statement.executeUpdate();
+            connection.setAutoCommit(false);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    connection.rollback();
+                    throw new HabitAlreadyExistsException("Привычка с таким именем уже существует.");
+                }
+
+                habit.setId(resultSet.getLong("id"));
+                habit.setUserId(user.getId());
+                habit.setCreatedDate(resultSet.getTimestamp("created_date").toLocalDateTime().toLocalDate());
+
+                updateUserStats(connection, user.getId(), statusCount(habit.getStatus(), HabitStatus.ACTIVE),
+                        statusCount(habit.getStatus(), HabitStatus.FINISHED), 0, 0, LocalDateTime.now());
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         }
     }
 
@@ -72,19 +118,36 @@ public class JdbcHabitRepository implements HabitRepository {
      */
     @Override
     public void deleteHabit(long habitId) throws HabitNotFoundException, SQLException {
-        String query = "DELETE FROM app_schema.habits WHERE id = ?";
+        // Выполнения и напоминания привычки удаляются каскадно; подзапрос видит выполнения на момент начала запроса.
+        // Привычка находится либо в основной таблице, либо в архиве, поэтому удаляется из обеих
+        String query = "WITH deleted AS (DELETE FROM app_schema.habits WHERE id = ? RETURNING id, user_id, status, execution_percentage), " +
+                "archived AS (DELETE FROM app_schema.habit_archive WHERE id = ? RETURNING user_id, status, execution_percentage, executions_count) " +
+                "SELECT d.user_id, d.status, d.execution_percentage, " +
+                "(SELECT COUNT(*) FROM app_schema.habit_executions he WHERE he.habit_id = d.id) AS executions FROM deleted d " +
+                "UNION ALL SELECT user_id, status, execution_percentage, executions_count FROM archived";
 
         try (Connection connection = jdbcConnector.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
 
             statement.setLong(1, habitId);
+            statement.setLong(2, habitId);
 
-            resetExecutions(habitId);
-            int rowsDeleted = statement.executeUpdate();
-            if (rowsDeleted == 0) {
-                throw new HabitNotFoundException("Привычка с данным ID не найдена.");
-            }
+            connection.setAutoCommit(false);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    connection.rollback();
+                    throw new HabitNotFoundException("Привычка с данным ID не найдена.");
+                }
 
+                HabitStatus status = HabitDTO.STATUS_CODEC.decode(resultSet.getShort("status"));
+                updateUserStats(connection, resultSet.getLong("user_id"), -statusCount(status, HabitStatus.ACTIVE),
+                        -statusCount(status, HabitStatus.FINISHED), -resultSet.getLong("executions"),
+                        -resultSet.getInt("execution_percentage"), null);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         }
     }
 
@@ -93,19 +156,34 @@ public class JdbcHabitRepository implements HabitRepository {
      */
     @Override
     public void deleteAllHabitsForUser(UserDTO user) throws HabitNotFoundException, SQLException {
-        String query = "DELETE FROM app_schema.habits WHERE user_id = ?";
+        // Выполнения привычек удаляются каскадно, архивные привычки пользователя удаляются вместе с основными
+        String query = "WITH archived AS (DELETE FROM app_schema.habit_archive WHERE user_id = ? RETURNING id), " +
+                "deleted AS (DELETE FROM app_schema.habits WHERE user_id = ? RETURNING id) " +
+                "SELECT (SELECT COUNT(*) FROM archived) + (SELECT COUNT(*) FROM deleted)";
+        String resetStatsQuery = "UPDATE app_schema.user_stats SET active_habits = 0, finished_habits = 0, " +
+                "total_executions = 0, completion_sum = 0 WHERE user_id = ?";
 
         try (Connection connection = jdbcConnector.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
+             PreparedStatement statement = connection.prepareStatement(query);
+             PreparedStatement resetStatsStatement = connection.prepareStatement(resetStatsQuery)) {
 
             statement.setLong(1, user.getId());
+            statement.setLong(2, user.getId());
+            resetStatsStatement.setLong(1, user.getId());
 
-            int rowsDeleted = statement.executeUpdate();
-            if (rowsDeleted == 0) {
-                throw new HabitNotFoundException("Привычка с данным ID не найдена.");
-            }
+            connection.setAutoCommit(false);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next() || resultSet.getLong(1) == 0) {
+                    connection.rollback();
+                    throw new HabitNotFoundException("Привычки для данного пользователя не найдены.");
+                }
 
-            resetAllExecutionsForUser(user);
+                resetStatsStatement.executeUpdate();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         }
     }
 
@@ -114,43 +192,59 @@ public class JdbcHabitRepository implements HabitRepository {
      */
     @Override
     public void deleteAllHabit(UserDTO user) throws HabitNotFoundException, SQLException {
-        String query = "DELETE FROM app_schema.habits WHERE user_id = ?";
-
-        try (Connection connection = jdbcConnector.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
-
-            statement.setLong(1, user.getId());
-
-            int rowsAffected = statement.executeUpdate();
-            resetExecutionsAllHabits();
-            if (rowsAffected == 0) {
-                throw new HabitNotFoundException("Привычки для данного пользователя не найдены.");
-            }
-        }
+        // Удаление ограничено привычками пользователя, их выполнения удаляются каскадно в той же транзакции
+        deleteAllHabitsForUser(user);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void updateHabit(HabitDTO habit) throws HabitNotFoundException, SQLException {
-        String query = "UPDATE app_schema.habits SET habit_name = ?, description = ?, frequency = ?, start_date = ?, end_date = ?, execution_period = ?, status = ? WHERE id = ?";
+    public void updateHabit(HabitDTO habit) throws HabitNotFoundException, HabitAlreadyExistsException, SQLException {
+        // Предыдущие статус и частота возвращаются из CTE, чтобы скорректировать счетчики активных и завершенных привычек
+        // и пересчитать периоды выполнений при смене частоты
+        String query = "WITH old AS (SELECT id, user_id, status, frequency FROM app_schema.habits WHERE id = ? FOR UPDATE) " +
+                "UPDATE app_schema.habits h SET habit_name = ?, description = ?, frequency = ?, start_date = ?, end_date = ?, " +
+                "execution_period = ?, status = ? FROM old WHERE h.id = old.id RETURNING old.user_id, old.status, old.frequency";
 
         try (Connection connection = jdbcConnector.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
 
-            statement.setString(1, habit.getName());
-            statement.setString(2, habit.getDescription());
-            statement.setString(3, habit.getFrequency().toString().toLowerCase());
-            statement.setTimestamp(4, Timestamp.valueOf(LocalDateTime.of(habit.getStartDate(), LocalTime.MIDNIGHT)));
-            statement.setTimestamp(5, Timestamp.valueOf(LocalDateTime.of(habit.getEndDate(), LocalTime.MAX)));
-            statement.setString(6, habit.getExecutionPeriod().toString().toLowerCase());
-            statement.setString(7, habit.getStatus().toString().toLowerCase());
-            statement.setLong(8, habit.getId());
-
-            int rowsAffected = statement.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new HabitNotFoundException("Привычка с данным ID не найдена.");
+            statement.setLong(1, habit.getId());
+            statement.setString(2, habit.getName());
+            statement.setString(3, habit.getDescription());
+            statement.setShort(4, HabitDTO.FREQUENCY_CODEC.encode(habit.getFrequency()));
+            statement.setTimestamp(5, Timestamp.valueOf(LocalDateTime.of(habit.getStartDate(), LocalTime.MIDNIGHT)));
+            statement.setTimestamp(6, Timestamp.valueOf(LocalDateTime.of(habit.getEndDate(), LocalTime.MAX)));
+            statement.setShort(7, HabitDTO.EXECUTION_PERIOD_CODEC.encode(habit.getExecutionPeriod()));
+            statement.setShort(8, HabitDTO.STATUS_CODEC.encode(habit.getStatus()));
+
+            connection.setAutoCommit(false);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    connection.rollback();
+                    throw new HabitNotFoundException("Привычка с данным ID не найдена.");
+                }
+
+                long userId = resultSet.getLong("user_id");
+                HabitStatus oldStatus = HabitDTO.STATUS_CODEC.decode(resultSet.getShort("status"));
+                if (oldStatus != habit.getStatus()) {
+                    int activeDelta = statusCount(habit.getStatus(), HabitStatus.ACTIVE) - statusCount(oldStatus, HabitStatus.ACTIVE);
+                    int finishedDelta = statusCount(habit.getStatus(), HabitStatus.FINISHED) - statusCount(oldStatus, HabitStatus.FINISHED);
+                    updateUserStats(connection, userId, activeDelta, finishedDelta, 0, 0, LocalDateTime.now());
+                }
+
+                if (HabitDTO.FREQUENCY_CODEC.decode(resultSet.getShort("frequency")) != habit.getFrequency()) {
+                    recalculatePeriods(connection, habit, userId);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                // Переименование в имя другой привычки пользователя (без учета регистра) отклоняется уникальным индексом
+                if (UNIQUE_VIOLATION.equals(e.getSQLState()) && e.getMessage() != null && e.getMessage().contains(HABIT_NAME_INDEX)) {
+                    throw new HabitAlreadyExistsException("Привычка с таким именем уже существует.");
+                }
+                throw e;
             }
         }
     }
@@ -159,22 +253,77 @@ public class JdbcHabitRepository implements HabitRepository {
      * {@inheritDoc}
      */
     @Override
-    public void markExecution(HabitDTO habit, LocalDateTime executionDate) throws SQLException {
-        String query = "INSERT INTO app_schema.habit_executions (habit_id, date) VALUES (?, ?)";
+    public boolean markExecution(HabitDTO habit, LocalDateTime executionDate) throws HabitNotFoundException, SQLException {
+        // Строка привычки блокируется до конца транзакции, поэтому отметки одной привычки выполняются по очереди,
+        // а стрик и процент пересчитываются по выполнениям, которые видит запрос после получения блокировки.
+        // Блокируется только активная привычка с датой выполнения не позже даты окончания: у завершенной привычки
+        // стрик и процент зафиксированы при завершении и не должны пересчитываться
+        String lockQuery = "SELECT user_id, frequency, execution_percentage FROM app_schema.habits " +
+                "WHERE id = ? AND status = ? AND end_date::date >= ? FOR UPDATE";
+        // Повторная отметка за тот же день (неделю для еженедельных привычек) отбрасывается уникальным ограничением
+        String query = "INSERT INTO app_schema.habit_executions (habit_id, user_id, date, period_start) VALUES (?, ?, ?, ?) " +
+                "ON CONFLICT (habit_id, period_start) DO NOTHING";
+        String updateQuery = "UPDATE app_schema.habits h SET streak = " + STREAK_QUERY + ", execution_percentage = " + PERCENTAGE_QUERY +
+                " WHERE h.id = ? RETURNING h.streak, h.execution_percentage";
 
         try (Connection connection = jdbcConnector.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
+             PreparedStatement lockStatement = connection.prepareStatement(lockQuery);
+             PreparedStatement statement = connection.prepareStatement(query);
+             PreparedStatement updateStatement = connection.prepareStatement(updateQuery)) {
+
+            connection.setAutoCommit(false);
+            try {
+                lockStatement.setLong(1, habit.getId());
+                lockStatement.setShort(2, HabitDTO.STATUS_CODEC.encode(HabitStatus.ACTIVE));
+                lockStatement.setDate(3, java.sql.Date.valueOf(executionDate.toLocalDate()));
+
+                long userId;
+                HabitFrequency frequency;
+                int oldPercentage;
+                try (ResultSet resultSet = lockStatement.executeQuery()) {
+                    // Привычка удалена, перенесена в архив, завершена или дата выполнения позже даты окончания:
+                    // это не повторная отметка, а отсутствующая активная привычка
+                    if (!resultSet.next()) {
+                        connection.rollback();
+                        throw new HabitNotFoundException("Активная привычка с данным ID не найдена.");
+                    }
+                    userId = resultSet.getLong("user_id");
+                    // Период отметки определяется по частоте из заблокированной строки, а не из переданного объекта,
+                    // который мог устареть после изменения частоты привычки
+                    frequency = HabitDTO.FREQUENCY_CODEC.decode(resultSet.getShort("frequency"));
+                    oldPercentage = resultSet.getInt("execution_percentage");
+                }
 
-            statement.setLong(1, habit.getId());
-            statement.setTimestamp(2, Timestamp.valueOf(executionDate));
+                statement.setLong(1, habit.getId());
+                statement.setLong(2, userId);
+                statement.setTimestamp(3, Timestamp.valueOf(executionDate));
+                statement.setDate(4, java.sql.Date.valueOf(periodStart(frequency, executionDate.toLocalDate())));
 
-            statement.executeUpdate();
+                if (statement.executeUpdate() == 0) {
+                    connection.rollback();
+                    return false;
+                }
+
+                updateStatement.setShort(1, HabitDTO.FREQUENCY_CODEC.encode(HabitFrequency.WEEKLY));
+                updateStatement.setShort(2, HabitDTO.FREQUENCY_CODEC.encode(HabitFrequency.WEEKLY));
+                updateStatement.setLong(3, habit.getId());
 
-            calculateStreak(habit, executionDate);
-            calculateExecutionPercentage(habit,
-                    LocalDateTime.of(habit.getStartDate(), LocalTime.MIDNIGHT),
-                    LocalDateTime.of(habit.getEndDate(), LocalTime.MAX));
+                try (ResultSet resultSet = updateStatement.executeQuery()) {
+                    resultSet.next();
+                    habit.setStreak(resultSet.getInt("streak"));
+                    habit.setExecutionPercentage(resultSet.getInt("execution_percentage"));
+                }
+
+                // Разница процента выполнения переносится в сводную статистику пользователя
+                updateUserStats(connection, userId, 0, 0, 1, habit.getExecutionPercentage() - oldPercentage, executionDate);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         }
+
+        return true;
     }
 
     /**
@@ -185,7 +334,7 @@ public class JdbcHabitRepository implements HabitRepository {
         String query = "SELECT date FROM app_schema.habit_executions WHERE habit_id = ?";
         List<LocalDate> executions = new ArrayList<>();
 
-        try (Connection connection = jdbcConnector.getConnection();
+        try (Connection connection = jdbcConnector.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
 
             statement.setLong(1, habitId);
@@ -195,6 +344,10 @@ public class JdbcHabitRepository implements HabitRepository {
                     executions.add(resultSet.getTimestamp("date").toLocalDateTime().toLocalDate());
                 }
             }
+
+            if (executions.isEmpty()) {
+                executions.addAll(getArchivedExecutions(connection, habitId));
+            }
         }
 
         if (executions.isEmpty()) {
@@ -210,15 +363,35 @@ public class JdbcHabitRepository implements HabitRepository {
     @Override
     public void resetExecutions(long habitId) throws HabitNotFoundException, SQLException {
         String query = "DELETE FROM app_schema.habit_executions WHERE habit_id = ?";
+        String resetPercentageQuery = "WITH old AS (SELECT id, user_id, execution_percentage FROM app_schema.habits WHERE id = ? FOR UPDATE) " +
+                "UPDATE app_schema.habits h SET execution_percentage = 0 FROM old WHERE h.id = old.id " +
+                "RETURNING old.user_id, old.execution_percentage";
 
         try (Connection connection = jdbcConnector.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
+             PreparedStatement statement = connection.prepareStatement(query);
+             PreparedStatement resetPercentageStatement = connection.prepareStatement(resetPercentageQuery)) {
 
             statement.setLong(1, habitId);
+            resetPercentageStatement.setLong(1, habitId);
+
+            connection.setAutoCommit(false);
+            try {
+                int rowsAffected = statement.executeUpdate();
+                if (rowsAffected == 0) {
+                    connection.rollback();
+                    throw new HabitNotFoundException("Привычка с данным ID не найдена.");
+                }
 
-            int rowsAffected = statement.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new HabitNotFoundException("Привычка с данным ID не найдена.");
+                try (ResultSet resultSet = resetPercentageStatement.executeQuery()) {
+                    if (resultSet.next()) {
+                        updateUserStats(connection, resultSet.getLong("user_id"), 0, 0, -rowsAffected,
+                                -resultSet.getInt("execution_percentage"), null);
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
         }
     }
@@ -229,15 +402,32 @@ public class JdbcHabitRepository implements HabitRepository {
     @Override
     public void resetAllExecutionsForUser(UserDTO user) throws HabitNotFoundException, SQLException {
         String query = "DELETE FROM app_schema.habit_executions WHERE user_id = ?";
+        String resetPercentageQuery = "UPDATE app_schema.habits SET execution_percentage = 0 WHERE user_id = ?";
+        String resetStatsQuery = "UPDATE app_schema.user_stats SET total_executions = 0, completion_sum = 0 WHERE user_id = ?";
 
         try (Connection connection = jdbcConnector.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
+             PreparedStatement statement = connection.prepareStatement(query);
+             PreparedStatement resetPercentageStatement = connection.prepareStatement(resetPercentageQuery);
+             PreparedStatement resetStatsStatement = connection.prepareStatement(resetStatsQuery)) {
 
             statement.setLong(1, user.getId());
+            resetPercentageStatement.setLong(1, user.getId());
+            resetStatsStatement.setLong(1, user.getId());
+
+            connection.setAutoCommit(false);
+            try {
+                int rowsAffected = statement.executeUpdate();
+                if (rowsAffected == 0) {
+                    connection.rollback();
+                    throw new HabitNotFoundException("Выполнения для привычки или привычек не найдены");
+                }
 
-            int rowsAffected = statement.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new HabitNotFoundException("Выполнения для привычки или привычек не найдены");
+                resetPercentageStatement.executeUpdate();
+                resetStatsStatement.executeUpdate();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
         }
     }
@@ -246,13 +436,33 @@ public class JdbcHabitRepository implements HabitRepository {
      * {@inheritDoc}
      */
     @Override
-    public void resetExecutionsAllHabits() throws SQLException {
-        String query = "DELETE FROM app_schema.habit_executions";
+    public void resetExecutionsAllHabits(UserDTO admin) throws AccessDeniedException, SQLException {
+        if (admin == null || admin.getUserRole() != UserRole.ADMIN) {
+            throw new AccessDeniedException("Сброс выполнений всех привычек доступен только администратору.");
+        }
 
-        try (Connection connection = jdbcConnector.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
+        // TRUNCATE не просматривает таблицу построчно, но блокирует её целиком до конца транзакции
+        String query = "TRUNCATE TABLE app_schema.habit_executions";
+        // Стрик и процент выполнения рассчитываются по выполнениям, поэтому обнуляются в той же транзакции
+        String resetPercentageQuery = "UPDATE app_schema.habits SET streak = 0, execution_percentage = 0 " +
+                "WHERE streak <> 0 OR execution_percentage <> 0";
+        String resetStatsQuery = "UPDATE app_schema.user_stats SET total_executions = 0, completion_sum = 0";
 
-            statement.executeUpdate();
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query);
+             PreparedStatement resetPercentageStatement = connection.prepareStatement(resetPercentageQuery);
+             PreparedStatement resetStatsStatement = connection.prepareStatement(resetStatsQuery)) {
+
+            connection.setAutoCommit(false);
+            try {
+                statement.executeUpdate();
+                resetPercentageStatement.executeUpdate();
+                resetStatsStatement.executeUpdate();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         }
     }
 
@@ -264,7 +474,7 @@ public class JdbcHabitRepository implements HabitRepository {
         String query = "SELECT DATE(date) as execution_date FROM app_schema.habit_executions WHERE habit_id = ?";
         Map<LocalDate, Integer> statistics = new HashMap<>();
 
-        try (Connection connection = jdbcConnector.getConnection();
+        try (Connection connection = jdbcConnector.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
 
             statement.setLong(1, habit.getId());
@@ -272,7 +482,7 @@ public class JdbcHabitRepository implements HabitRepository {
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
                     LocalDate executionDate = resultSet.getDate("execution_date").toLocalDate();
-                    statistics.put(executionDate, calculateExecutionPercentage(habit,
+                    statistics.put(executionDate, calculateExecutionPercentage(connection, habit,
                             LocalDateTime.of(habit.getStartDate(), LocalTime.MIN), LocalDateTime.of(executionDate, LocalTime.MAX)));
                 }
             }
@@ -290,13 +500,17 @@ public class JdbcHabitRepository implements HabitRepository {
      */
     @Override
     public void resetStatistics(long habitId, boolean resetExecutions, boolean resetStreaks) throws HabitNotFoundException, SQLException {
-        if (resetExecutions) {
-            resetExecutions(habitId);
-        }
+        // Сброс выполнений и стриков выполняется в одной транзакции
+        unitOfWork.execute(() -> {
+            if (resetExecutions) {
+                resetExecutions(habitId);
+            }
 
-        if (resetStreaks) {
-            resetStreaks(habitId);
-        }
+            if (resetStreaks) {
+                resetStreaks(habitId);
+            }
+            return null;
+        });
     }
 
     /**
@@ -304,10 +518,18 @@ public class JdbcHabitRepository implements HabitRepository {
      */
     @Override
     public int calculateExecutionPercentage(HabitDTO habit, LocalDateTime startPeriodDate, LocalDateTime endPeriodDate) throws SQLException {
-        String query = "SELECT h.frequency, h.execution_period, COUNT(he.habit_id) AS execution_count "
+        try (Connection connection = jdbcConnector.getConnection()) {
+            return calculateExecutionPercentage(connection, habit, startPeriodDate, endPeriodDate);
+        }
+    }
+
+    // Процент выполнения на переданном соединении, чтобы расчет для нескольких дат не открывал соединение на каждую дату
+    private static int calculateExecutionPercentage(Connection connection, HabitDTO habit, LocalDateTime startPeriodDate,
+                                                    LocalDateTime endPeriodDate) throws SQLException {
+        String query = "SELECT h.frequency, COUNT(he.habit_id) AS execution_count "
                 + "FROM app_schema.habits h LEFT JOIN app_schema.habit_executions he ON h.id = he.habit_id "
                 + "WHERE h.id = ? "
-                + "GROUP BY h.frequency, h.execution_period";
+                + "GROUP BY h.frequency";
 
         if (startPeriodDate.toLocalDate().isBefore(habit.getStartDate()))
             startPeriodDate = habit.getStartDate().atStartOfDay();
@@ -315,8 +537,7 @@ public class JdbcHabitRepository implements HabitRepository {
         if (endPeriodDate.toLocalDate().isAfter(habit.getEndDate()))
             endPeriodDate = habit.getEndDate().atStartOfDay();
 
-        try (Connection connection = jdbcConnector.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
 
             statement.setLong(1, habit.getId());
 
@@ -325,15 +546,12 @@ public class JdbcHabitRepository implements HabitRepository {
 
                     long period = 0L;
 
-                    String executionPeriod = resultSet.getString("execution_period");
-                    String frequency = resultSet.getString("frequency");
+                    HabitFrequency frequency = HabitDTO.FREQUENCY_CODEC.decode(resultSet.getShort("frequency"));
 
-                    if (executionPeriod.equals("month") || executionPeriod.equals("year")) {
-                        if (frequency.equals("daily")) {
-                            period = ChronoUnit.DAYS.between(startPeriodDate, endPeriodDate);
-                        } else if (frequency.equals("weekly")) {
-                            period = ChronoUnit.WEEKS.between(startPeriodDate, endPeriodDate);
-                        }
+                    if (frequency == HabitFrequency.DAILY) {
+                        period = ChronoUnit.DAYS.between(startPeriodDate, endPeriodDate);
+                    } else if (frequency == HabitFrequency.WEEKLY) {
+                        period = ChronoUnit.WEEKS.between(startPeriodDate, endPeriodDate);
                     }
 
                     if (period > 0) {
@@ -353,71 +571,19 @@ public class JdbcHabitRepository implements HabitRepository {
      */
     @Override
     public int calculateStreak(HabitDTO habit, LocalDateTime newExecutionDate) throws SQLException {
-
-        int newStreak = 0;
-
-        // Получаем последнюю дату выполнения привычки
-        String queryLastExecution = "SELECT MAX(date) as last_execution_date FROM app_schema.habit_executions WHERE habit_id = ?";
-        String updateStreakQuery = "UPDATE app_schema.habits SET streak = ? WHERE id = ?";
-
-        try (Connection connection = jdbcConnector.getConnection();
-             PreparedStatement statementLastExecution = connection.prepareStatement(queryLastExecution);
-             PreparedStatement statementCalculateStreak = connection.prepareStatement(updateStreakQuery)) {
-
-            statementLastExecution.setLong(1, habit.getId());
-
-            try (ResultSet resultSet = statementLastExecution.executeQuery()) {
-                if (resultSet.next()) {
-                    LocalDateTime lastExecutionDate = resultSet.getTimestamp("last_execution_date").toLocalDateTime();
-
-                    // Рассчитываем разницу между последней датой выполнения и новой датой выполнения
-                    long difference;
-                    if (habit.getFrequency().toString().equalsIgnoreCase("daily")) {
-                        difference = ChronoUnit.DAYS.between(lastExecutionDate, newExecutionDate);
-                    } else if (habit.getFrequency().toString().equalsIgnoreCase("weekly")) {
-                        difference = ChronoUnit.WEEKS.between(lastExecutionDate, newExecutionDate);
-                    } else {
-                        throw new IllegalArgumentException("Неверная частота выполнения: " + habit.getFrequency());
-                    }
-
-                    // Если разница в днях или неделях равна 1, увеличиваем стрик, иначе сбрасываем
-                    if (difference == 1) {
-                        // Увеличиваем текущий стрик
-                        int currentStreak = getCurrentStreak(habit.getId());
-                        newStreak = currentStreak + 1;
-
-                        // Обновляем стрик в таблице habits
-                        statementCalculateStreak.setInt(1, newStreak);
-                    } else {
-                        // Сбрасываем стрик до 1
-                        statementCalculateStreak.setInt(1, 1);
-                    }
-
-                    statementCalculateStreak.setLong(2, habit.getId());
-                    statementCalculateStreak.executeUpdate();
-                }
-            }
-        }
-
-        return newStreak;
-    }
-
-    // Метод для получения текущего стрика из таблицы habits
-    private int getCurrentStreak(long habitId) throws SQLException {
-        String query = "SELECT streak FROM app_schema.habits WHERE id = ?";
+        // Стрик вычисляется и сохраняется одним запросом по уже сохраненным выполнениям
+        String query = "UPDATE app_schema.habits h SET streak = " + STREAK_QUERY + " WHERE h.id = ? RETURNING h.streak";
 
         try (Connection connection = jdbcConnector.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setLong(1, habitId);
+
+            statement.setShort(1, HabitDTO.FREQUENCY_CODEC.encode(HabitFrequency.WEEKLY));
+            statement.setLong(2, habit.getId());
 
             try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getInt("streak");
-                }
+                return resultSet.next() ? resultSet.getInt("streak") : 0;
             }
         }
-        // Если стрик не найден, возвращаем 0 по умолчанию
-        return 0;
     }
 
     /**
@@ -425,10 +591,12 @@ public class JdbcHabitRepository implements HabitRepository {
      */
     @Override
     public List<HabitDTO> findAllHabits() throws SQLException {
-        String query = "SELECT * FROM app_schema.habits";
+        // Завершенные привычки, перенесенные в архив, входят в список наравне с привычками основной таблицы
+        String query = "SELECT " + HabitDTO.COLUMNS + " FROM app_schema.habits " +
+                "UNION ALL SELECT " + HabitDTO.COLUMNS + " FROM app_schema.habit_archive";
         List<HabitDTO> habits = new ArrayList<>();
 
-        try (Connection connection = jdbcConnector.getConnection();
+        try (Connection connection = jdbcConnector.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(query);
              ResultSet resultSet = statement.executeQuery()) {
 
@@ -442,23 +610,55 @@ public class JdbcHabitRepository implements HabitRepository {
         return habits;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<HabitDTO> findAllHabits(int descriptionLength) throws SQLException {
+        // Описание обрезается на стороне базы данных, чтобы не передавать полный текст для списка
+        String columns = "id, user_id, habit_name, LEFT(description, ?), frequency, created_date, start_date, end_date, " +
+                "execution_period, status, streak, execution_percentage";
+        String query = "SELECT " + columns + " FROM app_schema.habits " +
+                "UNION ALL SELECT " + columns + " FROM app_schema.habit_archive ORDER BY id";
+        List<HabitDTO> habits = new ArrayList<>();
+
+        try (Connection connection = jdbcConnector.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setInt(1, descriptionLength);
+            statement.setInt(2, descriptionLength);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    habits.add(new HabitDTO(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка получения информации по привычкам: " + e.getMessage());
+        }
+
+        return habits;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Optional<HabitDTO> findHabitByID(long habitId) throws HabitNotFoundException, SQLException {
-        String query = "SELECT * FROM app_schema.habits WHERE id = ?";
+        // Если привычки нет в основной таблице, она ищется в архиве завершенных привычек
+        String query = "SELECT " + HabitDTO.COLUMNS + " FROM app_schema.habits WHERE id = ? " +
+                "UNION ALL SELECT " + HabitDTO.COLUMNS + " FROM app_schema.habit_archive WHERE id = ? LIMIT 1";
         HabitDTO habit = null;
 
-        try (Connection connection = jdbcConnector.getConnection();
+        try (Connection connection = jdbcConnector.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
 
             statement.setLong(1, habitId);
+            statement.setLong(2, habitId);
 
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
                     habit = new HabitDTO(resultSet);
-                    habit.setId(resultSet.getLong("id"));
                 }
             } catch (SQLException e) {
                 throw new HabitNotFoundException("Ошибка при поиске привычки" + e.getMessage());
@@ -475,18 +675,20 @@ public class JdbcHabitRepository implements HabitRepository {
      */
     @Override
     public Optional<HabitDTO> findHabitByName(String habitName) throws SQLException {
-        String query = "SELECT * FROM app_schema.habits WHERE habit_name = ?";
+        // Если привычки нет в основной таблице, она ищется в архиве завершенных привычек
+        String query = "SELECT " + HabitDTO.COLUMNS + " FROM app_schema.habits WHERE habit_name = ? " +
+                "UNION ALL SELECT " + HabitDTO.COLUMNS + " FROM app_schema.habit_archive WHERE habit_name = ? LIMIT 1";
         HabitDTO habit = null;
 
-        try (Connection connection = jdbcConnector.getConnection();
+        try (Connection connection = jdbcConnector.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
 
             statement.setString(1, habitName);
+            statement.setString(2, habitName);
 
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
                     habit = new HabitDTO(resultSet);
-                    habit.setId(resultSet.getLong("id"));
                 }
             }
         }
@@ -499,15 +701,17 @@ public class JdbcHabitRepository implements HabitRepository {
      */
     @Override
     public List<HabitDTO> findHabitByUser(UserDTO user) throws UserNotFoundException, SQLException {
-        String query = "SELECT * FROM app_schema.habits WHERE user_id = ?";
+        String query = "SELECT " + HabitDTO.COLUMNS + " FROM app_schema.habits WHERE user_id = ? " +
+                "UNION ALL SELECT " + HabitDTO.COLUMNS + " FROM app_schema.habit_archive WHERE user_id = ? ORDER BY id";
 
         List<HabitDTO> habits = new ArrayList<>();
 
-        try (Connection connection = jdbcConnector.getConnection();
+        try (Connection connection = jdbcConnector.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
 
-            // Устанавливаем идентификатор пользователя
+            // Устанавливаем идентификатор пользователя (для основной таблицы и архива)
             statement.setLong(1, user.getId());
+            statement.setLong(2, user.getId());
 
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
@@ -526,24 +730,104 @@ public class JdbcHabitRepository implements HabitRepository {
         return habits;
     }
 
-    // Проверка существования привычки у пользователя
-    private boolean isHabitExistForUser(long userId, String habitName) throws SQLException {
-        String query = "SELECT COUNT(*) FROM app_schema.habits WHERE user_id = ? AND habit_name = ?";
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<HabitDTO> findTopHabits(LeaderboardMetric metric, HabitFrequency frequency, int limit) throws SQLException {
+        String orderColumn = switch (metric) {
+            case STREAK -> "streak";
+            case EXECUTION_PERCENTAGE -> "execution_percentage";
+        };
+        // Сортировка совпадает с индексами idx_habits_*: (показатель DESC) и (frequency, показатель DESC)
+        String query = "SELECT " + HabitDTO.COLUMNS + " FROM app_schema.habits " + (frequency != null ? "WHERE frequency = ? " : "") +
+                "ORDER BY " + orderColumn + " DESC LIMIT ?";
+        List<HabitDTO> habits = new ArrayList<>();
+
+        try (Connection connection = jdbcConnector.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            int index = 1;
+            if (frequency != null)
+                statement.setShort(index++, HabitDTO.FREQUENCY_CODEC.encode(frequency));
+            statement.setInt(index, limit);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    habits.add(new HabitDTO(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при получении рейтинга привычек: " + e.getMessage());
+        }
+
+        return habits;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int finishExpiredHabits(LocalDateTime endedBefore, int batchSize) throws SQLException {
+        // Кандидаты выбираются по индексу (status, end_date); заблокированные другими транзакциями привычки пропускаются.
+        // Период выполнения и процент считаются так же, как в calculateExecutionPercentage, стрик сохраняется,
+        // только если последнее выполнение приходится на период, содержащий дату окончания срока
+        String query = "WITH expired AS (SELECT id, execution_percentage FROM app_schema.habits " +
+                "WHERE status = ? AND end_date < ? LIMIT ? FOR UPDATE SKIP LOCKED), " +
+                "executions AS (SELECT habit_id, COUNT(*) AS executions, MAX(period_start) AS last_period " +
+                "FROM app_schema.habit_executions WHERE habit_id IN (SELECT id FROM expired) GROUP BY habit_id), " +
+                "finished AS (UPDATE app_schema.habits h SET status = ?, " +
+                "execution_percentage = COALESCE(COALESCE(e.executions, 0) * 100 / NULLIF(GREATEST(CASE WHEN h.frequency = ? " +
+                "THEN (h.end_date::date - h.start_date::date) / 7 ELSE h.end_date::date - h.start_date::date END, 0), 0), 0), " +
+                "streak = CASE WHEN e.last_period >= CASE WHEN h.frequency = ? " +
+                "THEN date_trunc('week', h.end_date)::date ELSE h.end_date::date END THEN h.streak ELSE 0 END " +
+                "FROM expired x LEFT JOIN executions e ON e.habit_id = x.id " +
+                "WHERE h.id = x.id RETURNING h.user_id, h.execution_percentage - x.execution_percentage AS completion_delta), " +
+                "stats AS (INSERT INTO app_schema.user_stats AS s (user_id, active_habits, finished_habits, completion_sum) " +
+                "SELECT user_id, -COUNT(*), COUNT(*), SUM(completion_delta) FROM finished GROUP BY user_id " +
+                "ON CONFLICT (user_id) DO UPDATE SET active_habits = s.active_habits + EXCLUDED.active_habits, " +
+                "finished_habits = s.finished_habits + EXCLUDED.finished_habits, " +
+                "completion_sum = s.completion_sum + EXCLUDED.completion_sum) " +
+                "SELECT COUNT(*) FROM finished";
 
         try (Connection connection = jdbcConnector.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
 
-            statement.setLong(1, userId);
-            statement.setString(2, habitName);
+            statement.setShort(1, HabitDTO.STATUS_CODEC.encode(HabitStatus.ACTIVE));
+            statement.setTimestamp(2, Timestamp.valueOf(endedBefore));
+            statement.setInt(3, batchSize);
+            statement.setShort(4, HabitDTO.STATUS_CODEC.encode(HabitStatus.FINISHED));
+            statement.setShort(5, HabitDTO.FREQUENCY_CODEC.encode(HabitFrequency.WEEKLY));
+            statement.setShort(6, HabitDTO.FREQUENCY_CODEC.encode(HabitFrequency.WEEKLY));
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при завершении просроченных привычек: " + e.getMessage(), e);
+        }
+    }
+
+    // Выполнения архивной привычки из сжатой истории (пустой список, если привычки нет в архиве)
+    private List<LocalDate> getArchivedExecutions(Connection connection, long habitId) throws SQLException {
+        String query = "SELECT executions FROM app_schema.habit_archive WHERE id = ?";
+        List<LocalDate> executions = new ArrayList<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, habitId);
 
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
-                    return resultSet.getInt(1) > 0;
+                    for (LocalDateTime execution : ExecutionHistoryCodec.decode(resultSet.getBytes(1))) {
+                        executions.add(execution.toLocalDate());
+                    }
                 }
             }
+        } catch (IOException e) {
+            throw new SQLException("Ошибка чтения истории выполнений архивной привычки с ID " + habitId + ": " + e.getMessage(), e);
         }
 
-        return false;
+        return executions;
     }
 
     // Сброс стриков для привычки
@@ -557,4 +841,79 @@ public class JdbcHabitRepository implements HabitRepository {
             statement.executeUpdate();
         }
     }
-}
\ No newline at end of file
+
+    // Инкрементальное обновление сводной статистики пользователя (app_schema.user_stats)
+    private void updateUserStats(Connection connection, long userId, int activeDelta, int finishedDelta,
+                                 long executionsDelta, int completionDelta, LocalDateTime activity) throws SQLException {
+        String query = "INSERT INTO app_schema.user_stats AS s (user_id, active_habits, finished_habits, total_executions, completion_sum, last_activity) " +
+                "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (user_id) DO UPDATE SET " +
+                "active_habits = s.active_habits + EXCLUDED.active_habits, " +
+                "finished_habits = s.finished_habits + EXCLUDED.finished_habits, " +
+                "total_executions = s.total_executions + EXCLUDED.total_executions, " +
+                "completion_sum = s.completion_sum + EXCLUDED.completion_sum, " +
+                "last_activity = GREATEST(s.last_activity, EXCLUDED.last_activity)";
+
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, userId);
+            statement.setInt(2, activeDelta);
+            statement.setInt(3, finishedDelta);
+            statement.setLong(4, executionsDelta);
+            statement.setInt(5, completionDelta);
+            statement.setTimestamp(6, activity != null ? Timestamp.valueOf(activity) : null);
+
+            statement.executeUpdate();
+        }
+    }
+
+    // Пересчет периодов выполнений после смены частоты привычки. При переходе на еженедельную частоту
+    // от каждой недели остается самое раннее выполнение, затем пересчитываются стрик и процент выполнения
+    private void recalculatePeriods(Connection connection, HabitDTO habit, long userId) throws SQLException {
+        boolean weekly = habit.getFrequency() == HabitFrequency.WEEKLY;
+        String deleteQuery = "DELETE FROM app_schema.habit_executions he USING app_schema.habit_executions first " +
+                "WHERE he.habit_id = ? AND first.habit_id = he.habit_id " +
+                "AND date_trunc('week', first.date) = date_trunc('week', he.date) AND (first.date, first.ctid) < (he.date, he.ctid)";
+        String periodQuery = "UPDATE app_schema.habit_executions " +
+                "SET period_start = CASE WHEN ? THEN date_trunc('week', date)::date ELSE date::date END WHERE habit_id = ?";
+        String updateQuery = "UPDATE app_schema.habits h SET streak = " + STREAK_QUERY + ", execution_percentage = " + PERCENTAGE_QUERY +
+                " FROM (SELECT execution_percentage FROM app_schema.habits WHERE id = ?) old WHERE h.id = ? " +
+                "RETURNING h.streak, h.execution_percentage, old.execution_percentage AS old_percentage";
+
+        try (PreparedStatement deleteStatement = connection.prepareStatement(deleteQuery);
+             PreparedStatement periodStatement = connection.prepareStatement(periodQuery);
+             PreparedStatement updateStatement = connection.prepareStatement(updateQuery)) {
+
+            int removed = 0;
+            if (weekly) {
+                deleteStatement.setLong(1, habit.getId());
+                removed = deleteStatement.executeUpdate();
+            }
+
+            periodStatement.setBoolean(1, weekly);
+            periodStatement.setLong(2, habit.getId());
+            periodStatement.executeUpdate();
+
+            updateStatement.setShort(1, HabitDTO.FREQUENCY_CODEC.encode(HabitFrequency.WEEKLY));
+            updateStatement.setShort(2, HabitDTO.FREQUENCY_CODEC.encode(HabitFrequency.WEEKLY));
+            updateStatement.setLong(3, habit.getId());
+            updateStatement.setLong(4, habit.getId());
+
+            try (ResultSet resultSet = updateStatement.executeQuery()) {
+                resultSet.next();
+                habit.setStreak(resultSet.getInt("streak"));
+                habit.setExecutionPercentage(resultSet.getInt("execution_percentage"));
+                updateUserStats(connection, userId, 0, 0, -removed,
+                        habit.getExecutionPercentage() - resultSet.getInt("old_percentage"), null);
+            }
+        }
+    }
+
+    // Начало периода выполнения привычки: день для ежедневных и понедельник недели для еженедельных
+    private static LocalDate periodStart(HabitFrequency frequency, LocalDate date) {
+        return frequency == HabitFrequency.WEEKLY ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : date;
+    }
+
+    // Вклад привычки с указанным статусом в счетчик привычек со статусом counted
+    private static int statusCount(HabitStatus status, HabitStatus counted) {
+        return status == counted ? 1 : 0;
+    }
+}
@@ -0,0 +1,93 @@
+package ru.kinzorc.habittracker.infrastructure.repository.jdbc;
+
+import ru.kinzorc.habittracker.application.dto.JobCheckpointDTO;
+import ru.kinzorc.habittracker.core.repository.JobCheckpointRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Реализация интерфейса {@link JobCheckpointRepository} с использованием JDBC.
+ * <p>
+ * Позиции хранятся в таблице {@code service_schema.job_checkpoints}, по одной строке на задачу.
+ * </p>
+ */
+public class JdbcJobCheckpointRepository implements JobCheckpointRepository {
+
+    private final JdbcConnector jdbcConnector;
+
+    /**
+     * Конструктор для создания экземпляра репозитория с JDBC.
+     *
+     * @param jdbcConnector экземпляр класса {@link JdbcConnector} для управления соединениями с базой данных
+     */
+    public JdbcJobCheckpointRepository(JdbcConnector jdbcConnector) {
+        this.jdbcConnector = jdbcConnector;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<JobCheckpointDTO> findCheckpoint(String jobName) throws SQLException {
+        String query = "SELECT job_name, position, processed_rows, updated_at FROM service_schema.job_checkpoints WHERE job_name = ?";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setString(1, jobName);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next())
+                    return Optional.empty();
+
+                return Optional.of(new JobCheckpointDTO(resultSet.getString(1), resultSet.getLong(2),
+                        resultSet.getLong(3), resultSet.getTimestamp(4).toLocalDateTime()));
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при чтении позиции задачи " + jobName + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveCheckpoint(String jobName, long position, long processedRows) throws SQLException {
+        String query = "INSERT INTO service_schema.job_checkpoints (job_name, position, processed_rows, updated_at) VALUES (?, ?, ?, ?) " +
+                "ON CONFLICT (job_name) DO UPDATE SET position = EXCLUDED.position, " +
+                "processed_rows = EXCLUDED.processed_rows, updated_at = EXCLUDED.updated_at";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setString(1, jobName);
+            statement.setLong(2, position);
+            statement.setLong(3, processedRows);
+            statement.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при сохранении позиции задачи " + jobName + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeCheckpoint(String jobName) throws SQLException {
+        String query = "DELETE FROM service_schema.job_checkpoints WHERE job_name = ?";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setString(1, jobName);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при удалении позиции задачи " + jobName + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package ru.kinzorc.habittracker.infrastructure.repository.jdbc;
+
+import ru.kinzorc.habittracker.application.dto.HabitDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitStatus;
+import ru.kinzorc.habittracker.core.repository.RetentionPurgeRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+
+/**
+ * Реализация интерфейса {@link RetentionPurgeRepository} с использованием JDBC.
+ * <p>
+ * У таблицы {@code habit_executions} нет первичного ключа, поэтому она обрабатывается диапазонами физических
+ * адресов строк ({@code ctid}): условие по диапазону {@code ctid} выполняется сканированием только нужных страниц
+ * (TID Range Scan, PostgreSQL 14+). Сессии обрабатываются диапазонами первичного ключа.
+ * </p>
+ */
+public class JdbcRetentionPurgeRepository implements RetentionPurgeRepository {
+
+    // Удаление выполнений и уменьшение счетчиков пользователей выполняются одним запросом. Удаляются только выполнения
+    // завершенных привычек: их стрик и процент выполнения зафиксированы при завершении, а у активных привычек
+    // они пересчитываются по оставшимся выполнениям при следующей отметке
+    private static final String PURGE_EXECUTIONS = "WITH deleted AS (DELETE FROM app_schema.habit_executions e " +
+            "USING app_schema.habits h WHERE e.ctid >= CAST(? AS tid) AND e.ctid < CAST(? AS tid) AND e.date < ? " +
+            "AND h.id = e.habit_id AND h.status = " + HabitDTO.STATUS_CODEC.encode(HabitStatus.FINISHED) + " RETURNING e.user_id), " +
+            "counts AS (SELECT user_id, COUNT(*) AS executions FROM deleted GROUP BY user_id), " +
+            "stats AS (UPDATE app_schema.user_stats s SET total_executions = s.total_executions - c.executions " +
+            "FROM counts c WHERE s.user_id = c.user_id) " +
+            "SELECT COALESCE(SUM(executions), 0) FROM counts";
+
+    private final JdbcConnector jdbcConnector;
+
+    /**
+     * Конструктор для создания экземпляра репозитория с JDBC.
+     *
+     * @param jdbcConnector экземпляр класса {@link JdbcConnector} для управления соединениями с базой данных
+     */
+    public JdbcRetentionPurgeRepository(JdbcConnector jdbcConnector) {
+        this.jdbcConnector = jdbcConnector;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getExecutionsPageCount() throws SQLException {
+        String query = "SELECT pg_relation_size('app_schema.habit_executions') / current_setting('block_size')::int";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при определении размера таблицы выполнений: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int purgeExecutions(long fromPage, long toPage, LocalDateTime executedBefore) throws SQLException {
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(PURGE_EXECUTIONS)) {
+
+            statement.setString(1, "(" + fromPage + ",0)");
+            statement.setString(2, "(" + toPage + ",0)");
+            statement.setTimestamp(3, Timestamp.valueOf(executedBefore));
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при удалении устаревших выполнений: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMaxSessionId() throws SQLException {
+        String query = "SELECT COALESCE(MAX(id), 0) FROM service_schema.users_sessions";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при получении идентификатора сессии: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int purgeSessions(long fromId, long toId, LocalDateTime activeBefore) throws SQLException {
+        String query = "DELETE FROM service_schema.users_sessions WHERE id >= ? AND id < ? AND last_activity < ?";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setLong(1, fromId);
+            statement.setLong(2, toId);
+            statement.setTimestamp(3, Timestamp.valueOf(activeBefore));
+
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при удалении устаревших сессий: " + e.getMessage(), e);
+        }
+    }
+}
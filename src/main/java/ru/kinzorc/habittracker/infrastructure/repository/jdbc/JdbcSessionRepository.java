@@ -0,0 +1,147 @@
+package ru.kinzorc.habittracker.infrastructure.repository.jdbc;
+
+import ru.kinzorc.habittracker.application.dto.SessionDTO;
+import ru.kinzorc.habittracker.core.repository.SessionRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Реализация интерфейса {@link SessionRepository} с использованием JDBC.
+ * <p>
+ * Сессии хранятся в таблице {@code service_schema.users_sessions}. Истекшие сессии выбираются по индексу
+ * {@code expires_at} порциями с блокировкой {@code FOR UPDATE SKIP LOCKED}, поэтому несколько узлов могут
+ * удалять их одновременно, не ожидая друг друга.
+ * </p>
+ */
+public class JdbcSessionRepository implements SessionRepository {
+
+    private final JdbcConnector jdbcConnector;
+
+    /**
+     * Конструктор для создания экземпляра репозитория с JDBC.
+     *
+     * @param jdbcConnector экземпляр класса {@link JdbcConnector} для управления соединениями с базой данных
+     */
+    public JdbcSessionRepository(JdbcConnector jdbcConnector) {
+        this.jdbcConnector = jdbcConnector;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long createSession(long userId, String nodeId, LocalDateTime loginTime, LocalDateTime expiresAt) throws SQLException {
+        String query = "INSERT INTO service_schema.users_sessions (user_id, node_id, login_time, last_activity, expires_at) " +
+                "VALUES (?, ?, ?, ?, ?) RETURNING id";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setLong(1, userId);
+            statement.setString(2, nodeId);
+            statement.setTimestamp(3, Timestamp.valueOf(loginTime));
+            statement.setTimestamp(4, Timestamp.valueOf(loginTime));
+            statement.setTimestamp(5, Timestamp.valueOf(expiresAt));
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при создании сессии: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> updateActivity(Collection<SessionDTO> sessions) throws SQLException {
+        String query = "UPDATE service_schema.users_sessions SET last_activity = ?, expires_at = ? WHERE id = ?";
+        List<Long> missing = new ArrayList<>();
+
+        if (sessions.isEmpty())
+            return missing;
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            List<SessionDTO> batch = new ArrayList<>(sessions);
+            for (SessionDTO session : batch) {
+                statement.setTimestamp(1, Timestamp.valueOf(session.getLastActivity()));
+                statement.setTimestamp(2, Timestamp.valueOf(session.getExpiresAt()));
+                statement.setLong(3, session.getId());
+                statement.addBatch();
+            }
+
+            int[] updated = statement.executeBatch();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0)
+                    missing.add(batch.get(i).getId());
+            }
+
+            return missing;
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при обновлении активности сессий: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeSession(long sessionId) throws SQLException {
+        String query = "DELETE FROM service_schema.users_sessions WHERE id = ?";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setLong(1, sessionId);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при удалении сессии: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int removeExpiredSessions(LocalDateTime now, int batchSize) throws SQLException {
+        String query = "DELETE FROM service_schema.users_sessions WHERE id IN (" +
+                "SELECT id FROM service_schema.users_sessions WHERE expires_at <= ? LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setTimestamp(1, Timestamp.valueOf(now));
+            statement.setInt(2, batchSize);
+
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при удалении истекших сессий: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int removeNodeSessions(String nodeId) throws SQLException {
+        String query = "DELETE FROM service_schema.users_sessions WHERE node_id = ?";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setString(1, nodeId);
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при удалении сессий узла " + nodeId + ": " + e.getMessage(), e);
+        }
+    }
+}
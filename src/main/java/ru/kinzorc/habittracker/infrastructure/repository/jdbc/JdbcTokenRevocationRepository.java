@@ -0,0 +1,99 @@
+package ru.kinzorc.habittracker.infrastructure.repository.jdbc;
+
+import ru.kinzorc.habittracker.application.dto.TokenRevocationDTO;
+import ru.kinzorc.habittracker.core.repository.TokenRevocationRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реализация интерфейса {@link TokenRevocationRepository} с использованием JDBC.
+ * <p>
+ * Записи хранятся в таблице {@code service_schema.token_revocations}; действующие записи выбираются
+ * по индексу {@code expires_at}.
+ * </p>
+ */
+public class JdbcTokenRevocationRepository implements TokenRevocationRepository {
+
+    private final JdbcConnector jdbcConnector;
+
+    /**
+     * Конструктор для создания экземпляра репозитория с JDBC.
+     *
+     * @param jdbcConnector экземпляр класса {@link JdbcConnector} для управления соединениями с базой данных
+     */
+    public JdbcTokenRevocationRepository(JdbcConnector jdbcConnector) {
+        this.jdbcConnector = jdbcConnector;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addRevocation(TokenRevocationDTO revocation) throws SQLException {
+        String query = "INSERT INTO service_schema.token_revocations (token_id, user_id, revoked_at, expires_at) VALUES (?, ?, ?, ?)";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            if (revocation.getTokenId() != null)
+                statement.setLong(1, revocation.getTokenId());
+            else
+                statement.setNull(1, Types.BIGINT);
+            statement.setLong(2, revocation.getUserId());
+            statement.setTimestamp(3, Timestamp.valueOf(revocation.getRevokedAt()));
+            statement.setTimestamp(4, Timestamp.valueOf(revocation.getExpiresAt()));
+
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при отзыве токена: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<TokenRevocationDTO> findActiveRevocations(LocalDateTime now) throws SQLException {
+        String query = "SELECT token_id, user_id, revoked_at, expires_at FROM service_schema.token_revocations WHERE expires_at > ?";
+        List<TokenRevocationDTO> revocations = new ArrayList<>();
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setTimestamp(1, Timestamp.valueOf(now));
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    long tokenId = resultSet.getLong(1);
+                    revocations.add(new TokenRevocationDTO(resultSet.wasNull() ? null : tokenId, resultSet.getLong(2),
+                            resultSet.getTimestamp(3).toLocalDateTime(), resultSet.getTimestamp(4).toLocalDateTime()));
+                }
+            }
+
+            return revocations;
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при получении отозванных токенов: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int removeExpiredRevocations(LocalDateTime now) throws SQLException {
+        String query = "DELETE FROM service_schema.token_revocations WHERE expires_at <= ?";
+
+        try (Connection connection = jdbcConnector.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setTimestamp(1, Timestamp.valueOf(now));
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при удалении истекших отзывов токенов: " + e.getMessage(), e);
+        }
+    }
+}
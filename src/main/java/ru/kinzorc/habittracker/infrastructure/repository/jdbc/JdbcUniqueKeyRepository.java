@@ -0,0 +1,121 @@
+package ru.kinzorc.habittracker.infrastructure.repository.jdbc;
+
+import ru.kinzorc.habittracker.core.repository.UniqueKeyRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Реализация интерфейса {@link UniqueKeyRepository} с использованием JDBC.
+ * <p>
+ * Полный просмотр читается курсором порциями по {@code fetchSize} строк (курсор PostgreSQL работает только при
+ * отключенном автокоммите). Проверки занятости используют уникальные индексы по {@code lower(email)}
+ * и {@code (user_id, lower(habit_name))}.
+ * </p>
+ */
+public class JdbcUniqueKeyRepository implements UniqueKeyRepository {
+
+    private final JdbcConnector jdbcConnector;
+    private final int fetchSize;
+
+    /**
+     * Конструктор для создания экземпляра репозитория с JDBC.
+     *
+     * @param jdbcConnector экземпляр класса {@link JdbcConnector} для управления соединениями с базой данных
+     * @param fetchSize     количество строк, получаемых из базы данных за одно обращение при полном просмотре
+     */
+    public JdbcUniqueKeyRepository(JdbcConnector jdbcConnector, int fetchSize) {
+        this.jdbcConnector = jdbcConnector;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void scanUserEmails(Consumer<String> consumer) throws SQLException {
+        scan("SELECT email FROM app_schema.users", resultSet -> consumer.accept(resultSet.getString(1)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void scanHabitNames(HabitNameConsumer consumer) throws SQLException {
+        scan("SELECT user_id, habit_name FROM app_schema.habits",
+                resultSet -> consumer.accept(resultSet.getLong(1), resultSet.getString(2)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean existsUserEmail(String email) throws SQLException {
+        String query = "SELECT EXISTS (SELECT 1 FROM app_schema.users WHERE lower(email) = lower(?))";
+
+        try (Connection connection = jdbcConnector.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setString(1, email);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при проверке email: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean existsHabitName(long userId, String habitName) throws SQLException {
+        String query = "SELECT EXISTS (SELECT 1 FROM app_schema.habits WHERE user_id = ? AND lower(habit_name) = lower(?))";
+
+        try (Connection connection = jdbcConnector.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setLong(1, userId);
+            statement.setString(2, habitName);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при проверке имени привычки: " + e.getMessage(), e);
+        }
+    }
+
+    private void scan(String query, RowConsumer consumer) throws SQLException {
+        try (Connection connection = jdbcConnector.getReadConnection()) {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+
+            try (PreparedStatement statement = connection.prepareStatement(query,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                statement.setFetchSize(fetchSize);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        consumer.accept(resultSet);
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при чтении уникальных значений: " + e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(ResultSet resultSet) throws SQLException;
+    }
+}
@@ -1,6 +1,7 @@
 package ru.kinzorc.habittracker.infrastructure.repository.jdbc;
 
 import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.application.dto.UserStatsDTO;
 import ru.kinzorc.habittracker.core.exceptions.UserAlreadyExistsException;
 import ru.kinzorc.habittracker.core.exceptions.UserNotFoundException;
 import ru.kinzorc.habittracker.core.repository.UserRepository;
@@ -21,6 +22,11 @@ import java.util.Optional;
  */
 public class JdbcUserRepository implements UserRepository {
 
+    private static final String USER_STATS_QUERY = "SELECT u.id AS user_id, u.username, u.email, " +
+            "COALESCE(s.active_habits, 0) AS active_habits, COALESCE(s.finished_habits, 0) AS finished_habits, " +
+            "COALESCE(s.total_executions, 0) AS total_executions, COALESCE(s.completion_sum, 0) AS completion_sum, " +
+            "s.last_activity FROM app_schema.users u LEFT JOIN app_schema.user_stats s ON s.user_id = u.id";
+
     private final JdbcConnector jdbcConnector;
 
     /**
@@ -38,28 +44,25 @@ public class JdbcUserRepository implements UserRepository {
     @Override
     public void createUser(UserDTO user) throws UserAlreadyExistsException, SQLException {
 
-        String query = "INSERT INTO app_schema.users (username, password, email, role, status) VALUES (?, ?, ?, ?, ?)";
+        // Пользователь с тем же email (без учета регистра) не вставляется уникальным индексом
+        String query = "INSERT INTO app_schema.users (username, password, email, role, status) VALUES (?, ?, ?, ?, ?) " +
+                "ON CONFLICT (lower(email)) DO NOTHING RETURNING id";
 
         try (Connection connection = jdbcConnector.getConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
 
-            try {
-                Optional<UserDTO> userDTO = findUserByEmail(user.getEmail());
-                if (userDTO.isPresent())
-                    throw new UserAlreadyExistsException("Пользователь существует!");
-            } catch (UserAlreadyExistsException e) {
-                throw new UserAlreadyExistsException(e.getMessage());
-            } catch (UserNotFoundException e) {
-                String exception = e.getMessage();
-            }
-
             statement.setString(1, user.getUserName());
             statement.setString(2, user.getPassword());
             statement.setString(3, user.getEmail());
-            statement.setString(4, user.getUserRole().toString().toLowerCase());
-            statement.setString(5, user.getUserStatusAccount().toString().toLowerCase());
+            statement.setShort(4, UserDTO.ROLE_CODEC.encode(user.getUserRole()));
+            statement.setShort(5, UserDTO.STATUS_CODEC.encode(user.getUserStatusAccount()));
 
-            statement.executeUpdate();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next())
+                    throw new UserAlreadyExistsException("Пользователь существует!");
+
+                user.setId(resultSet.getLong("id"));
+            }
             System.out.println("Пользователь успешно создан.");
         } catch (SQLException e) {
             throw new SQLException("Ошибка при создании пользователя: " + e.getMessage(), e);
@@ -84,8 +87,8 @@ public class JdbcUserRepository implements UserRepository {
             statement.setString(1, user.getUserName());
             statement.setString(2, user.getPassword());
             statement.setString(3, user.getEmail());
-            statement.setString(4, user.getUserRole().toString().toLowerCase());
-            statement.setString(5, user.getUserStatusAccount().toString().toLowerCase());
+            statement.setShort(4, UserDTO.ROLE_CODEC.encode(user.getUserRole()));
+            statement.setShort(5, UserDTO.STATUS_CODEC.encode(user.getUserStatusAccount()));
 
             statement.setLong(6, userDTO.get().getId());
 
@@ -133,10 +136,10 @@ public class JdbcUserRepository implements UserRepository {
      */
     @Override
     public List<UserDTO> findAllUsers() throws SQLException {
-        String query = "SELECT * FROM app_schema.users";
+        String query = "SELECT " + UserDTO.COLUMNS + " FROM app_schema.users";
         List<UserDTO> users = new ArrayList<>();
 
-        try (Connection connection = jdbcConnector.getConnection();
+        try (Connection connection = jdbcConnector.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(query);
              ResultSet resultSet = statement.executeQuery()) {
 
@@ -157,10 +160,10 @@ public class JdbcUserRepository implements UserRepository {
      */
     @Override
     public Optional<UserDTO> findUserById(long userId) throws UserNotFoundException, SQLException {
-        String query = "SELECT * FROM app_schema.users WHERE id = ?";
+        String query = "SELECT " + UserDTO.COLUMNS + " FROM app_schema.users WHERE id = ?";
         UserDTO userDTO;
 
-        try (Connection connection = jdbcConnector.getConnection();
+        try (Connection connection = jdbcConnector.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setObject(1, userId);
 
@@ -182,10 +185,10 @@ public class JdbcUserRepository implements UserRepository {
      */
     @Override
     public Optional<UserDTO> findUserByUserName(String userName) throws UserNotFoundException, SQLException {
-        String query = "SELECT * FROM app_schema.users WHERE username = ?";
+        String query = "SELECT " + UserDTO.COLUMNS + " FROM app_schema.users WHERE username = ?";
         UserDTO userDTO;
 
-        try (Connection connection = jdbcConnector.getConnection();
+        try (Connection connection = jdbcConnector.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setObject(1, userName);
 
@@ -207,10 +210,10 @@ public class JdbcUserRepository implements UserRepository {
      */
     @Override
     public Optional<UserDTO> findUserByEmail(String userEmail) throws UserNotFoundException, SQLException {
-        String query = "SELECT * FROM app_schema.users WHERE email = ?";
+        String query = "SELECT " + UserDTO.COLUMNS + " FROM app_schema.users WHERE lower(email) = lower(?)";
         UserDTO userDTO;
 
-        try (Connection connection = jdbcConnector.getConnection();
+        try (Connection connection = jdbcConnector.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setObject(1, userEmail);
 
@@ -279,4 +282,49 @@ public class JdbcUserRepository implements UserRepository {
             throw new SQLException("Ошибка при удалении всех сессий пользователей: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<UserStatsDTO> findAllUserStats() throws SQLException {
+        String query = USER_STATS_QUERY + " ORDER BY u.id";
+        List<UserStatsDTO> stats = new ArrayList<>();
+
+        try (Connection connection = jdbcConnector.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                stats.add(new UserStatsDTO(resultSet));
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при получении статистики пользователей: " + e.getMessage());
+        }
+
+        return stats;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<UserStatsDTO> findUserStats(long userId) throws SQLException {
+        String query = USER_STATS_QUERY + " WHERE u.id = ?";
+        UserStatsDTO stats = null;
+
+        try (Connection connection = jdbcConnector.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, userId);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next())
+                    stats = new UserStatsDTO(resultSet);
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при получении статистики пользователя: " + e.getMessage());
+        }
+
+        return Optional.ofNullable(stats);
+    }
+}
@@ -0,0 +1,127 @@
+package ru.kinzorc.habittracker.infrastructure.repository.jdbc;
+
+import ru.kinzorc.habittracker.application.dto.HabitDTO;
+import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.application.dto.WeeklyDigestDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitStatus;
+import ru.kinzorc.habittracker.core.enums.User.UserStatusAccount;
+import ru.kinzorc.habittracker.core.repository.WeeklyDigestRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Реализация интерфейса {@link WeeklyDigestRepository} с использованием JDBC.
+ * <p>
+ * Выполнения за неделю агрегируются одним проходом по диапазону дат, затем соединяются с привычками и пользователями.
+ * Пользователи, получающие сводку, отмечаются неделей сводки ({@code last_digest_week}) в том же запросе, поэтому
+ * при запуске задачи на нескольких узлах каждый пользователь получает сводку один раз.
+ * Результат упорядочен по пользователю и читается порциями по {@code fetchSize} строк (курсор PostgreSQL работает
+ * только при отключенном автокоммите), поэтому объем памяти не зависит от количества пользователей.
+ * </p>
+ */
+public class JdbcWeeklyDigestRepository implements WeeklyDigestRepository {
+
+    // Пользователи отмечаются неделей сводки в том же запросе, который читает их сводки: параллельный запуск на другом
+    // узле ждет снятия блокировок строк и после фиксации транзакции пропускает уже отмеченных пользователей
+    private static final String WEEKLY_DIGEST_QUERY = "WITH claimed AS (" +
+            "UPDATE app_schema.users u SET last_digest_week = ? " +
+            "WHERE u.status = " + UserDTO.STATUS_CODEC.encode(UserStatusAccount.ACTIVE) +
+            " AND (u.last_digest_week IS NULL OR u.last_digest_week < ?) " +
+            "AND EXISTS (SELECT 1 FROM app_schema.habits h WHERE h.user_id = u.id AND h.start_date < ? AND h.end_date >= ?) " +
+            "RETURNING u.id, u.username, u.email), " +
+            "week_executions AS (" +
+            "SELECT habit_id, COUNT(DISTINCT date::date) AS executed_days FROM app_schema.habit_executions " +
+            "WHERE date >= ? AND date < ? GROUP BY habit_id) " +
+            "SELECT u.id AS user_id, u.username, u.email, h.habit_name, h.frequency, h.streak, h.execution_percentage, " +
+            "COALESCE(e.executed_days, 0) AS executed_days, " +
+            "GREATEST(LEAST(h.end_date::date, ?::date) - GREATEST(h.start_date::date, ?::date) + 1, 0) AS period_days " +
+            "FROM claimed u " +
+            "JOIN app_schema.habits h ON h.user_id = u.id " +
+            "LEFT JOIN week_executions e ON e.habit_id = h.id " +
+            // Привычки любого статуса, период которых пересекается с неделей, в том числе завершенные в течение недели
+            "WHERE h.start_date < ? AND h.end_date >= ? " +
+            "ORDER BY u.id, h.id";
+
+    private final JdbcConnector jdbcConnector;
+    private final int fetchSize;
+
+    /**
+     * Конструктор для создания экземпляра репозитория с JDBC.
+     *
+     * @param jdbcConnector экземпляр класса {@link JdbcConnector} для управления соединениями с базой данных
+     * @param fetchSize     количество строк, получаемых из базы данных за одно обращение
+     */
+    public JdbcWeeklyDigestRepository(JdbcConnector jdbcConnector, int fetchSize) {
+        this.jdbcConnector = jdbcConnector;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void streamWeeklyDigests(LocalDate weekStart, Consumer<WeeklyDigestDTO> consumer) throws SQLException {
+        LocalDate weekEnd = weekStart.plusDays(6);
+        Timestamp from = Timestamp.valueOf(weekStart.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(weekStart.plusDays(7).atStartOfDay());
+
+        try (Connection connection = jdbcConnector.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(WEEKLY_DIGEST_QUERY,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                statement.setFetchSize(fetchSize);
+                statement.setDate(1, Date.valueOf(weekStart));
+                statement.setDate(2, Date.valueOf(weekStart));
+                statement.setTimestamp(3, to);
+                statement.setTimestamp(4, from);
+                statement.setTimestamp(5, from);
+                statement.setTimestamp(6, to);
+                statement.setDate(7, Date.valueOf(weekEnd));
+                statement.setDate(8, Date.valueOf(weekStart));
+                statement.setTimestamp(9, to);
+                statement.setTimestamp(10, from);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    WeeklyDigestDTO digest = null;
+
+                    while (resultSet.next()) {
+                        long userId = resultSet.getLong("user_id");
+
+                        if (digest == null || digest.getUserId() != userId) {
+                            if (digest != null)
+                                consumer.accept(digest);
+
+                            digest = new WeeklyDigestDTO(userId, resultSet.getString("username"),
+                                    resultSet.getString("email"), weekStart);
+                        }
+
+                        digest.getHabits().add(new WeeklyDigestDTO.HabitSummary(
+                                resultSet.getString("habit_name"),
+                                HabitDTO.FREQUENCY_CODEC.decode(resultSet.getShort("frequency")),
+                                resultSet.getInt("streak"),
+                                resultSet.getInt("execution_percentage"),
+                                resultSet.getInt("executed_days"),
+                                resultSet.getInt("period_days")));
+                    }
+
+                    if (digest != null)
+                        consumer.accept(digest);
+                }
+
+                // Отметки фиксируются после передачи всех сводок; при ошибке они откатываются,
+                // и пользователи получат сводку при следующем запуске
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при формировании еженедельных сводок: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.kinzorc.habittracker.infrastructure.repository.scheduler;
+
+import java.time.*;
+import java.time.temporal.TemporalAdjusters;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Планировщик фоновых задач приложения.
+ * <p>
+ * Задачи выполняются в пуле потоков-демонов. Ошибка в задаче выводится в консоль и не отменяет её следующие запуски.
+ * </p>
+ */
+public class JobScheduler {
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Конструктор для создания планировщика.
+     *
+     * @param poolSize количество потоков для выполнения задач
+     */
+    public JobScheduler(int poolSize) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        this.executor = Executors.newScheduledThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "job-scheduler-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Запускает задачу с фиксированной паузой между окончанием одного запуска и началом следующего.
+     *
+     * @param name         название задачи для сообщений об ошибках
+     * @param initialDelay задержка перед первым запуском
+     * @param delay        пауза между запусками
+     * @param job          задача
+     */
+    public void scheduleWithFixedDelay(String name, Duration initialDelay, Duration delay, Runnable job) {
+        executor.scheduleWithFixedDelay(guarded(name, job), initialDelay.toMillis(), delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Запускает задачу раз в неделю в заданный день и время (по часовому поясу системы).
+     * <p>
+     * Время следующего запуска вычисляется после каждого запуска, поэтому переход на летнее время и обратно
+     * не смещает время запуска.
+     * </p>
+     *
+     * @param name      название задачи для сообщений об ошибках
+     * @param dayOfWeek день недели
+     * @param time      время запуска
+     * @param job       задача
+     */
+    public void scheduleWeekly(String name, DayOfWeek dayOfWeek, LocalTime time, Runnable job) {
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime next = now.with(TemporalAdjusters.nextOrSame(dayOfWeek)).with(time);
+        if (!next.isAfter(now))
+            next = next.plusWeeks(1);
+
+        executor.schedule(() -> {
+            guarded(name, job).run();
+            if (!executor.isShutdown())
+                scheduleWeekly(name, dayOfWeek, time, job);
+        }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Останавливает планировщик, прерывая выполняющиеся задачи.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static Runnable guarded(String name, Runnable job) {
+        return () -> {
+            try {
+                job.run();
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка выполнения задачи \"" + name + "\": " + e.getMessage());
+            }
+        };
+    }
+}
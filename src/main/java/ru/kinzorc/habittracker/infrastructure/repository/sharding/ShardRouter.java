@@ -0,0 +1,221 @@
+package ru.kinzorc.habittracker.infrastructure.repository.sharding;
+
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Маршрутизатор запросов по шардам — отдельным базам данных PostgreSQL с одинаковой схемой.
+ * <p>
+ * Данные пользователя размещаются на шарде, выбранном согласованным хешированием идентификатора пользователя:
+ * каждый шард представлен на кольце {@code virtualNodes} точками, пользователь относится к первой точке
+ * по часовой стрелке от хеша своего идентификатора. При добавлении шарда в конец списка на него переходит
+ * примерно {@code 1/N} пользователей, остальные остаются на своих шардах. Поэтому порядок шардов
+ * в конфигурации менять нельзя, новые шарды добавляются в конец.
+ * </p>
+ * <p>
+ * Каждый шард использует собственный {@link JdbcConnector}. Шард с номером {@code 0} — основная база данных:
+ * на ней хранится справочник пользователей и выделяются идентификаторы, уникальные для всех шардов.
+ * Операции по всем шардам ({@link #fanOut(ShardCall)}) выполняются параллельно в пуле потоков-демонов.
+ * </p>
+ */
+public class ShardRouter {
+
+    private final List<JdbcConnector> shards;
+    private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+    private final ExecutorService executor;
+
+    /**
+     * Конструктор для создания маршрутизатора.
+     *
+     * @param shards       подключения к шардам; шард {@code 0} — основная база данных
+     * @param virtualNodes количество точек каждого шарда на кольце хеширования
+     */
+    public ShardRouter(List<JdbcConnector> shards, int virtualNodes) {
+        if (shards.isEmpty() || virtualNodes <= 0) {
+            throw new IllegalArgumentException("Должен быть указан хотя бы один шард и хотя бы одна точка на кольце.");
+        }
+
+        this.shards = List.copyOf(shards);
+
+        for (int shard = 0; shard < shards.size(); shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                // Старшие 32 бита — номер шарда + 1, поэтому точки кольца не совпадают с хешами небольших идентификаторов
+                ring.putIfAbsent(hash(((long) (shard + 1) << 32) | node), shard);
+            }
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        this.executor = Executors.newFixedThreadPool(shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-router-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Создает маршрутизатор по настройкам приложения: шард {@code 0} — {@code primary},
+     * следующие — базы данных из {@code shards.urls} (через запятую) с учетными данными основной базы данных.
+     *
+     * @param primary    подключение к основной базе данных
+     * @param properties настройки приложения
+     * @return маршрутизатор
+     */
+    public static ShardRouter fromProperties(JdbcConnector primary, Properties properties) {
+        List<JdbcConnector> shards = new ArrayList<>();
+        shards.add(primary);
+
+        for (String url : properties.getProperty("shards.urls", "").split(",")) {
+            if (url.isBlank())
+                continue;
+
+            Properties shardProperties = new Properties();
+            shardProperties.putAll(properties);
+            shardProperties.setProperty("postgres_db.url", url.trim());
+            shardProperties.remove("postgres_db.replica-urls");
+            shards.add(new JdbcConnector(shardProperties));
+        }
+
+        return new ShardRouter(shards, Integer.parseInt(properties.getProperty("shards.virtual-nodes", "128")));
+    }
+
+    /**
+     * Возвращает количество шардов.
+     *
+     * @return количество шардов
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Возвращает подключение к шарду.
+     *
+     * @param shard номер шарда
+     * @return подключение к шарду
+     */
+    public JdbcConnector getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    /**
+     * Возвращает номер шарда, на котором хранятся данные пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return номер шарда
+     */
+    public int shardForUser(long userId) {
+        Map.Entry<Long, Integer> entry = ring.ceilingEntry(hash(userId));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * Выполняет операцию на всех шардах параллельно.
+     *
+     * @param call операция над шардом
+     * @param <T>  тип результата
+     * @return результаты в порядке номеров шардов
+     * @throws SQLException в случае ошибки на любом из шардов; невыполненные операции отменяются
+     */
+    public <T> List<T> fanOut(ShardCall<T> call) throws SQLException {
+        List<Future<T>> futures = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int index = shard;
+            futures.add(executor.submit(() -> call.call(index)));
+        }
+
+        List<T> results = new ArrayList<>(shards.size());
+        try {
+            for (int shard = 0; shard < futures.size(); shard++) {
+                try {
+                    results.add(futures.get(shard).get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException runtimeException)
+                        throw runtimeException;
+                    throw new SQLException("Ошибка на шарде " + shard + ": " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Запрос к шардам прерван.", e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        return results;
+    }
+
+    /**
+     * Выделяет следующее значение последовательности идентификаторов таблицы на основной базе данных.
+     * Записи, созданные с таким идентификатором на любом шарде, не пересекаются между шардами.
+     *
+     * @param table таблица со столбцом идентификатора {@code id}, например {@code app_schema.habits}
+     * @return новый идентификатор
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    public long nextId(String table) throws SQLException {
+        String query = "SELECT nextval(pg_get_serial_sequence(?, 'id'))";
+
+        try (Connection connection = shards.get(0).getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setString(1, table);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при выделении идентификатора для " + table + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Останавливает пул потоков для операций по всем шардам.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Перемешивание битов (финализатор MurmurHash3): близкие идентификаторы равномерно распределяются по кольцу
+    private static long hash(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * Операция над одним шардом.
+     *
+     * @param <T> тип результата
+     */
+    @FunctionalInterface
+    public interface ShardCall<T> {
+
+        /**
+         * Выполняет операцию на шарде.
+         *
+         * @param shard номер шарда
+         * @return результат операции
+         * @throws SQLException в случае возникновения ошибок при работе с базой данных
+         */
+        T call(int shard) throws SQLException;
+    }
+}
@@ -0,0 +1,74 @@
+package ru.kinzorc.habittracker.infrastructure.repository.sharding;
+
+import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Копии строк пользователей на шардах с привычками.
+ * <p>
+ * Копия нужна для внешних ключей и для задач, которые выполняются на шарде и читают имя, email и статус
+ * пользователя (напоминания, еженедельные сводки). Пароль в копию не записывается: вход в систему выполняется
+ * только по основной базе данных. При каждой записи копия полностью перезаписывается.
+ * </p>
+ */
+final class ShardUserCopies {
+
+    private static final String UPSERT = "INSERT INTO app_schema.users (id, username, password, email, role, status) " +
+            "VALUES (?, ?, '', ?, ?, ?) ON CONFLICT (id) DO UPDATE SET username = EXCLUDED.username, password = '', " +
+            "email = EXCLUDED.email, role = EXCLUDED.role, status = EXCLUDED.status";
+    private static final String UPDATE = "UPDATE app_schema.users SET username = ?, password = '', email = ?, role = ?, status = ? " +
+            "WHERE id = ?";
+
+    private ShardUserCopies() {
+    }
+
+    /**
+     * Создает или перезаписывает копию пользователя на шарде.
+     *
+     * @param shard соединения шарда
+     * @param user  пользователь из основной базы данных
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    static void save(JdbcConnector shard, UserDTO user) throws SQLException {
+        try (Connection connection = shard.getConnection();
+             PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+
+            statement.setLong(1, user.getId());
+            statement.setString(2, user.getUserName());
+            statement.setString(3, user.getEmail());
+            statement.setShort(4, UserDTO.ROLE_CODEC.encode(user.getUserRole()));
+            statement.setShort(5, UserDTO.STATUS_CODEC.encode(user.getUserStatusAccount()));
+
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при копировании пользователя с ID " + user.getId() + " на шард: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Перезаписывает копию пользователя, если она есть на шарде.
+     *
+     * @param shard соединения шарда
+     * @param user  измененный пользователь
+     * @throws SQLException в случае возникновения ошибок при работе с базой данных
+     */
+    static void update(JdbcConnector shard, UserDTO user) throws SQLException {
+        try (Connection connection = shard.getConnection();
+             PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+
+            statement.setString(1, user.getUserName());
+            statement.setString(2, user.getEmail());
+            statement.setShort(3, UserDTO.ROLE_CODEC.encode(user.getUserRole()));
+            statement.setShort(4, UserDTO.STATUS_CODEC.encode(user.getUserStatusAccount()));
+            statement.setLong(5, user.getId());
+
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new SQLException("Ошибка при обновлении копии пользователя с ID " + user.getId() + ": " + e.getMessage(), e);
+        }
+    }
+}
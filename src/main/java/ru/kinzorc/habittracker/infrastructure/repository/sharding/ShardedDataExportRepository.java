@@ -0,0 +1,58 @@
+package ru.kinzorc.habittracker.infrastructure.repository.sharding;
+
+import ru.kinzorc.habittracker.core.repository.DataExportRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcDataExportRepository;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реализация интерфейса {@link DataExportRepository} для хранения данных по шардам.
+ * <p>
+ * Пользователи выгружаются из основной базы данных (шард {@code 0}), копии пользователей на остальных шардах
+ * не выгружаются. Привычки, выполнения и архив одного пользователя выгружаются с его шарда, а при полной выгрузке
+ * строки всех шардов по очереди дописываются под одним заголовком. Шарды читаются в текущем потоке, поэтому внутри
+ * {@link ShardedUnitOfWork#executeReadOnly} каждый шард выгружается из своего снимка данных.
+ * </p>
+ */
+public class ShardedDataExportRepository implements DataExportRepository {
+
+    private final ShardRouter router;
+    private final List<JdbcDataExportRepository> shards = new ArrayList<>();
+
+    /**
+     * Конструктор для создания репозитория выгрузки по шардам.
+     *
+     * @param router    маршрутизатор шардов
+     * @param fetchSize количество строк, получаемых из базы данных за одно обращение
+     */
+    public ShardedDataExportRepository(ShardRouter router, int fetchSize) {
+        this.router = router;
+
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            shards.add(new JdbcDataExportRepository(router.getShard(shard), fetchSize));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long exportTable(Table table, Long userId, Writer out) throws SQLException, IOException {
+        if (table == Table.USERS)
+            return shards.get(0).exportTable(table, userId, out);
+
+        if (userId != null)
+            return shards.get(router.shardForUser(userId)).exportTable(table, userId, out);
+
+        long rows = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            rows += shards.get(shard).exportTable(table, null, out, shard == 0);
+        }
+
+        return rows;
+    }
+}
@@ -0,0 +1,122 @@
+package ru.kinzorc.habittracker.infrastructure.repository.sharding;
+
+import ru.kinzorc.habittracker.application.dto.ReminderDTO;
+import ru.kinzorc.habittracker.core.exceptions.HabitNotFoundException;
+import ru.kinzorc.habittracker.core.repository.HabitReminderRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcHabitReminderRepository;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Реализация интерфейса {@link HabitReminderRepository} для хранения данных по шардам.
+ * <p>
+ * Напоминание хранится на шарде своей привычки. Выборки выполняются на всех шардах параллельно, а результаты
+ * объединяются. Изменения выполняются на шардах по очереди в текущем потоке, чтобы войти в единицу работы
+ * {@link ShardedUnitOfWork}: идентификатор привычки есть только на одном шарде, на остальных запрос ничего не меняет.
+ * </p>
+ */
+public class ShardedHabitReminderRepository implements HabitReminderRepository {
+
+    private final ShardRouter router;
+    private final List<HabitReminderRepository> shards = new ArrayList<>();
+
+    /**
+     * Конструктор для создания репозитория напоминаний по шардам.
+     *
+     * @param router маршрутизатор шардов
+     */
+    public ShardedHabitReminderRepository(ShardRouter router) {
+        this.router = router;
+
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            shards.add(new JdbcHabitReminderRepository(router.getShard(shard)));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setReminder(long habitId, LocalTime remindTime) throws HabitNotFoundException, SQLException {
+        for (HabitReminderRepository shard : shards) {
+            try {
+                shard.setReminder(habitId, remindTime);
+                return;
+            } catch (HabitNotFoundException ignored) {
+                // Привычка хранится на другом шарде
+            }
+        }
+
+        throw new HabitNotFoundException("Привычка с ID " + habitId + " не найдена.");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeReminder(long habitId) throws SQLException {
+        for (HabitReminderRepository shard : shards) {
+            shard.removeReminder(habitId);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<ReminderDTO> findReminder(long habitId) throws SQLException {
+        for (Optional<ReminderDTO> reminder : router.fanOut(shard -> shards.get(shard).findReminder(habitId))) {
+            if (reminder.isPresent())
+                return reminder;
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ReminderDTO> findRemindersBetween(LocalDate date, LocalTime from, LocalTime to) throws SQLException {
+        List<ReminderDTO> reminders = new ArrayList<>();
+        router.fanOut(shard -> shards.get(shard).findRemindersBetween(date, from, to)).forEach(reminders::addAll);
+
+        return reminders;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> findExecutedHabits(List<Long> habitIds, LocalDateTime from, LocalDateTime to) throws SQLException {
+        Set<Long> executed = new HashSet<>();
+        if (habitIds.isEmpty())
+            return executed;
+
+        router.fanOut(shard -> shards.get(shard).findExecutedHabits(habitIds, from, to)).forEach(executed::addAll);
+
+        return executed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Long> markReminded(List<Long> habitIds, LocalDate date) throws SQLException {
+        Set<Long> claimed = new HashSet<>();
+
+        for (HabitReminderRepository shard : shards) {
+            claimed.addAll(shard.markReminded(habitIds, date));
+        }
+
+        return claimed;
+    }
+}
@@ -0,0 +1,338 @@
+package ru.kinzorc.habittracker.infrastructure.repository.sharding;
+
+import ru.kinzorc.habittracker.application.dto.HabitDTO;
+import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+import ru.kinzorc.habittracker.core.enums.Habit.LeaderboardMetric;
+import ru.kinzorc.habittracker.core.exceptions.AccessDeniedException;
+import ru.kinzorc.habittracker.core.exceptions.HabitAlreadyExistsException;
+import ru.kinzorc.habittracker.core.exceptions.HabitNotFoundException;
+import ru.kinzorc.habittracker.core.exceptions.UserNotFoundException;
+import ru.kinzorc.habittracker.core.repository.HabitRepository;
+import ru.kinzorc.habittracker.core.repository.UserRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcHabitRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcUserRepository;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Реализация интерфейса {@link HabitRepository}, распределяющая привычки пользователей по шардам.
+ * <p>
+ * Все привычки пользователя вместе с выполнениями и сводной статистикой хранятся на шарде, выбранном
+ * {@link ShardRouter#shardForUser(long)}, поэтому операции над привычками одного пользователя выполняются
+ * одним {@link JdbcHabitRepository} без распределенных транзакций. Идентификаторы привычек выделяются на основной
+ * базе данных и уникальны для всех шардов. Если известен только идентификатор привычки, шард определяется
+ * параллельным поиском по всем шардам. Операции по всем привычкам выполняются на шардах параллельно,
+ * а результаты объединяются.
+ * </p>
+ * <p>
+ * Пользователи хранятся в основной базе данных. Для внешних ключей на шарде создается копия строки пользователя
+ * без пароля при добавлении первой привычки (см. {@link ShardUserCopies}).
+ * </p>
+ */
+public class ShardedHabitRepository implements HabitRepository {
+
+    private final ShardRouter router;
+    private final List<HabitRepository> shards = new ArrayList<>();
+    private final UserRepository directory;
+
+    /**
+     * Конструктор для создания репозитория привычек по шардам.
+     *
+     * @param router маршрутизатор шардов
+     */
+    public ShardedHabitRepository(ShardRouter router) {
+        this.router = router;
+
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            shards.add(new JdbcHabitRepository(router.getShard(shard)));
+        }
+        directory = new JdbcUserRepository(router.getShard(0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addHabit(UserDTO user, HabitDTO habit) throws HabitAlreadyExistsException, SQLException {
+        int shard = router.shardForUser(user.getId());
+
+        if (shard != 0)
+            copyUserToShard(shard, user);
+        if (habit.getId() <= 0)
+            habit.setId(router.nextId("app_schema.habits"));
+
+        shards.get(shard).addHabit(user, habit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deleteHabit(long habitId) throws HabitNotFoundException, SQLException {
+        shards.get(locateHabit(habitId)).deleteHabit(habitId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deleteAllHabitsForUser(UserDTO user) throws HabitNotFoundException, SQLException {
+        forUser(user).deleteAllHabitsForUser(user);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deleteAllHabit(UserDTO user) throws UserNotFoundException, HabitNotFoundException, SQLException {
+        forUser(user).deleteAllHabit(user);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void updateHabit(HabitDTO habit) throws HabitNotFoundException, HabitAlreadyExistsException, SQLException {
+        forHabit(habit).updateHabit(habit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean markExecution(HabitDTO habit, LocalDateTime executionDate) throws HabitNotFoundException, SQLException {
+        return forHabit(habit).markExecution(habit, executionDate);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<LocalDate> getExecutions(long id) throws HabitNotFoundException, SQLException {
+        return shards.get(locateHabit(id)).getExecutions(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void resetExecutions(long id) throws HabitNotFoundException, SQLException {
+        shards.get(locateHabit(id)).resetExecutions(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void resetAllExecutionsForUser(UserDTO user) throws HabitNotFoundException, SQLException {
+        forUser(user).resetAllExecutionsForUser(user);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void resetExecutionsAllHabits(UserDTO admin) throws AccessDeniedException, SQLException {
+        // Права проверяются при сбросе на основной базе данных, остальные шарды обрабатываются параллельно
+        shards.get(0).resetExecutionsAllHabits(admin);
+
+        router.fanOut(shard -> {
+            if (shard == 0)
+                return null;
+
+            try {
+                shards.get(shard).resetExecutionsAllHabits(admin);
+            } catch (AccessDeniedException e) {
+                throw new SQLException(e.getMessage(), e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<LocalDate, Integer> getStatisticByPeriod(HabitDTO habit, LocalDateTime startPeriodDate, LocalDateTime endPeriodDate)
+            throws HabitNotFoundException, SQLException {
+        return forHabit(habit).getStatisticByPeriod(habit, startPeriodDate, endPeriodDate);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void resetStatistics(long id, boolean resetExecutions, boolean resetStreaks) throws HabitNotFoundException, SQLException {
+        shards.get(locateHabit(id)).resetStatistics(id, resetExecutions, resetStreaks);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int calculateExecutionPercentage(HabitDTO habit, LocalDateTime startPeriodDate, LocalDateTime endPeriodDate) throws SQLException {
+        try {
+            return forHabit(habit).calculateExecutionPercentage(habit, startPeriodDate, endPeriodDate);
+        } catch (HabitNotFoundException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int calculateStreak(HabitDTO habit, LocalDateTime newExecutionDate) throws SQLException {
+        try {
+            return forHabit(habit).calculateStreak(habit, newExecutionDate);
+        } catch (HabitNotFoundException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<HabitDTO> findAllHabits() throws SQLException {
+        return mergeById(router.fanOut(shard -> shards.get(shard).findAllHabits()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<HabitDTO> findAllHabits(int descriptionLength) throws SQLException {
+        return mergeById(router.fanOut(shard -> shards.get(shard).findAllHabits(descriptionLength)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<HabitDTO> findHabitByID(long habitId) throws HabitNotFoundException, SQLException {
+        for (Optional<HabitDTO> habit : router.fanOut(shard -> findHabitOnShard(shard, habitId))) {
+            if (habit.isPresent())
+                return habit;
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<HabitDTO> findHabitByName(String habitName) throws HabitNotFoundException, SQLException {
+        List<Optional<HabitDTO>> habits = router.fanOut(shard -> {
+            try {
+                return shards.get(shard).findHabitByName(habitName);
+            } catch (HabitNotFoundException e) {
+                return Optional.empty();
+            }
+        });
+
+        for (Optional<HabitDTO> habit : habits) {
+            if (habit.isPresent())
+                return habit;
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<HabitDTO> findHabitByUser(UserDTO user) throws UserNotFoundException, SQLException {
+        return forUser(user).findHabitByUser(user);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<HabitDTO> findTopHabits(LeaderboardMetric metric, HabitFrequency frequency, int limit) throws SQLException {
+        // Каждый шард возвращает свои лучшие limit привычек, общий рейтинг — лучшие limit из объединения
+        Comparator<HabitDTO> order = switch (metric) {
+            case STREAK -> Comparator.comparingInt(HabitDTO::getStreak);
+            case EXECUTION_PERCENTAGE -> Comparator.comparingInt(HabitDTO::getExecutionPercentage);
+        };
+
+        List<HabitDTO> habits = new ArrayList<>();
+        router.fanOut(shard -> shards.get(shard).findTopHabits(metric, frequency, limit)).forEach(habits::addAll);
+        habits.sort(order.reversed());
+
+        return habits.size() > limit ? new ArrayList<>(habits.subList(0, limit)) : habits;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int finishExpiredHabits(LocalDateTime endedBefore, int batchSize) throws SQLException {
+        int finished = 0;
+        for (int count : router.fanOut(shard -> shards.get(shard).finishExpiredHabits(endedBefore, batchSize))) {
+            finished += count;
+        }
+
+        return finished;
+    }
+
+    private HabitRepository forUser(UserDTO user) {
+        return shards.get(router.shardForUser(user.getId()));
+    }
+
+    // Привычка из базы данных содержит идентификатор пользователя; иначе шард ищется по идентификатору привычки
+    private HabitRepository forHabit(HabitDTO habit) throws HabitNotFoundException, SQLException {
+        return shards.get(habit.getUserId() > 0 ? router.shardForUser(habit.getUserId()) : locateHabit(habit.getId()));
+    }
+
+    private int locateHabit(long habitId) throws HabitNotFoundException, SQLException {
+        List<Optional<HabitDTO>> habits = router.fanOut(shard -> findHabitOnShard(shard, habitId));
+
+        for (int shard = 0; shard < habits.size(); shard++) {
+            if (habits.get(shard).isPresent())
+                return shard;
+        }
+
+        throw new HabitNotFoundException("Привычка с данным ID не найдена.");
+    }
+
+    private Optional<HabitDTO> findHabitOnShard(int shard, long habitId) throws SQLException {
+        try {
+            return shards.get(shard).findHabitByID(habitId);
+        } catch (HabitNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Копия записывается по строке основной базы данных: переданный пользователь может быть устаревшим
+    private void copyUserToShard(int shard, UserDTO user) throws SQLException {
+        try {
+            Optional<UserDTO> current = directory.findUserById(user.getId());
+            if (current.isEmpty())
+                throw new UserNotFoundException("Пользователь с ID " + user.getId() + " не найден.");
+
+            ShardUserCopies.save(router.getShard(shard), current.get());
+        } catch (UserNotFoundException e) {
+            throw new SQLException("Ошибка при копировании пользователя на шард " + shard + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static List<HabitDTO> mergeById(List<List<HabitDTO>> results) {
+        List<HabitDTO> habits = new ArrayList<>();
+        results.forEach(habits::addAll);
+        habits.sort(Comparator.comparingLong(HabitDTO::getId));
+
+        return habits;
+    }
+}
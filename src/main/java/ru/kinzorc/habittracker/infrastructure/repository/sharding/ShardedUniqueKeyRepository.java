@@ -0,0 +1,71 @@
+package ru.kinzorc.habittracker.infrastructure.repository.sharding;
+
+import ru.kinzorc.habittracker.core.repository.UniqueKeyRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcUniqueKeyRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Реализация интерфейса {@link UniqueKeyRepository} для хранения данных по шардам.
+ * <p>
+ * Email читаются и проверяются только в основной базе данных (шард {@code 0}): копии пользователей на остальных
+ * шардах их не дополняют. Имена привычек читаются со всех шардов по очереди, так как получатель значений
+ * не рассчитан на вызов из нескольких потоков, а проверяются на шарде пользователя.
+ * </p>
+ */
+public class ShardedUniqueKeyRepository implements UniqueKeyRepository {
+
+    private final ShardRouter router;
+    private final List<UniqueKeyRepository> shards = new ArrayList<>();
+
+    /**
+     * Конструктор для создания репозитория уникальных значений по шардам.
+     *
+     * @param router    маршрутизатор шардов
+     * @param fetchSize количество строк, получаемых из базы данных за одно обращение при полном просмотре
+     */
+    public ShardedUniqueKeyRepository(ShardRouter router, int fetchSize) {
+        this.router = router;
+
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            shards.add(new JdbcUniqueKeyRepository(router.getShard(shard), fetchSize));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void scanUserEmails(Consumer<String> consumer) throws SQLException {
+        shards.get(0).scanUserEmails(consumer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void scanHabitNames(HabitNameConsumer consumer) throws SQLException {
+        for (UniqueKeyRepository shard : shards) {
+            shard.scanHabitNames(consumer);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean existsUserEmail(String email) throws SQLException {
+        return shards.get(0).existsUserEmail(email);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean existsHabitName(long userId, String habitName) throws SQLException {
+        return shards.get(router.shardForUser(userId)).existsHabitName(userId, habitName);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.kinzorc.habittracker.infrastructure.repository.sharding;
+
+import ru.kinzorc.habittracker.core.repository.UnitOfWork;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcUnitOfWork;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реализация интерфейса {@link UnitOfWork} для хранения данных по шардам.
+ * <p>
+ * Единица работы открывает транзакцию {@link JdbcUnitOfWork} на каждом шарде, поэтому операции в текущем потоке
+ * на любом шарде входят в транзакцию своего шарда. Распределенной транзакции нет: транзакции фиксируются по очереди,
+ * начиная с последнего шарда, и основная база данных фиксируется последней. Если фиксация на основной базе данных
+ * не удалась, изменения на остальных шардах остаются. Операции, которые {@link ShardRouter#fanOut} выполняет
+ * в других потоках, в единицу работы не входят.
+ * </p>
+ * <p>
+ * Единица работы только для чтения видит согласованный снимок данных каждого шарда, но не всех шардов сразу.
+ * </p>
+ */
+public class ShardedUnitOfWork implements UnitOfWork {
+
+    private final List<UnitOfWork> shards = new ArrayList<>();
+
+    /**
+     * Конструктор для создания единицы работы по шардам.
+     *
+     * @param router маршрутизатор шардов
+     */
+    public ShardedUnitOfWork(ShardRouter router) {
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            shards.add(new JdbcUnitOfWork(router.getShard(shard)));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T, E extends Exception> T execute(Work<T, E> work) throws E, SQLException {
+        return execute(0, work, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T, E extends Exception> T executeReadOnly(Work<T, E> work) throws E, SQLException {
+        return execute(0, work, true);
+    }
+
+    // Транзакции шардов вложены друг в друга: внутренняя фиксируется раньше внешней
+    private <T, E extends Exception> T execute(int shard, Work<T, E> work, boolean readOnly) throws E, SQLException {
+        if (shard == shards.size())
+            return work.run();
+
+        Work<T, E> next = () -> execute(shard + 1, work, readOnly);
+        return readOnly ? shards.get(shard).executeReadOnly(next) : shards.get(shard).execute(next);
+    }
+}
@@ -0,0 +1,174 @@
+package ru.kinzorc.habittracker.infrastructure.repository.sharding;
+
+import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.application.dto.UserStatsDTO;
+import ru.kinzorc.habittracker.core.exceptions.UserAlreadyExistsException;
+import ru.kinzorc.habittracker.core.exceptions.UserNotFoundException;
+import ru.kinzorc.habittracker.core.repository.UserRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcUserRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Реализация интерфейса {@link UserRepository} для хранения данных по шардам.
+ * <p>
+ * Пользователи и их сессии хранятся в основной базе данных (шард {@code 0}), поэтому вход в систему и поиск
+ * пользователя выполняются одним запросом. Сводная статистика пользователя находится на шарде с его привычками
+ * (см. {@link ShardedHabitRepository}) и читается оттуда. Изменение и удаление пользователя применяются также
+ * к его копии на шарде с привычками (см. {@link ShardUserCopies}).
+ * </p>
+ */
+public class ShardedUserRepository implements UserRepository {
+
+    private final ShardRouter router;
+    private final List<UserRepository> shards = new ArrayList<>();
+
+    /**
+     * Конструктор для создания репозитория пользователей по шардам.
+     *
+     * @param router маршрутизатор шардов
+     */
+    public ShardedUserRepository(ShardRouter router) {
+        this.router = router;
+
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            shards.add(new JdbcUserRepository(router.getShard(shard)));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void createUser(UserDTO user) throws UserAlreadyExistsException, SQLException {
+        directory().createUser(user);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void updateUser(UserDTO user) throws UserNotFoundException, SQLException {
+        directory().updateUser(user);
+
+        // Копия пользователя создается вместе с первой привычкой; если ее еще нет, запрос ничего не меняет
+        int shard = router.shardForUser(user.getId());
+        if (shard != 0)
+            ShardUserCopies.update(router.getShard(shard), user);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deleteUser(long userId) throws UserNotFoundException, SQLException {
+        // Сначала удаляются привычки на шарде пользователя, чтобы при ошибке пользователь остался в системе
+        int shard = router.shardForUser(userId);
+        if (shard != 0) {
+            try {
+                shards.get(shard).deleteUser(userId);
+            } catch (UserNotFoundException ignored) {
+                // У пользователя нет привычек на шарде
+            }
+        }
+
+        directory().deleteUser(userId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<UserDTO> findAllUsers() throws SQLException {
+        return directory().findAllUsers();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<UserDTO> findUserById(long userId) throws UserNotFoundException, SQLException {
+        return directory().findUserById(userId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<UserDTO> findUserByUserName(String userName) throws UserNotFoundException, SQLException {
+        return directory().findUserByUserName(userName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<UserDTO> findUserByEmail(String userEmail) throws UserNotFoundException, SQLException {
+        return directory().findUserByEmail(userEmail);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addSession(long userId) throws SQLException {
+        directory().addSession(userId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeSession(long userId) throws SQLException {
+        directory().removeSession(userId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeAllSessions() throws SQLException {
+        directory().removeAllSessions();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<UserStatsDTO> findAllUserStats() throws SQLException {
+        List<List<UserStatsDTO>> results = router.fanOut(shard -> shards.get(shard).findAllUserStats());
+
+        // Основная база данных содержит всех пользователей; статистика берется с шарда, где хранятся привычки
+        Map<Long, UserStatsDTO> stats = new LinkedHashMap<>();
+        results.get(0).forEach(userStats -> stats.put(userStats.getUserId(), userStats));
+
+        for (int shard = 1; shard < results.size(); shard++) {
+            for (UserStatsDTO userStats : results.get(shard)) {
+                if (router.shardForUser(userStats.getUserId()) == shard)
+                    stats.replace(userStats.getUserId(), userStats);
+            }
+        }
+
+        return new ArrayList<>(stats.values());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<UserStatsDTO> findUserStats(long userId) throws SQLException {
+        int shard = router.shardForUser(userId);
+        Optional<UserStatsDTO> stats = shards.get(shard).findUserStats(userId);
+
+        return stats.isPresent() || shard == 0 ? stats : directory().findUserStats(userId);
+    }
+
+    private UserRepository directory() {
+        return shards.get(0);
+    }
+}
@@ -0,0 +1,127 @@
+package ru.kinzorc.habittracker.infrastructure.repository.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Класс предоставляет доступ к параметрам приложения из конфигурационного файла {@code application.properties}.
+ * <p>
+ * Используется для чтения необязательных параметров (размеры пулов, интервалы фоновых задач и т.п.),
+ * для которых предусмотрены значения по умолчанию.
+ * </p>
+ */
+public class ApplicationProperties {
+
+    /**
+     * Свойства приложения, загруженные из конфигурационного файла.
+     */
+    private final Properties properties;
+
+    /**
+     * Конструктор по умолчанию, который загружает свойства из файла {@code /application.properties}.
+     */
+    public ApplicationProperties() {
+        this(load());
+    }
+
+    /**
+     * Конструктор для создания объекта на основе уже загруженных свойств.
+     *
+     * @param properties свойства приложения
+     */
+    public ApplicationProperties(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Возвращает строковое значение параметра.
+     *
+     * @param key          имя параметра
+     * @param defaultValue значение по умолчанию, если параметр не указан
+     * @return значение параметра или значение по умолчанию
+     */
+    public String getString(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
+    /**
+     * Возвращает целочисленное значение параметра.
+     *
+     * @param key          имя параметра
+     * @param defaultValue значение по умолчанию, если параметр не указан
+     * @return значение параметра или значение по умолчанию
+     * @throws IllegalArgumentException если значение параметра не является целым числом
+     */
+    public int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    /**
+     * Возвращает целочисленное значение параметра типа {@code long}.
+     *
+     * @param key          имя параметра
+     * @param defaultValue значение по умолчанию, если параметр не указан
+     * @return значение параметра или значение по умолчанию
+     * @throws IllegalArgumentException если значение параметра не является целым числом
+     */
+    public long getLong(String key, long defaultValue) {
+        String value = properties.getProperty(key);
+
+        if (value == null || value.isBlank())
+            return defaultValue;
+
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное значение параметра " + key + ": " + value);
+        }
+    }
+
+    /**
+     * Возвращает дробное значение параметра.
+     *
+     * @param key          имя параметра
+     * @param defaultValue значение по умолчанию, если параметр не указан
+     * @return значение параметра или значение по умолчанию
+     * @throws IllegalArgumentException если значение параметра не является числом
+     */
+    public double getDouble(String key, double defaultValue) {
+        String value = properties.getProperty(key);
+
+        if (value == null || value.isBlank())
+            return defaultValue;
+
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное значение параметра " + key + ": " + value);
+        }
+    }
+
+    /**
+     * Возвращает все свойства приложения.
+     *
+     * @return объект {@link Properties} со свойствами приложения
+     */
+    public Properties getProperties() {
+        return properties;
+    }
+
+    // Загрузка конфигурационного файла из ресурсов приложения
+    private static Properties load() {
+        Properties properties = new Properties();
+
+        try (InputStream inputStream = ApplicationProperties.class.getResourceAsStream("/application.properties")) {
+            if (inputStream != null) {
+                properties.load(inputStream);
+            } else {
+                System.err.println("Конфигурационный файл не найден.");
+            }
+        } catch (IOException e) {
+            System.err.println("Ошибка чтения конфигурационного файла: " + e.getMessage());
+        }
+
+        return properties;
+    }
+}
@@ -0,0 +1,131 @@
+package ru.kinzorc.habittracker.infrastructure.repository.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Компактный формат истории выполнений привычки для архива.
+ * <p>
+ * Моменты выполнения сортируются и хранятся с точностью до секунды: первый — как количество секунд от эпохи (UTC),
+ * остальные — как разность с предыдущим. Числа записываются в формате varint (7 бит на байт), поэтому разность
+ * в сутки занимает 3 байта, а итоговая последовательность дополнительно сжимается {@link Deflater}.
+ * </p>
+ * <p>
+ * Формат блока: байт версии, количество выполнений и значения, все поля кроме версии — в сжатой части.
+ * </p>
+ */
+public final class ExecutionHistoryCodec {
+
+    private static final int VERSION = 1;
+
+    private ExecutionHistoryCodec() {
+    }
+
+    /**
+     * Кодирует историю выполнений.
+     *
+     * @param executions моменты выполнения в любом порядке
+     * @return сжатый блок
+     */
+    public static byte[] encode(List<LocalDateTime> executions) {
+        long[] seconds = new long[executions.size()];
+        for (int i = 0; i < seconds.length; i++) {
+            seconds[i] = executions.get(i).toEpochSecond(ZoneOffset.UTC);
+        }
+        Arrays.sort(seconds);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(seconds.length * 2 + 16);
+        bytes.write(VERSION);
+
+        // Переданный извне Deflater не освобождается потоком при закрытии, поэтому освобождается явно
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (OutputStream out = new DeflaterOutputStream(bytes, deflater, 512)) {
+            writeVarLong(out, seconds.length);
+
+            long previous = 0;
+            for (int i = 0; i < seconds.length; i++) {
+                // Первое значение может быть отрицательным (до 1970 года), остальные разности неотрицательны
+                writeVarLong(out, i == 0 ? zigZag(seconds[i]) : seconds[i] - previous);
+                previous = seconds[i];
+            }
+        } catch (IOException e) {
+            // ByteArrayOutputStream не выбрасывает IOException
+            throw new IllegalStateException(e);
+        } finally {
+            deflater.end();
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Декодирует историю выполнений.
+     *
+     * @param block сжатый блок, созданный {@link #encode(List)}
+     * @return моменты выполнения в порядке возрастания
+     * @throws IOException если блок поврежден или имеет неизвестную версию
+     */
+    public static List<LocalDateTime> decode(byte[] block) throws IOException {
+        if (block.length == 0 || block[0] != VERSION) {
+            throw new IOException("Неизвестный формат истории выполнений.");
+        }
+
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(block, 1, block.length - 1))) {
+            long count = readVarLong(in);
+            List<LocalDateTime> executions = new ArrayList<>((int) Math.min(count, 4096));
+
+            long seconds = 0;
+            for (long i = 0; i < count; i++) {
+                long value = readVarLong(in);
+                seconds = i == 0 ? unZigZag(value) : seconds + value;
+                executions.add(LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC));
+            }
+
+            return executions;
+        }
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0)
+                throw new EOFException("Неожиданный конец истории выполнений.");
+
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+
+        throw new IOException("Некорректное значение в истории выполнений.");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -2,28 +2,85 @@ package ru.kinzorc.habittracker.infrastructure.repository.utils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Класс предоставляет функционал для установки соединения с базой данных PostgreSQL
  * с использованием JDBC. Он загружает конфигурацию базы данных из файла свойств и
  * предоставляет метод для получения соединения с базой данных.
+ * <p>
+ * Кроме основного сервера ({@code postgres_db.url}) можно указать реплики для чтения
+ * ({@code postgres_db.replica-urls}, через запятую). Запросы только на чтение получают соединение
+ * через {@link #getReadConnection()}: реплики выбираются по кругу, недоступная реплика исключается
+ * на {@code postgres_db.replica-retry-seconds} секунд, а при недоступности всех реплик используется основной сервер.
+ * Если {@code postgres_db.replica-username} и {@code postgres_db.replica-password} не указаны, для реплик используются
+ * учетные данные основного сервера.
+ * </p>
+ * <p>
+ * Чтобы поток видел собственные изменения, после получения соединения с основным сервером через
+ * {@link #getConnection()} чтение в том же потоке в течение {@code postgres_db.read-your-writes-seconds} секунд
+ * также выполняется на основном сервере, пока реплики могут отставать.
+ * </p>
+ * <p>
+ * Внутри {@link JdbcUnitOfWork} оба метода возвращают соединение единицы работы, привязанное к потоку.
+ * </p>
  */
 public class JdbcConnector {
 
     /**
      * Свойства базы данных, загруженные из конфигурационного файла.
      */
-    private final Properties DB_PROPERTIES = new Properties();
+    private final Properties DB_PROPERTIES;
+
+    private final ConnectionOpener connectionOpener;
+    private final Clock clock;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final long replicaRetryMillis;
+    private final long readYourWritesMillis;
+
+    // Время последнего обращения потока к основному серверу
+    private final ThreadLocal<Long> lastPrimaryAccess = new ThreadLocal<>();
+    // Соединение единицы работы, выполняемой потоком
+    private final ThreadLocal<Connection> unitOfWorkConnection = new ThreadLocal<>();
 
     /**
      * Конструктор по умолчанию, который вызывает метод для загрузки свойств базы данных из файла.
      */
     public JdbcConnector() {
-        loadProperties();
+        this(loadProperties(), DriverManager::getConnection, Clock.systemUTC());
+    }
+
+    /**
+     * Конструктор для подключения с явно заданными свойствами (например, к отдельному шарду).
+     *
+     * @param properties свойства подключения {@code postgres_db.*}
+     */
+    public JdbcConnector(Properties properties) {
+        this(properties, DriverManager::getConnection, Clock.systemUTC());
+    }
+
+    // for tests
+    JdbcConnector(Properties properties, ConnectionOpener connectionOpener, Clock clock) {
+        this.DB_PROPERTIES = properties;
+        this.connectionOpener = connectionOpener;
+        this.clock = clock;
+        this.replicaRetryMillis = Long.parseLong(properties.getProperty("postgres_db.replica-retry-seconds", "30")) * 1000;
+        this.readYourWritesMillis = Long.parseLong(properties.getProperty("postgres_db.read-your-writes-seconds", "5")) * 1000;
+
+        for (String url : properties.getProperty("postgres_db.replica-urls", "").split(",")) {
+            if (!url.isBlank())
+                replicas.add(new Replica(url.trim()));
+        }
     }
 
     /**
@@ -33,16 +90,20 @@ public class JdbcConnector {
      * Если файл не найден или произошла ошибка при его чтении, выводится сообщение об ошибке.
      * </p>
      */
-    private void loadProperties() {
-        try (InputStream inputStream = getClass().getResourceAsStream("/application.properties")) {
+    private static Properties loadProperties() {
+        Properties properties = new Properties();
+
+        try (InputStream inputStream = JdbcConnector.class.getResourceAsStream("/application.properties")) {
             if (inputStream != null) {
-                DB_PROPERTIES.load(inputStream);
+                properties.load(inputStream);
             } else {
                 System.err.println("Конфигурационный файл не найден.");
             }
         } catch (IOException e) {
             System.err.println("Ошибка чтения конфигурационного файла: " + e.getMessage());
         }
+
+        return properties;
     }
 
     /**
@@ -51,6 +112,7 @@ public class JdbcConnector {
      * Использует параметры подключения (URL, имя пользователя, пароль),
      * которые загружаются из конфигурационного файла. Если параметры подключения не найдены,
      * выбрасывается исключение {@link IllegalArgumentException}.
+     * Соединение всегда открывается с основным сервером, поэтому его следует использовать для записи.
      * </p>
      *
      * @return объект {@link Connection} для соединения с базой данных
@@ -58,6 +120,90 @@ public class JdbcConnector {
      * @throws IllegalArgumentException если параметры подключения некорректны или отсутствуют в файле свойств
      */
     public Connection getConnection() throws SQLException {
+        Connection unitOfWork = unitOfWorkConnection.get();
+        if (unitOfWork != null)
+            return joinUnitOfWork(unitOfWork);
+
+        lastPrimaryAccess.set(clock.millis());
+        return openPrimary();
+    }
+
+    /**
+     * Метод для получения соединения для запросов только на чтение.
+     * <p>
+     * Возвращает соединение со следующей по кругу доступной репликой. Соединение с основным сервером возвращается,
+     * если реплики не настроены или недоступны, а также если поток недавно обращался к основному серверу
+     * (чтение собственных изменений).
+     * </p>
+     *
+     * @return объект {@link Connection} для чтения данных
+     * @throws SQLException             если возникает ошибка при установлении соединения с основным сервером
+     * @throws IllegalArgumentException если параметры подключения некорректны или отсутствуют в файле свойств
+     */
+    public Connection getReadConnection() throws SQLException {
+        Connection unitOfWork = unitOfWorkConnection.get();
+        if (unitOfWork != null)
+            return joinUnitOfWork(unitOfWork);
+
+        long now = clock.millis();
+        Long lastPrimary = lastPrimaryAccess.get();
+
+        if (replicas.isEmpty() || (lastPrimary != null && now - lastPrimary < readYourWritesMillis))
+            return openPrimary();
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.unavailableUntil > now)
+                continue;
+
+            try {
+                return connectionOpener.open(replica.url,
+                        DB_PROPERTIES.getProperty("postgres_db.replica-username", getUsername()),
+                        DB_PROPERTIES.getProperty("postgres_db.replica-password", getPassword()));
+            } catch (SQLException e) {
+                replica.unavailableUntil = now + replicaRetryMillis;
+                System.err.println("Реплика " + replica.url + " недоступна, чтение выполняется на другом сервере: " + e.getMessage());
+            }
+        }
+
+        return openPrimary();
+    }
+
+    boolean isUnitOfWorkActive() {
+        return unitOfWorkConnection.get() != null;
+    }
+
+    void bindUnitOfWork(Connection connection) {
+        unitOfWorkConnection.set(connection);
+    }
+
+    void unbindUnitOfWork() {
+        unitOfWorkConnection.remove();
+    }
+
+    // Соединение единицы работы, которое репозиторий не может закрыть или завершить его транзакцию
+    private static Connection joinUnitOfWork(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    // Откат к точке сохранения передается соединению, откат всей транзакции выполняет единица работы.
+                    // Свойства транзакции (режим только для чтения, уровень изоляции) тоже задает единица работы
+                    String name = method.getName();
+                    if (name.equals("close") || name.equals("commit") || name.equals("setAutoCommit")
+                            || name.equals("setReadOnly") || name.equals("setTransactionIsolation")
+                            || (name.equals("rollback") && args == null))
+                        return null;
+
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private Connection openPrimary() throws SQLException {
         if (DB_PROPERTIES.getProperty("postgres_db.url") == null ||
                 DB_PROPERTIES.getProperty("postgres_db.username") == null ||
                 DB_PROPERTIES.getProperty("postgres_db.password") == null) {
@@ -65,13 +211,13 @@ public class JdbcConnector {
         }
 
         String url = DB_PROPERTIES.getProperty("postgres_db.url");
-        String username = DB_PROPERTIES.getProperty("postgres_db.username");
-        String password = DB_PROPERTIES.getProperty("postgres_db.password");
+        String username = getUsername();
+        String password = getPassword();
 
         Connection connection;
 
         try {
-            connection = DriverManager.getConnection(url, username, password);
+            connection = connectionOpener.open(url, username, password);
             if (connection == null) {
                 System.err.println("Не удалось подключиться к базе данных, проверьте параметры подключения в конфигурационном файле.");
             }
@@ -83,4 +229,25 @@ public class JdbcConnector {
         return connection;
     }
 
-}
\ No newline at end of file
+    private String getUsername() {
+        return DB_PROPERTIES.getProperty("postgres_db.username");
+    }
+
+    private String getPassword() {
+        return DB_PROPERTIES.getProperty("postgres_db.password");
+    }
+
+    @FunctionalInterface
+    interface ConnectionOpener {
+        Connection open(String url, String username, String password) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final String url;
+        private volatile long unavailableUntil;
+
+        private Replica(String url) {
+            this.url = url;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.kinzorc.habittracker.infrastructure.repository.utils;
+
+import ru.kinzorc.habittracker.core.repository.UnitOfWork;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Реализация интерфейса {@link UnitOfWork} с использованием JDBC.
+ * <p>
+ * На время выполнения операций соединение с основным сервером привязывается к текущему потоку в {@link JdbcConnector},
+ * и все репозитории, использующие этот {@link JdbcConnector}, получают его вместо нового соединения. Закрытие,
+ * фиксация и откат, которые репозиторий выполняет для собственной транзакции, в единице работы не применяются:
+ * транзакцию завершает {@link #execute(Work)}.
+ * </p>
+ * <p>
+ * Единица работы только для чтения ({@link #executeReadOnly(Work)}) открывает соединение для чтения (с репликой,
+ * если она доступна), поэтому запись внутри нее завершается ошибкой.
+ * </p>
+ */
+public class JdbcUnitOfWork implements UnitOfWork {
+
+    private final JdbcConnector jdbcConnector;
+
+    /**
+     * Конструктор для создания единицы работы.
+     *
+     * @param jdbcConnector экземпляр класса {@link JdbcConnector}, соединения которого объединяются в транзакцию
+     */
+    public JdbcUnitOfWork(JdbcConnector jdbcConnector) {
+        this.jdbcConnector = jdbcConnector;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T, E extends Exception> T execute(Work<T, E> work) throws E, SQLException {
+        if (jdbcConnector.isUnitOfWorkActive())
+            return work.run();
+
+        try (Connection connection = jdbcConnector.getConnection()) {
+            connection.setAutoCommit(false);
+            jdbcConnector.bindUnitOfWork(connection);
+
+            try {
+                T result = work.run();
+                connection.commit();
+                return result;
+            } catch (Throwable e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                jdbcConnector.unbindUnitOfWork();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T, E extends Exception> T executeReadOnly(Work<T, E> work) throws E, SQLException {
+        if (jdbcConnector.isUnitOfWorkActive())
+            return work.run();
+
+        try (Connection connection = jdbcConnector.getReadConnection()) {
+            // Свойства транзакции задаются до первого запроса
+            connection.setReadOnly(true);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setAutoCommit(false);
+            jdbcConnector.bindUnitOfWork(connection);
+
+            try {
+                return work.run();
+            } finally {
+                jdbcConnector.unbindUnitOfWork();
+                connection.rollback();
+            }
+        }
+    }
+}
@@ -1,14 +1,60 @@
 package ru.kinzorc.habittracker.presentation;
 
 import ru.kinzorc.habittracker.application.service.ApplicationService;
+import ru.kinzorc.habittracker.application.service.DataExportService;
+import ru.kinzorc.habittracker.application.service.DuplicateCheckService;
+import ru.kinzorc.habittracker.application.service.EmailService;
+import ru.kinzorc.habittracker.application.service.HabitArchiveService;
+import ru.kinzorc.habittracker.application.service.HabitExpirationService;
+import ru.kinzorc.habittracker.application.service.LeaderboardService;
+import ru.kinzorc.habittracker.application.service.ReminderService;
+import ru.kinzorc.habittracker.application.service.RetentionPurgeService;
+import ru.kinzorc.habittracker.application.service.SessionService;
+import ru.kinzorc.habittracker.application.service.SessionTokenService;
+import ru.kinzorc.habittracker.application.service.WeeklyDigestService;
+import ru.kinzorc.habittracker.core.repository.HabitReminderRepository;
 import ru.kinzorc.habittracker.core.repository.HabitRepository;
+import ru.kinzorc.habittracker.core.repository.UniqueKeyRepository;
+import ru.kinzorc.habittracker.core.repository.UnitOfWork;
 import ru.kinzorc.habittracker.core.repository.UserRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.async.ExecutorAsyncHabitRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.async.ExecutorAsyncUserRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.async.RepositoryExecutors;
+import ru.kinzorc.habittracker.infrastructure.repository.email.EmailOutboxWorker;
+import ru.kinzorc.habittracker.infrastructure.repository.email.MailSender;
+import ru.kinzorc.habittracker.infrastructure.repository.email.OutboxEmailService;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcDataExportRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcEmailOutboxRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcHabitArchiveRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcHabitReminderRepository;
 import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcHabitRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcJobCheckpointRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcRetentionPurgeRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcSessionRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcTokenRevocationRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcUniqueKeyRepository;
 import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcUserRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.jdbc.JdbcWeeklyDigestRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.scheduler.JobScheduler;
+import ru.kinzorc.habittracker.infrastructure.repository.sharding.ShardRouter;
+import ru.kinzorc.habittracker.infrastructure.repository.sharding.ShardedDataExportRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.sharding.ShardedHabitReminderRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.sharding.ShardedHabitRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.sharding.ShardedUniqueKeyRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.sharding.ShardedUnitOfWork;
+import ru.kinzorc.habittracker.infrastructure.repository.sharding.ShardedUserRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.ApplicationProperties;
 import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcUnitOfWork;
 import ru.kinzorc.habittracker.presentation.menu.MenuNavigator;
 import ru.kinzorc.habittracker.presentation.utils.MenuUtils;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
 import java.util.concurrent.*;
 
 /**
@@ -19,7 +65,7 @@ import java.util.concurrent.*;
  * </p>
  * <p>
  * При завершении работы приложения вызывается {@link Runtime#addShutdownHook(Thread)} для корректного
- * завершения сессий пользователя.
+ * завершения сессий пользователей этого узла.
  * </p>
  */
 public class ConsoleApp {
@@ -28,8 +74,8 @@ public class ConsoleApp {
      * Метод main является точкой входа в консольное приложение Habit Tracker.
      * <p>
      * Приложение инициализирует соединение с базой данных, репозитории для работы с пользователями и привычками,
-     * а также запускает главное меню для взаимодействия с пользователем через консоль.
-     * В процессе завершения работы приложения, если активны сессии, они удаляются с использованием
+     * а также запускает фоновую отправку писем из очереди, задачи по расписанию и главное меню для взаимодействия с пользователем через консоль.
+     * В процессе завершения работы приложения сессии этого узла удаляются с использованием
      * механизма {@link ExecutorService} с таймаутом в 5 секунд.
      * </p>
      *
@@ -38,28 +84,203 @@ public class ConsoleApp {
     public static void main(String[] args) {
 
         // Инициализация необходимых компонентов приложения
+        ApplicationProperties properties = new ApplicationProperties();
         JdbcConnector jdbcConnector = new JdbcConnector();
-        UserRepository userRepository = new JdbcUserRepository(jdbcConnector);
-        HabitRepository habitRepository = new JdbcHabitRepository(jdbcConnector);
-        ApplicationService applicationService = new ApplicationService(userRepository, habitRepository);
+        UserRepository userRepository;
+        HabitRepository habitRepository;
+        ShardRouter shardRouter = null;
+        List<JdbcConnector> databases = new ArrayList<>();
+
+        // Привычки распределяются по шардам, если указаны дополнительные базы данных
+        if (properties.getString("shards.urls", "").isBlank()) {
+            userRepository = new JdbcUserRepository(jdbcConnector);
+            habitRepository = new JdbcHabitRepository(jdbcConnector);
+            databases.add(jdbcConnector);
+        } else {
+            shardRouter = ShardRouter.fromProperties(jdbcConnector, properties.getProperties());
+            userRepository = new ShardedUserRepository(shardRouter);
+            habitRepository = new ShardedHabitRepository(shardRouter);
+
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                databases.add(shardRouter.getShard(shard));
+            }
+        }
+
+        // Письма записываются в очередь, а отправляются фоновым обработчиком
+        JdbcEmailOutboxRepository outboxRepository = new JdbcEmailOutboxRepository(jdbcConnector);
+        MailSender mailSender = new MailSender(properties.getProperties());
+        EmailOutboxWorker emailOutboxWorker = EmailOutboxWorker.fromProperties(outboxRepository, mailSender, properties);
+        emailOutboxWorker.start();
+
+        EmailService emailService = new OutboxEmailService(outboxRepository);
+        UnitOfWork unitOfWork = shardRouter == null ? new JdbcUnitOfWork(jdbcConnector) : new ShardedUnitOfWork(shardRouter);
+
+        // Напоминания о выполнении привычек
+        HabitReminderRepository reminderRepository = shardRouter == null
+                ? new JdbcHabitReminderRepository(jdbcConnector)
+                : new ShardedHabitReminderRepository(shardRouter);
+        ReminderService reminderService = new ReminderService(reminderRepository, emailService, unitOfWork,
+                Duration.ofMillis(properties.getLong("reminders.tick-ms", 1000)),
+                Duration.ofMinutes(properties.getLong("reminders.window-minutes", 15)));
+        reminderService.start();
+
+        int exportFetchSize = properties.getInt("export.fetch-size", 1000);
+        DataExportService dataExportService = new DataExportService(shardRouter == null
+                ? new JdbcDataExportRepository(jdbcConnector, exportFetchSize)
+                : new ShardedDataExportRepository(shardRouter, exportFetchSize), unitOfWork);
+
+        // Сессии узла хранятся в памяти и записываются в базу данных отложенно
+        String nodeId = properties.getString("sessions.node-id", "");
+        long idleTimeoutMinutes = properties.getLong("sessions.idle-timeout-minutes", 30);
+        SessionService sessionService = new SessionService(new JdbcSessionRepository(jdbcConnector),
+                nodeId.isBlank() ? SessionService.defaultNodeId() : nodeId,
+                Duration.ofMinutes(idleTimeoutMinutes),
+                properties.getInt("sessions.sweep-batch-size", 1000));
+
+        // Токены продлеваются при каждом действии пользователя, поэтому их срок по умолчанию равен сроку бездействия сессии.
+        // Без общего секрета токены действительны только на этом узле.
+        String tokenSecret = properties.getString("tokens.secret", "");
+        SessionTokenService sessionTokenService = new SessionTokenService(new JdbcTokenRevocationRepository(jdbcConnector),
+                tokenSecret.isBlank() ? SessionTokenService.generateSecret() : Base64.getDecoder().decode(tokenSecret),
+                Duration.ofMinutes(properties.getLong("tokens.ttl-minutes", idleTimeoutMinutes)),
+                Duration.ofMinutes(properties.getLong("tokens.max-lifetime-minutes", 720)));
+
+        // Фильтры Блума отсекают поиск по несуществующим email и именам привычек; заполняются задачей по расписанию
+        int filtersFetchSize = properties.getInt("filters.fetch-size", 5000);
+        UniqueKeyRepository uniqueKeyRepository = shardRouter == null
+                ? new JdbcUniqueKeyRepository(jdbcConnector, filtersFetchSize)
+                : new ShardedUniqueKeyRepository(shardRouter, filtersFetchSize);
+        DuplicateCheckService duplicateCheckService = new DuplicateCheckService(uniqueKeyRepository,
+                properties.getLong("filters.expected-emails", 100_000),
+                properties.getLong("filters.expected-habit-names", 1_000_000),
+                properties.getDouble("filters.false-positive-rate", 0.01));
+
+        // Рейтинги общие для сервиса приложения и задач, массово меняющих привычки
+        LeaderboardService leaderboardService = new LeaderboardService(habitRepository);
+
+        // Независимые запросы (например, данные личного кабинета) выполняются параллельно в ограниченном пуле
+        ExecutorService repositoryExecutor = RepositoryExecutors.newBoundedExecutor(properties.getInt("repositories.async.pool-size", 4));
+
+        ApplicationService applicationService = ApplicationService.builder(userRepository, habitRepository)
+                .asyncRepositories(new ExecutorAsyncUserRepository(userRepository, repositoryExecutor),
+                        new ExecutorAsyncHabitRepository(habitRepository, repositoryExecutor))
+                .leaderboardService(leaderboardService)
+                .emailService(emailService)
+                .reminderService(reminderService)
+                .dataExportService(dataExportService)
+                .sessionService(sessionService)
+                .sessionTokenService(sessionTokenService)
+                .unitOfWork(unitOfWork)
+                .duplicateCheckService(duplicateCheckService)
+                .build();
         MenuUtils menuUtils = new MenuUtils();
 
-        // Запуск основного меню
-        MenuNavigator.MAIN_MENU.showMenu(applicationService, menuUtils);
+        // Фоновые задачи по расписанию
+        JobScheduler jobScheduler = new JobScheduler(properties.getInt("jobs.pool-size", 2));
+
+        Duration sessionFlushInterval = Duration.ofSeconds(properties.getLong("sessions.flush-interval-seconds", 60));
+        jobScheduler.scheduleWithFixedDelay("Запись активности сессий", sessionFlushInterval, sessionFlushInterval,
+                sessionService::flushActivity);
+        jobScheduler.scheduleWithFixedDelay("Удаление истекших сессий", Duration.ofMinutes(1),
+                Duration.ofMinutes(properties.getLong("sessions.sweep-interval-minutes", 5)),
+                sessionService::expireSessions);
+
+        Duration revocationsRefreshInterval = Duration.ofSeconds(properties.getLong("tokens.revocations.refresh-seconds", 30));
+        jobScheduler.scheduleWithFixedDelay("Обновление списка отозванных токенов", Duration.ZERO, revocationsRefreshInterval,
+                sessionTokenService::refreshRevocationList);
+
+        Duration leaderboardRefreshInterval = Duration.ofMillis(properties.getLong("leaderboard.refresh-interval-ms", 1000));
+        jobScheduler.scheduleWithFixedDelay("Обновление рейтингов", leaderboardRefreshInterval, leaderboardRefreshInterval,
+                leaderboardService::refresh);
+
+        jobScheduler.scheduleWithFixedDelay("Перестроение фильтров дубликатов", Duration.ZERO,
+                Duration.ofMinutes(properties.getLong("filters.rebuild-interval-minutes", 60)),
+                duplicateCheckService::rebuildFilters);
+
+        if (Boolean.parseBoolean(properties.getString("expiration.enabled", "true"))) {
+            HabitExpirationService habitExpirationService = new HabitExpirationService(habitRepository, leaderboardService,
+                    properties.getInt("expiration.batch-size", 1000));
+
+            jobScheduler.scheduleWithFixedDelay("Завершение привычек с истекшим сроком", Duration.ofSeconds(30),
+                    Duration.ofMinutes(properties.getLong("expiration.interval-minutes", 60)),
+                    habitExpirationService::finishExpiredHabits);
+        }
 
-        // Добавление shutdown hook для корректного завершения работы приложения
+        // Сводки, архивация и очистка работают с данными одной базы данных, поэтому при распределении по шардам
+        // для каждого шарда запускается своя задача
+        for (int shard = 0; shard < databases.size(); shard++) {
+            JdbcConnector database = databases.get(shard);
+            String suffix = databases.size() > 1 ? " (шард " + shard + ")" : "";
+
+            if (Boolean.parseBoolean(properties.getString("digest.weekly.enabled", "true"))) {
+                WeeklyDigestService weeklyDigestService = new WeeklyDigestService(
+                        new JdbcWeeklyDigestRepository(database, properties.getInt("digest.weekly.fetch-size", 500)),
+                        emailService,
+                        properties.getInt("digest.weekly.batch-size", 200),
+                        properties.getInt("digest.weekly.concurrency", 4));
+
+                jobScheduler.scheduleWeekly("Еженедельные сводки" + suffix,
+                        DayOfWeek.valueOf(properties.getString("digest.weekly.day-of-week", "MONDAY").toUpperCase()),
+                        LocalTime.parse(properties.getString("digest.weekly.time", "09:00")),
+                        weeklyDigestService::sendPreviousWeekDigests);
+            }
+
+            if (Boolean.parseBoolean(properties.getString("archive.enabled", "true"))) {
+                HabitArchiveService habitArchiveService = new HabitArchiveService(new JdbcHabitArchiveRepository(database),
+                        leaderboardService,
+                        Duration.ofDays(properties.getLong("archive.retention-days", 30)),
+                        properties.getInt("archive.batch-size", 500));
+                Duration archiveInterval = Duration.ofHours(properties.getLong("archive.interval-hours", 24));
+
+                jobScheduler.scheduleWithFixedDelay("Архивация завершенных привычек" + suffix, Duration.ofMinutes(1), archiveInterval,
+                        habitArchiveService::archiveExpiredHabits);
+            }
+
+            // Сессии хранятся только в основной базе данных, на остальных шардах очищаются только выполнения
+            if (Boolean.parseBoolean(properties.getString("purge.enabled", "true"))) {
+                RetentionPurgeService retentionPurgeService = new RetentionPurgeService(
+                        new JdbcRetentionPurgeRepository(database), new JdbcJobCheckpointRepository(database),
+                        Duration.ofDays(properties.getLong("purge.executions.retention-days", 730)),
+                        Duration.ofDays(properties.getLong("purge.sessions.retention-days", 7)),
+                        properties.getInt("purge.executions.pages-per-chunk", 100),
+                        properties.getInt("purge.sessions.ids-per-chunk", 5000),
+                        properties.getInt("purge.target-rows-per-second", 2000));
+
+                jobScheduler.scheduleWithFixedDelay("Очистка устаревших данных" + suffix, Duration.ofMinutes(5),
+                        Duration.ofHours(properties.getLong("purge.interval-hours", 24)),
+                        retentionPurgeService::purgeExpiredData);
+            }
+        }
+
+        ShardRouter finalShardRouter = shardRouter;
+
+        // Добавление shutdown hook для корректного завершения работы приложения.
+        // Регистрируется до запуска меню, так как меню возвращает управление только при выходе из приложения.
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            System.out.println("Завершение работы приложения. Выполняется удаление сессий (таймаут 5 секунд).");
+            jobScheduler.shutdown();
+            reminderService.stop();
+            repositoryExecutor.shutdown();
+
+            try {
+                emailOutboxWorker.stop(Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                mailSender.close();
+            }
+
+            System.out.println("Завершение работы приложения. Выполняется удаление сессий узла " + sessionService.getNodeId()
+                    + " (таймаут 5 секунд).");
 
             // Создание потока для выполнения задачи удаления сессий с таймаутом
             ExecutorService executor = Executors.newSingleThreadExecutor();
-            // Удаление всех активных сессий пользователей
+            // Удаление сессий этого узла; сессии других узлов остаются активными
             Future<?> future = executor.submit(applicationService::removeAllSessions);
 
             try {
                 // Ждем завершения задачи с таймаутом в 5 секунд
                 future.get(5, TimeUnit.SECONDS);
-                System.out.println("Все сессии успешно удалены.");
+                System.out.println("Сессии узла успешно удалены.");
             } catch (TimeoutException e) {
                 System.err.println("Время на удаление сессий истекло. Задача прервана.");
                 future.cancel(true);
@@ -69,6 +290,12 @@ public class ConsoleApp {
                 // Завершаем выполнение потока
                 executor.shutdownNow();
             }
+
+            if (finalShardRouter != null)
+                finalShardRouter.shutdown();
         }));
+
+        // Запуск основного меню
+        MenuNavigator.MAIN_MENU.showMenu(applicationService, menuUtils);
     }
 }
@@ -20,6 +20,10 @@ public class AccountMenu implements Menu {
         }
 
         while (true) {
+            // Сессия могла истечь, пока пользователь находился во вложенном меню
+            if (isSessionExpired(applicationService))
+                return;
+
             if (applicationService.getCurrentUser().getUserRole() == UserRole.ADMIN)
                 System.out.println("\nЛичный кабинет:\n1) Профиль 2) Мои привычки 3) Удалить мой аккаунт 4) Администрирование 5) Выход в главное меню");
             else
@@ -27,6 +31,9 @@ public class AccountMenu implements Menu {
 
             int option = menuUtils.promptMenuValidInput(scanner);
 
+            if (isSessionExpired(applicationService))
+                return;
+
             switch (option) {
                 case 1 -> MenuNavigator.USER_PROFILE_MENU.showMenu(applicationService, menuUtils);
                 case 2 -> MenuNavigator.HABIT_MENU.showMenu(applicationService, menuUtils);
@@ -59,4 +66,12 @@ public class AccountMenu implements Menu {
             }
         }
     }
+
+    private static boolean isSessionExpired(ApplicationService applicationService) {
+        if (applicationService.touchSession())
+            return false;
+
+        System.out.println("Переход в главное меню.");
+        return true;
+    }
 }
@@ -22,10 +22,13 @@ public class AdminMenu implements Menu {
             System.out.println("""
 
                     Администрирование:
-                    1) Список пользователей 2) Список привычек пользователей 3) Заблокировать пользователя 4) Удалить пользователя 5) Выход в личный кабинет""");
+                    1) Список пользователей 2) Список привычек пользователей 3) Сводка по пользователям 4) Заблокировать пользователя 5) Удалить пользователя 6) Полная выгрузка данных 7) Фильтры дубликатов 8) Сбросить выполнения всех привычек 9) Выход в личный кабинет""");
 
             int option = menuUtils.promptMenuValidInput(scanner);
 
+            if (!applicationService.touchSession())
+                return;
+
             switch (option) {
                 case 1 -> {
                     List<User> users = applicationService.getAllUsers();
@@ -40,9 +43,13 @@ public class AdminMenu implements Menu {
                 }
                 case 2 -> {
                     System.out.println("Список привычек пользователей:\n");
-                    PrintUtils.printListHabits(applicationService.getAllHabits());
+                    PrintUtils.printListHabits(applicationService.getAllHabits(PrintUtils.LIST_DESCRIPTION_LENGTH));
                 }
                 case 3 -> {
+                    PrintUtils.printUsersStats(applicationService.getAllUsersStats());
+                    menuUtils.promptInput(scanner, "Введите enter для выхода...");
+                }
+                case 4 -> {
                     String value = menuUtils.promptInput(scanner, "Введите id пользователя: ");
 
                     Optional<User> user = applicationService.getUser(UserData.ID, value);
@@ -58,7 +65,7 @@ public class AdminMenu implements Menu {
                         applicationService.blockUser(user.get());
                     }
                 }
-                case 4 -> {
+                case 5 -> {
                     String value = menuUtils.promptInput(scanner, "Введите id пользователя: ");
 
                     Optional<User> user = applicationService.getUser(UserData.ID, value);
@@ -74,7 +81,19 @@ public class AdminMenu implements Menu {
                         applicationService.deleteUser(user.get());
                     }
                 }
-                case 5 -> {
+                case 6 -> applicationService.exportAllData(menuUtils.promptExportPath(scanner, "habit-tracker-full"));
+                case 7 -> {
+                    PrintUtils.printDuplicateFilterStats(applicationService.getDuplicateFilterStats());
+                    menuUtils.promptInput(scanner, "Введите enter для выхода...");
+                }
+                case 8 -> {
+                    String confirmation = menuUtils.promptInput(scanner,
+                            "Будут удалены выполнения, стрики и проценты выполнения всех привычек. Введите \"да\" для подтверждения: ");
+
+                    if (confirmation.equalsIgnoreCase("да"))
+                        applicationService.resetAllExecutions();
+                }
+                case 9 -> {
                     System.out.println("Выход в главное меню.");
                     return;
                 }
@@ -3,10 +3,8 @@ package ru.kinzorc.habittracker.presentation.menu;
 import ru.kinzorc.habittracker.application.service.ApplicationService;
 import ru.kinzorc.habittracker.core.entities.User;
 import ru.kinzorc.habittracker.core.enums.User.UserData;
-import ru.kinzorc.habittracker.infrastructure.repository.email.MailSender;
 import ru.kinzorc.habittracker.presentation.utils.MenuUtils;
 
-import javax.mail.MessagingException;
 import java.util.Scanner;
 
 public class AuthMenu implements Menu {
@@ -31,13 +29,11 @@ public class AuthMenu implements Menu {
                 String email = menuUtils.promptInput(scanner, "Для сброса пароля введите email пользователя: ");
 
                 if (applicationService.getUser(UserData.EMAIL, email).isPresent()) {
-                    MailSender mailSender = new MailSender();
                     String resetCode = menuUtils.generateResetCode();
 
-                    try {
-                        mailSender.sendEmail(email, "Код для сброса пароля", "Ваш код для сброса пароля: " + resetCode);
-                    } catch (MessagingException e) {
-                        throw new RuntimeException("Неудачная попытка отправить сообщение на почту");
+                    if (!applicationService.sendEmail(email, "Код для сброса пароля", "Ваш код для сброса пароля: " + resetCode)) {
+                        System.err.println("Неудачная попытка отправить сообщение на почту.");
+                        return;
                     }
 
                     String input = menuUtils.promptInput(scanner, "Введите код для сброса пароля: ");
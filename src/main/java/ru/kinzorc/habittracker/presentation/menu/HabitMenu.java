@@ -5,6 +5,7 @@ import ru.kinzorc.habittracker.application.service.ApplicationService;
 import ru.kinzorc.habittracker.core.enums.Habit.HabitExecutionPeriod;
 import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
 import ru.kinzorc.habittracker.core.enums.Habit.HabitStatus;
+import ru.kinzorc.habittracker.core.enums.Habit.LeaderboardMetric;
 import ru.kinzorc.habittracker.presentation.utils.MenuUtils;
 import ru.kinzorc.habittracker.presentation.utils.PrintUtils;
 
@@ -22,8 +23,13 @@ public class HabitMenu implements Menu {
         while (true) {
             System.out.println("""
                     Управление: 1) Статистика по привычке 2) Отметить выполнение 3) Добавить привычку
-                                4) Изменить привычку 5) Завершить привычку 6) Удалить привычку 7) Выход в личный кабинет""");
+                                4) Изменить привычку 5) Завершить привычку 6) Удалить привычку 7) Рейтинг
+                                8) Напоминание 9) Выход в личный кабинет""");
             int option = menuUtils.promptMenuValidInput(scanner);
+
+            if (!applicationService.touchSession())
+                return;
+
             int subOption;
             String habitName;
 
@@ -67,6 +73,12 @@ public class HabitMenu implements Menu {
                 }
                 case 3 -> {
                     habitName = menuUtils.promptInput(scanner, "Введите название новой привычки: ");
+
+                    if (applicationService.isHabitNameTaken(habitName)) {
+                        System.out.println("Привычка с таким именем уже существует.");
+                        continue;
+                    }
+
                     String habitDescription = menuUtils.promptInput(scanner, "Введите описание привычки: ");
                     String habitFrequency = menuUtils.promptHabitFrequencyValid(scanner,
                             "Частота выполнения (daily/weekly): ",
@@ -169,6 +181,50 @@ public class HabitMenu implements Menu {
                     applicationService.deleteHabit(habitDTO.getId());
                 }
                 case 7 -> {
+                    System.out.println("Рейтинг: 1) Привычки по стрику 2) Привычки по проценту выполнения 3) Пользователи по стрику 4) Пользователи по проценту выполнения");
+                    subOption = menuUtils.promptMenuValidInput(scanner);
+
+                    if (subOption < 1 || subOption > 4) {
+                        System.out.println("Пожалуйста, выберите один из предложенных вариантов.");
+                        continue;
+                    }
+
+                    LeaderboardMetric metric = subOption % 2 == 1 ? LeaderboardMetric.STREAK : LeaderboardMetric.EXECUTION_PERCENTAGE;
+
+                    System.out.println("Частота выполнения: 1) Все 2) Ежедневные 3) Еженедельные");
+                    HabitFrequency frequency = switch (menuUtils.promptMenuValidInput(scanner)) {
+                        case 2 -> HabitFrequency.DAILY;
+                        case 3 -> HabitFrequency.WEEKLY;
+                        default -> null;
+                    };
+
+                    if (subOption <= 2)
+                        PrintUtils.printLeaderboard(applicationService.getTopHabits(metric, frequency, 10));
+                    else
+                        PrintUtils.printLeaderboard(applicationService.getTopUsers(metric, frequency, 10));
+
+                    menuUtils.promptInput(scanner, "Нажмите enter для выхода...");
+                }
+                case 8 -> {
+                    habitName = menuUtils.promptInput(scanner, "Введите название привычки: ");
+                    if (applicationService.findHabitByName(habitName).isEmpty())
+                        return;
+
+                    HabitDTO habitDTO = applicationService.findHabitByName(habitName).get();
+
+                    System.out.println("Напоминание: 1) Установить время 2) Удалить напоминание");
+                    subOption = menuUtils.promptMenuValidInput(scanner);
+
+                    if (subOption == 1) {
+                        LocalTime remindTime = menuUtils.promptTimeValid(scanner,
+                                "Время напоминания (формат HH:mm, 0 - отмена): ", "Неверно указано время.");
+                        if (remindTime != null)
+                            applicationService.setReminder(habitDTO.getId(), remindTime);
+                    } else if (subOption == 2) {
+                        applicationService.removeReminder(habitDTO.getId());
+                    }
+                }
+                case 9 -> {
                     System.out.println("Возврат в личный кабинет");
                     return;
                 }
@@ -22,6 +22,12 @@ public class MainMenu implements Menu {
                     String name = menuUtils.promptValidInputUserData(scanner, UserData.USERNAME, "Имя пользователя: ",
                             "Имя пользователя должно содержать от 3 до 20 символов и начинаться с буквы"); // Ввод имени
                     String email = menuUtils.promptValidInputUserData(scanner, UserData.EMAIL, "Введите email: ", "Некорректный email"); // Ввод email
+
+                    if (applicationService.isEmailRegistered(email)) {
+                        System.out.println("Пользователь с таким email уже зарегистрирован!");
+                        continue;
+                    }
+
                     String password = menuUtils.promptValidInputUserData(scanner, UserData.PASSWORD, "Введите пароль: ", """
                             Пароль должен содержать:
                             - минимум 8 символов
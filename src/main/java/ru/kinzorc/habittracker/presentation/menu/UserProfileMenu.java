@@ -4,6 +4,7 @@ import ru.kinzorc.habittracker.application.service.ApplicationService;
 import ru.kinzorc.habittracker.core.entities.User;
 import ru.kinzorc.habittracker.core.enums.User.UserData;
 import ru.kinzorc.habittracker.presentation.utils.MenuUtils;
+import ru.kinzorc.habittracker.presentation.utils.PrintUtils;
 
 import java.util.Scanner;
 
@@ -19,10 +20,20 @@ public class UserProfileMenu implements Menu {
                     + "\n Email: " + applicationService.getCurrentUser().getEmail()
                     + "\n Роль в системе: " + applicationService.getCurrentUser().getUserRole() + "\n");
 
-            System.out.println("Меню профиля: 1) Изменить имя 2) Изменить email 3) Изменить пароль 4) Выход");
+            applicationService.getDashboard(applicationService.getCurrentUser()).ifPresent(dashboard -> {
+                dashboard.getStats().ifPresent(stats ->
+                        System.out.println("Привычки: активных " + stats.getActiveHabits() + ", завершенных " + stats.getFinishedHabits()
+                                + "; выполнений: " + stats.getTotalExecutions() + "; средний процент выполнения: " + stats.getAverageCompletion() + "\n"));
+                PrintUtils.printListHabits(dashboard.getHabits());
+            });
+
+            System.out.println("Меню профиля: 1) Изменить имя 2) Изменить email 3) Изменить пароль 4) Выгрузить мои данные 5) Выход");
 
             int option = menuUtils.promptMenuValidInput(scanner);
 
+            if (!applicationService.touchSession())
+                return;
+
             User user = applicationService.getCurrentUser();
 
             switch (option) {
@@ -48,7 +59,8 @@ public class UserProfileMenu implements Menu {
                                 - хотя бы один специальный символ"""));
                     applicationService.editUser(user);
                 }
-                case 4 -> {
+                case 4 -> applicationService.exportCurrentUserData(menuUtils.promptExportPath(scanner, "habit-tracker-" + user.getId()));
+                case 5 -> {
                     System.out.println("Возврат в личный кабинет");
                     return;
                 }
@@ -2,7 +2,9 @@ package ru.kinzorc.habittracker.presentation.utils;
 
 import ru.kinzorc.habittracker.core.enums.User.UserData;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.Random;
@@ -240,6 +242,49 @@ public class MenuUtils {
         return date;
     }
 
+    /**
+     * Запрашивает у пользователя корректное время в формате "HH:mm" с проверкой.
+     *
+     * @param scanner      объект {@link Scanner} для ввода данных
+     * @param message      сообщение для пользователя
+     * @param errorMessage сообщение об ошибке в случае некорректного ввода
+     * @return корректное время в формате {@link LocalTime} или {@code null}, если пользователь ввел 0
+     */
+    public LocalTime promptTimeValid(Scanner scanner, String message, String errorMessage) {
+        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+
+        while (true) {
+            System.out.print(message);
+            String data = scanner.nextLine();
+
+            if (data.equalsIgnoreCase("0"))
+                return null;
+
+            try {
+                return LocalTime.parse(data, timeFormatter);
+            } catch (DateTimeParseException e) {
+                System.out.println(errorMessage);
+            }
+        }
+    }
+
+    /**
+     * Запрашивает у пользователя путь к файлу архива выгрузки.
+     * <p>
+     * Если пользователь не ввел путь, используется файл {@code <prefix>-<дата>.tar.gz} в текущем каталоге.
+     * </p>
+     *
+     * @param scanner объект {@link Scanner} для ввода данных
+     * @param prefix  префикс имени файла по умолчанию
+     * @return путь к файлу архива
+     */
+    public Path promptExportPath(Scanner scanner, String prefix) {
+        String defaultName = prefix + "-" + LocalDate.now() + ".tar.gz";
+        String data = promptInput(scanner, "Путь к архиву (enter - " + defaultName + "): ").trim();
+
+        return Path.of(data.isEmpty() ? defaultName : data);
+    }
+
     /**
      * Генерирует шестизначный код для сброса пароля.
      *
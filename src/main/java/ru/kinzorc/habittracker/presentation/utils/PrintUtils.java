@@ -1,16 +1,19 @@
 package ru.kinzorc.habittracker.presentation.utils;
 
+import ru.kinzorc.habittracker.application.dto.DuplicateFilterStatsDTO;
 import ru.kinzorc.habittracker.application.dto.HabitDTO;
+import ru.kinzorc.habittracker.application.dto.LeaderboardEntryDTO;
 import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.application.dto.UserStatsDTO;
 import ru.kinzorc.habittracker.application.service.ApplicationService;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Утилитный класс для вывода информации на консоль.
@@ -20,6 +23,82 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class PrintUtils {
 
+    /**
+     * Ширина столбца описания в списке привычек.
+     */
+    public static final int DESCRIPTION_WIDTH = 30;
+
+    /**
+     * Длина описания, запрашиваемая для списка привычек: на один символ больше ширины столбца,
+     * чтобы можно было определить, что описание не помещается и его нужно сократить.
+     */
+    public static final int LIST_DESCRIPTION_LENGTH = DESCRIPTION_WIDTH + 1;
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    // Раскладки таблиц формируются один раз при загрузке класса
+    private static final TableRenderer<UserDTO> USERS_TABLE = TableRenderer.<UserDTO>builder()
+            .number("№", 3)
+            .column("ID", 6, UserDTO::getId)
+            .column("ИМЯ", 20, UserDTO::getUserName)
+            .column("EMAIL", 30, UserDTO::getEmail)
+            .column("РОЛЬ", 12, UserDTO::getUserRole)
+            .column("СТАТУС АККАУНТА", 12, UserDTO::getUserStatusAccount)
+            .build();
+
+    private static final TableRenderer<UserStatsDTO> USERS_STATS_TABLE = TableRenderer.<UserStatsDTO>builder()
+            .column("ID", 6, UserStatsDTO::getUserId)
+            .column("Имя", 20, UserStatsDTO::getUserName)
+            .column("Email", 30, UserStatsDTO::getEmail)
+            .column("Активные", 10, UserStatsDTO::getActiveHabits)
+            .column("Завершенные", 12, UserStatsDTO::getFinishedHabits)
+            .column("Выполнения", 12, UserStatsDTO::getTotalExecutions)
+            .column("Процент", 10, UserStatsDTO::getAverageCompletion)
+            .column("Активность", 16, stat -> stat.getLastActivity() != null ? stat.getLastActivity().format(DATE_TIME_FORMAT) : "-")
+            .build();
+
+    private static final TableRenderer<HabitDTO> HABITS_TABLE = TableRenderer.<HabitDTO>builder()
+            .number("№", 3)
+            .column("ID", 3, HabitDTO::getId)
+            .column("USER_ID", 3, HabitDTO::getUserId)
+            .column("Название", 20, HabitDTO::getName)
+            .column("Описание", DESCRIPTION_WIDTH, habit -> abbreviate(habit.getDescription(), DESCRIPTION_WIDTH))
+            .column("Периодичность", 10, habit -> habit.getFrequency().name())
+            .column("Дата создания", 12, HabitDTO::getCreatedDate)
+            .column("Дата начала", 12, HabitDTO::getStartDate)
+            .column("Дата окончания", 12, HabitDTO::getEndDate)
+            .column("Период выполнения", 5, HabitDTO::getExecutionPeriod)
+            .column("Статус", 5, HabitDTO::getStatus)
+            .column("Стрик", 3, HabitDTO::getStreak)
+            .column("Процент выполнения", 3, HabitDTO::getExecutionPercentage)
+            .build();
+
+    private static final TableRenderer<LeaderboardEntryDTO> LEADERBOARD_TABLE = TableRenderer.<LeaderboardEntryDTO>builder()
+            .number("Место", 5)
+            .column("USER_ID", 8, LeaderboardEntryDTO::getUserId)
+            .column("Привычка", 20, LeaderboardEntryDTO::getHabitName)
+            .column("Частота", 10, LeaderboardEntryDTO::getFrequency)
+            .column("Стрик", 6, LeaderboardEntryDTO::getStreak)
+            .column("Процент", 6, LeaderboardEntryDTO::getExecutionPercentage)
+            .build();
+
+    private static final TableRenderer<DuplicateFilterStatsDTO> DUPLICATE_FILTERS_TABLE = TableRenderer.<DuplicateFilterStatsDTO>builder()
+            .column("Фильтр", 16, DuplicateFilterStatsDTO::getName)
+            .column("Значений", 10, DuplicateFilterStatsDTO::getEntries)
+            .column("Память, КБ", 10, stats -> stats.getMemoryBytes() / 1024)
+            .column("Расчетная FPR", 13, stats -> String.format("%.4f%%", stats.getExpectedFalsePositiveRate() * 100))
+            .column("Без запроса", 11, DuplicateFilterStatsDTO::getSkippedChecks)
+            .column("Запросов к БД", 13, DuplicateFilterStatsDTO::getDatabaseChecks)
+            .column("Ложных", 8, DuplicateFilterStatsDTO::getFalsePositives)
+            .column("Фактическая FPR", 15, stats -> String.format("%.4f%%", stats.getObservedFalsePositiveRate() * 100))
+            .build();
+
+    private static final TableRenderer<Map.Entry<LocalDate, Integer>> EXECUTIONS_TABLE = TableRenderer.<Map.Entry<LocalDate, Integer>>builder()
+            .column("Дата выполнения", 20, entry -> entry.getKey().format(DATE_FORMAT))
+            .column("Процент выполнения", 3, Map.Entry::getValue)
+            .build();
+
     /**
      * Выводит список всех пользователей в форматированной таблице.
      * <p>
@@ -29,13 +108,41 @@ public class PrintUtils {
      * @param users список объектов {@link UserDTO}, представляющих пользователей
      */
     public static void pintAllUsers(List<UserDTO> users) {
-        AtomicInteger increment = new AtomicInteger(1);
         System.out.println("\nСписок пользователей:\n");
-        System.out.printf("%-3S %-6S %-20S %-30S %-12S %-12S%n", "№", "ID", "Имя", "Email", "Роль", "Статус аккаунта");
-        System.out.println("------------------------------------------------------------------------");
+        USERS_TABLE.render(users, System.out);
+    }
+
+    /**
+     * Выводит сводную статистику пользователей в форматированной таблице.
+     * <p>
+     * Таблица включает идентификатор пользователя, имя, email, количество активных и завершенных привычек,
+     * общее количество выполнений, средний процент выполнения и дату последней активности.
+     * </p>
+     *
+     * @param stats список объектов {@link UserStatsDTO}, представляющих статистику пользователей
+     */
+    public static void printUsersStats(List<UserStatsDTO> stats) {
+        System.out.println("\nСводка по пользователям:\n");
+        USERS_STATS_TABLE.render(stats, System.out);
+    }
+
+    /**
+     * Выводит показатели фильтров предварительной проверки дубликатов в форматированной таблице.
+     * <p>
+     * Таблица включает количество значений и объем памяти фильтра, расчетную и фактическую долю ложных срабатываний,
+     * количество проверок без запроса к базе данных и с запросом.
+     * </p>
+     *
+     * @param stats список объектов {@link DuplicateFilterStatsDTO}
+     */
+    public static void printDuplicateFilterStats(List<DuplicateFilterStatsDTO> stats) {
+        if (stats.isEmpty()) {
+            System.out.println("Фильтры дубликатов не настроены.");
+            return;
+        }
 
-        users.forEach(user -> System.out.printf("%-3s %-6S %-20s %-30s %-12S %-12S%n",
-                increment.getAndIncrement(), user.getId(), user.getUserName(), user.getEmail(), user.getUserRole(), user.getUserStatusAccount()));
+        System.out.println("\nФильтры дубликатов:\n");
+        DUPLICATE_FILTERS_TABLE.render(stats, System.out);
     }
 
     /**
@@ -47,16 +154,31 @@ public class PrintUtils {
      * @param habits список объектов {@link HabitDTO}, представляющих привычки
      */
     public static void printListHabits(List<HabitDTO> habits) {
-        AtomicInteger number = new AtomicInteger(1);
+        printListHabits(habits.iterator());
+    }
+
+    /**
+     * Выводит привычки в форматированной таблице по мере чтения из источника,
+     * не загружая весь список в память.
+     *
+     * @param habits источник объектов {@link HabitDTO}, представляющих привычки
+     */
+    public static void printListHabits(Iterator<HabitDTO> habits) {
         System.out.println("\nСписок привычек:\n");
-        System.out.printf("%-3s %-3s %-3s %-20s %-30s %-10s %-12s %-12s %-12s %-5s %-5s %-3s %-3s%n",
-                "№", "ID", "USER_ID", "Название", "Описание", "Периодичность", "Дата создания", "Дата начала", "Дата окончания", "Период выполнения", "Статус", "Стрик", "Процент выполнения");
-        System.out.println("----------------------------------------------------------------------------------------------------------------------------------");
-        habits.forEach(habit -> System.out.printf("%-3s %-3s %-3s %-20s %-30s %-10s %-12s %-12s %-12s %-5s %-5s %-3s %-3s%n",
-                number.getAndIncrement(), habit.getId(), habit.getUserId(), habit.getName(),
-                habit.getDescription(), habit.getFrequency().name(), habit.getCreatedDate(),
-                habit.getStartDate(), habit.getEndDate(), habit.getExecutionPeriod(), habit.getStatus(), habit.getStreak(), habit.getExecutionPercentage()));
+        HABITS_TABLE.render(habits, System.out);
+    }
 
+    /**
+     * Выводит рейтинг привычек или пользователей в форматированной таблице.
+     * <p>
+     * Таблица включает место в рейтинге, идентификатор пользователя, название привычки, частоту выполнения,
+     * стрик и процент выполнения.
+     * </p>
+     *
+     * @param entries список объектов {@link LeaderboardEntryDTO}, упорядоченный по месту в рейтинге
+     */
+    public static void printLeaderboard(List<LeaderboardEntryDTO> entries) {
+        LEADERBOARD_TABLE.render(entries, System.out);
     }
 
     /**
@@ -80,15 +202,19 @@ public class PrintUtils {
         System.out.println("Текущий процент выполнения: " + habit.getExecutionPercentage());
 
         System.out.println("\nДаты выполнения:\n");
-        AtomicInteger number = new AtomicInteger(1);
-        System.out.printf("%-20s %-3s%n", "Дата выполнения", "Процент выполнения");
-        System.out.println("---------------------------------------------------------------");
 
         Map<LocalDate, Integer> executions = applicationService.getHabitStatistic(habit.getName(),
                 habit.getStartDate().atStartOfDay(), LocalDateTime.of(habit.getEndDate(), LocalTime.MAX));
 
-        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+        if (executions != null)
+            EXECUTIONS_TABLE.render(executions.entrySet(), System.out);
+    }
+
+    // Сокращение текста до ширины столбца с многоточием в конце
+    private static String abbreviate(String text, int width) {
+        if (text == null || text.length() <= width)
+            return text;
 
-        executions.forEach((key, value) -> System.out.printf("%-20s %-3s%n", key.format(dateTimeFormatter), value));
+        return text.substring(0, width - 1) + "…";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,262 @@
+package ru.kinzorc.habittracker.presentation.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Вывод данных в виде текстовой таблицы с выравниванием столбцов по левому краю.
+ * <p>
+ * Раскладка столбцов, строка заголовка и разделитель формируются один раз при создании. Каждая строка таблицы
+ * собирается в переиспользуемом {@link StringBuilder} без разбора строки формата и записывается через
+ * {@link BufferedWriter} с большим буфером, поэтому вывод выполняется крупными блоками, а не отдельной
+ * синхронной записью на каждую строку. Строки читаются из {@link Iterator} или {@link Stream} по одной,
+ * так что объем памяти не зависит от количества строк.
+ * </p>
+ * <p>
+ * Как и {@code %-Ns} в {@link String#format}, значение дополняется пробелами до ширины столбца,
+ * а более длинное значение выводится полностью.
+ * </p>
+ *
+ * @param <T> тип строки таблицы
+ */
+public class TableRenderer<T> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final List<Column<T>> columns;
+    private final String header;
+    private final String separator;
+
+    private TableRenderer(List<Column<T>> columns) {
+        this.columns = columns;
+
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            appendCell(line, i, columns.get(i).header, columns.get(i).width);
+        }
+        this.header = line.toString();
+        this.separator = "-".repeat(header.length());
+    }
+
+    /**
+     * Создает построитель таблицы.
+     *
+     * @param <T> тип строки таблицы
+     * @return построитель таблицы
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Выводит таблицу в поток вывода (например, {@link System#out}).
+     * Данные передаются в поток блоками по размеру буфера; по окончании поток сбрасывается, но не закрывается.
+     *
+     * @param rows строки таблицы
+     * @param out  поток вывода
+     */
+    public void render(Iterator<? extends T> rows, PrintStream out) {
+        try {
+            render(rows, new PrintStreamWriter(out));
+        } catch (IOException e) {
+            // PrintStream не выбрасывает IOException, ошибки записи проверяются через checkError()
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Выводит таблицу в поток вывода.
+     *
+     * @param rows строки таблицы
+     * @param out  поток вывода
+     */
+    public void render(Iterable<? extends T> rows, PrintStream out) {
+        render(rows.iterator(), out);
+    }
+
+    /**
+     * Выводит таблицу в поток вывода. Строки потока читаются по одной, поток строк закрывается после вывода.
+     *
+     * @param rows строки таблицы
+     * @param out  поток вывода
+     */
+    public void render(Stream<? extends T> rows, PrintStream out) {
+        try (rows) {
+            render(rows.iterator(), out);
+        }
+    }
+
+    /**
+     * Выводит таблицу через буфер в {@code out}. По окончании буфер сбрасывается, {@code out} не закрывается.
+     *
+     * @param rows строки таблицы
+     * @param out  приемник текста
+     * @throws IOException в случае ошибки записи
+     */
+    public void render(Iterator<? extends T> rows, Writer out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(out, BUFFER_SIZE);
+        String lineSeparator = System.lineSeparator();
+
+        writer.write(header);
+        writer.write(lineSeparator);
+        writer.write(separator);
+        writer.write(lineSeparator);
+
+        StringBuilder line = new StringBuilder(header.length() * 2);
+        long number = 1;
+
+        while (rows.hasNext()) {
+            T row = rows.next();
+            line.setLength(0);
+
+            for (int i = 0; i < columns.size(); i++) {
+                Column<T> column = columns.get(i);
+                appendCell(line, i, column.value.value(row, number), column.width);
+            }
+            line.append(lineSeparator);
+
+            writer.append(line);
+            number++;
+        }
+
+        writer.flush();
+    }
+
+    // Дописывает значение, дополненное пробелами до ширины столбца; столбцы разделяются одним пробелом
+    private static void appendCell(StringBuilder line, int index, Object value, int width) {
+        if (index > 0)
+            line.append(' ');
+
+        int start = line.length();
+        line.append(value);
+
+        for (int padding = width - (line.length() - start); padding > 0; padding--) {
+            line.append(' ');
+        }
+    }
+
+    /**
+     * Значение ячейки.
+     *
+     * @param <T> тип строки таблицы
+     */
+    @FunctionalInterface
+    public interface CellValue<T> {
+
+        /**
+         * Возвращает значение ячейки для строки.
+         *
+         * @param row    строка таблицы
+         * @param number порядковый номер строки, начиная с 1
+         * @return значение ячейки
+         */
+        Object value(T row, long number);
+    }
+
+    /**
+     * Построитель таблицы: столбцы выводятся в порядке добавления.
+     *
+     * @param <T> тип строки таблицы
+     */
+    public static final class Builder<T> {
+
+        private final List<Column<T>> columns = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Добавляет столбец с порядковым номером строки.
+         *
+         * @param header заголовок столбца
+         * @param width  ширина столбца
+         * @return этот построитель
+         */
+        public Builder<T> number(String header, int width) {
+            return column(header, width, (row, number) -> number);
+        }
+
+        /**
+         * Добавляет столбец со значением, вычисляемым по строке.
+         *
+         * @param header заголовок столбца
+         * @param width  ширина столбца
+         * @param value  функция получения значения
+         * @return этот построитель
+         */
+        public Builder<T> column(String header, int width, Function<? super T, ?> value) {
+            return column(header, width, (row, number) -> value.apply(row));
+        }
+
+        /**
+         * Добавляет столбец со значением, вычисляемым по строке и её номеру.
+         *
+         * @param header заголовок столбца
+         * @param width  ширина столбца
+         * @param value  функция получения значения
+         * @return этот построитель
+         */
+        public Builder<T> column(String header, int width, CellValue<? super T> value) {
+            columns.add(new Column<>(header, width, value::value));
+            return this;
+        }
+
+        /**
+         * Создает таблицу.
+         *
+         * @return таблица с добавленными столбцами
+         */
+        public TableRenderer<T> build() {
+            if (columns.isEmpty()) {
+                throw new IllegalStateException("Таблица должна содержать хотя бы один столбец.");
+            }
+
+            return new TableRenderer<>(List.copyOf(columns));
+        }
+    }
+
+    private static final class Column<T> {
+        private final String header;
+        private final int width;
+        private final CellValue<T> value;
+
+        private Column(String header, int width, CellValue<T> value) {
+            this.header = header;
+            this.width = width;
+            this.value = value;
+        }
+    }
+
+    // Передает содержимое буфера в PrintStream одним вызовом на блок, сохраняя кодировку потока
+    private static final class PrintStreamWriter extends Writer {
+        private final PrintStream out;
+
+        private PrintStreamWriter(PrintStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            out.append(CharBuffer.wrap(buffer, offset, length));
+        }
+
+        @Override
+        public void flush() {
+            out.flush();
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
@@ -7,6 +7,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import ru.kinzorc.habittracker.application.dto.HabitDTO;
 import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.application.dto.UserDashboardDTO;
+import ru.kinzorc.habittracker.application.dto.UserStatsDTO;
 import ru.kinzorc.habittracker.core.entities.Habit;
 import ru.kinzorc.habittracker.core.entities.User;
 import ru.kinzorc.habittracker.core.enums.Habit.HabitExecutionPeriod;
@@ -16,11 +18,21 @@ import ru.kinzorc.habittracker.core.exceptions.HabitAlreadyExistsException;
 import ru.kinzorc.habittracker.core.exceptions.HabitNotFoundException;
 import ru.kinzorc.habittracker.core.exceptions.UserAlreadyExistsException;
 import ru.kinzorc.habittracker.core.exceptions.UserNotFoundException;
+import ru.kinzorc.habittracker.core.repository.DataExportRepository;
+import ru.kinzorc.habittracker.core.repository.HabitReminderRepository;
 import ru.kinzorc.habittracker.core.repository.HabitRepository;
+import ru.kinzorc.habittracker.core.repository.SessionRepository;
+import ru.kinzorc.habittracker.core.repository.TokenRevocationRepository;
+import ru.kinzorc.habittracker.core.repository.UniqueKeyRepository;
 import ru.kinzorc.habittracker.core.repository.UserRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.async.ExecutorAsyncHabitRepository;
+import ru.kinzorc.habittracker.infrastructure.repository.async.ExecutorAsyncUserRepository;
 
 import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +43,8 @@ public class ApplicationServiceTest {
 
     private UserRepository userRepository;
     private HabitRepository habitRepository;
+    private SessionRepository sessionRepository;
+    private LeaderboardService leaderboardService;
     private ApplicationService applicationService;
 
     private UserDTO testUserDTO;
@@ -40,7 +54,24 @@ public class ApplicationServiceTest {
     void setUp() {
         userRepository = Mockito.mock(UserRepository.class);
         habitRepository = Mockito.mock(HabitRepository.class);
-        applicationService = new ApplicationService(userRepository, habitRepository);
+        sessionRepository = Mockito.mock(SessionRepository.class);
+        leaderboardService = Mockito.mock(LeaderboardService.class);
+
+        EmailService emailService = Mockito.mock(EmailService.class);
+        applicationService = ApplicationService.builder(userRepository, habitRepository)
+                .asyncRepositories(new ExecutorAsyncUserRepository(userRepository, Runnable::run),
+                        new ExecutorAsyncHabitRepository(habitRepository, Runnable::run))
+                .leaderboardService(leaderboardService)
+                .emailService(emailService)
+                .reminderService(new ReminderService(Mockito.mock(HabitReminderRepository.class), emailService,
+                        new DirectUnitOfWork(), Duration.ofSeconds(1), Duration.ofMinutes(15)))
+                .dataExportService(new DataExportService(Mockito.mock(DataExportRepository.class), new DirectUnitOfWork()))
+                .sessionService(new SessionService(sessionRepository, "test-node", Duration.ofMinutes(30), 100))
+                .sessionTokenService(new SessionTokenService(Mockito.mock(TokenRevocationRepository.class),
+                        SessionTokenService.generateSecret(), Duration.ofMinutes(30), Duration.ofHours(12)))
+                .unitOfWork(new DirectUnitOfWork())
+                .duplicateCheckService(new DuplicateCheckService(Mockito.mock(UniqueKeyRepository.class), 100, 100, 0.01))
+                .build();
 
         testUser = new User("TestUser", "password", "test@test.com", UserRole.USER);
         testUser.setId(1L);
@@ -67,6 +98,31 @@ public class ApplicationServiceTest {
         verify(userRepository, times(1)).createUser(any(UserDTO.class));
     }
 
+    @Test
+    @DisplayName("Личный кабинет загружает привычки и статистику пользователя")
+    void getDashboard_success() throws SQLException, UserNotFoundException {
+        HabitDTO habitDTO = new HabitDTO(new Habit("Бег", "Утренний бег", HabitFrequency.DAILY,
+                LocalDate.now(), HabitExecutionPeriod.MONTH));
+        UserStatsDTO stats = Mockito.mock(UserStatsDTO.class);
+        when(habitRepository.findHabitByUser(any(UserDTO.class))).thenReturn(List.of(habitDTO));
+        when(userRepository.findUserStats(testUser.getId())).thenReturn(Optional.of(stats));
+
+        Optional<UserDashboardDTO> dashboard = applicationService.getDashboard(testUser);
+
+        assertTrue(dashboard.isPresent());
+        assertEquals(List.of(habitDTO), dashboard.get().getHabits());
+        assertSame(stats, dashboard.get().getStats().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Личный кабинет не загружается при ошибке одного из запросов")
+    void getDashboard_failure() throws SQLException, UserNotFoundException {
+        when(habitRepository.findHabitByUser(any(UserDTO.class))).thenReturn(List.of());
+        when(userRepository.findUserStats(testUser.getId())).thenThrow(new SQLException("нет соединения"));
+
+        assertTrue(applicationService.getDashboard(testUser).isEmpty());
+    }
+
     @Test
     @DisplayName("Авторизация пользователя успешно")
     void loginUser_success() throws SQLException, UserNotFoundException {
@@ -75,7 +131,7 @@ public class ApplicationServiceTest {
         boolean result = applicationService.loginUser("test@test.com", "password");
 
         assertTrue(result);
-        verify(userRepository, times(1)).addSession(testUser.getId());
+        verify(sessionRepository, times(1)).createSession(eq(testUser.getId()), eq("test-node"), any(), any());
     }
 
     @Test
@@ -86,7 +142,7 @@ public class ApplicationServiceTest {
         boolean result = applicationService.loginUser("test@test.com", "wrongPassword");
 
         assertFalse(result);
-        verify(userRepository, never()).addSession(anyLong());
+        verify(sessionRepository, never()).createSession(anyLong(), anyString(), any(), any());
     }
 
     @Test
@@ -101,15 +157,15 @@ public class ApplicationServiceTest {
 
     @Test
     @DisplayName("Выход пользователя успешно")
-    void logoutUser_success() throws SQLException {
+    void logoutUser_success() throws SQLException, UserNotFoundException {
+        when(userRepository.findUserByEmail(anyString())).thenReturn(Optional.of(testUserDTO));
+        when(sessionRepository.createSession(anyLong(), anyString(), any(), any())).thenReturn(42L);
         applicationService.loginUser("test@test.com", "password");
 
-        doNothing().when(userRepository).removeSession(testUser.getId());
-
         boolean result = applicationService.logoutUser(testUser);
 
         assertTrue(result);
-        verify(userRepository, times(1)).removeSession(testUser.getId());
+        verify(sessionRepository, times(1)).removeSession(42L);
     }
 
     @Test
@@ -136,12 +192,11 @@ public class ApplicationServiceTest {
     @Test
     @DisplayName("Удаление привычки успешно")
     void deleteHabit_success() throws SQLException, HabitNotFoundException {
-        doNothing().when(habitRepository).resetExecutions(anyLong());
         doNothing().when(habitRepository).deleteHabit(anyLong());
 
         applicationService.deleteHabit(1L);
 
-        verify(habitRepository, times(1)).resetExecutions(anyLong());
+        verify(habitRepository, never()).resetExecutions(anyLong());
         verify(habitRepository, times(1)).deleteHabit(anyLong());
     }
 
@@ -157,7 +212,7 @@ public class ApplicationServiceTest {
 
     @Test
     @DisplayName("Редактирование привычки успешно")
-    void editHabit_success() throws SQLException, HabitNotFoundException {
+    void editHabit_success() throws SQLException, HabitNotFoundException, HabitAlreadyExistsException {
 
         Habit testHabit = new Habit("test_habit", "test_description", HabitFrequency.DAILY, LocalDate.now(), HabitExecutionPeriod.MONTH);
         testHabit.setId(1L);
@@ -181,7 +236,7 @@ public class ApplicationServiceTest {
 
     @Test
     @DisplayName("Редактирование привычки — привычка не найдена")
-    void editHabit_habitNotFound() throws SQLException, HabitNotFoundException {
+    void editHabit_habitNotFound() throws SQLException, HabitNotFoundException, HabitAlreadyExistsException {
         doThrow(new HabitNotFoundException("Привычка не найдена")).when(habitRepository).updateHabit(any(HabitDTO.class));
 
         Habit testHabit = new Habit("test_habit", "test_description", HabitFrequency.DAILY, LocalDate.now(), HabitExecutionPeriod.MONTH);
@@ -189,4 +244,64 @@ public class ApplicationServiceTest {
 
         verify(habitRepository, times(1)).updateHabit(any(HabitDTO.class));
     }
+
+    @Test
+    @DisplayName("Повторная отметка выполнения — рейтинг не обновляется")
+    void markExecution_duplicate() throws SQLException, HabitNotFoundException {
+        Habit testHabit = new Habit("test_habit", "test_description", HabitFrequency.DAILY, LocalDate.now(), HabitExecutionPeriod.MONTH);
+        testHabit.setId(1L);
+        HabitDTO testHabitDTO = new HabitDTO(testHabit);
+        LocalDateTime executionDate = LocalDateTime.now();
+
+        when(habitRepository.findHabitByID(1L)).thenReturn(Optional.of(testHabitDTO));
+        when(habitRepository.markExecution(testHabitDTO, executionDate)).thenReturn(true, false);
+
+        applicationService.markExecution(1L, executionDate);
+        applicationService.markExecution(1L, executionDate);
+
+        verify(habitRepository, times(2)).markExecution(testHabitDTO, executionDate);
+        verify(leaderboardService, times(1)).update(testHabitDTO);
+    }
+
+    @Test
+    @DisplayName("Отметка выполнения привычки, удаленной после поиска, — рейтинг не обновляется")
+    void markExecution_habitRemoved() throws SQLException, HabitNotFoundException {
+        Habit testHabit = new Habit("test_habit", "test_description", HabitFrequency.DAILY, LocalDate.now(), HabitExecutionPeriod.MONTH);
+        testHabit.setId(1L);
+        HabitDTO testHabitDTO = new HabitDTO(testHabit);
+        LocalDateTime executionDate = LocalDateTime.now();
+
+        when(habitRepository.findHabitByID(1L)).thenReturn(Optional.of(testHabitDTO));
+        when(habitRepository.markExecution(testHabitDTO, executionDate)).thenThrow(new HabitNotFoundException("Привычка не найдена"));
+
+        applicationService.markExecution(1L, executionDate);
+
+        verify(habitRepository, times(1)).markExecution(testHabitDTO, executionDate);
+        verify(leaderboardService, never()).update(any(HabitDTO.class));
+    }
+
+    @Test
+    @DisplayName("Сброс выполнений всех привычек администратором сбрасывает рейтинги")
+    void resetAllExecutions_admin() throws Exception {
+        testUser.setUserRole(UserRole.ADMIN);
+        when(userRepository.findUserByEmail(anyString())).thenReturn(Optional.of(new UserDTO(testUser)));
+        applicationService.loginUser("test@test.com", "password");
+
+        applicationService.resetAllExecutions();
+
+        verify(habitRepository, times(1)).resetExecutionsAllHabits(any(UserDTO.class));
+        verify(leaderboardService, times(1)).invalidate();
+    }
+
+    @Test
+    @DisplayName("Сброс выполнений всех привычек недоступен обычному пользователю")
+    void resetAllExecutions_notAdmin() throws Exception {
+        when(userRepository.findUserByEmail(anyString())).thenReturn(Optional.of(testUserDTO));
+        applicationService.loginUser("test@test.com", "password");
+
+        applicationService.resetAllExecutions();
+
+        verify(habitRepository, never()).resetExecutionsAllHabits(any(UserDTO.class));
+        verify(leaderboardService, never()).invalidate();
+    }
 }
@@ -0,0 +1,66 @@
+package ru.kinzorc.habittracker.application.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    @DisplayName("Добавленные строки всегда находятся, доля ложных срабатываний близка к заданной")
+    void mightContain_noFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@mail.ru");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@mail.ru"));
+        }
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other" + i + "@mail.ru"))
+                .count();
+
+        assertTrue(falsePositives < 2_000, "Ложных срабатываний: " + falsePositives);
+        assertEquals(0.01, filter.getExpectedFalsePositiveRate(), 0.005);
+        assertEquals(10_000, filter.getInsertions());
+        assertEquals(filter.getBitCount() / 8, filter.getMemoryBytes());
+    }
+
+    @Test
+    @DisplayName("Строки, добавленные из нескольких потоков, не теряются")
+    void add_concurrent() throws InterruptedException {
+        BloomFilter filter = new BloomFilter(80_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int thread = 0; thread < 8; thread++) {
+            int base = thread * 10_000;
+            executor.execute(() -> {
+                for (int i = base; i < base + 10_000; i++) {
+                    filter.add("habit" + i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 80_000; i++) {
+            assertTrue(filter.mightContain("habit" + i), "Строка потеряна: habit" + i);
+        }
+        assertEquals(80_000, filter.getInsertions());
+    }
+
+    @Test
+    @DisplayName("Некорректные параметры фильтра отклоняются")
+    void constructor_invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+}
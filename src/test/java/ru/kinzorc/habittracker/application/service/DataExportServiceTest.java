@@ -0,0 +1,126 @@
+package ru.kinzorc.habittracker.application.service;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import ru.kinzorc.habittracker.application.dto.DataExportDTO;
+import ru.kinzorc.habittracker.core.repository.DataExportRepository;
+import ru.kinzorc.habittracker.core.repository.DataExportRepository.Table;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DataExportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DataExportRepository exportRepository;
+    private DataExportService dataExportService;
+    private int readOnlyUnits;
+    private boolean inReadOnlyUnit;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        exportRepository = Mockito.mock(DataExportRepository.class);
+        dataExportService = new DataExportService(exportRepository, new DirectUnitOfWork() {
+            @Override
+            public <T, E extends Exception> T executeReadOnly(Work<T, E> work) throws E, SQLException {
+                readOnlyUnits++;
+                inReadOnlyUnit = true;
+                try {
+                    return work.run();
+                } finally {
+                    inReadOnlyUnit = false;
+                }
+            }
+        });
+
+        // Таблица выполнений больше буферов ввода-вывода, чтобы проверить потоковое копирование в архив
+        when(exportRepository.exportTable(any(), any(), any())).thenAnswer(invocation -> {
+            Table table = invocation.getArgument(0);
+            Long userId = invocation.getArgument(1);
+            Writer out = invocation.getArgument(2);
+            assertTrue(inReadOnlyUnit, "Таблица должна выгружаться в транзакции только для чтения.");
+            int rows = table == Table.HABIT_EXECUTIONS ? 20_000 : 2;
+
+            out.write("table,user\n");
+            for (int i = 0; i < rows; i++) {
+                out.write(table.name() + "," + userId + "\n");
+            }
+            return (long) rows;
+        });
+    }
+
+    @Test
+    @DisplayName("Выгрузка пользователя создает tar.gz с CSV-файлом для каждой таблицы")
+    void exportUser_writesAllTables() throws Exception {
+        Path archive = tempDir.resolve("user.tar.gz");
+
+        DataExportDTO result = dataExportService.exportUser(7L, archive);
+
+        Map<String, String> entries = readArchive(archive);
+        assertEquals(4, entries.size());
+        assertTrue(entries.containsKey("habit_archive.csv"));
+        assertTrue(entries.get("users.csv").startsWith("table,user\nUSERS,7\n"));
+        assertEquals(20_001, entries.get("habit_executions.csv").lines().count());
+
+        assertEquals(20_006, result.getRows());
+        assertEquals(entries.values().stream().mapToLong(text -> text.getBytes(StandardCharsets.UTF_8).length).sum(),
+                result.getUncompressedBytes());
+        assertEquals(Files.size(archive), result.getArchiveBytes());
+        assertTrue(result.getArchiveBytes() < result.getUncompressedBytes());
+        verify(exportRepository).exportTable(eq(Table.HABITS), eq(7L), any());
+    }
+
+    @Test
+    @DisplayName("Полная выгрузка не ограничивает данные пользователем")
+    void exportAll_withoutUserFilter() throws Exception {
+        dataExportService.exportAll(tempDir.resolve("full.tar.gz"));
+
+        for (Table table : Table.values()) {
+            verify(exportRepository).exportTable(eq(table), isNull(), any());
+        }
+        assertEquals(1, readOnlyUnits, "Все таблицы должны выгружаться в одной транзакции.");
+    }
+
+    @Test
+    @DisplayName("При ошибке базы данных незавершенный архив удаляется")
+    void export_failure_removesArchive() throws Exception {
+        Path archive = tempDir.resolve("broken.tar.gz");
+        doThrow(new SQLException("connection lost")).when(exportRepository).exportTable(eq(Table.HABITS), any(), any());
+
+        assertThrows(SQLException.class, () -> dataExportService.exportUser(1L, archive));
+        assertFalse(Files.exists(archive));
+    }
+
+    private static Map<String, String> readArchive(Path archive) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+
+        try (InputStream in = Files.newInputStream(archive);
+             TarArchiveInputStream tar = new TarArchiveInputStream(new GzipCompressorInputStream(in))) {
+            TarArchiveEntry entry;
+            while ((entry = tar.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(tar.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        return entries;
+    }
+}
@@ -0,0 +1,21 @@
+package ru.kinzorc.habittracker.application.service;
+
+import ru.kinzorc.habittracker.core.repository.UnitOfWork;
+
+import java.sql.SQLException;
+
+/**
+ * Единица работы для тестов сервисов: операции выполняются сразу, без отдельной транзакции.
+ */
+class DirectUnitOfWork implements UnitOfWork {
+
+    @Override
+    public <T, E extends Exception> T execute(Work<T, E> work) throws E, SQLException {
+        return work.run();
+    }
+
+    @Override
+    public <T, E extends Exception> T executeReadOnly(Work<T, E> work) throws E, SQLException {
+        return work.run();
+    }
+}
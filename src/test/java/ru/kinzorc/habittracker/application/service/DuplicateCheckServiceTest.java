@@ -0,0 +1,93 @@
+package ru.kinzorc.habittracker.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.kinzorc.habittracker.application.dto.DuplicateFilterStatsDTO;
+import ru.kinzorc.habittracker.core.repository.UniqueKeyRepository;
+
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DuplicateCheckServiceTest {
+
+    private UniqueKeyRepository uniqueKeyRepository;
+    private DuplicateCheckService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws SQLException {
+        uniqueKeyRepository = Mockito.mock(UniqueKeyRepository.class);
+        service = new DuplicateCheckService(uniqueKeyRepository, 1000, 1000, 0.01);
+
+        doAnswer(invocation -> {
+            ((Consumer<String>) invocation.getArgument(0)).accept("Taken@Mail.ru");
+            return null;
+        }).when(uniqueKeyRepository).scanUserEmails(any());
+        doAnswer(invocation -> {
+            ((UniqueKeyRepository.HabitNameConsumer) invocation.getArgument(0)).accept(1L, "Бег");
+            return null;
+        }).when(uniqueKeyRepository).scanHabitNames(any());
+    }
+
+    @Test
+    @DisplayName("До заполнения фильтров занятость проверяется в базе данных")
+    void isEmailTaken_beforeWarmUp() throws SQLException {
+        assertFalse(service.isEmailTaken("free@mail.ru"));
+
+        verify(uniqueKeyRepository).existsUserEmail("free@mail.ru");
+        assertEquals(0, emailStats().getSkippedChecks());
+        assertEquals(0, emailStats().getFalsePositives());
+    }
+
+    @Test
+    @DisplayName("Свободные значения определяются фильтром без запроса к базе данных, возможно занятые проверяются")
+    void isTaken_afterWarmUp() throws SQLException {
+        when(uniqueKeyRepository.existsUserEmail("taken@mail.ru")).thenReturn(true);
+        when(uniqueKeyRepository.existsHabitName(1L, "бег")).thenReturn(true);
+        service.warmUp();
+
+        assertFalse(service.isEmailTaken("free@mail.ru"));
+        assertFalse(service.isHabitNameTaken(2L, "Бег"));
+        verify(uniqueKeyRepository, never()).existsUserEmail("free@mail.ru");
+        verify(uniqueKeyRepository, never()).existsHabitName(eq(2L), anyString());
+
+        assertTrue(service.isEmailTaken("taken@mail.ru"));
+        assertTrue(service.isHabitNameTaken(1L, "бег"));
+        assertEquals(1, emailStats().getSkippedChecks());
+        assertEquals(1, emailStats().getDatabaseChecks());
+    }
+
+    @Test
+    @DisplayName("Ответ «возможно занято» при свободном значении учитывается как ложное срабатывание")
+    void isEmailTaken_countsFalsePositive() throws SQLException {
+        service.warmUp();
+
+        // Значение есть в фильтре, но в базе данных его уже нет (например, пользователь удален)
+        assertFalse(service.isEmailTaken("TAKEN@mail.ru"));
+
+        assertEquals(1, emailStats().getFalsePositives());
+        assertEquals(1.0, emailStats().getObservedFalsePositiveRate());
+    }
+
+    @Test
+    @DisplayName("Записанные значения попадают в фильтр")
+    void recordEmail_addsToFilter() throws SQLException {
+        service.warmUp();
+        service.recordEmail("new@mail.ru");
+
+        service.isEmailTaken("NEW@mail.ru");
+
+        verify(uniqueKeyRepository).existsUserEmail("NEW@mail.ru");
+        assertEquals(2, emailStats().getEntries());
+    }
+
+    private DuplicateFilterStatsDTO emailStats() {
+        return service.getStats().get(0);
+    }
+}
@@ -0,0 +1,46 @@
+package ru.kinzorc.habittracker.application.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.kinzorc.habittracker.core.repository.HabitRepository;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class HabitExpirationServiceTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2024-06-01T10:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    @DisplayName("Порции завершаются, пока не будет обработана неполная порция")
+    void finishExpired_repeatsUntilPartialBatch() throws SQLException {
+        HabitRepository habitRepository = Mockito.mock(HabitRepository.class);
+        when(habitRepository.finishExpiredHabits(any(), eq(100))).thenReturn(100, 100, 42);
+
+        LeaderboardService leaderboardService = Mockito.mock(LeaderboardService.class);
+
+        int finished = new HabitExpirationService(habitRepository, leaderboardService, 100, clock).finishExpired();
+
+        assertEquals(242, finished);
+        verify(habitRepository, times(3)).finishExpiredHabits(LocalDateTime.of(2024, 6, 1, 10, 0), 100);
+        verify(leaderboardService, times(3)).invalidate();
+    }
+
+    @Test
+    @DisplayName("Ошибка базы данных не прерывает задачу по расписанию")
+    void finishExpiredHabits_reportsError() throws SQLException {
+        HabitRepository habitRepository = Mockito.mock(HabitRepository.class);
+        when(habitRepository.finishExpiredHabits(any(), anyInt())).thenThrow(new SQLException("Ошибка"));
+
+        assertDoesNotThrow(() -> new HabitExpirationService(habitRepository,
+                Mockito.mock(LeaderboardService.class), 100, clock).finishExpiredHabits());
+    }
+}
@@ -0,0 +1,82 @@
+package ru.kinzorc.habittracker.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private HashedTimingWheel<String> wheel;
+    private List<String> expired;
+
+    @BeforeEach
+    void setUp() {
+        // 8 ячеек по 100 мс: один оборот колеса — 800 мс
+        wheel = new HashedTimingWheel<>(Duration.ofMillis(100), 8, START);
+        expired = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Событие срабатывает в конце такта, на который приходится его срок")
+    void advance_firesAtDeadline() {
+        wheel.schedule("a", START + 250);
+
+        assertEquals(0, wheel.advance(START + 299, expired::add));
+        assertEquals(1, wheel.advance(START + 300, expired::add));
+        assertEquals(List.of("a"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Событие со сроком дальше одного оборота колеса ждет нужное количество оборотов")
+    void advance_handlesMultipleRounds() {
+        wheel.schedule("far", START + 2_050);
+        wheel.schedule("near", START + 50);
+
+        wheel.advance(START + 1_000, expired::add);
+        assertEquals(List.of("near"), expired);
+
+        wheel.advance(START + 2_099, expired::add);
+        assertEquals(List.of("near"), expired);
+
+        wheel.advance(START + 2_100, expired::add);
+        assertEquals(List.of("near", "far"), expired);
+    }
+
+    @Test
+    @DisplayName("Отмененное событие не срабатывает, просроченное срабатывает на ближайшем такте")
+    void advance_skipsCancelledAndFiresOverdue() {
+        wheel.advance(START + 500, expired::add);
+
+        HashedTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", START + 700);
+        wheel.schedule("overdue", START + 100);
+        cancelled.cancel();
+
+        wheel.advance(START + 1_000, expired::add);
+
+        assertEquals(List.of("overdue"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Размер колеса округляется до степени двойки без потери событий")
+    void schedule_manyEvents() {
+        HashedTimingWheel<Integer> bigWheel = new HashedTimingWheel<>(Duration.ofMillis(10), 100, START);
+        List<Integer> fired = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            bigWheel.schedule(i, START + i);
+        }
+
+        assertEquals(10_000, bigWheel.advance(START + 10_000, fired::add));
+        assertEquals(10_000, fired.size());
+    }
+}
@@ -0,0 +1,159 @@
+package ru.kinzorc.habittracker.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.kinzorc.habittracker.application.dto.HabitDTO;
+import ru.kinzorc.habittracker.application.dto.LeaderboardEntryDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+import ru.kinzorc.habittracker.core.enums.Habit.LeaderboardMetric;
+import ru.kinzorc.habittracker.core.repository.HabitRepository;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class LeaderboardServiceTest {
+
+    private HabitRepository habitRepository;
+    private LeaderboardService leaderboardService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        habitRepository = Mockito.mock(HabitRepository.class);
+        leaderboardService = new LeaderboardService(habitRepository);
+
+        when(habitRepository.findTopHabits(eq(LeaderboardMetric.STREAK), isNull(), anyInt()))
+                .thenReturn(List.of(habit(1, 1, HabitFrequency.DAILY, 5, 50), habit(2, 2, HabitFrequency.WEEKLY, 3, 30)));
+    }
+
+    @Test
+    @DisplayName("Рейтинг загружается из базы данных один раз и далее читается из памяти")
+    void getTopHabits_loadsOnce() throws SQLException {
+        List<LeaderboardEntryDTO> first = leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 10);
+        List<LeaderboardEntryDTO> second = leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 10);
+
+        assertEquals(List.of(1L, 2L), first.stream().map(LeaderboardEntryDTO::getHabitId).toList());
+        assertEquals(2, second.size());
+        verify(habitRepository, times(1)).findTopHabits(eq(LeaderboardMetric.STREAK), isNull(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Отметка о выполнении сразу меняет порядок в рейтинге")
+    void update_reordersRanking() throws SQLException {
+        leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 10);
+
+        leaderboardService.update(habit(2, 2, HabitFrequency.WEEKLY, 7, 40));
+        leaderboardService.update(habit(3, 1, HabitFrequency.DAILY, 1, 10));
+
+        List<LeaderboardEntryDTO> top = leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 10);
+
+        assertEquals(List.of(2L, 1L, 3L), top.stream().map(LeaderboardEntryDTO::getHabitId).toList());
+        assertEquals(7, top.get(0).getStreak());
+        verify(habitRepository, times(1)).findTopHabits(eq(LeaderboardMetric.STREAK), isNull(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Периодическое обновление перезагружает только загруженные рейтинги")
+    void refresh_reloadsLoadedRankings() throws SQLException {
+        leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 10);
+
+        // Привычка 2 отмечена на другом узле
+        when(habitRepository.findTopHabits(eq(LeaderboardMetric.STREAK), isNull(), anyInt()))
+                .thenReturn(List.of(habit(2, 2, HabitFrequency.WEEKLY, 8, 40), habit(1, 1, HabitFrequency.DAILY, 5, 50)));
+        leaderboardService.refresh();
+
+        List<LeaderboardEntryDTO> top = leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 10);
+
+        assertEquals(List.of(2L, 1L), top.stream().map(LeaderboardEntryDTO::getHabitId).toList());
+        verify(habitRepository, times(2)).findTopHabits(eq(LeaderboardMetric.STREAK), isNull(), anyInt());
+        verify(habitRepository, never()).findTopHabits(eq(LeaderboardMetric.EXECUTION_PERCENTAGE), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Рейтинг пользователей учитывает только лучшую привычку пользователя")
+    void getTopUsers_bestHabitPerUser() throws SQLException {
+        leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 10);
+        leaderboardService.update(habit(3, 1, HabitFrequency.DAILY, 4, 10));
+
+        List<LeaderboardEntryDTO> top = leaderboardService.getTopUsers(LeaderboardMetric.STREAK, null, 10);
+
+        assertEquals(List.of(1L, 2L), top.stream().map(LeaderboardEntryDTO::getUserId).toList());
+        assertEquals(1L, top.get(0).getHabitId());
+    }
+
+    @Test
+    @DisplayName("Удаленная привычка исчезает из рейтинга")
+    void remove_excludesHabit() throws SQLException {
+        leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 10);
+
+        leaderboardService.remove(1L);
+
+        List<LeaderboardEntryDTO> top = leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 1);
+        assertEquals(2L, top.get(0).getHabitId());
+    }
+
+    @Test
+    @DisplayName("Изменение привычки без изменения показателя не вытесняет её из рейтинга")
+    void update_unchangedScoreKeepsHabit() throws SQLException {
+        leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 10);
+
+        leaderboardService.update(habit(1, 1, HabitFrequency.DAILY, 5, 50));
+
+        List<LeaderboardEntryDTO> top = leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 1);
+        assertEquals(1L, top.get(0).getHabitId());
+        verify(habitRepository, times(1)).findTopHabits(eq(LeaderboardMetric.STREAK), isNull(), anyInt());
+    }
+
+    @Test
+    @DisplayName("При изменении частоты привычка переходит в рейтинг новой частоты")
+    void update_frequencyChangeMovesHabit() throws SQLException {
+        when(habitRepository.findTopHabits(eq(LeaderboardMetric.STREAK), eq(HabitFrequency.DAILY), anyInt()))
+                .thenReturn(List.of(habit(1, 1, HabitFrequency.DAILY, 5, 50)));
+        leaderboardService.getTopHabits(LeaderboardMetric.STREAK, HabitFrequency.DAILY, 10);
+
+        leaderboardService.update(habit(1, 1, HabitFrequency.WEEKLY, 5, 50));
+
+        assertTrue(leaderboardService.getTopHabits(LeaderboardMetric.STREAK, HabitFrequency.DAILY, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Привычки удаленного пользователя исчезают из рейтинга")
+    void removeUser_excludesUserHabits() throws SQLException {
+        leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 10);
+
+        leaderboardService.removeUser(1L);
+
+        List<LeaderboardEntryDTO> top = leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 10);
+        assertEquals(List.of(2L), top.stream().map(LeaderboardEntryDTO::getHabitId).toList());
+    }
+
+    @Test
+    @DisplayName("После сброса рейтинг перезагружается из базы данных")
+    void invalidate_reloadsRanking() throws SQLException {
+        leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 10);
+        when(habitRepository.findTopHabits(eq(LeaderboardMetric.STREAK), isNull(), anyInt()))
+                .thenReturn(List.of(habit(2, 2, HabitFrequency.WEEKLY, 3, 30), habit(1, 1, HabitFrequency.DAILY, 0, 50)));
+
+        leaderboardService.invalidate();
+
+        List<LeaderboardEntryDTO> top = leaderboardService.getTopHabits(LeaderboardMetric.STREAK, null, 1);
+        assertEquals(2L, top.get(0).getHabitId());
+        verify(habitRepository, times(2)).findTopHabits(eq(LeaderboardMetric.STREAK), isNull(), anyInt());
+    }
+
+    private static HabitDTO habit(long id, long userId, HabitFrequency frequency, int streak, int percentage) {
+        HabitDTO habit = new HabitDTO();
+        habit.setId(id);
+        habit.setUserId(userId);
+        habit.setName("habit" + id);
+        habit.setFrequency(frequency);
+        habit.setStreak(streak);
+        habit.setExecutionPercentage(percentage);
+        return habit;
+    }
+}
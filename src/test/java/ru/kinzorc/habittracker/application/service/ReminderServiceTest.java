@@ -0,0 +1,127 @@
+package ru.kinzorc.habittracker.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.kinzorc.habittracker.application.dto.EmailMessageDTO;
+import ru.kinzorc.habittracker.application.dto.ReminderDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+import ru.kinzorc.habittracker.core.repository.HabitReminderRepository;
+
+import java.sql.SQLException;
+import java.time.*;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReminderServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+    private static final LocalDate TODAY = LocalDate.of(2024, 10, 16);
+
+    private HabitReminderRepository reminderRepository;
+    private EmailService emailService;
+    private MutableClock clock;
+    private ReminderService reminderService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        reminderRepository = Mockito.mock(HabitReminderRepository.class);
+        emailService = Mockito.mock(EmailService.class);
+        clock = new MutableClock(TODAY.atTime(7, 55).atZone(ZONE).toInstant());
+        reminderService = new ReminderService(reminderRepository, emailService, new DirectUnitOfWork(), Duration.ofSeconds(1), Duration.ofMinutes(15), clock);
+
+        when(reminderRepository.findRemindersBetween(any(), any(), any())).thenReturn(List.of());
+        when(reminderRepository.findRemindersBetween(eq(TODAY), eq(LocalTime.of(7, 55)), eq(LocalTime.of(8, 10))))
+                .thenReturn(List.of(reminder(1, HabitFrequency.DAILY), reminder(2, HabitFrequency.DAILY), reminder(3, HabitFrequency.WEEKLY)));
+        // Привычка 2 уже выполнена сегодня
+        when(reminderRepository.findExecutedHabits(anyList(), any(), any()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).contains(2L) ? Set.of(2L) : Set.of());
+        when(reminderRepository.markReminded(anyList(), any()))
+                .thenAnswer(invocation -> new HashSet<>(invocation.<List<Long>>getArgument(0)));
+        when(emailService.sendEmails(anyList())).thenReturn(Map.of());
+    }
+
+    @Test
+    @DisplayName("Напоминания загружаются окном и срабатывают только для невыполненных привычек")
+    void tick_notifiesOnlyNotExecutedHabits() throws SQLException {
+        reminderService.tick();
+        assertEquals(3, reminderService.getScheduledCount());
+        verify(emailService, never()).sendEmails(anyList());
+
+        clock.set(TODAY.atTime(8, 0, 1));
+        reminderService.tick();
+
+        verify(emailService).sendEmails(argThat((List<EmailMessageDTO> messages) -> messages.size() == 2
+                && messages.get(0).getRecipient().equals("user1@mail.ru")
+                && messages.get(1).getText().contains("на этой неделе")));
+        verify(reminderRepository).markReminded(List.of(1L, 2L, 3L), TODAY);
+        assertEquals(0, reminderService.getScheduledCount());
+    }
+
+    @Test
+    @DisplayName("Удаленное напоминание не срабатывает")
+    void removeReminder_cancelsScheduledReminder() throws SQLException {
+        reminderService.tick();
+        reminderService.removeReminder(1L);
+        reminderService.removeReminder(3L);
+
+        clock.set(TODAY.atTime(8, 0, 1));
+        reminderService.tick();
+
+        verify(emailService, never()).sendEmails(anyList());
+        verify(reminderRepository).markReminded(List.of(2L), TODAY);
+    }
+
+    @Test
+    @DisplayName("Напоминания, отмеченные другим узлом, не отправляются повторно")
+    void tick_skipsRemindersClaimedByOtherNode() throws SQLException {
+        // Напоминание привычки 1 уже отмечено другим узлом
+        when(reminderRepository.markReminded(anyList(), any())).thenReturn(Set.of(2L, 3L));
+        reminderService.tick();
+
+        clock.set(TODAY.atTime(8, 0, 1));
+        reminderService.tick();
+
+        verify(emailService).sendEmails(argThat((List<EmailMessageDTO> messages) -> messages.size() == 1
+                && messages.get(0).getRecipient().equals("user3@mail.ru")));
+    }
+
+    private static ReminderDTO reminder(long habitId, HabitFrequency frequency) {
+        return new ReminderDTO(habitId, "habit" + habitId, frequency, "user" + habitId, "user" + habitId + "@mail.ru", LocalTime.of(8, 0));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(LocalDateTime dateTime) {
+            instant = dateTime.atZone(ZONE).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ru.kinzorc.habittracker.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import ru.kinzorc.habittracker.application.dto.JobCheckpointDTO;
+import ru.kinzorc.habittracker.core.repository.JobCheckpointRepository;
+import ru.kinzorc.habittracker.core.repository.RetentionPurgeRepository;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RetentionPurgeServiceTest {
+
+    private RetentionPurgeRepository purgeRepository;
+    private JobCheckpointRepository checkpointRepository;
+    private final List<Long> pauses = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        purgeRepository = Mockito.mock(RetentionPurgeRepository.class);
+        checkpointRepository = Mockito.mock(JobCheckpointRepository.class);
+
+        when(checkpointRepository.findCheckpoint(anyString())).thenReturn(Optional.empty());
+        when(purgeRepository.getExecutionsPageCount()).thenReturn(25L);
+        when(purgeRepository.getMaxSessionId()).thenReturn(0L);
+    }
+
+    @Test
+    @DisplayName("Таблица проходится порциями, позиция сохраняется после каждой порции и удаляется в конце")
+    void purge_chunksAndCheckpoints() throws Exception {
+        when(purgeRepository.purgeExecutions(anyLong(), anyLong(), any())).thenReturn(4);
+
+        RetentionPurgeService service = service(0);
+        long deleted = service.purge();
+
+        assertEquals(12, deleted);
+        InOrder inOrder = inOrder(purgeRepository, checkpointRepository);
+        inOrder.verify(purgeRepository).purgeExecutions(eq(0L), eq(10L), any());
+        inOrder.verify(checkpointRepository).saveCheckpoint(RetentionPurgeService.EXECUTIONS_JOB, 10, 4);
+        inOrder.verify(purgeRepository).purgeExecutions(eq(10L), eq(20L), any());
+        inOrder.verify(purgeRepository).purgeExecutions(eq(20L), eq(25L), any());
+        inOrder.verify(checkpointRepository).saveCheckpoint(RetentionPurgeService.EXECUTIONS_JOB, 25, 12);
+        inOrder.verify(checkpointRepository).removeCheckpoint(RetentionPurgeService.EXECUTIONS_JOB);
+        verify(purgeRepository, never()).purgeSessions(anyLong(), anyLong(), any());
+        assertFalse(service.getProgress().isRunning());
+        assertEquals(12, service.getProgress().getDeletedRows());
+    }
+
+    @Test
+    @DisplayName("Прерванная очистка продолжается с сохраненной позиции")
+    void purge_resumesFromCheckpoint() throws Exception {
+        when(checkpointRepository.findCheckpoint(RetentionPurgeService.EXECUTIONS_JOB))
+                .thenReturn(Optional.of(new JobCheckpointDTO(RetentionPurgeService.EXECUTIONS_JOB, 20, 7, LocalDateTime.now())));
+        when(purgeRepository.purgeExecutions(anyLong(), anyLong(), any())).thenReturn(3);
+
+        service(0).purge();
+
+        verify(purgeRepository).purgeExecutions(eq(20L), eq(25L), any());
+        verify(purgeRepository, times(1)).purgeExecutions(anyLong(), anyLong(), any());
+        verify(checkpointRepository).saveCheckpoint(RetentionPurgeService.EXECUTIONS_JOB, 25, 10);
+    }
+
+    @Test
+    @DisplayName("Скорость удаления ограничивается паузами между порциями")
+    void purge_throttles() throws Exception {
+        when(purgeRepository.getExecutionsPageCount()).thenReturn(10L);
+        when(purgeRepository.purgeExecutions(anyLong(), anyLong(), any())).thenReturn(500);
+
+        RetentionPurgeService service = service(1000);
+        service.purge();
+
+        // 500 строк при ограничении 1000 строк/с — порция должна занять не меньше 500 мс
+        assertEquals(List.of(500L), pauses);
+        assertEquals(100, service.getProgress().getPercent());
+    }
+
+    private RetentionPurgeService service(int targetRowsPerSecond) {
+        Clock clock = Clock.fixed(Instant.parse("2024-06-01T00:00:00Z"), ZoneOffset.UTC);
+        return new RetentionPurgeService(purgeRepository, checkpointRepository, Duration.ofDays(730), Duration.ofDays(7),
+                10, 100, targetRowsPerSecond, clock, pauses::add);
+    }
+}
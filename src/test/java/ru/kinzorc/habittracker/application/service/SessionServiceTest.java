@@ -0,0 +1,133 @@
+package ru.kinzorc.habittracker.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import ru.kinzorc.habittracker.application.dto.SessionDTO;
+import ru.kinzorc.habittracker.core.repository.SessionRepository;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SessionServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private SessionRepository sessionRepository;
+    private MutableClock clock;
+    private SessionService service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        sessionRepository = Mockito.mock(SessionRepository.class);
+        clock = new MutableClock(START.toInstant(ZoneOffset.UTC));
+        service = new SessionService(sessionRepository, "node-1", Duration.ofMinutes(30), 2, clock);
+
+        when(sessionRepository.createSession(anyLong(), anyString(), any(), any())).thenReturn(10L, 11L);
+        when(sessionRepository.updateActivity(any())).thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Повторные продления сессии записываются одним обновлением")
+    void touchSession_coalescesWrites() throws SQLException {
+        SessionDTO session = service.openSession(1);
+        verify(sessionRepository).createSession(1, "node-1", START, START.plusMinutes(30));
+
+        clock.advance(Duration.ofMinutes(5));
+        assertTrue(service.touchSession(session.getId()));
+        clock.advance(Duration.ofMinutes(5));
+        assertTrue(service.touchSession(session.getId()));
+        verify(sessionRepository, never()).updateActivity(any());
+
+        assertEquals(1, service.flush());
+        assertEquals(0, service.flush());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<SessionDTO>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(sessionRepository, times(1)).updateActivity(captor.capture());
+        SessionDTO written = captor.getValue().iterator().next();
+        assertEquals(START.plusMinutes(10), written.getLastActivity());
+        assertEquals(START.plusMinutes(40), written.getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("Неактивная сессия истекает и удаляется порциями")
+    void sweep_expiresIdleSessions() throws SQLException {
+        SessionDTO idle = service.openSession(1);
+        SessionDTO active = service.openSession(2);
+        when(sessionRepository.removeExpiredSessions(any(), eq(2))).thenReturn(2, 1);
+
+        clock.advance(Duration.ofMinutes(20));
+        service.touchSession(active.getId());
+        clock.advance(Duration.ofMinutes(15));
+
+        assertEquals(3, service.sweep());
+        assertFalse(service.touchSession(idle.getId()));
+        assertTrue(service.touchSession(active.getId()));
+        verify(sessionRepository, times(2)).removeExpiredSessions(START.plusMinutes(35), 2);
+    }
+
+    @Test
+    @DisplayName("Сессия, удаленная из базы данных, закрывается при записи активности")
+    void flush_dropsMissingSessions() throws SQLException {
+        SessionDTO session = service.openSession(1);
+        when(sessionRepository.updateActivity(any())).thenReturn(List.of(session.getId()));
+
+        service.touchSession(session.getId());
+        service.flush();
+
+        assertFalse(service.touchSession(session.getId()));
+    }
+
+    @Test
+    @DisplayName("При завершении работы удаляются только сессии этого узла")
+    void removeNodeSessions_onlyThisNode() throws SQLException {
+        SessionDTO session = service.openSession(1);
+
+        service.removeNodeSessions();
+
+        verify(sessionRepository).removeNodeSessions("node-1");
+        verify(sessionRepository, never()).removeExpiredSessions(any(), anyInt());
+        assertFalse(service.touchSession(session.getId()));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ru.kinzorc.habittracker.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.kinzorc.habittracker.application.dto.SessionTokenDTO;
+import ru.kinzorc.habittracker.application.dto.TokenRevocationDTO;
+import ru.kinzorc.habittracker.core.enums.User.UserRole;
+import ru.kinzorc.habittracker.core.repository.TokenRevocationRepository;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+public class SessionTokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+    private static final byte[] SECRET = new byte[32];
+    private static final Duration MAX_LIFETIME = Duration.ofHours(1);
+
+    private TokenRevocationRepository revocationRepository;
+    private SessionTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        revocationRepository = Mockito.mock(TokenRevocationRepository.class);
+        service = service(Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Выданный токен проверяется и содержит данные пользователя")
+    void issueToken_validates() {
+        SessionTokenDTO token = service.validateToken(service.issueToken(7, UserRole.ADMIN)).orElseThrow();
+
+        assertEquals(7, token.getUserId());
+        assertEquals(UserRole.ADMIN, token.getUserRole());
+        assertEquals(NOW.plus(Duration.ofMinutes(15)), token.getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("Токен с измененным содержимым, чужой подписью или истекшим сроком отклоняется")
+    void validateToken_rejectsTamperedAndExpired() {
+        String token = service.issueToken(7, UserRole.USER);
+        char[] tampered = token.toCharArray();
+        tampered[3] = tampered[3] == 'A' ? 'B' : 'A';
+
+        byte[] otherSecret = Arrays.copyOf(SECRET, SECRET.length);
+        otherSecret[0] = 1;
+        SessionTokenService otherNode = new SessionTokenService(revocationRepository, otherSecret, Duration.ofMinutes(15),
+                MAX_LIFETIME, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertTrue(service.validateToken(new String(tampered)).isEmpty());
+        assertTrue(otherNode.validateToken(token).isEmpty());
+        assertTrue(service.validateToken("not-a-token").isEmpty());
+        assertTrue(service(Clock.fixed(NOW.plus(Duration.ofMinutes(15)), ZoneOffset.UTC)).validateToken(token).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Отзыв действует сразу на этом узле и на продленный токен")
+    void revokeToken_appliesLocally() throws SQLException {
+        String token = service.issueToken(7, UserRole.USER);
+        String renewed = service.renewToken(service.validateToken(token).orElseThrow());
+
+        service.revokeToken(token);
+
+        assertTrue(service.validateToken(renewed).isEmpty());
+        verify(revocationRepository).addRevocation(any(TokenRevocationDTO.class));
+    }
+
+    @Test
+    @DisplayName("Продление не выходит за максимальное время жизни токена")
+    void renewToken_cappedByMaxLifetime() {
+        // Токен, выданный в NOW и продленный до NOW + 55 минут
+        SessionTokenDTO token = new SessionTokenDTO(1L, 7L, UserRole.USER, NOW, NOW.plus(Duration.ofMinutes(55)));
+        SessionTokenService later = service(Clock.fixed(NOW.plus(Duration.ofMinutes(50)), ZoneOffset.UTC));
+
+        SessionTokenDTO renewed = later.validateToken(later.renewToken(token)).orElseThrow();
+
+        assertEquals(NOW.plus(MAX_LIFETIME), renewed.getExpiresAt());
+        assertTrue(service(Clock.fixed(NOW.plus(MAX_LIFETIME), ZoneOffset.UTC)).validateToken(later.renewToken(renewed)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Запись об отзыве хранится до конца времени жизни токена")
+    void revokeToken_keepsRevocationUntilLifetimeEnd() throws SQLException {
+        service.revokeToken(service.issueToken(7, UserRole.USER));
+
+        verify(revocationRepository).addRevocation(argThat(revocation ->
+                revocation.getExpiresAt().equals(LocalDateTime.ofInstant(NOW.plus(MAX_LIFETIME), ZoneOffset.UTC))));
+    }
+
+    @Test
+    @DisplayName("Отзыв всех токенов пользователя с другого узла применяется после обновления списка")
+    void refreshRevocations_appliesRemoteUserRevocation() throws SQLException {
+        String token = service.issueToken(7, UserRole.USER);
+        String otherUserToken = service.issueToken(8, UserRole.USER);
+        LocalDateTime revokedAt = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+        when(revocationRepository.findActiveRevocations(any()))
+                .thenReturn(List.of(new TokenRevocationDTO(null, 7, revokedAt, revokedAt.plusMinutes(15))));
+
+        assertTrue(service.validateToken(token).isPresent());
+        service.refreshRevocations();
+
+        assertTrue(service.validateToken(token).isEmpty());
+        assertTrue(service.validateToken(otherUserToken).isPresent());
+    }
+
+    private SessionTokenService service(Clock clock) {
+        return new SessionTokenService(revocationRepository, SECRET, Duration.ofMinutes(15), MAX_LIFETIME, clock);
+    }
+}
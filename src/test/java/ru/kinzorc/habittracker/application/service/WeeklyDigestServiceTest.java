@@ -0,0 +1,93 @@
+package ru.kinzorc.habittracker.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.kinzorc.habittracker.application.dto.EmailMessageDTO;
+import ru.kinzorc.habittracker.application.dto.WeeklyDigestDTO;
+import ru.kinzorc.habittracker.core.enums.Habit.HabitFrequency;
+import ru.kinzorc.habittracker.core.repository.WeeklyDigestRepository;
+
+import javax.mail.MessagingException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class WeeklyDigestServiceTest {
+
+    private static final LocalDate WEEK_START = LocalDate.of(2024, 10, 7);
+
+    private WeeklyDigestRepository digestRepository;
+    private EmailService emailService;
+    private WeeklyDigestService weeklyDigestService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        digestRepository = Mockito.mock(WeeklyDigestRepository.class);
+        emailService = Mockito.mock(EmailService.class);
+        weeklyDigestService = new WeeklyDigestService(digestRepository, emailService, 2, 2);
+
+        doAnswer(invocation -> {
+            Consumer<WeeklyDigestDTO> consumer = invocation.getArgument(1);
+            for (int userId = 1; userId <= 5; userId++) {
+                consumer.accept(digest(userId));
+            }
+            return null;
+        }).when(digestRepository).streamWeeklyDigests(eq(WEEK_START), any());
+    }
+
+    @Test
+    @DisplayName("Сводки передаются сервису отправки писем пакетами")
+    void sendWeeklyDigests_sendsInBatches() throws SQLException {
+        List<List<EmailMessageDTO>> batches = new CopyOnWriteArrayList<>();
+        when(emailService.sendEmails(anyList())).thenAnswer(invocation -> {
+            batches.add(invocation.getArgument(0));
+            return Map.of();
+        });
+
+        int sent = weeklyDigestService.sendWeeklyDigests(WEEK_START);
+
+        assertEquals(5, sent);
+        assertEquals(3, batches.size());
+        assertEquals(5, batches.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    @DisplayName("Неотправленные письма не учитываются как отправленные")
+    void sendWeeklyDigests_countsFailures() throws SQLException {
+        when(emailService.sendEmails(anyList())).thenAnswer(invocation -> {
+            List<EmailMessageDTO> messages = invocation.getArgument(0);
+            return Map.of(messages.get(0), new MessagingException("Ошибка"));
+        });
+
+        assertEquals(2, weeklyDigestService.sendWeeklyDigests(WEEK_START));
+    }
+
+    @Test
+    @DisplayName("Письмо содержит показатели каждой привычки и пропуски за неделю")
+    void render_containsHabitStatistics() {
+        EmailMessageDTO message = weeklyDigestService.render(digest(1));
+
+        assertEquals("user1@mail.ru", message.getRecipient());
+        assertEquals("Ваши привычки за неделю 07.10.2024 — 13.10.2024", message.getSubject());
+        assertTrue(message.getText().startsWith("Здравствуйте, user1!"));
+        assertTrue(message.getText().contains("- Бег (ежедневно): стрик 3, выполнение 40%, отмечено дней: 5, пропущено: 2"));
+        assertTrue(message.getText().contains("- Чтение (еженедельно): стрик 0, выполнение 10%, отмечено дней: 0, пропущено: 1"));
+        assertTrue(message.getText().contains("Всего пропусков за неделю: 3."));
+    }
+
+    private static WeeklyDigestDTO digest(long userId) {
+        WeeklyDigestDTO digest = new WeeklyDigestDTO(userId, "user" + userId, "user" + userId + "@mail.ru", WEEK_START);
+        digest.getHabits().add(new WeeklyDigestDTO.HabitSummary("Бег", HabitFrequency.DAILY, 3, 40, 5, 7));
+        digest.getHabits().add(new WeeklyDigestDTO.HabitSummary("Чтение", HabitFrequency.WEEKLY, 0, 10, 0, 7));
+        return digest;
+    }
+}
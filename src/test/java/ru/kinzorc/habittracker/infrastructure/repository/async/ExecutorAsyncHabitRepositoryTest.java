@@ -0,0 +1,78 @@
+package ru.kinzorc.habittracker.infrastructure.repository.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.kinzorc.habittracker.application.dto.HabitDTO;
+import ru.kinzorc.habittracker.application.dto.UserDTO;
+import ru.kinzorc.habittracker.core.entities.User;
+import ru.kinzorc.habittracker.core.enums.User.UserRole;
+import ru.kinzorc.habittracker.core.exceptions.HabitNotFoundException;
+import ru.kinzorc.habittracker.core.repository.HabitRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ExecutorAsyncHabitRepositoryTest {
+
+    private HabitRepository habitRepository;
+    private ExecutorService executor;
+    private ExecutorAsyncHabitRepository asyncHabitRepository;
+
+    @BeforeEach
+    void setUp() {
+        habitRepository = Mockito.mock(HabitRepository.class);
+        executor = RepositoryExecutors.newBoundedExecutor(2);
+        asyncHabitRepository = new ExecutorAsyncHabitRepository(habitRepository, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Независимые запросы выполняются параллельно")
+    void independentCalls_runInParallel() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        HabitDTO habit = new HabitDTO();
+
+        when(habitRepository.findAllHabits()).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "Второй запрос должен выполняться одновременно с первым");
+            return List.of(habit);
+        });
+        when(habitRepository.findHabitByID(1L)).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "Первый запрос должен выполняться одновременно со вторым");
+            return Optional.of(habit);
+        });
+
+        CompletableFuture<List<HabitDTO>> habits = asyncHabitRepository.findAllHabits();
+        CompletableFuture<Optional<HabitDTO>> habitById = asyncHabitRepository.findHabitByID(1L);
+
+        CompletableFuture.allOf(habits, habitById).get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of(habit), habits.get());
+        assertEquals(Optional.of(habit), habitById.get());
+    }
+
+    @Test
+    @DisplayName("Проверяемое исключение репозитория передается через CompletionException")
+    void checkedException_propagatesAsCause() throws Exception {
+        UserDTO user = new UserDTO(new User("TestUser", "password", "test@test.com", UserRole.USER));
+        doThrow(new HabitNotFoundException("Привычка не найдена")).when(habitRepository).deleteAllHabitsForUser(any(UserDTO.class));
+
+        CompletableFuture<Void> future = asyncHabitRepository.deleteAllHabitsForUser(user);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(HabitNotFoundException.class, exception.getCause());
+    }
+}
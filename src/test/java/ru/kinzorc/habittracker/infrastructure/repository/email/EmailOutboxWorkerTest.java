@@ -0,0 +1,120 @@
+package ru.kinzorc.habittracker.infrastructure.repository.email;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.kinzorc.habittracker.application.dto.EmailMessageDTO;
+import ru.kinzorc.habittracker.core.repository.EmailOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class EmailOutboxWorkerTest {
+
+    private FakeSmtpServer smtpServer;
+    private EmailOutboxRepository outboxRepository;
+    private EmailOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        outboxRepository = Mockito.mock(EmailOutboxRepository.class);
+        worker = new EmailOutboxWorker(outboxRepository, new MailSender(smtpServer.mailProperties()), 2, 10,
+                Duration.ofMillis(50), Duration.ofMinutes(5), Duration.ofSeconds(1), Duration.ofSeconds(10), 3);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        worker.stop(Duration.ofSeconds(5));
+        smtpServer.close();
+    }
+
+    @Test
+    @DisplayName("Письма из очереди отправляются на SMTP-сервер и отмечаются как отправленные")
+    void poll_sendsClaimedMessages() throws Exception {
+        when(outboxRepository.claimBatch(anyInt(), any(LocalDateTime.class)))
+                .thenReturn(List.of(message(1, "first@test.local", 0), message(2, "second@test.local", 0)));
+
+        worker.poll();
+
+        verify(outboxRepository, timeout(5000)).markSent(List.of(1L, 2L));
+        assertEquals(2, smtpServer.getMessages().size());
+        assertEquals(1, smtpServer.getConnections());
+        verify(outboxRepository, never()).reschedule(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("При ошибке отправки письмо возвращается в очередь с задержкой")
+    void poll_reschedulesOnFailure() throws Exception {
+        smtpServer.rejectNext(1);
+        when(outboxRepository.claimBatch(anyInt(), any(LocalDateTime.class))).thenReturn(List.of(message(1, "first@test.local", 1)));
+
+        LocalDateTime before = LocalDateTime.now();
+        worker.poll();
+
+        verify(outboxRepository, timeout(5000)).reschedule(eq(1L), eq(2),
+                argThat(nextAttempt -> !nextAttempt.isBefore(before.plusSeconds(2))), anyString());
+        verify(outboxRepository, timeout(5000)).markSent(List.of());
+    }
+
+    @Test
+    @DisplayName("После исчерпания попыток письмо отмечается как не отправленное")
+    void poll_marksFailedAfterMaxAttempts() throws Exception {
+        smtpServer.rejectNext(1);
+        when(outboxRepository.claimBatch(anyInt(), any(LocalDateTime.class))).thenReturn(List.of(message(1, "first@test.local", 2)));
+
+        worker.poll();
+
+        verify(outboxRepository, timeout(5000)).markFailed(eq(1L), eq(3), anyString());
+        verify(outboxRepository, never()).reschedule(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Окончательно отклоненное сервером письмо сразу отмечается как не отправленное")
+    void poll_marksFailedOnPermanentRejection() throws Exception {
+        smtpServer.rejectPermanentlyNext(1);
+        when(outboxRepository.claimBatch(anyInt(), any(LocalDateTime.class))).thenReturn(List.of(message(1, "first@test.local", 0)));
+
+        worker.poll();
+
+        verify(outboxRepository, timeout(5000)).markFailed(eq(1L), eq(1), anyString());
+        verify(outboxRepository, never()).reschedule(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Письмо, соединение для которого оборвалось после передачи текста, не отправляется повторно")
+    void poll_doesNotRetryAfterDropDuringData() throws Exception {
+        smtpServer.dropAfterDataNext(1);
+        when(outboxRepository.claimBatch(anyInt(), any(LocalDateTime.class))).thenReturn(List.of(message(1, "first@test.local", 0)));
+
+        worker.poll();
+
+        verify(outboxRepository, timeout(5000)).markFailed(eq(1L), eq(1), anyString());
+        verify(outboxRepository, never()).reschedule(anyLong(), anyInt(), any(), any());
+        assertEquals(1, smtpServer.getMessages().size());
+    }
+
+    @Test
+    @DisplayName("Задержка между попытками растет экспоненциально и ограничена максимумом")
+    void backoff_growsExponentially() {
+        assertEquals(Duration.ofSeconds(1), worker.backoff(1));
+        assertEquals(Duration.ofSeconds(2), worker.backoff(2));
+        assertEquals(Duration.ofSeconds(8), worker.backoff(4));
+        assertEquals(Duration.ofSeconds(10), worker.backoff(5));
+        assertEquals(Duration.ofSeconds(10), worker.backoff(100));
+    }
+
+    private static EmailMessageDTO message(long id, String recipient, int attempts) {
+        EmailMessageDTO message = new EmailMessageDTO(recipient, "Тема", "Текст письма");
+        message.setId(id);
+        message.setAttempts(attempts);
+        return message;
+    }
+}
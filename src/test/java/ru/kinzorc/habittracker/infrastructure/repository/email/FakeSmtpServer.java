@@ -0,0 +1,160 @@
+package ru.kinzorc.habittracker.infrastructure.repository.email;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Локальный SMTP-сервер для тестов отправки писем.
+ * <p>
+ * Поддерживает минимальный набор команд SMTP без аутентификации и шифрования и сохраняет полученные письма в памяти.
+ * Можно задать количество писем, которые сервер временно или окончательно отклонит перед тем, как начать их принимать.
+ * </p>
+ */
+public class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger rejectsLeft = new AtomicInteger();
+    private final AtomicInteger permanentRejectsLeft = new AtomicInteger();
+    private final AtomicInteger dropsAfterDataLeft = new AtomicInteger();
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+
+    public FakeSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0);
+        executor.execute(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public List<String> getMessages() {
+        return messages;
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public void rejectNext(int count) {
+        rejectsLeft.set(count);
+    }
+
+    /**
+     * Следующие {@code count} писем сервер окончательно отклонит (ответ 5xx).
+     */
+    public void rejectPermanentlyNext(int count) {
+        permanentRejectsLeft.set(count);
+    }
+
+    /**
+     * Следующие {@code count} писем сервер примет, но разорвет соединение, не ответив на DATA.
+     */
+    public void dropAfterDataNext(int count) {
+        dropsAfterDataLeft.set(count);
+    }
+
+    /**
+     * Разрывает все открытые соединения со стороны сервера (имитация таймаута простоя или перезапуска).
+     */
+    public void dropConnections() throws IOException {
+        for (Socket socket : openSockets) {
+            socket.close();
+        }
+    }
+
+    /**
+     * Возвращает свойства {@link MailSender} для подключения к этому серверу.
+     */
+    public Properties mailProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("email.username", "sender@test.local");
+        properties.setProperty("email.password", "password");
+        properties.setProperty("mail.smtp.host", "localhost");
+        properties.setProperty("mail.smtp.port", String.valueOf(getPort()));
+        properties.setProperty("mail.smtp.auth", "false");
+        return properties;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                openSockets.add(socket);
+                executor.execute(() -> handle(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+
+            reply(out, "220 localhost ESMTP");
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line).append("\n");
+                    }
+
+                    if (dropsAfterDataLeft.getAndUpdate(value -> Math.max(value - 1, 0)) > 0) {
+                        messages.add(data.toString());
+                        return;
+                    } else if (permanentRejectsLeft.getAndUpdate(value -> Math.max(value - 1, 0)) > 0) {
+                        reply(out, "554 Transaction failed");
+                    } else if (rejectsLeft.getAndUpdate(value -> Math.max(value - 1, 0)) > 0) {
+                        reply(out, "451 Temporary failure");
+                    } else {
+                        messages.add(data.toString());
+                        reply(out, "250 OK");
+                    }
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    // MAIL, RCPT, RSET, NOOP
+                    reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // Клиент закрыл соединение
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    private static void reply(Writer out, String line) throws IOException {
+        out.write(line + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,133 @@
+package ru.kinzorc.habittracker.infrastructure.repository.email;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ru.kinzorc.habittracker.application.dto.EmailMessageDTO;
+
+import javax.mail.MessagingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MailSenderTest {
+
+    private static final int MESSAGES_COUNT = 50;
+
+    private FakeSmtpServer smtpServer;
+    private MailSender mailSender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        mailSender = new MailSender(smtpServer.mailProperties());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mailSender.close();
+        smtpServer.close();
+    }
+
+    @Test
+    @DisplayName("Пакет писем отправляется через одно соединение с почтовым сервером")
+    void sendEmails_reusesConnection() {
+        List<EmailMessageDTO> messages = messages(MESSAGES_COUNT);
+
+        Map<EmailMessageDTO, MessagingException> failures = mailSender.sendEmails(messages);
+
+        assertTrue(failures.isEmpty());
+        assertEquals(MESSAGES_COUNT, smtpServer.getMessages().size());
+        assertEquals(1, smtpServer.getConnections());
+    }
+
+    @Test
+    @DisplayName("После разрыва соединения сервером отправитель переподключается и отправляет письмо")
+    void sendEmail_reconnectsAfterDrop() throws Exception {
+        mailSender.sendEmail("first@test.local", "Тема", "Текст");
+        smtpServer.dropConnections();
+
+        mailSender.sendEmail("second@test.local", "Тема", "Текст");
+
+        assertEquals(2, smtpServer.getMessages().size());
+        assertEquals(2, smtpServer.getConnections());
+    }
+
+    @Test
+    @DisplayName("Письмо не отправляется повторно, если соединение оборвалось после передачи DATA")
+    void sendEmails_doesNotResendAfterDropDuringData() {
+        smtpServer.dropAfterDataNext(1);
+        List<EmailMessageDTO> messages = messages(2);
+
+        Map<EmailMessageDTO, MessagingException> failures = mailSender.sendEmails(messages);
+
+        assertEquals(1, failures.size());
+        assertInstanceOf(DeliveryUnknownException.class, failures.get(messages.get(0)));
+        assertEquals(2, smtpServer.getMessages().size());
+        assertEquals(2, smtpServer.getConnections());
+    }
+
+    @Test
+    @DisplayName("Отклоненное сервером письмо не прерывает отправку остальных писем пакета")
+    void sendEmails_reportsRejectedMessages() {
+        smtpServer.rejectNext(1);
+        List<EmailMessageDTO> messages = messages(3);
+
+        Map<EmailMessageDTO, MessagingException> failures = mailSender.sendEmails(messages);
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.containsKey(messages.get(0)));
+        assertEquals(2, smtpServer.getMessages().size());
+        assertEquals(1, smtpServer.getConnections());
+    }
+
+    /**
+     * Замер скорости отправки: одно соединение на пакет против нового соединения на каждое письмо.
+     * <p>
+     * Выполняется только по запросу: {@code mvn test -Dtest=MailSenderTest -Dbenchmark=true}.
+     * </p>
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Замер скорости отправки писем через локальный SMTP-сервер")
+    void sendEmails_benchmark() {
+        int count = 1000;
+
+        // Прогрев: первое подключение и загрузка классов не должны влиять на замер
+        mailSender.sendEmails(messages(10));
+
+        List<EmailMessageDTO> messages = messages(count);
+        long start = System.nanoTime();
+        Map<EmailMessageDTO, MessagingException> failures = mailSender.sendEmails(messages);
+        long pooledNanos = System.nanoTime() - start;
+        assertTrue(failures.isEmpty());
+
+        // Для сравнения: новое соединение на каждое письмо
+        start = System.nanoTime();
+        for (EmailMessageDTO message : messages) {
+            try (MailSender oneShotSender = new MailSender(smtpServer.mailProperties())) {
+                assertTrue(oneShotSender.sendEmails(List.of(message)).isEmpty());
+            }
+        }
+        long perMessageNanos = System.nanoTime() - start;
+
+        System.out.printf("MailSender: %.0f писем/с через одно соединение, %.0f писем/с с подключением на каждое письмо%n",
+                rate(count, pooledNanos), rate(count, perMessageNanos));
+    }
+
+    private static double rate(int count, long nanos) {
+        return count / (nanos / 1_000_000_000.0);
+    }
+
+    private static List<EmailMessageDTO> messages(int count) {
+        List<EmailMessageDTO> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(new EmailMessageDTO("user" + i + "@test.local", "Напоминание", "Текст письма " + i));
+        }
+        return messages;
+    }
+}
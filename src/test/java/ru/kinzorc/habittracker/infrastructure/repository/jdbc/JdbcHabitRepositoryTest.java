@@ -20,7 +20,15 @@ import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -60,6 +68,7 @@ public class JdbcHabitRepositoryTest {
         Optional<HabitDTO> savedHabit = habitRepository.findHabitByName(testHabit.getName());
         assertTrue(savedHabit.isPresent(), "Привычка должна быть добавлена.");
         assertEquals(testHabit.getName(), savedHabit.get().getName(), "Имена привычек должны совпадать.");
+        assertEquals(savedHabit.get().getId(), testHabit.getId(), "Идентификатор должен быть заполнен при добавлении.");
     }
 
     @Test
@@ -101,6 +110,42 @@ public class JdbcHabitRepositoryTest {
         assertEquals("Updated Description", updatedHabit.get().getDescription(), "Описание должно быть обновлено.");
     }
 
+    @Test
+    @DisplayName("Переименование привычки в имя другой привычки пользователя без учета регистра")
+    void updateHabit_nameTaken() throws SQLException, HabitAlreadyExistsException {
+        HabitDTO firstHabit = new HabitDTO(new Habit("test_habit8", "test description", HabitFrequency.DAILY, LocalDate.now(), HabitExecutionPeriod.MONTH));
+        HabitDTO secondHabit = new HabitDTO(new Habit("test_habit9", "test description", HabitFrequency.DAILY, LocalDate.now(), HabitExecutionPeriod.MONTH));
+        habitRepository.addHabit(testUser, firstHabit);
+        habitRepository.addHabit(testUser, secondHabit);
+
+        secondHabit.setName("TEST_HABIT8");
+
+        assertThrows(HabitAlreadyExistsException.class, () -> habitRepository.updateHabit(secondHabit));
+    }
+
+    @Test
+    @DisplayName("Смена частоты привычки пересчитывает периоды отметок, стрик и процент выполнения")
+    void updateHabit_frequencyChange() throws SQLException, HabitAlreadyExistsException, HabitNotFoundException {
+        LocalDate monday = LocalDate.of(2024, 10, 14);
+        HabitDTO testHabit = new HabitDTO(new Habit("test_habit7", "test description", HabitFrequency.DAILY, monday, HabitExecutionPeriod.MONTH));
+        habitRepository.addHabit(testUser, testHabit);
+        HabitDTO savedHabit = habitRepository.findHabitByName(testHabit.getName()).orElseThrow();
+
+        // Три отметки в первой неделе и две во второй
+        for (int day : new int[]{0, 1, 2, 7, 8}) {
+            assertTrue(habitRepository.markExecution(savedHabit, monday.plusDays(day).atTime(9, 0)));
+        }
+
+        savedHabit.setFrequency(HabitFrequency.WEEKLY);
+        habitRepository.updateHabit(savedHabit);
+
+        HabitDTO weeklyHabit = habitRepository.findHabitByID(savedHabit.getId()).orElseThrow();
+        assertEquals(2, habitRepository.getExecutions(savedHabit.getId()).size(), "В каждой неделе должна остаться одна отметка.");
+        assertEquals(2, weeklyHabit.getStreak());
+        assertFalse(habitRepository.markExecution(weeklyHabit, monday.plusDays(3).atTime(9, 0)),
+                "Повторная отметка за неделю должна быть отброшена.");
+    }
+
     @Test
     @DisplayName("Поиск привычки по ID")
     void findHabitByID_success() throws SQLException, HabitAlreadyExistsException, HabitNotFoundException {
@@ -129,4 +174,38 @@ public class JdbcHabitRepositoryTest {
         assertEquals(testHabit.getName(), foundHabit.get().getName(), "Привычка должна быть найдена по имени.");
     }
 
+    @Test
+    @DisplayName("Параллельные отметки выполнения не теряют обновлений стрика и процента выполнения")
+    void markExecution_concurrent() throws Exception {
+        int days = 1000;
+        LocalDate startDate = LocalDate.of(2020, 1, 1);
+        HabitDTO testHabit = new HabitDTO(new Habit("test_habit6", "test description", HabitFrequency.DAILY, startDate, HabitExecutionPeriod.YEAR));
+        testHabit.setEndDate(startDate.plusDays(days * 2));
+        habitRepository.addHabit(testUser, testHabit);
+        HabitDTO savedHabit = habitRepository.findHabitByName(testHabit.getName()).orElseThrow();
+
+        // Каждый день отмечается дважды из разных потоков: одна из отметок должна быть отброшена
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<Boolean>> marks = new ArrayList<>();
+        try {
+            for (int i = 0; i < days * 2; i++) {
+                LocalDateTime executionDate = startDate.plusDays(i % days).atTime(9, 0);
+                marks.add(executor.submit(() -> habitRepository.markExecution(savedHabit, executionDate)));
+            }
+
+            int marked = 0;
+            for (Future<Boolean> mark : marks) {
+                if (mark.get(1, TimeUnit.MINUTES))
+                    marked++;
+            }
+            assertEquals(days, marked, "Каждый день должен быть отмечен ровно один раз.");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        HabitDTO markedHabit = habitRepository.findHabitByID(savedHabit.getId()).orElseThrow();
+        long period = ChronoUnit.DAYS.between(markedHabit.getStartDate(), markedHabit.getEndDate());
+        assertEquals(days, markedHabit.getStreak(), "Стрик должен включать все подряд идущие дни.");
+        assertEquals((int) (days * 100 / period), markedHabit.getExecutionPercentage());
+    }
 }
@@ -0,0 +1,86 @@
+package ru.kinzorc.habittracker.infrastructure.repository.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardRouterTest {
+
+    private static final int USERS = 10_000;
+
+    private final List<ShardRouter> routers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        routers.forEach(ShardRouter::shutdown);
+    }
+
+    @Test
+    @DisplayName("Пользователи распределяются по шардам равномерно, и шард пользователя не меняется")
+    void shardForUser_distribution() {
+        ShardRouter router = router(4);
+        int[] counts = new int[4];
+
+        for (long userId = 1; userId <= USERS; userId++) {
+            int shard = router.shardForUser(userId);
+            assertEquals(shard, router.shardForUser(userId));
+            counts[shard]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(count > USERS / 8 && count < USERS / 2, "Пользователей на шарде: " + count);
+        }
+    }
+
+    @Test
+    @DisplayName("При добавлении шарда на него переносится только часть пользователей")
+    void shardForUser_addShardMovesOnlyNewShare() {
+        ShardRouter before = router(3);
+        ShardRouter after = router(4);
+        int moved = 0;
+
+        for (long userId = 1; userId <= USERS; userId++) {
+            int shard = after.shardForUser(userId);
+            if (shard != before.shardForUser(userId)) {
+                assertEquals(3, shard, "Пользователь " + userId + " перенесен между существующими шардами");
+                moved++;
+            }
+        }
+
+        assertTrue(moved > USERS / 8 && moved < USERS * 2 / 5, "Перенесено пользователей: " + moved);
+    }
+
+    @Test
+    @DisplayName("Результаты запроса ко всем шардам возвращаются в порядке шардов, ошибка шарда передается вызывающему")
+    void fanOut_orderAndErrors() throws SQLException {
+        ShardRouter router = router(3);
+
+        assertEquals(List.of(0, 10, 20), router.fanOut(shard -> shard * 10));
+
+        SQLException exception = assertThrows(SQLException.class, () -> router.fanOut(shard -> {
+            if (shard == 1)
+                throw new SQLException("нет соединения");
+            return shard;
+        }));
+        assertTrue(exception.getMessage().contains("шарде 1"), exception.getMessage());
+    }
+
+    private ShardRouter router(int shardCount) {
+        List<JdbcConnector> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(Mockito.mock(JdbcConnector.class));
+        }
+
+        ShardRouter router = new ShardRouter(shards, 128);
+        routers.add(router);
+        return router;
+    }
+}
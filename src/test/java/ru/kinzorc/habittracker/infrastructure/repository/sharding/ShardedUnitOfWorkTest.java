@@ -0,0 +1,97 @@
+package ru.kinzorc.habittracker.infrastructure.repository.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import ru.kinzorc.habittracker.infrastructure.repository.utils.JdbcConnector;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ShardedUnitOfWorkTest {
+
+    private static final int SHARDS = 3;
+
+    private final List<Connection> connections = new ArrayList<>();
+    private ShardRouter router;
+    private ShardedUnitOfWork unitOfWork;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        List<JdbcConnector> shards = new ArrayList<>();
+
+        for (int shard = 0; shard < SHARDS; shard++) {
+            Connection connection = Mockito.mock(Connection.class);
+            JdbcConnector jdbcConnector = Mockito.mock(JdbcConnector.class);
+            when(jdbcConnector.getConnection()).thenReturn(connection);
+            when(jdbcConnector.getReadConnection()).thenReturn(connection);
+
+            connections.add(connection);
+            shards.add(jdbcConnector);
+        }
+
+        router = new ShardRouter(shards, 16);
+        unitOfWork = new ShardedUnitOfWork(router);
+    }
+
+    @AfterEach
+    void tearDown() {
+        router.shutdown();
+    }
+
+    @Test
+    @DisplayName("Транзакция открывается на каждом шарде, основная база данных фиксируется последней")
+    void execute_commitsPrimaryLast() throws SQLException {
+        assertEquals("готово", unitOfWork.execute(() -> "готово"));
+
+        InOrder order = inOrder(connections.toArray());
+        for (int shard = SHARDS - 1; shard >= 0; shard--) {
+            order.verify(connections.get(shard)).commit();
+        }
+        connections.forEach(connection -> {
+            try {
+                verify(connection).setAutoCommit(false);
+                verify(connection, never()).rollback();
+                verify(connection).close();
+            } catch (SQLException e) {
+                fail(e);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("При исключении транзакции откатываются на всех шардах")
+    void execute_rollsBackAllShards() throws SQLException {
+        SQLException error = new SQLException("ошибка");
+
+        assertSame(error, assertThrows(SQLException.class, () -> unitOfWork.execute(() -> {
+            throw error;
+        })));
+
+        for (Connection connection : connections) {
+            verify(connection).rollback();
+            verify(connection, never()).commit();
+        }
+    }
+
+    @Test
+    @DisplayName("Единица работы только для чтения открывает транзакцию только для чтения на каждом шарде")
+    void executeReadOnly_allShards() throws SQLException {
+        unitOfWork.executeReadOnly(() -> null);
+
+        for (Connection connection : connections) {
+            verify(connection).setReadOnly(true);
+            verify(connection).setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            verify(connection).rollback();
+            verify(connection, never()).commit();
+        }
+    }
+}
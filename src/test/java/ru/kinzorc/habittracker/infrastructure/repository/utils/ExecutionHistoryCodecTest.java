@@ -0,0 +1,55 @@
+package ru.kinzorc.habittracker.infrastructure.repository.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutionHistoryCodecTest {
+
+    @Test
+    @DisplayName("История выполнений восстанавливается в порядке возрастания")
+    void encodeDecode_roundTrip() throws IOException {
+        List<LocalDateTime> executions = List.of(
+                LocalDateTime.of(2024, 3, 2, 21, 15, 7),
+                LocalDateTime.of(1965, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 3, 1, 8, 30));
+
+        List<LocalDateTime> decoded = ExecutionHistoryCodec.decode(ExecutionHistoryCodec.encode(executions));
+
+        assertEquals(List.of(executions.get(1), executions.get(2), executions.get(0)), decoded);
+    }
+
+    @Test
+    @DisplayName("Пустая история кодируется и декодируется")
+    void encodeDecode_empty() throws IOException {
+        assertEquals(List.of(), ExecutionHistoryCodec.decode(ExecutionHistoryCodec.encode(List.of())));
+    }
+
+    @Test
+    @DisplayName("Ежедневная история за год занимает меньше байта на выполнение")
+    void encode_dailyHistoryIsCompact() throws IOException {
+        List<LocalDateTime> executions = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int day = 0; day < 365; day++) {
+            executions.add(start.plusDays(day));
+        }
+
+        byte[] block = ExecutionHistoryCodec.encode(executions);
+
+        assertTrue(block.length < executions.size(), "Размер блока: " + block.length);
+        assertEquals(executions, ExecutionHistoryCodec.decode(block));
+    }
+
+    @Test
+    @DisplayName("Блок неизвестной версии отклоняется")
+    void decode_unknownVersion() {
+        assertThrows(IOException.class, () -> ExecutionHistoryCodec.decode(new byte[]{42, 0}));
+        assertThrows(IOException.class, () -> ExecutionHistoryCodec.decode(new byte[0]));
+    }
+}
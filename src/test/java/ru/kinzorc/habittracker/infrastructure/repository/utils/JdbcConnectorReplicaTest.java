@@ -0,0 +1,127 @@
+package ru.kinzorc.habittracker.infrastructure.repository.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Маршрутизация чтения по репликам в JdbcConnector")
+public class JdbcConnectorReplicaTest {
+
+    private static final String PRIMARY = "jdbc:postgresql://primary/db";
+    private static final String REPLICA_1 = "jdbc:postgresql://replica1/db";
+    private static final String REPLICA_2 = "jdbc:postgresql://replica2/db";
+
+    private final List<String> opened = new ArrayList<>();
+    private final Set<String> unavailable = new HashSet<>();
+    private MutableClock clock;
+    private JdbcConnector jdbcConnector;
+
+    @BeforeEach
+    void setUp() {
+        Properties properties = new Properties();
+        properties.setProperty("postgres_db.url", PRIMARY);
+        properties.setProperty("postgres_db.username", "user");
+        properties.setProperty("postgres_db.password", "password");
+        properties.setProperty("postgres_db.replica-urls", REPLICA_1 + ", " + REPLICA_2);
+        properties.setProperty("postgres_db.replica-retry-seconds", "30");
+        properties.setProperty("postgres_db.read-your-writes-seconds", "5");
+
+        clock = new MutableClock();
+        jdbcConnector = new JdbcConnector(properties, (url, username, password) -> {
+            if (unavailable.contains(url))
+                throw new SQLException("Connection refused");
+            opened.add(url);
+            return Mockito.mock(Connection.class);
+        }, clock);
+    }
+
+    @Test
+    @DisplayName("Чтение распределяется по репликам по кругу")
+    void getReadConnection_roundRobin() throws SQLException {
+        jdbcConnector.getReadConnection();
+        jdbcConnector.getReadConnection();
+        jdbcConnector.getReadConnection();
+
+        assertEquals(List.of(REPLICA_1, REPLICA_2, REPLICA_1), opened);
+    }
+
+    @Test
+    @DisplayName("Недоступная реплика пропускается до истечения интервала повтора, без реплик используется основной сервер")
+    void getReadConnection_fallsBack() throws SQLException {
+        unavailable.add(REPLICA_1);
+        jdbcConnector.getReadConnection();
+        jdbcConnector.getReadConnection();
+        assertEquals(List.of(REPLICA_2, REPLICA_2), opened);
+
+        unavailable.add(REPLICA_2);
+        jdbcConnector.getReadConnection();
+        assertEquals(PRIMARY, opened.get(2));
+
+        unavailable.clear();
+        clock.millis += 30_000;
+        jdbcConnector.getReadConnection();
+        jdbcConnector.getReadConnection();
+        assertEquals(Set.of(REPLICA_1, REPLICA_2), Set.copyOf(opened.subList(3, 5)));
+    }
+
+    @Test
+    @DisplayName("После записи чтение в том же потоке выполняется на основном сервере")
+    void getReadConnection_readYourWrites() throws Exception {
+        jdbcConnector.getConnection();
+        jdbcConnector.getReadConnection();
+
+        Thread otherThread = new Thread(() -> {
+            try {
+                jdbcConnector.getReadConnection();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        otherThread.start();
+        otherThread.join();
+
+        clock.millis += 5_000;
+        jdbcConnector.getReadConnection();
+
+        assertEquals(List.of(PRIMARY, PRIMARY, REPLICA_1, REPLICA_2), opened);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile long millis = 1_000_000;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+    }
+}
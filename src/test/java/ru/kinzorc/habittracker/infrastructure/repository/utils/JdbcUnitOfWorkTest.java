@@ -0,0 +1,113 @@
+package ru.kinzorc.habittracker.infrastructure.repository.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JdbcUnitOfWorkTest {
+
+    private final List<Connection> opened = new ArrayList<>();
+    private final List<String> openedUrls = new ArrayList<>();
+    private JdbcConnector jdbcConnector;
+    private JdbcUnitOfWork unitOfWork;
+
+    @BeforeEach
+    void setUp() {
+        Properties properties = new Properties();
+        properties.setProperty("postgres_db.url", "jdbc:postgresql://primary/db");
+        properties.setProperty("postgres_db.username", "user");
+        properties.setProperty("postgres_db.password", "password");
+        properties.setProperty("postgres_db.replica-urls", "jdbc:postgresql://replica/db");
+
+        jdbcConnector = new JdbcConnector(properties, (url, username, password) -> {
+            Connection connection = Mockito.mock(Connection.class);
+            opened.add(connection);
+            openedUrls.add(url);
+            return connection;
+        }, Clock.systemUTC());
+        unitOfWork = new JdbcUnitOfWork(jdbcConnector);
+    }
+
+    @Test
+    @DisplayName("Вложенные операции используют одно соединение, транзакцию завершает единица работы")
+    void execute_sharesConnection() throws SQLException {
+        unitOfWork.execute(() -> {
+            try (Connection write = jdbcConnector.getConnection();
+                 Connection read = jdbcConnector.getReadConnection()) {
+                write.setAutoCommit(false);
+                write.prepareStatement("UPDATE");
+                read.prepareStatement("SELECT");
+                write.commit();
+            }
+
+            // Вложенная единица работы присоединяется к внешней
+            return unitOfWork.execute(() -> jdbcConnector.getConnection().prepareStatement("INSERT"));
+        });
+
+        assertEquals(1, opened.size());
+        Connection connection = opened.get(0);
+        verify(connection).setAutoCommit(false);
+        verify(connection).prepareStatement("UPDATE");
+        verify(connection).prepareStatement("SELECT");
+        verify(connection).prepareStatement("INSERT");
+        verify(connection, times(1)).commit();
+        verify(connection, times(1)).close();
+        verify(connection, never()).rollback();
+    }
+
+    @Test
+    @DisplayName("При исключении транзакция откатывается, а соединение отвязывается от потока")
+    void execute_rollsBackOnException() throws SQLException {
+        SQLException error = new SQLException("ошибка");
+
+        SQLException thrown = assertThrows(SQLException.class, () -> unitOfWork.execute(() -> {
+            jdbcConnector.getConnection().rollback();
+            throw error;
+        }));
+
+        assertSame(error, thrown);
+        Connection connection = opened.get(0);
+        verify(connection, times(1)).rollback();
+        verify(connection, never()).commit();
+        verify(connection).close();
+
+        assertNotSame(connection, jdbcConnector.getConnection());
+        assertEquals(2, opened.size());
+    }
+
+    @Test
+    @DisplayName("Единица работы только для чтения читает все данные через одно соединение в REPEATABLE READ")
+    void executeReadOnly_sharesSnapshot() throws SQLException {
+        unitOfWork.executeReadOnly(() -> {
+            for (int i = 0; i < 2; i++) {
+                try (Connection read = jdbcConnector.getReadConnection()) {
+                    read.setAutoCommit(false);
+                    read.setReadOnly(true);
+                    read.prepareStatement("SELECT");
+                    read.rollback();
+                }
+            }
+            return null;
+        });
+
+        assertEquals(List.of("jdbc:postgresql://replica/db"), openedUrls);
+        Connection connection = opened.get(0);
+        verify(connection, times(1)).setReadOnly(true);
+        verify(connection, times(1)).setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        verify(connection, times(2)).prepareStatement("SELECT");
+        verify(connection, times(1)).rollback();
+        verify(connection, never()).commit();
+        verify(connection).close();
+    }
+}
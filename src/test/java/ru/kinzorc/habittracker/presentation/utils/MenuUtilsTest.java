@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import ru.kinzorc.habittracker.core.enums.User.UserData;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.Scanner;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -129,6 +130,16 @@ public class MenuUtilsTest {
         assertEquals(LocalDate.of(2024, 12, 12), result, "После некорректного ввода дата должна быть преобразована корректно");
     }
 
+    @Test
+    @DisplayName("Проверка корректного ввода времени после некорректного")
+    void promptTimeValid_invalid_thenValid() {
+        when(mockScanner.nextLine()).thenReturn("25:00").thenReturn("08:30");
+
+        LocalTime result = menuUtils.promptTimeValid(mockScanner, "Введите время: ", "Некорректное время!");
+
+        assertEquals(LocalTime.of(8, 30), result, "После некорректного ввода время должно быть преобразовано корректно");
+    }
+
     @Test
     @DisplayName("Проверка генерации кода сброса")
     void generateResetCode() {
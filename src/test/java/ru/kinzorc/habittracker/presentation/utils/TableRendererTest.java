@@ -0,0 +1,86 @@
+package ru.kinzorc.habittracker.presentation.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TableRendererTest {
+
+    private static final String NL = System.lineSeparator();
+
+    private final TableRenderer<String> renderer = TableRenderer.<String>builder()
+            .number("№", 3)
+            .column("Имя", 6, value -> value)
+            .column("Длина", 2, String::length)
+            .build();
+
+    @Test
+    @DisplayName("Столбцы выравниваются так же, как форматом %-Ns")
+    void render_matchesPrintfLayout() {
+        String output = render(List.of("Анна", "Константин"));
+
+        String expected = String.format("%-3s %-6s %-2s%n", "№", "Имя", "Длина")
+                + "-".repeat(16) + NL
+                + String.format("%-3s %-6s %-2s%n", 1, "Анна", 4)
+                + String.format("%-3s %-6s %-2s%n", 2, "Константин", 10);
+        assertEquals(expected, output);
+    }
+
+    @Test
+    @DisplayName("Строки потока читаются по одной, а вывод записывается крупными блоками")
+    void render_streamsRowsInLargeBlocks() throws IOException {
+        AtomicInteger produced = new AtomicInteger();
+        AtomicInteger writes = new AtomicInteger();
+        StringBuilder sink = new StringBuilder();
+
+        Writer counting = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                writes.incrementAndGet();
+                sink.append(buffer, offset, length);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        int rows = 100_000;
+        renderer.render(Stream.generate(() -> "row" + produced.incrementAndGet()).limit(rows).iterator(), counting);
+
+        assertEquals(rows, produced.get());
+        assertEquals(rows + 2, sink.toString().split(NL).length);
+        assertTrue(writes.get() < rows / 100, "Количество записей: " + writes.get());
+    }
+
+    @Test
+    @DisplayName("Пустой источник выводит только заголовок")
+    void render_emptySource() {
+        String output = render(List.of());
+
+        assertEquals(2, output.split(NL).length);
+    }
+
+    private String render(List<String> rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, false, StandardCharsets.UTF_8);
+
+        renderer.render(rows, out);
+
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}